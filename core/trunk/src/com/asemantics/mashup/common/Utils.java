@@ -18,6 +18,8 @@
 
 package com.asemantics.mashup.common;
 
+import java.io.IOException;
+
 /**
  * Provides some general utility methods.
  */
@@ -141,6 +143,18 @@ public class Utils {
      * @return result.
      */
     public static String encodeChar(char c, boolean full) {
+        final String encoded = encodedChar(c, full);
+        return encoded == null ? Character.toString(c) : encoded;
+    }
+
+    /**
+     * Returns the HTML encoding of a char.
+     *
+     * @param c char to be encoded.
+     * @param full if full, SGML nodes are escaped.
+     * @return encoded char or <code>null</code> if the char doesn't need encoding.
+     */
+    private static String encodedChar(char c, boolean full) {
         if( c == '"' ) {
             return "&#34;";
         }
@@ -173,7 +187,7 @@ public class Utils {
                 return "&lt;";
             }
         }
-        return Character.toString(c);
+        return null;
     }
 
     /**
@@ -191,6 +205,28 @@ public class Utils {
         return sb.toString();
     }
 
+    /**
+     * Appends the HTML encoding of <i>in</i> string, copying the chars not needing encoding
+     * in runs.
+     *
+     * @param out output to append to.
+     * @param in input string.
+     * @param full if also SGML special chars must be encoded.
+     * @throws IOException if the output cannot be written.
+     */
+    public static void appendStringAsHTML(Appendable out, String in, boolean full) throws IOException {
+        int begin = 0;
+        final int length = in.length();
+        for( int i = 0; i < length; i++ ) {
+            final String encoded = encodedChar( in.charAt(i), full );
+            if( encoded != null ) {
+                out.append(in, begin, i).append(encoded);
+                begin = i + 1;
+            }
+        }
+        out.append(in, begin, length);
+    }
+
     /**
      * Encodes <i>in</i> string as HTML.
      *
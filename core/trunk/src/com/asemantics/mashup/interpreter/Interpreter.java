@@ -26,6 +26,7 @@ import com.asemantics.mashup.parser.MUParserException;
 import com.asemantics.mashup.parser.Processable;
 import com.asemantics.mashup.parser.ValidationException;
 import com.asemantics.mashup.processor.InvokeOperation;
+import com.asemantics.mashup.processor.PredicateTable;
 import com.asemantics.mashup.processor.Processor;
 import com.asemantics.mashup.processor.ProcessorException;
 import com.asemantics.mashup.processor.ProcessorListener;
@@ -39,6 +40,7 @@ import com.asemantics.mashup.processor.nativeops.AsListCastOperator;
 import com.asemantics.mashup.processor.nativeops.AsMapCastOperator;
 import com.asemantics.mashup.processor.nativeops.AsNumericCastOperator;
 import com.asemantics.mashup.processor.nativeops.AsStringCastOperator;
+import com.asemantics.mashup.processor.nativeops.AwaitOperation;
 import com.asemantics.mashup.processor.nativeops.CloneOperation;
 import com.asemantics.mashup.processor.nativeops.ConcretizeOperation;
 import com.asemantics.mashup.processor.nativeops.ContentOperation;
@@ -47,7 +49,11 @@ import com.asemantics.mashup.processor.nativeops.DiffExpression;
 import com.asemantics.mashup.processor.nativeops.DivExpression;
 import com.asemantics.mashup.processor.nativeops.EqCondition;
 import com.asemantics.mashup.processor.nativeops.EvaluateOperation;
+import com.asemantics.mashup.processor.nativeops.GetAllOperation;
+import com.asemantics.mashup.processor.nativeops.GetAsyncOperation;
+import com.asemantics.mashup.processor.nativeops.GetJSONOperation;
 import com.asemantics.mashup.processor.nativeops.GetOperation;
+import com.asemantics.mashup.processor.nativeops.GetTTLOperation;
 import com.asemantics.mashup.processor.nativeops.Graph;
 import com.asemantics.mashup.processor.nativeops.GraphAddArc;
 import com.asemantics.mashup.processor.nativeops.GraphAddNode;
@@ -58,6 +64,8 @@ import com.asemantics.mashup.processor.nativeops.GteCondition;
 import com.asemantics.mashup.processor.nativeops.IsInfiniteMonoCondition;
 import com.asemantics.mashup.processor.nativeops.IsNanMonoCondition;
 import com.asemantics.mashup.processor.nativeops.JPathOperation;
+import com.asemantics.mashup.processor.nativeops.JoinAllOperation;
+import com.asemantics.mashup.processor.nativeops.JoinOperation;
 import com.asemantics.mashup.processor.nativeops.JsonizeOperation;
 import com.asemantics.mashup.processor.nativeops.List;
 import com.asemantics.mashup.processor.nativeops.ListAddAll;
@@ -81,11 +89,14 @@ import com.asemantics.mashup.processor.nativeops.MultExpression;
 import com.asemantics.mashup.processor.nativeops.NeqCondition;
 import com.asemantics.mashup.processor.nativeops.NotMonoCondition;
 import com.asemantics.mashup.processor.nativeops.OrCondition;
+import com.asemantics.mashup.processor.nativeops.ParMapOperation;
+import com.asemantics.mashup.processor.nativeops.PostAsyncOperation;
 import com.asemantics.mashup.processor.nativeops.PostOperation;
 import com.asemantics.mashup.processor.nativeops.Print;
 import com.asemantics.mashup.processor.nativeops.ProgrammativeContextOperation;
 import com.asemantics.mashup.processor.nativeops.RangeOperation;
 import com.asemantics.mashup.processor.nativeops.RenderizeOperation;
+import com.asemantics.mashup.processor.nativeops.SpawnOperation;
 import com.asemantics.mashup.processor.nativeops.StackTraceOperation;
 import com.asemantics.mashup.processor.nativeops.StringIndexOf;
 import com.asemantics.mashup.processor.nativeops.StringSubString;
@@ -116,6 +127,11 @@ public class Interpreter implements Interpretative {
         DEFAULT_RESULT = new StringValue("<Nothing to parse: a statement must end with semi-colon.>");
     }
 
+    /**
+     * Table of native predicates shared by all the interpreters, created on demand.
+     */
+    private static PredicateTable nativePredicates;
+
     /**
      * Internal <i>Mash Up</i> parser.
      */
@@ -131,15 +147,62 @@ public class Interpreter implements Interpretative {
      */
     private boolean validating = true;
 
+    /**
+     * Cache of compiled programs.
+     */
+    private final ProgramCache programCache = new ProgramCache(ProgramCache.DEFAULT_SIZE);
+
     /**
      * Constructor.
      */
     public Interpreter() {
         parser    = new MUParser();
-        processor = new Processor();
+        processor = new Processor( getNativePredicates() );
+        initEnvironment(processor);
+    }
+
+    /**
+     * Constructor of a forked interpreter.
+     *
+     * @param parent interpreter to be forked.
+     */
+    private Interpreter(Interpreter parent) {
+        parser     = new MUParser();
+        processor  = parent.processor.fork();
+        validating = parent.validating;
+        programCache.setSize( parent.programCache.getSize() );
         initEnvironment(processor);
     }
 
+    /**
+     * Returns the table of native predicates shared by all the interpreters.
+     * Native operations hold no state between invocations, so they can be
+     * executed concurrently by any number of interpreters.
+     *
+     * @return native predicates table.
+     */
+    public static synchronized PredicateTable getNativePredicates() {
+        if( nativePredicates == null ) {
+            nativePredicates = createNativePredicates();
+        }
+        return nativePredicates;
+    }
+
+    /**
+     * Creates a new interpreter sharing the predicates defined on this interpreter and
+     * owning a copy of its variables. The predicates are shared by reference, so
+     * the cost of a fork doesn't depend on the size of the programmative context:
+     * a warmed up interpreter can be forked to process every request in isolation.
+     * Predicates defined after the fork are not visible to the other interpreter.
+     * Processor listeners and compiled programs are not copied.
+     *
+     * @return forked interpreter.
+     * @see com.asemantics.mashup.processor.Processor#fork()
+     */
+    public Interpreter fork() {
+        return new Interpreter(this);
+    }
+
     /**
      *
      * @return validation flag value.
@@ -158,16 +221,110 @@ public class Interpreter implements Interpretative {
         validating = v;
     }
 
+    /**
+     * Sets the maximum number of compiled programs cached by {@link #process(String)},
+     * <code>0</code> disables the cache.
+     *
+     * @param size maximum number of cached programs.
+     */
+    public void setProgramCacheSize(int size) {
+        programCache.setSize(size);
+    }
+
+    /**
+     * Returns the maximum number of cached compiled programs.
+     *
+     * @return cache size.
+     */
+    public int getProgramCacheSize() {
+        return programCache.getSize();
+    }
+
+    /**
+     * Returns the number of programs whose compilation has been found in cache.
+     *
+     * @return cache hits.
+     */
+    public long getProgramCacheHits() {
+        return programCache.getHits();
+    }
+
+    /**
+     * Returns the number of programs that have been parsed and compiled.
+     *
+     * @return cache misses.
+     */
+    public long getProgramCacheMisses() {
+        return programCache.getMisses();
+    }
+
+    /**
+     * Removes all the cached compiled programs and resets the cache counters.
+     */
+    public void clearProgramCache() {
+        programCache.clear();
+    }
+
+    /**
+     * Enables or disables the prefetch of the <i>Get</i> requests of a sequence
+     * not depending on the previous operations, enabled by default.
+     *
+     * @param enabled <code>true</code> to start independent requests concurrently.
+     */
+    public void setPrefetchEnabled(boolean enabled) {
+        processor.getExecutionStack().setPrefetchEnabled(enabled);
+    }
+
+    /**
+     * @return <code>true</code> if the prefetch of independent requests is enabled.
+     */
+    public boolean isPrefetchEnabled() {
+        return processor.getExecutionStack().isPrefetchEnabled();
+    }
+
     /**
      * Processes a program string, defined as a sequence of prepositions separated by semi quote.
+     * The compiled program is cached, so processing again the same program text
+     * skips the parsing, the compilation and the validation phases. Every processable
+     * is processed again, so predicates defined by the program are registered at every call.
      *
      * @param program
      * @return value returned by last operation.
      * @throws InterpreterException
      * @see MUGrammarFactory
+     * @see #setProgramCacheSize(int)
      */
     public Value process(String program) throws InterpreterException {
 
+        ProgramCache.CompiledProgram compiledProgram = programCache.get(program);
+        if( compiledProgram == null ) {
+            compiledProgram = new ProgramCache.CompiledProgram( compile(program) );
+            programCache.put(program, compiledProgram);
+        }
+
+        // Processes all processables, validating them the first time.
+        final boolean validate = validating && ! compiledProgram.isValidated();
+        Value result = DEFAULT_RESULT;
+        for(Processable processable : compiledProgram.processables) {
+            result = process(processable, validate);
+        }
+        if( validate ) {
+            compiledProgram.setValidated();
+        }
+
+        // Returns the last processed value.
+        return result;
+    }
+
+    /**
+     * Parses and compiles a program string.
+     *
+     * @param program
+     * @return list of processables of the program.
+     * @throws InterpreterException
+     */
+    private Processable[] compile(String program) throws InterpreterException {
+
         // Parsing phase.
         ParseTree pt;
         try {
@@ -185,15 +342,7 @@ public class Interpreter implements Interpretative {
         assert root.length == 1;
 
         ArrayList<Processable> processables = (ArrayList<Processable>) root[0];
-
-        // Processes all processables.
-        Value result = DEFAULT_RESULT;
-        for(Processable processable : processables) {
-            result = process(processable);
-        }
-
-        // Returns the last processed value.
-        return result;
+        return processables.toArray( new Processable[processables.size()] );
     }
 
     public Value processOperation(InvokeOperation invoke)
@@ -244,9 +393,22 @@ public class Interpreter implements Interpretative {
      * @throws InterpreterException
      */
     protected Value process(Processable processable)
+    throws InterpreterException {
+        return process(processable, validating);
+    }
+
+    /**
+     * Processes a single {@link com.asemantics.mashup.parser.Processable}.
+     *
+     * @param processable
+     * @param validate if <code>true</code> the processable is validated before processing.
+     * @return the value returned by the processing.
+     * @throws InterpreterException
+     */
+    private Value process(Processable processable, boolean validate)
     throws InterpreterException {
         // Performs validation of processable.
-        if(validating) {
+        if(validate) {
             try {
                 processable.validate();
             } catch (ValidationException ve) {
@@ -263,115 +425,142 @@ public class Interpreter implements Interpretative {
     }
 
     /**
-     * Initialized languae environment.
+     * Initializes the language environment of the processor of this interpreter,
+     * whose native predicates are defined by {@link #getNativePredicates()}.
      * 
      * @param p
      */
     protected void initEnvironment(Processor p) {
+        p.getExecutionContext().setInterpretative(this);
+    }
+
+    /**
+     * Creates the table of native predicates. The predicates depending on
+     * the interpreter retrieve it from the execution context.
+     *
+     * @return native predicates table.
+     */
+    private static PredicateTable createNativePredicates() {
+        PredicateTable.Builder p = new PredicateTable.Builder();
 
         // Evaluate operation.
-        p.addPredicate( "Evaluate", new EvaluateOperation(this));
+        p.add( "Evaluate", new EvaluateOperation());
 
         // Print operation.
-        p.addPredicate( "Print", new Print() );
+        p.add( "Print", new Print() );
 
         // Context operations.
-        p.addPredicate( "Context"   , new ContextOperation()              );
-        p.addPredicate( "PContext"  , new ProgrammativeContextOperation() );
-        p.addPredicate( "StackTrace", new StackTraceOperation()           );
+        p.add( "Context"   , new ContextOperation()              );
+        p.add( "PContext"  , new ProgrammativeContextOperation() );
+        p.add( "StackTrace", new StackTraceOperation()           );
 
         // Unification support.
-        p.addPredicate( "Unify", new UnifyOperation()    );
-        p.addPredicate( "Apply", new ApplyOperation(this));
+        p.add( "Unify", new UnifyOperation()    );
+        p.add( "Apply", new ApplyOperation());
+        p.add( "ParMap", new ParMapOperation());
+
+        // Concurrency support.
+        p.add( "Spawn"  , new SpawnOperation()   );
+        p.add( "Join"   , new JoinOperation()    );
+        p.add( "JoinAll", new JoinAllOperation() );
 
         // Conditional operations.
-        p.addPredicate( "Eq" , new EqCondition()  );
-        p.addPredicate( "Neq", new NeqCondition() );
-        p.addPredicate( "Lt" , new LtCondition()  );
-        p.addPredicate( "Gt" , new GtCondition()  );
-        p.addPredicate( "Lte", new LteCondition() );
-        p.addPredicate( "Gte", new GteCondition() );
+        p.add( "Eq" , new EqCondition()  );
+        p.add( "Neq", new NeqCondition() );
+        p.add( "Lt" , new LtCondition()  );
+        p.add( "Gt" , new GtCondition()  );
+        p.add( "Lte", new LteCondition() );
+        p.add( "Gte", new GteCondition() );
 
         // Boolean operators.
-        p.addPredicate("And", new AndCondition()     );
-        p.addPredicate("Or" , new OrCondition()      );
-        p.addPredicate("Xor", new XorCondition()     );
-        p.addPredicate("Not", new NotMonoCondition() );
+        p.add("And", new AndCondition()     );
+        p.add("Or" , new OrCondition()      );
+        p.add("Xor", new XorCondition()     );
+        p.add("Not", new NotMonoCondition() );
 
         // Math operators.
-        p.addPredicate("Sum",        new SumExpression());
-        p.addPredicate("Diff",       new DiffExpression());
-        p.addPredicate("Mult",       new MultExpression());
-        p.addPredicate("Div",        new DivExpression());
-        p.addPredicate("Mod",        new ModExpression());
-        p.addPredicate("IsInfinite", new IsInfiniteMonoCondition());
-        p.addPredicate("IsNan",      new IsNanMonoCondition());
+        p.add("Sum",        new SumExpression());
+        p.add("Diff",       new DiffExpression());
+        p.add("Mult",       new MultExpression());
+        p.add("Div",        new DivExpression());
+        p.add("Mod",        new ModExpression());
+        p.add("IsInfinite", new IsInfiniteMonoCondition());
+        p.add("IsNan",      new IsNanMonoCondition());
 
         // List support.
-        p.addPredicate("List"    , new List() );
-        p.addPredicate("AddElem" , new ListAddElem()  );
-        p.addPredicate("AddAll"  , new ListAddAll()   );
-        p.addPredicate("AddFirst", new ListAddFirst() );
-        p.addPredicate("AddLast" , new ListAddLast()  );
-        p.addPredicate("GetElem" , new ListGetElem()  );
-        p.addPredicate("LIndexOf", new ListIndexOf()  );
-        p.addPredicate("LRemove" , new ListRemove()   );
-        p.addPredicate("LSize"   , new ListSizeOperation() );
+        p.add("List"    , new List() );
+        p.add("AddElem" , new ListAddElem()  );
+        p.add("AddAll"  , new ListAddAll()   );
+        p.add("AddFirst", new ListAddFirst() );
+        p.add("AddLast" , new ListAddLast()  );
+        p.add("GetElem" , new ListGetElem()  );
+        p.add("LIndexOf", new ListIndexOf()  );
+        p.add("LRemove" , new ListRemove()   );
+        p.add("LSize"   , new ListSizeOperation() );
 
         // Range.
-        p.addPredicate("Range"   , new RangeOperation() );
+        p.add("Range"   , new RangeOperation() );
 
         // Map support.
-        p.addPredicate("Map"    , new Map()       );
-        p.addPredicate("MPut"   , new MapPut()    );
-        p.addPredicate("GetKey" , new MapGetKey() );
-        p.addPredicate("MRemove", new MapRemove() );
-        p.addPredicate("MSize"  , new MapSizeOperation() );
+        p.add("Map"    , new Map()       );
+        p.add("MPut"   , new MapPut()    );
+        p.add("GetKey" , new MapGetKey() );
+        p.add("MRemove", new MapRemove() );
+        p.add("MSize"  , new MapSizeOperation() );
 
         // Graph support.
-        p.addPredicate("Graph"      , new Graph()           );
-        p.addPredicate("GAddNode"   , new GraphAddNode()    );
-        p.addPredicate("GRemoveNode", new GraphRemoveNode() );
-        p.addPredicate("GAddArc"    , new GraphAddArc()     );
-        p.addPredicate("GRemoveArc" , new GraphRemoveArc()  );
+        p.add("Graph"      , new Graph()           );
+        p.add("GAddNode"   , new GraphAddNode()    );
+        p.add("GRemoveNode", new GraphRemoveNode() );
+        p.add("GAddArc"    , new GraphAddArc()     );
+        p.add("GRemoveArc" , new GraphRemoveArc()  );
 
         // String support.
-        p.addPredicate("SubString", new StringSubString() );
-        p.addPredicate("SIndexOf" , new StringIndexOf()   );
+        p.add("SubString", new StringSubString() );
+        p.add("SIndexOf" , new StringIndexOf()   );
 
         // Type handling.
-        p.addPredicate("Type"     , new TypeOperation()         );
-        p.addPredicate("AsBoolean", new AsBooleanCastOperator() );
-        p.addPredicate("AsString" , new AsStringCastOperator()  );
-        p.addPredicate("AsNumeric", new AsNumericCastOperator() );
-        p.addPredicate("AsList"   , new AsListCastOperator()    );
-        p.addPredicate("AsMap"    , new AsMapCastOperator()     );
-        p.addPredicate("AsJSON"   , new AsJSONCastOperator()    );
+        p.add("Type"     , new TypeOperation()         );
+        p.add("AsBoolean", new AsBooleanCastOperator() );
+        p.add("AsString" , new AsStringCastOperator()  );
+        p.add("AsNumeric", new AsNumericCastOperator() );
+        p.add("AsList"   , new AsListCastOperator()    );
+        p.add("AsMap"    , new AsMapCastOperator()     );
+        p.add("AsJSON"   , new AsJSONCastOperator()    );
 
         // Reference handling.
-        p.addPredicate("Clone", new CloneOperation() );
+        p.add("Clone", new CloneOperation() );
 
         // Source operations.
-        p.addPredicate("Get"    , new GetOperation()     );
-        p.addPredicate("Post"   , new PostOperation()    );
-        p.addPredicate("Put"    , new PutOperation()     );
-        p.addPredicate("Delete" , new DeleteOperation()  );
+        p.add("Get"    , new GetOperation()     );
+        p.add("Get"    , new GetTTLOperation()  );
+        p.add("Post"   , new PostOperation()    );
+        p.add("Put"    , new PutOperation()     );
+        p.add("Delete" , new DeleteOperation()  );
+        p.add("GetAll" , new GetAllOperation()  );
+        p.add("GetJSON", new GetJSONOperation() );
+
+        // Asynchronous source operations.
+        p.add("GetAsync" , new GetAsyncOperation()  );
+        p.add("PostAsync", new PostAsyncOperation() );
+        p.add("Await"    , new AwaitOperation()     );
 
         // Content inspection operations.
-        p.addPredicate("Content", new ContentOperation() );
+        p.add("Content", new ContentOperation() );
 
         // Inspection operations.
-        p.addPredicate("XPath"   , new XPathOperation() );
-        p.addPredicate("JPath"   , new JPathOperation() );
+        p.add("XPath"   , new XPathOperation() );
+        p.add("JPath"   , new JPathOperation() );
 
         // JSON_TEMPLATE operations.
-        p.addPredicate("Jsonize", new JsonizeOperation() );
+        p.add("Jsonize", new JsonizeOperation() );
 
         // Renderization operations.
-        p.addPredicate( "Renderize" , new RenderizeOperation()  );
-        p.addPredicate( "Modelize"  , new ModelizeOperation()   );
-        p.addPredicate( "Concretize", new ConcretizeOperation() );
+        p.add( "Renderize" , new RenderizeOperation()  );
+        p.add( "Modelize"  , new ModelizeOperation()   );
+        p.add( "Concretize", new ConcretizeOperation() );
 
+        return p.build();
     }
 
 }
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2007-2008 Michele Mostarda ( michele.mostarda@gmail.com ).
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the 'License');
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an 'AS IS' BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package com.asemantics.mashup.interpreter;
+
+import com.asemantics.mashup.parser.Processable;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Defines a bounded cache of compiled programs indexed by program text,
+ * the least recently used program is discarded when the cache is full.
+ *
+ * @see com.asemantics.mashup.interpreter.Interpreter#process(String)
+ */
+class ProgramCache {
+
+    /**
+     * Defines a compiled program.
+     */
+    static class CompiledProgram {
+
+        /**
+         * Processables of the program.
+         */
+        final Processable[] processables;
+
+        /**
+         * <code>true</code> if all processables have been successfully validated.
+         */
+        private boolean validated;
+
+        /**
+         * Constructor.
+         *
+         * @param ps processables of the program.
+         */
+        CompiledProgram(Processable[] ps) {
+            processables = ps;
+        }
+
+        /**
+         * @return <code>true</code> if the program has been successfully validated.
+         */
+        synchronized boolean isValidated() {
+            return validated;
+        }
+
+        /**
+         * Marks the program as successfully validated.
+         */
+        synchronized void setValidated() {
+            validated = true;
+        }
+    }
+
+    /**
+     * Default maximum number of cached programs.
+     */
+    static final int DEFAULT_SIZE = 64;
+
+    /**
+     * Maximum number of cached programs.
+     */
+    private int maxSize;
+
+    /**
+     * Number of programs found in cache.
+     */
+    private long hits;
+
+    /**
+     * Number of programs not found in cache.
+     */
+    private long misses;
+
+    /**
+     * Programs in access order.
+     */
+    private final LinkedHashMap<String,CompiledProgram> programs;
+
+    /**
+     * Constructor.
+     *
+     * @param s maximum number of cached programs.
+     */
+    ProgramCache(int s) {
+        setSize(s);
+        programs = new LinkedHashMap<String,CompiledProgram>(16, 0.75f, true) {
+            protected boolean removeEldestEntry(Map.Entry<String,CompiledProgram> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the compiled program for a program text.
+     *
+     * @param program program text.
+     * @return compiled program or <code>null</code> if not cached.
+     */
+    synchronized CompiledProgram get(String program) {
+        CompiledProgram compiledProgram = programs.get(program);
+        if( compiledProgram == null ) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return compiledProgram;
+    }
+
+    /**
+     * Caches a compiled program.
+     *
+     * @param program program text.
+     * @param compiledProgram compiled program.
+     */
+    synchronized void put(String program, CompiledProgram compiledProgram) {
+        if( maxSize > 0 ) {
+            programs.put(program, compiledProgram);
+        }
+    }
+
+    /**
+     * Sets the maximum number of cached programs, discarding
+     * the least recently used programs exceeding it.
+     *
+     * @param s new size, <code>0</code> disables the cache.
+     */
+    synchronized void setSize(int s) {
+        if( s < 0 ) {
+            throw new IllegalArgumentException("Invalid cache size: " + s);
+        }
+        maxSize = s;
+        if( programs != null ) {
+            Iterator<String> iterator = programs.keySet().iterator();
+            while( programs.size() > maxSize ) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * @return maximum number of cached programs.
+     */
+    synchronized int getSize() {
+        return maxSize;
+    }
+
+    /**
+     * @return number of programs found in cache.
+     */
+    synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return number of programs not found in cache.
+     */
+    synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Removes all cached programs and resets the counters.
+     */
+    synchronized void clear() {
+        programs.clear();
+        hits = misses = 0;
+    }
+
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2007-2008 Michele Mostarda ( michele.mostarda@gmail.com ).
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the 'License');
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an 'AS IS' BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package com.asemantics.mashup.nativepkg;
+
+/**
+ * An {@link com.asemantics.mashup.nativepkg.HttpFuture} already completed with a response or an error,
+ * used by the platforms performing asynchronous requests synchronously.
+ */
+public class CompletedHttpFuture implements HttpFuture {
+
+    /**
+     * Response body.
+     */
+    private final String response;
+
+    /**
+     * Request error.
+     */
+    private final NativeException error;
+
+    /**
+     * Constructor for a successful request.
+     *
+     * @param r response body.
+     */
+    public CompletedHttpFuture(String r) {
+        response = r;
+        error    = null;
+    }
+
+    /**
+     * Constructor for a failed request.
+     *
+     * @param e request error.
+     */
+    public CompletedHttpFuture(NativeException e) {
+        if( e == null ) {
+            throw new IllegalArgumentException("e cannot be null.");
+        }
+        response = null;
+        error    = e;
+    }
+
+    public boolean isDone() {
+        return true;
+    }
+
+    public String get() throws NativeException {
+        if( error != null ) {
+            throw error;
+        }
+        return response;
+    }
+
+}
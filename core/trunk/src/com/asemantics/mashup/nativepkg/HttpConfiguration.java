@@ -0,0 +1,341 @@
+/*
+ * Copyright 2007-2008 Michele Mostarda ( michele.mostarda@gmail.com ).
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the 'License');
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an 'AS IS' BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package com.asemantics.mashup.nativepkg;
+
+/**
+ * Defines the configuration of the <i>HTTP</i> transport used by
+ * the {@link com.asemantics.mashup.nativepkg.Native} implementation.
+ *
+ * @see com.asemantics.mashup.nativepkg.Native#setHttpConfiguration(HttpConfiguration)
+ */
+public class HttpConfiguration {
+
+    /**
+     * Default maximum number of connections per host.
+     */
+    public static final int DEFAULT_MAX_CONNECTIONS_PER_HOST = 8;
+
+    /**
+     * Default maximum number of connections.
+     */
+    public static final int DEFAULT_MAX_TOTAL_CONNECTIONS = 32;
+
+    /**
+     * Default connection timeout in milliseconds.
+     */
+    public static final int DEFAULT_CONNECTION_TIMEOUT = 10000;
+
+    /**
+     * Default read timeout in milliseconds.
+     */
+    public static final int DEFAULT_READ_TIMEOUT = 30000;
+
+    /**
+     * Default time after which an unused pooled connection is closed, in milliseconds.
+     */
+    public static final int DEFAULT_IDLE_TIMEOUT = 30000;
+
+    /**
+     * Default maximum size of the cached response bodies, in bytes.
+     */
+    public static final long DEFAULT_RESPONSE_CACHE_SIZE = 4 * 1024 * 1024;
+
+    /**
+     * Default maximum number of concurrent requests of a fan-out.
+     */
+    public static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 8;
+
+    /**
+     * Default timeout of a single request of a fan-out in milliseconds.
+     */
+    public static final int DEFAULT_REQUEST_TIMEOUT = 60000;
+
+    /**
+     * Maximum number of connections per host.
+     */
+    private int maxConnectionsPerHost = DEFAULT_MAX_CONNECTIONS_PER_HOST;
+
+    /**
+     * Maximum number of connections.
+     */
+    private int maxTotalConnections = DEFAULT_MAX_TOTAL_CONNECTIONS;
+
+    /**
+     * Connection timeout in milliseconds, <code>0</code> means no timeout.
+     */
+    private int connectionTimeout = DEFAULT_CONNECTION_TIMEOUT;
+
+    /**
+     * Read timeout in milliseconds, <code>0</code> means no timeout.
+     */
+    private int readTimeout = DEFAULT_READ_TIMEOUT;
+
+    /**
+     * Time after which an unused pooled connection is closed, in milliseconds.
+     */
+    private int idleTimeout = DEFAULT_IDLE_TIMEOUT;
+
+    /**
+     * If <code>true</code> connections are kept alive and reused.
+     */
+    private boolean keepAlive = true;
+
+    /**
+     * Maximum size of the cached response bodies, in bytes.
+     */
+    private long responseCacheSize = DEFAULT_RESPONSE_CACHE_SIZE;
+
+    /**
+     * Maximum number of concurrent requests of a fan-out.
+     */
+    private int maxConcurrentRequests = DEFAULT_MAX_CONCURRENT_REQUESTS;
+
+    /**
+     * Timeout of a single request of a fan-out in milliseconds, <code>0</code> means no timeout.
+     */
+    private int requestTimeout = DEFAULT_REQUEST_TIMEOUT;
+
+    /**
+     * Constructor with default values.
+     */
+    public HttpConfiguration() {
+        // Empty.
+    }
+
+    /**
+     * Copy constructor.
+     *
+     * @param other configuration to be copied.
+     */
+    public HttpConfiguration(HttpConfiguration other) {
+        maxConnectionsPerHost = other.maxConnectionsPerHost;
+        maxTotalConnections   = other.maxTotalConnections;
+        connectionTimeout     = other.connectionTimeout;
+        readTimeout           = other.readTimeout;
+        idleTimeout           = other.idleTimeout;
+        keepAlive             = other.keepAlive;
+        responseCacheSize     = other.responseCacheSize;
+        maxConcurrentRequests = other.maxConcurrentRequests;
+        requestTimeout        = other.requestTimeout;
+    }
+
+    /**
+     * @return maximum number of connections per host.
+     */
+    public int getMaxConnectionsPerHost() {
+        return maxConnectionsPerHost;
+    }
+
+    /**
+     * Sets the maximum number of connections per host.
+     *
+     * @param max a positive number.
+     * @return this configuration.
+     */
+    public HttpConfiguration setMaxConnectionsPerHost(int max) {
+        if( max <= 0 ) {
+            throw new IllegalArgumentException("Invalid max connections per host: " + max);
+        }
+        maxConnectionsPerHost = max;
+        return this;
+    }
+
+    /**
+     * @return maximum number of connections.
+     */
+    public int getMaxTotalConnections() {
+        return maxTotalConnections;
+    }
+
+    /**
+     * Sets the maximum number of connections.
+     *
+     * @param max a positive number.
+     * @return this configuration.
+     */
+    public HttpConfiguration setMaxTotalConnections(int max) {
+        if( max <= 0 ) {
+            throw new IllegalArgumentException("Invalid max total connections: " + max);
+        }
+        maxTotalConnections = max;
+        return this;
+    }
+
+    /**
+     * @return connection timeout in milliseconds.
+     */
+    public int getConnectionTimeout() {
+        return connectionTimeout;
+    }
+
+    /**
+     * Sets the connection timeout.
+     *
+     * @param timeout timeout in milliseconds, <code>0</code> means no timeout.
+     * @return this configuration.
+     */
+    public HttpConfiguration setConnectionTimeout(int timeout) {
+        if( timeout < 0 ) {
+            throw new IllegalArgumentException("Invalid connection timeout: " + timeout);
+        }
+        connectionTimeout = timeout;
+        return this;
+    }
+
+    /**
+     * @return read timeout in milliseconds.
+     */
+    public int getReadTimeout() {
+        return readTimeout;
+    }
+
+    /**
+     * Sets the read timeout.
+     *
+     * @param timeout timeout in milliseconds, <code>0</code> means no timeout.
+     * @return this configuration.
+     */
+    public HttpConfiguration setReadTimeout(int timeout) {
+        if( timeout < 0 ) {
+            throw new IllegalArgumentException("Invalid read timeout: " + timeout);
+        }
+        readTimeout = timeout;
+        return this;
+    }
+
+    /**
+     * @return time after which an unused pooled connection is closed, in milliseconds.
+     */
+    public int getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    /**
+     * Sets the time after which an unused pooled connection is closed.
+     *
+     * @param timeout timeout in milliseconds.
+     * @return this configuration.
+     */
+    public HttpConfiguration setIdleTimeout(int timeout) {
+        if( timeout < 0 ) {
+            throw new IllegalArgumentException("Invalid idle timeout: " + timeout);
+        }
+        idleTimeout = timeout;
+        return this;
+    }
+
+    /**
+     * @return <code>true</code> if connections are kept alive.
+     */
+    public boolean isKeepAlive() {
+        return keepAlive;
+    }
+
+    /**
+     * Enables or disables the reuse of connections.
+     *
+     * @param ka keep alive flag.
+     * @return this configuration.
+     */
+    public HttpConfiguration setKeepAlive(boolean ka) {
+        keepAlive = ka;
+        return this;
+    }
+
+    /**
+     * @return maximum size of the cached response bodies, in bytes.
+     */
+    public long getResponseCacheSize() {
+        return responseCacheSize;
+    }
+
+    /**
+     * Sets the maximum size of the cached <i>GET</i> response bodies.
+     *
+     * @param size size in bytes, <code>0</code> disables the response cache.
+     * @return this configuration.
+     */
+    public HttpConfiguration setResponseCacheSize(long size) {
+        if( size < 0 ) {
+            throw new IllegalArgumentException("Invalid response cache size: " + size);
+        }
+        responseCacheSize = size;
+        return this;
+    }
+
+    /**
+     * @return maximum number of concurrent requests of a fan-out.
+     */
+    public int getMaxConcurrentRequests() {
+        return maxConcurrentRequests;
+    }
+
+    /**
+     * Sets the maximum number of requests of a fan-out performed concurrently.
+     *
+     * @param max a positive number.
+     * @return this configuration.
+     * @see com.asemantics.mashup.nativepkg.Native#httpGetRequestsAsync(String[], int, int)
+     */
+    public HttpConfiguration setMaxConcurrentRequests(int max) {
+        if( max <= 0 ) {
+            throw new IllegalArgumentException("Invalid max concurrent requests: " + max);
+        }
+        maxConcurrentRequests = max;
+        return this;
+    }
+
+    /**
+     * @return timeout of a single request of a fan-out in milliseconds.
+     */
+    public int getRequestTimeout() {
+        return requestTimeout;
+    }
+
+    /**
+     * Sets the timeout of a single request of a fan-out, measured from its start.
+     *
+     * @param timeout timeout in milliseconds, <code>0</code> means no timeout.
+     * @return this configuration.
+     */
+    public HttpConfiguration setRequestTimeout(int timeout) {
+        if( timeout < 0 ) {
+            throw new IllegalArgumentException("Invalid request timeout: " + timeout);
+        }
+        requestTimeout = timeout;
+        return this;
+    }
+
+    public String toString() {
+        return
+            "HttpConfiguration{" +
+                "maxConnectionsPerHost: " + maxConnectionsPerHost +
+                ", maxTotalConnections: " + maxTotalConnections +
+                ", connectionTimeout: "   + connectionTimeout +
+                ", readTimeout: "         + readTimeout +
+                ", idleTimeout: "         + idleTimeout +
+                ", keepAlive: "           + keepAlive +
+                ", responseCacheSize: "   + responseCacheSize +
+                ", maxConcurrentRequests: " + maxConcurrentRequests +
+                ", requestTimeout: "      + requestTimeout +
+            "}";
+    }
+
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2007-2008 Michele Mostarda ( michele.mostarda@gmail.com ).
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the 'License');
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an 'AS IS' BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package com.asemantics.mashup.nativepkg;
+
+/**
+ * Defines the pending result of an asynchronous <i>HTTP</i> request.
+ *
+ * @see com.asemantics.mashup.nativepkg.Native#httpGetRequestAsync(String)
+ */
+public interface HttpFuture {
+
+    /**
+     * Checks whether the request has been completed.
+     *
+     * @return <code>true</code> if the result is available.
+     */
+    boolean isDone();
+
+    /**
+     * Waits for the completion of the request and returns its result.
+     *
+     * @return response body.
+     * @throws NativeException if the request failed.
+     */
+    String get() throws NativeException;
+
+}
@@ -58,6 +58,16 @@ public abstract class Native {
         return instance;
     }
 
+    /**
+     * Configuration of the <i>HTTP</i> transport, never modified once set.
+     */
+    private volatile HttpConfiguration httpConfiguration = new HttpConfiguration();
+
+    /**
+     * Maximum number of tasks run at the same time, <code>0</code> for the platform default.
+     */
+    private int parallelism;
+
     /**
      * Constructor.
      */
@@ -65,6 +75,120 @@ public abstract class Native {
         // Empty.
     }
 
+    /**
+     * Returns a copy of the configuration of the <i>HTTP</i> transport.
+     * Changes to the returned object are applied only by
+     * {@link #setHttpConfiguration(HttpConfiguration)}.
+     *
+     * @return current configuration.
+     */
+    public HttpConfiguration getHttpConfiguration() {
+        return new HttpConfiguration(httpConfiguration);
+    }
+
+    /**
+     * Returns the configuration of the <i>HTTP</i> transport in use, without copying it.
+     * The returned object must not be modified.
+     *
+     * @return current configuration.
+     */
+    protected HttpConfiguration getCurrentHttpConfiguration() {
+        return httpConfiguration;
+    }
+
+    /**
+     * Sets the configuration of the <i>HTTP</i> transport.
+     * The configuration is copied, so following changes to it are not applied.
+     *
+     * @param configuration new configuration.
+     */
+    public void setHttpConfiguration(HttpConfiguration configuration) {
+        if( configuration == null ) {
+            throw new IllegalArgumentException("configuration cannot be null.");
+        }
+        final HttpConfiguration copy = new HttpConfiguration(configuration);
+        httpConfiguration = copy;
+        applyHttpConfiguration(copy);
+    }
+
+    /**
+     * Applies the <i>HTTP</i> configuration to the platform transport,
+     * the default implementation does nothing.
+     *
+     * @param configuration configuration to be applied.
+     */
+    protected void applyHttpConfiguration(HttpConfiguration configuration) {
+        // Empty.
+    }
+
+    /**
+     * Returns the maximum number of tasks run at the same time by the parallel operations.
+     *
+     * @return parallelism.
+     * @see #runTasks(Runnable[], int)
+     */
+    public int getParallelism() {
+        return parallelism > 0 ? parallelism : getDefaultParallelism();
+    }
+
+    /**
+     * Sets the maximum number of tasks run at the same time by the parallel operations.
+     *
+     * @param p a positive number, <code>0</code> restores the platform default.
+     */
+    public void setParallelism(int p) {
+        if( p < 0 ) {
+            throw new IllegalArgumentException("Invalid parallelism: " + p);
+        }
+        parallelism = p;
+    }
+
+    /**
+     * Returns the default parallelism of the platform, the default implementation returns <code>1</code>.
+     *
+     * @return default parallelism.
+     */
+    protected int getDefaultParallelism() {
+        return 1;
+    }
+
+    /**
+     * Runs the given tasks, performing at most <i>parallelism</i> of them at the same time,
+     * and returns when all of them are completed. Tasks are expected to handle their own errors.
+     * The default implementation runs the tasks sequentially in the calling thread.
+     *
+     * @param tasks tasks to be run.
+     * @param parallelism maximum number of tasks run at the same time.
+     */
+    public void runTasks(Runnable[] tasks, int parallelism) {
+        if( parallelism <= 0 ) {
+            throw new IllegalArgumentException("Invalid parallelism: " + parallelism);
+        }
+        for(Runnable task : tasks) {
+            task.run();
+        }
+    }
+
+    /**
+     * Starts the given task concurrently to the calling thread. Tasks are expected to handle
+     * their own errors. The default implementation runs the task in the calling thread
+     * and returns a completed future.
+     *
+     * @param task task to be started.
+     * @return the pending completion of the task.
+     */
+    public TaskFuture spawnTask(Runnable task) {
+        task.run();
+        return new TaskFuture() {
+            public boolean isDone() {
+                return true;
+            }
+            public void await() {
+                // Empty.
+            }
+        };
+    }
+
     /**
      * Sleeps current thread for the given time.
      *
@@ -89,6 +213,21 @@ public abstract class Native {
      */
     public abstract String httpGetRequest(String url) throws NativeException;
 
+    /**
+     * Performs an <i>HTTP</i> GET request on given URL, overriding the time
+     * for which a cached response can be reused without revalidation.
+     * The default implementation ignores the time to live.
+     *
+     * @param url url to be retrieved.
+     * @param ttl time to live of the response in seconds, a negative value
+     *        applies the caching headers of the response.
+     * @return URL content.
+     * @throws NativeException
+     */
+    public String httpGetRequest(String url, int ttl) throws NativeException {
+        return httpGetRequest(url);
+    }
+
     /**
      * Performs an <i>HTTP</i> POST request on given URL.
      * 
@@ -99,6 +238,67 @@ public abstract class Native {
      */
     public abstract String httpPostRequest(String url, Map<String,String> params) throws NativeException;
 
+    /**
+     * Performs an <i>HTTP</i> GET request on given URL parsing the <i>JSON</i> response.
+     * The default implementation parses the response string with {@link #parseJSON(String)}.
+     *
+     * @param url url to be retrieved.
+     * @return parsed URL content.
+     * @throws NativeException if the request fails or the response is not valid <i>JSON</i>.
+     */
+    public JsonBase httpGetJSONRequest(String url) throws NativeException {
+        return parseJSON( httpGetRequest(url) );
+    }
+
+    /**
+     * Starts an <i>HTTP</i> GET request on given URL without waiting for the response.
+     * The default implementation performs the request synchronously.
+     *
+     * @param url url to be retrieved.
+     * @return pending URL content.
+     */
+    public HttpFuture httpGetRequestAsync(String url) {
+        try {
+            return new CompletedHttpFuture( httpGetRequest(url) );
+        } catch (NativeException ne) {
+            return new CompletedHttpFuture(ne);
+        }
+    }
+
+    /**
+     * Starts an <i>HTTP</i> POST request on given URL without waiting for the response.
+     * The default implementation performs the request synchronously.
+     *
+     * @param url url to be retrieved.
+     * @param params parameters to be added.
+     * @return pending url content.
+     */
+    public HttpFuture httpPostRequestAsync(String url, Map<String,String> params) {
+        try {
+            return new CompletedHttpFuture( httpPostRequest(url, params) );
+        } catch (NativeException ne) {
+            return new CompletedHttpFuture(ne);
+        }
+    }
+
+    /**
+     * Starts the <i>HTTP</i> GET requests of a fan-out, performing at most
+     * <i>maxConcurrency</i> of them at the same time.
+     * The default implementation performs the requests synchronously and ignores the timeout.
+     *
+     * @param urls urls to be retrieved.
+     * @param maxConcurrency maximum number of concurrent requests.
+     * @param timeout timeout of every request in milliseconds, <code>0</code> means no timeout.
+     * @return pending urls contents, in the same order of the urls.
+     */
+    public HttpFuture[] httpGetRequestsAsync(String[] urls, int maxConcurrency, int timeout) {
+        HttpFuture[] futures = new HttpFuture[urls.length];
+        for(int i = 0; i < urls.length; i++) {
+            futures[i] = httpGetRequestAsync( urls[i] );
+        }
+        return futures;
+    }
+
     /**
      * Performs an <i>HTTP</i> PUT request on given URL.
      *
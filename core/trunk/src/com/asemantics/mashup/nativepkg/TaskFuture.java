@@ -0,0 +1,42 @@
+/*
+ * Copyright 2007-2008 Michele Mostarda ( michele.mostarda@gmail.com ).
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the 'License');
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an 'AS IS' BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package com.asemantics.mashup.nativepkg;
+
+/**
+ * Defines the pending completion of a task started by
+ * {@link com.asemantics.mashup.nativepkg.Native#spawnTask(Runnable)}.
+ */
+public interface TaskFuture {
+
+    /**
+     * Checks whether the task has been completed.
+     *
+     * @return <code>true</code> if the task is completed.
+     */
+    boolean isDone();
+
+    /**
+     * Waits for the completion of the task.
+     *
+     * @throws NativeException if the wait has been interrupted or the task failed.
+     */
+    void await() throws NativeException;
+
+}
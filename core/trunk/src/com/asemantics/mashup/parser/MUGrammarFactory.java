@@ -107,6 +107,29 @@ public class MUGrammarFactory {
      */
     private static final UNGrammarFactory unificationGrammarFactory = new UNGrammarFactory();
 
+    /**
+     * Holder of the grammar shared by the whole JVM, created at first access.
+     */
+    private static class SharedGrammarHolder {
+
+        private static final Grammar GRAMMAR;
+
+        static {
+            GRAMMAR = new MUGrammarFactory().createGrammar();
+            GRAMMAR.freeze();
+        }
+    }
+
+    /**
+     * Returns the <i>MashUp</i> grammar shared by the whole JVM.
+     * The returned grammar is frozen and can be used by concurrent parsings.
+     *
+     * @return the shared grammar.
+     */
+    public static Grammar getSharedGrammar() {
+        return SharedGrammarHolder.GRAMMAR;
+    }
+
     /**
      * Tokenizer unique instance.
      */
@@ -151,18 +174,28 @@ public class MUGrammarFactory {
      */
     public Tokenizer createTokenizer() {
         if( tokenizer == null ) {
-            // Merging grammar and sub grammar tokens.
-            tokenizer = new TokenizerImpl(
-                    GrammarUtils.mergeTokenSeparators(
-                            LANGUAGE_SEPARATORS,
-                            unificationGrammarFactory.LANGUAGE_SEPARATORS
-                    )
-            );
-            tokenizer.setCommentBlocks( COMMENT_BOCKS );
+            tokenizer = newTokenizer();
         }
         return tokenizer;
     }
 
+    /**
+     * Returns a new tokenizer instance, to be used for a single parsing at a time.
+     *
+     * @return a new tokenizer.
+     */
+    public static Tokenizer newTokenizer() {
+        // Merging grammar and sub grammar tokens.
+        TokenizerImpl tokenizerImpl = new TokenizerImpl(
+                GrammarUtils.mergeTokenSeparators(
+                        LANGUAGE_SEPARATORS,
+                        unificationGrammarFactory.LANGUAGE_SEPARATORS
+                )
+        );
+        tokenizerImpl.setCommentBlocks( COMMENT_BOCKS );
+        return tokenizerImpl;
+    }
+
     /**
      * Returns the grammar instance.
      *
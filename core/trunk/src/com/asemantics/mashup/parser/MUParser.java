@@ -18,31 +18,49 @@
 
 package com.asemantics.mashup.parser;
 
+import com.asemantics.lightparser.Grammar;
 import com.asemantics.lightparser.ParseTree;
 import com.asemantics.lightparser.Parser;
 import com.asemantics.lightparser.ParserException;
+import com.asemantics.lightparser.Production;
 
 /**
  * Defines the main <i>MashUp</i> language parser class.
+ * All the instances share the same immutable grammar, the parsing state
+ * is held by a tokenizer created for every parsing, so an instance can be used
+ * by concurrent threads.
+ *
+ * @see com.asemantics.mashup.parser.MUGrammarFactory#getSharedGrammar()
  */
 public class MUParser {
 
     /**
-     * Grammar factory reference.
+     * Internal parser.
      */
-    private MUGrammarFactory grammarFactory;
+    private Parser parser;
 
     /**
-     * Internal parser.
+     * Root production of grammar.
      */
-    private Parser parser;
+    private Production rootProduction;
 
     /**
      * Constructor.
      */
     public MUParser() {
-        grammarFactory = new MUGrammarFactory();
-        parser = new Parser( grammarFactory.createGrammar(), grammarFactory.createTokenizer() );
+        Grammar grammar = MUGrammarFactory.getSharedGrammar();
+        parser         = new Parser(grammar);
+        rootProduction = grammar.getRootProduction();
+    }
+
+    /**
+     * Enables or disables the packrat parsing mode.
+     *
+     * @param b
+     * @see com.asemantics.lightparser.Parser#setPackratEnabled(boolean)
+     */
+    public void setPackratEnabled(boolean b) {
+        parser.setPackratEnabled(b);
     }
 
     /**
@@ -55,11 +73,7 @@ public class MUParser {
      * @throws MUParserException
      */
     public ParseTree parse(String rootProductionName, String in) throws MUParserException {
-        try {
-            return parser.parse(rootProductionName, in);
-        } catch (ParserException pe) {
-            throw new MUParserException("Error while parsing string: '" + in + "'", pe);
-        }
+        return parse( MUGrammarFactory.getSharedGrammar().getProduction(rootProductionName), in );
     }
 
     /**
@@ -71,7 +85,23 @@ public class MUParser {
      * @throws MUParserException
      */
     public ParseTree parse(String in) throws MUParserException {
-        return parse( grammarFactory.createGrammar().getRootProduction().getHead().getContent(), in );
+        return parse(rootProduction, in);
+    }
+
+    /**
+     * Parses a given string on a production with a new tokenizer.
+     *
+     * @param production
+     * @param in
+     * @return parse tree resulting from parsing of string on production.
+     * @throws MUParserException
+     */
+    private ParseTree parse(Production production, String in) throws MUParserException {
+        try {
+            return parser.parse(production, in, MUGrammarFactory.newTokenizer());
+        } catch (ParserException pe) {
+            throw new MUParserException("Error while parsing string: '" + in + "'", pe);
+        }
     }
 
 }
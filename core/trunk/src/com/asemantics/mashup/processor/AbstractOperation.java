@@ -27,7 +27,7 @@ import java.util.Set;
  *
  * @see com.asemantics.mashup.processor.Operation
  */
-public abstract class AbstractOperation implements Operation {
+public abstract class AbstractOperation implements Operation, SlotResolvable {
 
     /**
      * invocation arguments.
@@ -64,6 +64,14 @@ public abstract class AbstractOperation implements Operation {
         }
     }
 
+    public void resolveSlots(FrameLayout layout) {
+        for( Argument argument : getArguments() ) {
+            if(argument instanceof SlotResolvable) {
+                ((SlotResolvable) argument).resolveSlots(layout);
+            }
+        }
+    }
+
     public Operation[] getInnerOperations() {
         return new Operation[]{ this };
     }
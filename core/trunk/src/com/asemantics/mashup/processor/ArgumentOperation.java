@@ -28,7 +28,7 @@ import java.util.Set;
  *
  * @see Argument
  */
-public class ArgumentOperation implements Operation {
+public class ArgumentOperation implements Operation, SlotResolvable {
 
     /**
      * Argument to be returned by this operation.
@@ -50,6 +50,12 @@ public class ArgumentOperation implements Operation {
         }
     }
 
+    public void resolveSlots(FrameLayout layout) {
+        if( argument instanceof SlotResolvable ) {
+            ((SlotResolvable) argument).resolveSlots(layout);
+        }
+    }
+
     public Value execute(ExecutionContext context, ExecutionStack stack)
     throws SequenceNotFoundException, ArgumentEvaluationException, InvocationException {
         try {
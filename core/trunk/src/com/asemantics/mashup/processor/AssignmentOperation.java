@@ -31,7 +31,7 @@ import java.util.Set;
  *
  * @see com.asemantics.mashup.processor.ExecutionContext
  */
-public class AssignmentOperation implements Operation {
+public class AssignmentOperation implements Operation, SlotResolvable {
 
     /**
      * Internal unifier.
@@ -112,6 +112,16 @@ public class AssignmentOperation implements Operation {
         model.validate(context);
     }
 
+    public void resolveSlots(FrameLayout layout) {
+        if( argument instanceof SlotResolvable ) {
+            ((SlotResolvable) argument).resolveSlots(layout);
+        }
+        // Allocates slots for the variables defined by the model.
+        for(String variable : model.getVariables()) {
+            layout.slotOf(variable);
+        }
+    }
+
     public Value execute(ExecutionContext context, ExecutionStack stack)
     throws SequenceNotFoundException, ArgumentEvaluationException, InvocationException {
         // Evaluate argument.
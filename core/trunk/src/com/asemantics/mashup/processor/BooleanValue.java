@@ -175,6 +175,11 @@ public class BooleanValue extends Value<Boolean> implements JsonBoolean {
         return value ? "true" : "false";
     }
 
+    @Override
+    public int hashCode() {
+        return value ? TRUE.hashCode() : FALSE.hashCode();
+    }
+
     public String asPrettyJSON() {
         return asJSON();
     }
@@ -18,6 +18,7 @@
 
 package com.asemantics.mashup.processor;
 
+import com.asemantics.mashup.interpreter.Interpretative;
 import com.asemantics.mashup.parser.MUGrammarFactory;
 
 import java.io.PrintStream;
@@ -33,6 +34,18 @@ import java.util.Set;
 
 /**
  * Defines the execution context for a process.
+ * <p>
+ * The sequences are owned by the root context and shared by all the contexts created from it.
+ * They are composed by a {@link com.asemantics.mashup.processor.PredicateTable} of natives,
+ * shared by reference among root contexts, and by a map of the sequences defined on the context.
+ * The map is never modified in place: every change copies the map and publishes the copy
+ * together with a new version, so that concurrent executions always look up a consistent
+ * snapshot without locking and a forked context can share the sequences of its parent.
+ * Changes are serialized on the root context.
+ * The arguments queue is owned by every single context. The variables of the root
+ * context are synchronized: every execution on the root context reads and writes
+ * its own variables, falling back to the root ones for reading, and commits them
+ * to the root context when it ends.
  *
  * @see com.asemantics.mashup.processor.ExecutionStack
  */
@@ -78,7 +91,7 @@ public class ExecutionContext {
      *
      * @return index of next invocable counter.
      */
-    protected static int nextInvocableCounter() {
+    protected static synchronized int nextInvocableCounter() {
         return invocableObjectCounter++;
     }
 
@@ -86,7 +99,7 @@ public class ExecutionContext {
      * Defines an {@link com.asemantics.mashup.processor.Invocable}
      * senquence and a set of modifiers.
      */
-    class InvocableObject implements Comparable<InvocableObject> {
+    static class InvocableObject implements Comparable<InvocableObject> {
 
         /**
          * Defines an univocal index for every invocable.
@@ -213,7 +226,7 @@ public class ExecutionContext {
      * Defines a list of possible alternatives for an overload.
      */
     // TODO: integrate alternatives.
-    class AlternativeList {
+    static class AlternativeList {
 
         /**
          * Common signature for all alternatives.
@@ -309,7 +322,7 @@ public class ExecutionContext {
     /**
      * Defines a set of invocable objects with the same name.
      */
-    class Overload {
+    static class Overload {
 
         /**
          * Name of senquence owning this overload.
@@ -333,6 +346,33 @@ public class ExecutionContext {
             invocableObjects.add(io);
         }
 
+        /**
+         * Constructor for an empty overload.
+         *
+         * @param owner the owner sequence name.
+         */
+        Overload(String owner) {
+            ownerSequence    = owner;
+            invocableObjects = new HashSet<InvocableObject>();
+        }
+
+        /**
+         * Copy constructor.
+         *
+         * @param other overload to be copied.
+         */
+        Overload(Overload other) {
+            ownerSequence    = other.ownerSequence;
+            invocableObjects = new HashSet<InvocableObject>(other.invocableObjects);
+        }
+
+        /**
+         * @return <code>true</code> if this overload doesn't contain any invocable.
+         */
+        boolean isEmpty() {
+            return invocableObjects.isEmpty();
+        }
+
         /**
          * Returns the list of invocables inside this overload.
          *
@@ -430,9 +470,72 @@ public class ExecutionContext {
     }
 
     /**
-     * Map of callable sequences.
+     * Defines an immutable snapshot of the sequences of a root context.
+     * The sequences defined on the context override the native ones with the same name,
+     * an empty overload hides a removed native.
      */
-    private Map<String,Overload> sequenceMap;
+    static final class Sequences {
+
+        /**
+         * Native sequences, shared among root contexts.
+         */
+        final Map<String,Overload> natives;
+
+        /**
+         * Sequences defined on the context.
+         */
+        final Map<String,Overload> defined;
+
+        /**
+         * Version of this snapshot.
+         */
+        final int version;
+
+        /**
+         * Constructor.
+         *
+         * @param n native sequences.
+         * @param d defined sequences.
+         * @param v version.
+         */
+        Sequences(Map<String,Overload> n, Map<String,Overload> d, int v) {
+            natives = n;
+            defined = d;
+            version = v;
+        }
+
+        /**
+         * Returns the overload with given name.
+         *
+         * @param sequenceName name of the sequence.
+         * @return overload, <code>null</code> if not found.
+         */
+        Overload get(String sequenceName) {
+            Overload overload = defined.get(sequenceName);
+            return overload == null ? natives.get(sequenceName) : overload;
+        }
+
+        /**
+         * Returns the invocables of the overload with given name.
+         *
+         * @param sequenceName name of the sequence.
+         * @return list of invocables, empty if not found.
+         */
+        Invocable[] getInvocables(String sequenceName) {
+            Overload overload = get(sequenceName);
+            return overload == null ? INVOCABLE : overload.getInvocables();
+        }
+    }
+
+    /**
+     * Callable sequences, replaced at every change. Meaningful only in root context.
+     */
+    private volatile Sequences sequences;
+
+    /**
+     * Interpretative owning the context. Meaningful only in root context.
+     */
+    private Interpretative interpretative;
 
     /**
      * Map of variables.
@@ -449,34 +552,72 @@ public class ExecutionContext {
      */
     private PrintStream printStream;
 
+    /**
+     * The context owning the sequence map, shared by all the restricted contexts.
+     */
+    private ExecutionContext rootContext;
+
     /**
      * Constructor used to create restricted contexts.
      *
      * @param ps
-     * @param sm
      * @param scm
+     * @param root
      */
-    private ExecutionContext(PrintStream ps, Map<String, Overload> sm, SignatureContextMap scm) {
+    private ExecutionContext(PrintStream ps, SignatureContextMap scm, ExecutionContext root) {
         if( ps == null ) {
             throw new IllegalArgumentException();
         }
-        if(sm == null) {
+        if(root == null) {
             throw new IllegalArgumentException();
         }
         printStream         = ps;
-        sequenceMap         = sm;
         signatureContextMap = scm;
+        rootContext         = root;
 
         argumentsQueue = new LinkedList<Value>();
     }
 
+    /**
+     * Constructor used to create root contexts.
+     *
+     * @param ps
+     * @param s
+     * @param scm
+     */
+    private ExecutionContext(PrintStream ps, Sequences s, SynchronizedSignatureContextMap scm) {
+        if( ps == null ) {
+            throw new IllegalArgumentException();
+        }
+        printStream         = ps;
+        sequences           = s;
+        signatureContextMap = scm;
+        rootContext         = this;
+
+        argumentsQueue = new LinkedList<Value>();
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param ps allows to specify the print stream.
+     * @param natives native predicates shared by the context.
+     */
+    protected ExecutionContext(PrintStream ps, PredicateTable natives) {
+        this(
+                ps,
+                new Sequences( natives.getOverloads(), new HashMap<String,Overload>(), 0 ),
+                new SynchronizedSignatureContextMap()
+        );
+    }
+
     /**
      * Constructor.
      *
      * @param ps allows to specify the print stream.
      */
     protected ExecutionContext(PrintStream ps) {
-        this(ps, new HashMap<String,Overload>(), new SignatureContextMap() );
+        this(ps, PredicateTable.EMPTY);
     }
 
     /**
@@ -495,6 +636,57 @@ public class ExecutionContext {
         return printStream;
     }
 
+    /**
+     * Returns the context owning the sequence map shared by this context.
+     *
+     * @return root context.
+     */
+    public ExecutionContext getRootContext() {
+        return rootContext;
+    }
+
+    /**
+     * Returns the current version of the sequence map. The version changes every time
+     * a sequence is added or removed and can be used to validate cached lookups.
+     *
+     * @return sequence map version.
+     * @see com.asemantics.mashup.processor.InvokeOperation
+     */
+    public int getSequencesVersion() {
+        return rootContext.sequences.version;
+    }
+
+    /**
+     * Returns the current snapshot of the sequences, that is replaced every time
+     * a sequence is added or removed. The snapshot is shared by the forked contexts
+     * until they change their sequences, so it can be used to validate cached lookups.
+     *
+     * @return sequences snapshot.
+     * @see com.asemantics.mashup.processor.InvokeOperation
+     */
+    Sequences getSequencesSnapshot() {
+        return rootContext.sequences;
+    }
+
+    /**
+     * Returns the interpretative owning this context.
+     *
+     * @return interpretative, <code>null</code> if not defined.
+     * @see com.asemantics.mashup.processor.nativeops.EvaluateOperation
+     */
+    public Interpretative getInterpretative() {
+        return rootContext.interpretative;
+    }
+
+    /**
+     * Sets the interpretative owning this context.
+     *
+     * @param i interpretative used to process programs on this context.
+     */
+    public void setInterpretative(Interpretative i) {
+        rootContext.interpretative = i;
+    }
+
     /**
      * Returns <code>true</code> if this context contains the sequence name,
      * <code>false</code> otherwise.
@@ -503,7 +695,7 @@ public class ExecutionContext {
      * @return result of check.
      */
     public boolean containsSequence(String sequenceName) {
-        return sequenceMap.containsKey(sequenceName);
+        return getOverload(sequenceName) != null;
     }
 
     /**
@@ -515,7 +707,7 @@ public class ExecutionContext {
      * @return the sequence matching with specified criteria, <code>null</code> otherwise.
      */
     Invocable getSequence(String sequenceName, Signature signature) {
-        Overload overload = sequenceMap.get(sequenceName);
+        Overload overload = getOverload(sequenceName);
         return overload == null ? null : overload.getInvocable(signature);
     }
 
@@ -527,7 +719,7 @@ public class ExecutionContext {
      * @throws InvocationException if sequence name is found but arguments don't match any overload.
      */
     public Invocable[] getSequences(String sequenceName) throws InvocationException {
-        Overload overload = sequenceMap.get(sequenceName);
+        Overload overload = getOverload(sequenceName);
         return overload == null ? INVOCABLE : overload.getInvocables();
     }
 
@@ -539,11 +731,17 @@ public class ExecutionContext {
      * @param sequence
      */
     public void addSequence(String sequenceName, Invocable sequence, byte flags) {
-        Overload overload = sequenceMap.get(sequenceName);
-        if( overload == null ) {
-            sequenceMap.put( sequenceName, new Overload( sequenceName, new InvocableObject(sequence, flags) ) );
-        } else {
-            overload.add( new InvocableObject(sequence, flags) );
+        synchronized(rootContext) {
+            Map<String,Overload> copy = copySequenceMap();
+            Overload overload = getOverload(sequenceName);
+            if( overload == null ) {
+                copy.put( sequenceName, new Overload( sequenceName, new InvocableObject(sequence, flags) ) );
+            } else {
+                overload = new Overload(overload);
+                overload.add( new InvocableObject(sequence, flags) );
+                copy.put( sequenceName, overload );
+            }
+            sequencesChanged(copy);
         }
     }
 
@@ -565,8 +763,14 @@ public class ExecutionContext {
      * @return the removed invocable if found, <code>null</code> otherwise.
      */
     public InvocableObject[] removeSequence(String sequenceName) {
-        Overload overload = sequenceMap.remove(sequenceName);
-        return overload == null ? new InvocableObject[0] : overload.delete();
+        synchronized(rootContext) {
+            Overload overload = getOverload(sequenceName);
+            Map<String,Overload> copy = copySequenceMap();
+            copy.remove(sequenceName);
+            hideNative(copy, sequenceName);
+            sequencesChanged(copy);
+            return overload == null ? new InvocableObject[0] : overload.getInvocableObjects();
+        }
     }
 
     /**
@@ -577,8 +781,14 @@ public class ExecutionContext {
      * @return the removed invocable.
      */
     public InvocableObject removeSequence(String sequenceName, Signature signature) {
-        Overload overload = sequenceMap.get(sequenceName);
-        return overload.delete(signature);
+        synchronized(rootContext) {
+            Map<String,Overload> copy = copySequenceMap();
+            Overload overload = new Overload( getOverload(sequenceName) );
+            InvocableObject removed = overload.delete(signature);
+            copy.put(sequenceName, overload);
+            sequencesChanged(copy);
+            return removed;
+        }
     }
 
     /**
@@ -602,6 +812,17 @@ public class ExecutionContext {
         return signatureContextMap.getValue(var);
     }
 
+    /**
+     * Returns a variable value by its frame slot.
+     *
+     * @param slot slot index as defined by the {@link com.asemantics.mashup.processor.FrameLayout}.
+     * @param var canonical variable name.
+     * @return required value.
+     */
+    public Value getSlotValue(int slot, String var) {
+        return signatureContextMap.getSlotValue(slot, var);
+    }
+
     /**
      * Returns the i-th argument value as defined in {@link com.asemantics.mashup.processor.Signature}.
      *
@@ -718,12 +939,21 @@ public class ExecutionContext {
     }
 
     /**
-     * Returs the sequence map.
+     * Returs the map of all the sequences, natives and defined ones.
      *
-     * @return internal sequence map.
+     * @return sequence map.
      */
     protected Map<String,Overload> getSequenceMap() {
-        return sequenceMap;
+        final Sequences current = rootContext.sequences;
+        Map<String,Overload> result = new HashMap<String,Overload>(current.natives);
+        for( Map.Entry<String,Overload> entry : current.defined.entrySet() ) {
+            if( entry.getValue().isEmpty() ) {
+                result.remove( entry.getKey() );
+            } else {
+                result.put( entry.getKey(), entry.getValue() );
+            }
+        }
+        return result;
     }
 
     /**
@@ -734,7 +964,80 @@ public class ExecutionContext {
      */
     protected ExecutionContext createContext(SignatureContextMap scm)
     throws InvocationException {
-        return new ExecutionContext(getPrintStream(), getSequenceMap(), scm);
+        return new ExecutionContext(getPrintStream(), scm, rootContext);
+    }
+
+    /**
+     * Creates a context for an execution on the root context, sharing the sequences and
+     * owning its own arguments queue and variables. The variables of the root context are
+     * visible through the created context, the variables written on it are visible to
+     * the other executions only after {@link #commitVariables()}.
+     *
+     * @return created context.
+     * @see com.asemantics.mashup.processor.Processor
+     */
+    protected ExecutionContext createSharedContext() {
+        return new ExecutionContext(
+                getPrintStream(),
+                new OverlaySignatureContextMap( (SynchronizedSignatureContextMap) rootContext.signatureContextMap ),
+                rootContext
+        );
+    }
+
+    /**
+     * Writes the variables of a context created by {@link #createSharedContext()}
+     * to the root context.
+     */
+    void commitVariables() {
+        if( signatureContextMap instanceof OverlaySignatureContextMap ) {
+            ((OverlaySignatureContextMap) signatureContextMap).commit();
+        }
+    }
+
+    /**
+     * Creates a child context sharing the sequences of this context and owning
+     * its own variables and arguments queue, so that it can be used by
+     * executions concurrent to the ones on this context.
+     *
+     * @return created context.
+     * @see com.asemantics.mashup.processor.nativeops.ParMapOperation
+     */
+    public ExecutionContext createChildContext() {
+        return new ExecutionContext(getPrintStream(), new SignatureContextMap(), rootContext);
+    }
+
+    /**
+     * Creates a new root context sharing the current sequences of this context
+     * and owning a copy of its variables. The sequences are shared by reference,
+     * so the cost doesn't depend on their number, while the variable values are cloned:
+     * the changes performed on a context after the fork are not visible to the other.
+     *
+     * @return forked context.
+     */
+    protected ExecutionContext fork() {
+        return new ExecutionContext(
+                getPrintStream(),
+                rootContext.sequences,
+                ((SynchronizedSignatureContextMap) rootContext.signatureContextMap).copy()
+        );
+    }
+
+    /**
+     * Restores the sequences and the variables of this root context to the ones of
+     * the given context, as they were after a {@link #fork()}. The sequences are
+     * restored by reference, so the cost doesn't depend on their number,
+     * while the variable values are cloned.
+     * No execution must be running on this context.
+     *
+     * @param source context to be restored.
+     */
+    protected void reset(ExecutionContext source) {
+        synchronized(rootContext) {
+            ((SynchronizedSignatureContextMap) rootContext.signatureContextMap).reset(
+                    (SynchronizedSignatureContextMap) source.rootContext.signatureContextMap
+            );
+            rootContext.sequences = source.rootContext.sequences;
+        }
     }
 
     /**
@@ -764,7 +1067,7 @@ public class ExecutionContext {
      */
     public String getContextSequencesList() {
         StringBuilder sb = new StringBuilder();
-        for( Map.Entry<String,Overload> entry :  sequenceMap.entrySet() ) {
+        for( Map.Entry<String,Overload> entry :  getSequenceMap().entrySet() ) {
             sb.append( entry.getKey() ).append( " : {" );
             for(Invocable invocable : entry.getValue().getInvocables() ) {
                 sb.append( invocable.getSignature() ).append(" ");
@@ -781,7 +1084,7 @@ public class ExecutionContext {
      * @return  short description.
      */
     public String getSequenceShortDescription(String sequenceName) {
-        Overload overload = sequenceMap.get(sequenceName);
+        Overload overload = getOverload(sequenceName);
         if( overload == null ) {
             return "Unkown sequence";
         }
@@ -801,7 +1104,7 @@ public class ExecutionContext {
      * @return  complete description.
      */
     public String getSequenceDescription(String sequenceName) {
-        Overload overload = sequenceMap.get(sequenceName);
+        Overload overload = getOverload(sequenceName);
         if( overload == null ) {
             return "Unkown sequence";
         }
@@ -822,7 +1125,7 @@ public class ExecutionContext {
      */
     public String getContextSequencesShortDescription() {
         StringBuilder sb = new StringBuilder();
-        for( Map.Entry<String,Overload> entry :  sequenceMap.entrySet() ) {
+        for( Map.Entry<String,Overload> entry :  getSequenceMap().entrySet() ) {
             for( Invocable invocable : entry.getValue().getInvocables() ) {
                 fillSequenceShortDescription(sb, entry.getKey(), invocable );
             }
@@ -838,7 +1141,7 @@ public class ExecutionContext {
      */
     public String getContextSequencesLongDescription() {
         StringBuilder sb = new StringBuilder();
-        for( Map.Entry<String,Overload> entry :  sequenceMap.entrySet() ) {
+        for( Map.Entry<String,Overload> entry :  getSequenceMap().entrySet() ) {
             for( Invocable invocable : entry.getValue().getInvocables() ) {
                 fillSequenceDescription(sb, entry.getKey(), invocable );
             }
@@ -994,6 +1297,50 @@ public class ExecutionContext {
         return sb.toString();
     }
 
+    /**
+     * Returns the overload with given name.
+     *
+     * @param sequenceName name of the sequence.
+     * @return overload, <code>null</code> if not found or removed.
+     */
+    private Overload getOverload(String sequenceName) {
+        Overload overload = rootContext.sequences.get(sequenceName);
+        return overload == null || overload.isEmpty() ? null : overload;
+    }
+
+    /**
+     * Returns a modifiable copy of the map of defined sequences.
+     *
+     * @return copy of sequence map.
+     */
+    private Map<String,Overload> copySequenceMap() {
+        return new HashMap<String,Overload>( rootContext.sequences.defined );
+    }
+
+    /**
+     * Hides the native sequence with the given name, if any, adding an empty overload.
+     *
+     * @param map map of defined sequences.
+     * @param sequenceName name of sequence.
+     */
+    private void hideNative(Map<String,Overload> map, String sequenceName) {
+        Overload overload = rootContext.sequences.natives.get(sequenceName);
+        if( overload != null ) {
+            map.put( sequenceName, new Overload(sequenceName) );
+        }
+    }
+
+    /**
+     * Publishes the modified copy of the map of defined sequences
+     * as a new snapshot with the next version.
+     *
+     * @param map new map of defined sequences.
+     */
+    private void sequencesChanged(Map<String,Overload> map) {
+        final Sequences current = rootContext.sequences;
+        rootContext.sequences = new Sequences(current.natives, map, current.version + 1);
+    }
+
     /**
      * Returns a string representing row count as comment.
      *
@@ -1040,7 +1387,7 @@ public class ExecutionContext {
     protected Map<String,Invocable> filterInvocables(byte flags) {
         Map<String,Invocable> result = new HashMap<String,Invocable>();
         List<Invocable> selectedOverloadInvocables;
-        for( Map.Entry<String,Overload> entry : sequenceMap.entrySet() ) {
+        for( Map.Entry<String,Overload> entry : getSequenceMap().entrySet() ) {
             selectedOverloadInvocables = filterInvocables(entry.getValue(), flags);
             for(Invocable selectedInvocable : selectedOverloadInvocables) {
                 result.put(entry.getKey(), selectedInvocable);
@@ -1078,7 +1425,7 @@ public class ExecutionContext {
     protected Map<String,InvocableObject> filterInvocableObjects(byte flags) {
         Map<String,InvocableObject> result = new HashMap<String,InvocableObject>();
         List<InvocableObject> selectedOverloadInvocableObjects;
-        for( Map.Entry<String,Overload> entry : sequenceMap.entrySet() ) {
+        for( Map.Entry<String,Overload> entry : getSequenceMap().entrySet() ) {
             selectedOverloadInvocableObjects = filterInvocableObjects(entry.getValue(), flags);
             for(InvocableObject selectedInvocableObject : selectedOverloadInvocableObjects) {
                 result.put(entry.getKey(), selectedInvocableObject);
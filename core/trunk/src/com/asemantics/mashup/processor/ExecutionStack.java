@@ -18,6 +18,11 @@
 
 package com.asemantics.mashup.processor;
 
+import com.asemantics.mashup.nativepkg.HttpFuture;
+
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.Map;
 import java.util.Stack;
 
 /**
@@ -182,6 +187,16 @@ public class ExecutionStack {
      */
     private Stack<Level> stack;
 
+    /**
+     * Flag enabling the prefetch of independent source requests.
+     */
+    private boolean prefetchEnabled = true;
+
+    /**
+     * Pending responses of the requests anticipated by the sequences under execution, by request key.
+     */
+    private Map<String,LinkedList<HttpFuture>> prefetched;
+
     /**
      * constructor.
      */
@@ -189,6 +204,18 @@ public class ExecutionStack {
         stack = new Stack<Level>();
     }
 
+    /**
+     * Creates an empty stack configured as this one, used
+     * by executions concurrent to the ones on this stack.
+     *
+     * @return created stack.
+     */
+    public ExecutionStack fork() {
+        ExecutionStack forked = new ExecutionStack();
+        forked.setPrefetchEnabled(prefetchEnabled);
+        return forked;
+    }
+
     /**
      * Pushes a level to be executed into execution stack.
      *
@@ -294,6 +321,89 @@ public class ExecutionStack {
         // Empty.
     }
 
+    /**
+     * Enables or disables the prefetch of the source requests of a sequence
+     * not depending on the previous operations.
+     *
+     * @param enabled prefetch flag.
+     * @see com.asemantics.mashup.processor.SourcePrefetcher
+     */
+    public void setPrefetchEnabled(boolean enabled) {
+        prefetchEnabled = enabled;
+    }
+
+    /**
+     * @return <code>true</code> if the prefetch of source requests is enabled.
+     */
+    public boolean isPrefetchEnabled() {
+        return prefetchEnabled;
+    }
+
+    /**
+     * Registers the pending response of an anticipated request.
+     *
+     * @param key request key.
+     * @param future pending response.
+     */
+    protected void addPrefetched(String key, HttpFuture future) {
+        if( prefetched == null ) {
+            prefetched = new HashMap<String,LinkedList<HttpFuture>>();
+        }
+        LinkedList<HttpFuture> futures = prefetched.get(key);
+        if( futures == null ) {
+            futures = new LinkedList<HttpFuture>();
+            prefetched.put(key, futures);
+        }
+        futures.add(future);
+    }
+
+    /**
+     * Checks whether a request has been anticipated and not yet consumed.
+     *
+     * @param key request key.
+     * @return <code>true</code> if a pending response is available.
+     */
+    protected boolean isPrefetched(String key) {
+        return prefetched != null && prefetched.containsKey(key);
+    }
+
+    /**
+     * Returns and removes the pending response of an anticipated request.
+     *
+     * @param key request key.
+     * @return pending response or <code>null</code> if the request was not anticipated.
+     */
+    public HttpFuture takePrefetched(String key) {
+        if( prefetched == null ) {
+            return null;
+        }
+        LinkedList<HttpFuture> futures = prefetched.get(key);
+        if( futures == null ) {
+            return null;
+        }
+        HttpFuture future = futures.removeFirst();
+        if( futures.isEmpty() ) {
+            prefetched.remove(key);
+        }
+        return future;
+    }
+
+    /**
+     * Discards the pending response of an anticipated request not used by its sequence.
+     *
+     * @param key request key.
+     * @param future pending response.
+     */
+    protected void discardPrefetched(String key, HttpFuture future) {
+        if( prefetched == null ) {
+            return;
+        }
+        LinkedList<HttpFuture> futures = prefetched.get(key);
+        if( futures != null && futures.remove(future) && futures.isEmpty() ) {
+            prefetched.remove(key);
+        }
+    }
+
     /**
      * Returns <code>true</code> if sequence has been breaked, <code>false</code> otherwise.
      *
@@ -91,6 +91,34 @@ public class FormalParameter {
         return type;
     }
 
+    /**
+     * Returns the model element of this formal parameter.
+     *
+     * @return model element.
+     */
+    public ModelElement getModelElement() {
+        return modelElement;
+    }
+
+    /**
+     * Returns <code>true</code> if this formal parameter is a plain variable,
+     * that unifies with any value.
+     *
+     * @return <code>true</code> if variable, <code>false</code> otherwise.
+     */
+    public boolean isVariable() {
+        return modelElement instanceof VariableModelElement;
+    }
+
+    /**
+     * Returns the variables defined by this formal parameter.
+     *
+     * @return list of variable names.
+     */
+    public String[] getVariables() {
+        return modelElement.getVariables();
+    }
+
     /**
      * Verifies that  this formal parameter unifies whit the
      * given <i>argument</i>.
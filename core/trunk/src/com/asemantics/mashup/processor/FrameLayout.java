@@ -0,0 +1,96 @@
+/*
+ * Copyright 2007-2008 Michele Mostarda ( michele.mostarda@gmail.com ).
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the 'License');
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an 'AS IS' BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package com.asemantics.mashup.processor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Defines the layout of the variables frame used to execute the body of a
+ * {@link com.asemantics.mashup.processor.ProgrammativeInvocable}.
+ * Every variable name is associated to a fixed slot index, the signature
+ * variables are placed first followed by the variables defined or used
+ * in the body.
+ *
+ * @see com.asemantics.mashup.processor.SlotResolvable
+ * @see com.asemantics.mashup.processor.SignatureContextMap
+ */
+public class FrameLayout {
+
+    /**
+     * List of slot names, the position in list is the slot index.
+     */
+    private List<String> slotNames;
+
+    /**
+     * Constructor.
+     */
+    public FrameLayout() {
+        slotNames = new ArrayList<String>();
+    }
+
+    /**
+     * Returns the slot index of the given variable name, allocating a new slot
+     * if the name has not been registered yet.
+     *
+     * @param name variable name.
+     * @return slot index.
+     */
+    public int slotOf(String name) {
+        if(name == null) {
+            throw new IllegalArgumentException();
+        }
+        int slot = slotNames.indexOf(name);
+        if( slot == -1 ) {
+            slotNames.add( name.intern() );
+            slot = slotNames.size() - 1;
+        }
+        return slot;
+    }
+
+    /**
+     * Returns the canonical name of the given slot.
+     *
+     * @param slot slot index.
+     * @return the name associated to the slot.
+     */
+    public String getSlotName(int slot) {
+        return slotNames.get(slot);
+    }
+
+    /**
+     * Returns the number of allocated slots.
+     *
+     * @return number of slots.
+     */
+    public int size() {
+        return slotNames.size();
+    }
+
+    /**
+     * Returns the list of slot names ordered by slot index.
+     *
+     * @return array of slot names.
+     */
+    public String[] getSlotNames() {
+        return slotNames.toArray( new String[ slotNames.size() ] );
+    }
+
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2007-2008 Michele Mostarda ( michele.mostarda@gmail.com ).
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the 'License');
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an 'AS IS' BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package com.asemantics.mashup.processor;
+
+import com.asemantics.mashup.nativepkg.HttpFuture;
+import com.asemantics.mashup.nativepkg.NativeException;
+import com.asemantics.mashup.processor.json.JsonString;
+
+import java.io.IOException;
+
+/**
+ * Defines the <i>string</i> value produced by an asynchronous request.
+ * The value is resolved waiting for the request when it is passed as argument of an invocation,
+ * or the first time its content is used, then it behaves as the resolved
+ * {@link com.asemantics.mashup.processor.StringValue}.
+ *
+ * @see com.asemantics.mashup.processor.nativeops.AwaitOperation
+ */
+public class FutureValue extends Value<String> implements JsonString {
+
+    /**
+     * Pending request result.
+     */
+    private final HttpFuture future;
+
+    /**
+     * Resolved value.
+     */
+    private StringValue resolved;
+
+    /**
+     * Constructor.
+     *
+     * @param f pending request result.
+     */
+    public FutureValue(HttpFuture f) {
+        if( f == null ) {
+            throw new IllegalArgumentException("f cannot be null.");
+        }
+        future = f;
+    }
+
+    /**
+     * Checks whether the request has been completed.
+     *
+     * @return <code>true</code> if the value can be resolved without waiting.
+     */
+    public synchronized boolean isDone() {
+        return resolved != null || future.isDone();
+    }
+
+    /**
+     * Waits for the request and returns its result.
+     *
+     * @return the resolved value.
+     * @throws NativeException if the request failed.
+     */
+    public synchronized StringValue resolve() throws NativeException {
+        if( resolved == null ) {
+            resolved = new StringValue( future.get() );
+        }
+        return resolved;
+    }
+
+    /**
+     * Resolves a value if asynchronous, reporting a failed request as an invocation error.
+     *
+     * @param value value to be resolved.
+     * @return resolved value, <i>value</i> itself if not asynchronous.
+     * @throws InvocationException if the asynchronous request failed.
+     */
+    public static Value resolve(Value value) throws InvocationException {
+        if( ! (value instanceof FutureValue) ) {
+            return value;
+        }
+        try {
+            return ((FutureValue) value).resolve();
+        } catch (NativeException ne) {
+            throw new InvocationException(
+                    ne.getMessage() + ( ne.getCause() != null ? " cause: " + ne.getCause().getMessage() : "" ) + "."
+            );
+        }
+    }
+
+    /**
+     * Resolves the value for the conversions, that cannot report a checked error.
+     *
+     * @return the resolved value.
+     */
+    private StringValue value() {
+        try {
+            return resolve();
+        } catch (NativeException ne) {
+            throw new ProcessorInternalException("Error while resolving asynchronous value.", ne);
+        }
+    }
+
+    public String getNativeValue() {
+        return value().getNativeValue();
+    }
+
+    public StringValue getValueTypeName() {
+        return value().getValueTypeName();
+    }
+
+    public StringValue asString() {
+        return value();
+    }
+
+    public NumericValue asNumeric() {
+        return value().asNumeric();
+    }
+
+    public BooleanValue asBoolean() {
+        return value().asBoolean();
+    }
+
+    public ListValue asList() {
+        return value().asList();
+    }
+
+    public MapValue asMap() {
+        return value().asMap();
+    }
+
+    public GraphValue asGraph() {
+        return value().asGraph();
+    }
+
+    @Override
+    public JsonValue asJsonValue() {
+        return value().asJsonValue();
+    }
+
+    public BooleanValue equalsTo(Value v) {
+        return value().equalsTo(v);
+    }
+
+    public NumericValue comparesTo(Value v) {
+        return value().comparesTo(v);
+    }
+
+    public StringValue cloneValue() {
+        return value().cloneValue();
+    }
+
+    public String toString() {
+        return value().toString();
+    }
+
+    @Override
+    public int hashCode() {
+        return value().hashCode();
+    }
+
+    public String getJsonType() {
+        return JSON_TYPE_STRING;
+    }
+
+    public String asJSON() {
+        return value().asJSON();
+    }
+
+    public String asPrettyJSON() {
+        return value().asPrettyJSON();
+    }
+
+    protected void writeJSON(Appendable out, boolean pretty, int level) throws IOException {
+        value().writeJSON(out, pretty, level);
+    }
+
+    public String stringValue() {
+        return getNativeValue();
+    }
+
+}
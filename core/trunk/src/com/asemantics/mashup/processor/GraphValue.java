@@ -25,6 +25,7 @@ import com.asemantics.mashup.processor.json.JsonArray;
 import com.asemantics.mashup.processor.json.JsonBase;
 import com.asemantics.mashup.processor.json.JsonString;
 
+import java.io.IOException;
 import java.util.Set;
 import java.util.Map;
 import java.util.HashMap;
@@ -74,6 +75,7 @@ public class GraphValue extends Value<Graph<Value>> {
      * @param node node to add.
      */
     public void addNode(Value node) {
+        valueModified();
         graph.addNode(node);
     }
 
@@ -84,6 +86,7 @@ public class GraphValue extends Value<Graph<Value>> {
      * @return <code>true</code> if remotion appens.
      */
     public boolean removeNode(Value node) {
+        valueModified();
         return graph.removeNode(node);
     }
 
@@ -95,6 +98,7 @@ public class GraphValue extends Value<Graph<Value>> {
      * @param label label value.
      */
     public void addArc(Value from, Value to, Value label) {
+        valueModified();
         graph.addArc(from, to, label);
     }
 
@@ -106,6 +110,7 @@ public class GraphValue extends Value<Graph<Value>> {
      * @param label label value.
      */
     public void removeArc(Value from, Value to, Value label) {
+        valueModified();
         graph.removeArc(from, to, label);
     }
 
@@ -175,6 +180,26 @@ public class GraphValue extends Value<Graph<Value>> {
         return new BooleanValue( graph.equals( other.graph ) );
     }
 
+    /**
+     * The hash code is the one of {@link #asString()}.
+     *
+     * @return hash code.
+     */
+    @Override
+    public int hashCode() {
+        return jsonHashCode();
+    }
+
+    /**
+     * Graph nodes are not tracked, so the hash code of a value containing a graph is not cached.
+     *
+     * @param dependent dependent value.
+     * @return always <code>false</code>.
+     */
+    protected boolean addDependent(Value dependent) {
+        return false;
+    }
+
     public NumericValue comparesTo(Value v) {
          return new NumericValue( v.asNumeric().getNativeValue() - asNumeric().getNativeValue() );
     }
@@ -200,11 +225,97 @@ public class GraphValue extends Value<Graph<Value>> {
     }
 
     public String asJSON() {
-        return graphAsJSON().asJSON();
+        return toJSON(false);
     }
 
     public String asPrettyJSON() {
-        return graphAsJSON().asPrettyJSON();
+        return asJSON();
+    }
+
+    /**
+     * Writes the same representation built by {@link #graphAsJSON()}
+     * without creating the intermediate objects.
+     */
+    protected void writeJSON(Appendable out, boolean pretty, int level) throws IOException {
+        Map<Value,String> nodeToID  = new HashMap<Value,String>();
+        Map<Value,String> labelToID = new HashMap<Value,String>();
+
+        out.append('{');
+        writeJSONKey(out, NODES_OBJECT, pretty, level + 1);
+        out.append('{');
+        int i = 0;
+        String nodeID;
+        for(Value node : graph.getNodes()) {
+            nodeID = Value.ValueType.getCharIdentifier(node) + "" + i;
+            writeSeparator(out, i++);
+            writeJSONKey(out, nodeID, pretty, level + 2);
+            node.writeJSON(out, pretty, level + 2);
+            nodeToID.put(node, nodeID);
+        }
+        writeClosing(out, '}', i, pretty, level + 1);
+
+        out.append(',');
+        writeJSONKey(out, LABELS_OBJECT, pretty, level + 1);
+        out.append('{');
+        int j = 0;
+        String labelID;
+        for(Value label : graph.getLabels()) {
+            labelID = Value.ValueType.getCharIdentifier(label) + "" + j;
+            writeSeparator(out, j++);
+            writeJSONKey(out, labelID, pretty, level + 2);
+            label.writeJSON(out, pretty, level + 2);
+            labelToID.put(label, labelID);
+        }
+        writeClosing(out, '}', j, pretty, level + 1);
+
+        out.append(',');
+        writeJSONKey(out, ARCS_ARRAY, pretty, level + 1);
+        out.append('[');
+        int k = 0;
+        for(Arc<Value> arc : graph.getArcs()) {
+            writeSeparator(out, k++);
+            if( pretty ) {
+                writeNewLine(out, level + 2);
+            }
+            out.append('{');
+            writeJSONKey(out, nodeToID.get( arc.getFromNode() ), pretty, level + 3);
+            out.append('{');
+            writeJSONKey(out, labelToID.get( arc.getArcLabel() ), pretty, level + 4);
+            out.append('"').append( nodeToID.get( arc.getToNode() ) ).append('"');
+            writeClosing(out, '}', 1, pretty, level + 3);
+            writeClosing(out, '}', 1, pretty, level + 2);
+        }
+        writeClosing(out, ']', k, pretty, level + 1);
+        writeClosing(out, '}', 1, pretty, level);
+    }
+
+    /**
+     * Writes the key of an object entry, on a new line if pretty.
+     */
+    private static void writeJSONKey(Appendable out, String key, boolean pretty, int level) throws IOException {
+        if( pretty ) {
+            writeNewLine(out, level);
+        }
+        out.append('"').append(key).append('"').append( pretty ? " : " : ":" );
+    }
+
+    /**
+     * Writes the separator preceding the i-th element.
+     */
+    private static void writeSeparator(Appendable out, int i) throws IOException {
+        if( i > 0 ) {
+            out.append(',');
+        }
+    }
+
+    /**
+     * Closes an array or an object of the given size, on a new line if pretty and not empty.
+     */
+    private static void writeClosing(Appendable out, char c, int size, boolean pretty, int level) throws IOException {
+        if( pretty && size > 0 ) {
+            writeNewLine(out, level);
+        }
+        out.append(c);
     }
 
     /**
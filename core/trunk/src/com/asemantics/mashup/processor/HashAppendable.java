@@ -0,0 +1,59 @@
+/*
+ * Copyright 2007-2008 Michele Mostarda ( michele.mostarda@gmail.com ).
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the 'License');
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an 'AS IS' BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.asemantics.mashup.processor;
+
+/**
+ * Computes the hash code of the characters appended to it, equal to the
+ * {@link String#hashCode()} of the same characters, without storing them.
+ */
+final class HashAppendable implements Appendable {
+
+    /**
+     * Hash code of the appended characters.
+     */
+    private int hash;
+
+    /**
+     * Returns the hash code of the appended characters.
+     *
+     * @return hash code.
+     */
+    int getHash() {
+        return hash;
+    }
+
+    public Appendable append(CharSequence csq) {
+        return append(csq, 0, csq.length());
+    }
+
+    public Appendable append(CharSequence csq, int start, int end) {
+        int h = hash;
+        for(int i = start; i < end; i++) {
+            h = 31 * h + csq.charAt(i);
+        }
+        hash = h;
+        return this;
+    }
+
+    public Appendable append(char c) {
+        hash = 31 * hash + c;
+        return this;
+    }
+
+}
@@ -57,6 +57,16 @@ public abstract class Invocable implements Operation {
      */
      public abstract String getDescription();
 
+    /**
+     * Returns the frame layout used to bind the variables of this invocable.
+     * 
+     * @return list of slot names, <code>null</code> if the invocable doesn't define a frame.
+     * @see com.asemantics.mashup.processor.FrameLayout
+     */
+     public String[] getFrameLayout() {
+         return null;
+     }
+
     /**
      * Invocable operation will be not validated.
      *
@@ -21,7 +21,7 @@ package com.asemantics.mashup.processor;
 /**
  * Defines an argument containing an invocation value.
  */
-public class InvocationArgument implements Argument {
+public class InvocationArgument implements Argument, SlotResolvable {
 
     /**
      * Internal invocation value.
@@ -49,6 +49,10 @@ public class InvocationArgument implements Argument {
         return value;
     }
 
+    public void resolveSlots(FrameLayout layout) {
+        value.getInvocation().resolveSlots(layout);
+    }
+
     public Value getValue(ExecutionContext ec, ExecutionStack es) {
         try {
             return value.getInvocation().execute( ec, es );
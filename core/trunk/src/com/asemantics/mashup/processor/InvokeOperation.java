@@ -25,6 +25,11 @@ package com.asemantics.mashup.processor;
  */
 public class InvokeOperation extends AbstractOperation {
 
+    /**
+     * Maximum number of argument shapes remembered by the call site cache.
+     */
+    private static final int POLYMORPHIC_LIMIT = 4;
+
     /**
      * Name of target sequence to invoke.
      */
@@ -35,6 +40,11 @@ public class InvokeOperation extends AbstractOperation {
      */
     private String result;
 
+    /**
+     * Inline cache of the invocables resolved by this call site.
+     */
+    private volatile CallSiteCache callSiteCache;
+
     /**
      * Constructor.
      *
@@ -69,6 +79,23 @@ public class InvokeOperation extends AbstractOperation {
         return targetSequence;
     }
 
+    /**
+     * Returns the name of the variable receiving the result.
+     *
+     * @return variable name, <code>null</code> if not defined.
+     */
+    String getResult() {
+        return result;
+    }
+
+    @Override
+    public void resolveSlots(FrameLayout layout) {
+        super.resolveSlots(layout);
+        if( result != null ) {
+            layout.slotOf(result);
+        }
+    }
+
     /**
      * Invokes the referenced sequence.
      *
@@ -84,24 +111,36 @@ public class InvokeOperation extends AbstractOperation {
             throws SequenceNotFoundException, ArgumentEvaluationException, InvocationException {
 
         // Retrieves candidate invocables.
-        Invocable[] invocables = context.getSequences( targetSequence );
+        CallSiteCache cache = getCallSiteCache(context);
+        Invocable[] invocables = cache.invocables;
         if(invocables.length == 0) {
             throw new SequenceNotFoundException("Cannot find sequence '" + targetSequence + "' in context.");
         }
 
-        // Evaluate arguments just once.
+        // Evaluate arguments just once, waiting for the asynchronous ones.
         Argument[] args = getArguments();
         Value[] values = new Value[args.length];
         try {
             for(int i = 0; i < args.length; i++) {
-                values[i] = args[i].getValue(context, stack);
+                values[i] = FutureValue.resolve( args[i].getValue(context, stack) );
             }
         } catch (VariableNotFoundException vnfe) {
             throw new ArgumentEvaluationException("Cannot evaluate arguments.", vnfe);
         }
 
         // Find target invocable.
-        InvocableTarget invocableTarget = findCompatibleInvocable(invocables, values);
+        InvocableTarget invocableTarget = findCachedInvocable(cache, values);
+        if( invocableTarget == null ) {
+            if( cache.arityDiscriminated ) {
+                invocableTarget = findCompatibleInvocable(invocables, values);
+                cache.store(values.length, invocableTarget.invocable);
+            } else {
+                invocableTarget = findIndexedInvocable(cache, values);
+                if( invocableTarget == null ) {
+                    invocableTarget = findCompatibleInvocable(invocables, values);
+                }
+            }
+        }
 
         // Creates the invocation context.
         ExecutionContext newContext = context.createContext(invocableTarget.signatureContextMap);
@@ -117,7 +156,64 @@ public class InvokeOperation extends AbstractOperation {
     }
 
     /**
-     * Returns a compatible invocable for the given arguments.
+     * Returns the call site cache valid for the sequences of the given context,
+     * refreshing it if the sequences have been modified.
+     *
+     * @param context execution context.
+     * @return valid cache.
+     * @throws InvocationException
+     */
+    private CallSiteCache getCallSiteCache(ExecutionContext context) throws InvocationException {
+        final ExecutionContext.Sequences sequences = context.getSequencesSnapshot();
+        CallSiteCache cache = callSiteCache;
+        if( cache == null || cache.sequences != sequences ) {
+            cache = new CallSiteCache( sequences, sequences.getInvocables(targetSequence) );
+            callSiteCache = cache;
+        }
+        return cache;
+    }
+
+    /**
+     * Returns the invocable target remembered by the cache for the shape of the given values.
+     *
+     * @param cache call site cache.
+     * @param values list of values used to match the invocable.
+     * @return candidate invocable, <code>null</code> if not cached.
+     */
+    private InvocableTarget findCachedInvocable(CallSiteCache cache, Value[] values) {
+        Invocable invocable = cache.lookup(values.length);
+        if( invocable == null ) {
+            return null;
+        }
+        SignatureContextMap scm = invocable.getSignature().tryUnify(values, invocable.getFrameLayout());
+        return scm == null ? null : new InvocableTarget(invocable, scm);
+    }
+
+    /**
+     * Returns the first invocable unifying with the given values among the candidates
+     * selected by the first argument index of the cache.
+     *
+     * @param cache call site cache.
+     * @param values list of values used to match the invocable.
+     * @return candidate invocable, <code>null</code> if none unifies.
+     */
+    private InvocableTarget findIndexedInvocable(CallSiteCache cache, Value[] values) {
+        for(Invocable invocable : cache.index.select(values)) {
+            Signature signature = invocable.getSignature();
+            if( ! signature.acceptsArity(values.length) ) {
+                continue;
+            }
+            SignatureContextMap scm = signature.tryUnify(values, invocable.getFrameLayout());
+            if( scm != null ) {
+                return new InvocableTarget(invocable, scm);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns a compatible invocable for the given arguments. The causes of
+     * the failure are collected only if no candidate is compatible.
      *
      * @param invocables list of candidate invocables.
      * @param values list of values used to match the invocable.
@@ -128,24 +224,115 @@ public class InvokeOperation extends AbstractOperation {
             Invocable[] invocables,
             Value[] values
     ) throws SequenceNotFoundException {
-        SequenceNotFoundException root = null;
         SignatureContextMap scm;
         for(Invocable invocable : invocables) {
-            try {
-                 scm = invocable.getSignature().unify(values);
+            scm = invocable.getSignature().tryUnify(values, invocable.getFrameLayout());
+            if( scm != null ) {
                 return new InvocableTarget(invocable, scm);
+            }
+        }
+
+        SequenceNotFoundException root = new SequenceNotFoundException("Cannot find an invocable object compatible with given arguments.");
+        root.setSequenceName(targetSequence);
+        for(Invocable invocable : invocables) {
+            try {
+                invocable.getSignature().unify(values, invocable.getFrameLayout());
             } catch(SequenceNotFoundException snfe) {
-                if( root == null ) {
-                    root = new SequenceNotFoundException("Cannot find an invocable object compatible with given arguments.");
-                    root.setSequenceName(targetSequence);
-                }
                 root.addCause(snfe);
             }
-
         }
         throw root;
     }
 
+    /**
+     * Defines the inline cache of a call site. The cache holds the candidate invocables
+     * for a given version of the sequences and, when the selection depends only on the
+     * number of arguments, the invocables already selected for every argument shape.
+     */
+    private static class CallSiteCache {
+
+        /**
+         * Snapshot of the sequences on which the cache has been populated.
+         */
+        private final ExecutionContext.Sequences sequences;
+
+        /**
+         * Candidate invocables.
+         */
+        private final Invocable[] invocables;
+
+        /**
+         * <code>true</code> if every candidate is selected by the number of arguments only.
+         */
+        private final boolean arityDiscriminated;
+
+        /**
+         * Argument shapes, defined as the number of arguments.
+         */
+        private final int[] arities = new int[POLYMORPHIC_LIMIT];
+
+        /**
+         * Invocables selected for every shape.
+         */
+        private final Invocable[] targets = new Invocable[POLYMORPHIC_LIMIT];
+
+        /**
+         * Number of cached shapes, written after the shape to publish it to concurrent lookups.
+         */
+        private volatile int size;
+
+        /**
+         * Index on first argument, <code>null</code> if the candidates
+         * are discriminated by arity.
+         */
+        private final OverloadIndex index;
+
+        CallSiteCache(ExecutionContext.Sequences s, Invocable[] is) {
+            sequences  = s;
+            invocables = is;
+            boolean ad = true;
+            for(Invocable invocable : is) {
+                if( ! invocable.getSignature().isArityDiscriminated() ) {
+                    ad = false;
+                    break;
+                }
+            }
+            arityDiscriminated = ad;
+            index = ad ? null : new OverloadIndex(is);
+        }
+
+        /**
+         * Returns the invocable selected for the given shape.
+         *
+         * @param arity number of arguments.
+         * @return invocable or <code>null</code> if not present.
+         */
+        Invocable lookup(int arity) {
+            final int s = size;
+            for(int i = 0; i < s; i++) {
+                if( arities[i] == arity ) {
+                    return targets[i];
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Stores the invocable selected for the given shape, if there is room.
+         *
+         * @param arity number of arguments.
+         * @param target selected invocable.
+         */
+        synchronized void store(int arity, Invocable target) {
+            if( size == POLYMORPHIC_LIMIT ) {
+                return;
+            }
+            arities[size] = arity;
+            targets[size] = target;
+            size++;
+        }
+    }
+
     /**
      * Container class for #findCompatibleInvocable() result.
      */
@@ -26,6 +26,7 @@ import com.asemantics.mashup.processor.json.JsonNumber;
 import com.asemantics.mashup.processor.json.JsonObject;
 import com.asemantics.mashup.processor.json.JsonString;
 
+import java.io.IOException;
 import java.util.Map;
 
 /**
@@ -275,7 +276,39 @@ public class JsonValue extends Value<JsonBase> {
         return jsonBase.asJSON();
     }
 
+    /**
+     * The hash code is the one of {@link #asString()}.
+     *
+     * @return hash code.
+     */
+    @Override
+    public int hashCode() {
+        if( jsonBase.isString() ) {
+            return ((JsonString) jsonBase).stringValue().hashCode();
+        }
+        return jsonHashCode();
+    }
+
+    /**
+     * Only the modifications of a wrapped value are notified,
+     * other <i>JSON</i> objects are not tracked.
+     *
+     * @param dependent dependent value.
+     * @return <code>true</code> if the wrapped object is a value.
+     */
+    protected boolean addDependent(Value dependent) {
+        return jsonBase instanceof Value && ((Value) jsonBase).addDependent(this) && registerDependent(dependent);
+    }
+
     public String asPrettyJSON() {
         return jsonBase.asPrettyJSON();
     }
+
+    protected void writeJSON(Appendable out, boolean pretty, int level) throws IOException {
+        if( jsonBase instanceof Value ) {
+            ((Value) jsonBase).writeJSON(out, pretty, level);
+        } else {
+            jsonBase.writeJSON(out, pretty);
+        }
+    }
 }
@@ -21,10 +21,13 @@ package com.asemantics.mashup.processor;
 import com.asemantics.mashup.processor.json.JsonArray;
 import com.asemantics.mashup.processor.json.JsonBase;
 
+import java.io.IOException;
+import java.util.AbstractList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.RandomAccess;
 
 /**
  * Defines the <i>list</i> type.
@@ -33,12 +36,24 @@ public class ListValue extends Value<List<Value>> implements JsonArray {
 
     /**
      * Defines an interator over a JsonArray.
+     * Removing an element from a list sharing its elements copies them,
+     * the iteration continues on the copy.
      */
     class ListIterator implements Iterator<JsonBase> {
 
-        private Iterator<? extends JsonBase> iterator;
+        private Iterator<Value> iterator;
 
-        ListIterator( List<? extends JsonBase> list) {
+        /**
+         * Index of the next element.
+         */
+        private int index;
+
+        /**
+         * <code>true</code> if the last returned element can be removed.
+         */
+        private boolean removable;
+
+        ListIterator( List<Value> list) {
             iterator = list.iterator();
         }
 
@@ -47,11 +62,65 @@ public class ListValue extends Value<List<Value>> implements JsonArray {
         }
 
         public JsonBase next() {
-            return iterator.next();
+            final Value next = iterator.next();
+            index++;
+            removable = true;
+            return next;
         }
 
         public void remove() {
+            if( ! removable ) {
+                throw new IllegalStateException();
+            }
+            index--;
+            removable = false;
+            if( shared ) {
+                final List<Value> copy = modifiableList();
+                copy.remove(index);
+                iterator = copy.subList(index, copy.size()).iterator();
+                return;
+            }
             iterator.remove();
+            valueModified();
+        }
+    }
+
+    /**
+     * Defines a read only view of the elements of a list starting from an offset.
+     * Views of views refer directly to the root list, so access is constant time
+     * at any nesting level.
+     */
+    private static class TailList extends AbstractList<Value> implements RandomAccess {
+
+        /**
+         * Root list.
+         */
+        private final List<Value> root;
+
+        /**
+         * Index of first element in root list.
+         */
+        private final int offset;
+
+        TailList(List<Value> l, int from) {
+            if( l instanceof TailList ) {
+                root   = ((TailList) l).root;
+                offset = ((TailList) l).offset + from;
+            } else {
+                root   = l;
+                offset = from;
+            }
+        }
+
+        public Value get(int i) {
+            if( i < 0 || i >= size() ) {
+                throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size());
+            }
+            return root.get(offset + i);
+        }
+
+        public int size() {
+            return root.size() - offset;
         }
     }
 
@@ -61,15 +130,26 @@ public class ListValue extends Value<List<Value>> implements JsonArray {
     private static final StringValue VALUE_TYPE_NAME = new StringValue("list");
 
     /**
-     * Internal representation as {@link LinkedList}.
+     * Internal representation as {@link List}, by default a {@link ValueDeque}.
+     */
+    private List<Value> list;
+
+    /**
+     * If <code>true</code> the internal list is shared with other lists
+     * and must be copied before being modified.
+     */
+    private boolean shared;
+
+    /**
+     * Cached hash code, <code>null</code> if not computed or invalidated.
      */
-    private LinkedList<Value> list;
+    private volatile Integer hash;
 
     /**
      * Constructor for empty list ( [] ).
      */
     public ListValue() {
-        list = new LinkedList<Value>();
+        list = new ValueDeque();
     }
 
     /**
@@ -100,28 +180,68 @@ public class ListValue extends Value<List<Value>> implements JsonArray {
      * @param lv list value to be used as model.
      */
     public ListValue( ListValue lv ) {
-        list = new LinkedList<Value>( lv.list );
+        list = new ValueDeque( lv.list );
     }
 
     /**
-     * Constructor from linked list.
+     * Constructor from list.
      *
      * @param l list to be used as model.
      */
-    protected ListValue(LinkedList<Value> l) {
+    protected ListValue(List<Value> l) {
         if(l == null) {
             throw new NullPointerException();
         }
         list = l;
     }
 
+    /**
+     * Constructor for a tail view.
+     *
+     * @param tl shared tail list.
+     */
+    private ListValue(TailList tl) {
+        list   = tl;
+        shared = true;
+    }
+
+    /**
+     * Returns the list of the elements of this list starting from position <i>from</i>.
+     * The returned list shares the elements with this list without copying them,
+     * the first of the two lists to be modified copies its elements.
+     *
+     * @param from index of first element.
+     * @return tail list.
+     */
+    public ListValue tail(int from) {
+        if( from < 0 || from > list.size() ) {
+            throw new IndexOutOfBoundsException("Index: " + from + ", Size: " + list.size());
+        }
+        shared = true;
+        return new ListValue( new TailList(list, from) );
+    }
+
+    /**
+     * Returns the internal list ready to be modified, copying it if shared.
+     *
+     * @return modifiable internal list.
+     */
+    private List<Value> modifiableList() {
+        valueModified();
+        if( shared ) {
+            list   = new ValueDeque(list);
+            shared = false;
+        }
+        return list;
+    }
+
     /**
      * Adds a value to list.
      *
      * @param v value to add.
      */
     public void add(Value v) {
-        list.add(v);
+        modifiableList().add(v);
     }
 
     /**
@@ -130,7 +250,7 @@ public class ListValue extends Value<List<Value>> implements JsonArray {
      * @param values collection of values to append to the list.
      */
     public void add(Collection<Value> values) {
-        list.addAll(values);
+        modifiableList().addAll(values);
     }
 
     /**
@@ -150,7 +270,7 @@ public class ListValue extends Value<List<Value>> implements JsonArray {
      * @param v value to add at first position.
      */
     public void addFirst(Value v) {
-        list.addFirst(v);
+        modifiableList().add(0, v);
     }
 
     /**
@@ -159,7 +279,7 @@ public class ListValue extends Value<List<Value>> implements JsonArray {
      * @param v value to add.
      */
     public void addLast(Value v) {
-        list.addLast(v);
+        modifiableList().add(v);
     }
 
     /**
@@ -215,7 +335,7 @@ public class ListValue extends Value<List<Value>> implements JsonArray {
         if (i < 0 || i >= list.size()) {
             return NullValue.getInstance();
         }
-        return list.remove(i);
+        return modifiableList().remove(i);
     }
 
     public StringValue getValueTypeName() {
@@ -275,20 +395,72 @@ public class ListValue extends Value<List<Value>> implements JsonArray {
         return BooleanValue.TRUE_VALUE;
     }
 
+    /**
+     * The hash code is the one of {@link #asString()}: a single element list
+     * has the hash code of the element, any other list the one of its <i>JSON</i> representation.
+     * The hash code is cached until the list or any of its elements is modified,
+     * so computing it again on an unmodified list costs constant time.
+     *
+     * @return hash code.
+     */
+    @Override
+    public int hashCode() {
+        if( list.size() == 1 ) {
+            return list.get(0).hashCode();
+        }
+        Integer cached = hash;
+        if( cached == null ) {
+            if( ! linkElements() ) {
+                return jsonHashCode();
+            }
+            cached = jsonHashCode();
+            hash   = cached;
+        }
+        return cached;
+    }
+
+    protected void clearHashCode() {
+        hash = null;
+    }
+
+    protected boolean addDependent(Value dependent) {
+        return linkElements() && registerDependent(dependent);
+    }
+
+    /**
+     * Registers this list as dependent of its elements.
+     *
+     * @return <code>false</code> if the modifications of an element cannot be notified.
+     */
+    private boolean linkElements() {
+        for(Value v : list) {
+            if( v != null && ! v.addDependent(this) ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public NumericValue comparesTo(Value v) {
         return new NumericValue( v.asNumeric().getNativeValue() - asNumeric().getNativeValue() );
     }
 
     public ListValue cloneValue() {
-        LinkedList<Value> newList = new LinkedList<Value>();
+        List<Value> newList = new ValueDeque( list.size() );
         for(Value v : list) {
             newList.add( v.cloneValue() );
         }
         return new ListValue(newList);
     }
 
+    /**
+     * Returns a read only view of the elements of this list, that must be
+     * modified through the methods of this list.
+     *
+     * @return list of elements.
+     */
     public List<Value> getNativeValue() {
-        return list;
+        return Collections.unmodifiableList(list);
     }
 
     public String getJsonType() {
@@ -296,7 +468,7 @@ public class ListValue extends Value<List<Value>> implements JsonArray {
     }
 
     public String asJSON() {
-        return asJSONArray(list, true);
+        return toJSON(false);
     }
 
     public String asPrettyJSON() {
@@ -308,7 +480,7 @@ public class ListValue extends Value<List<Value>> implements JsonArray {
     }
 
     public void add(JsonBase v) {
-        list.add((Value) v);
+        modifiableList().add((Value) v);
     }
 
     public void add(boolean b) {
@@ -328,7 +500,7 @@ public class ListValue extends Value<List<Value>> implements JsonArray {
     }
 
     public void remove(int i) {
-        list.remove(i);
+        modifiableList().remove(i);
     }
 
     public int size() {
@@ -339,6 +511,42 @@ public class ListValue extends Value<List<Value>> implements JsonArray {
         return new ListIterator(list);
     }
 
+    protected void writeJSON(Appendable out, boolean pretty, int level) throws IOException {
+        writeJSONArray(out, list, pretty, level);
+    }
+
+    /**
+     * Writes a list of {@link Value}s as a JSON array.
+     *
+     * @param out output to write to.
+     * @param list input list.
+     * @param pretty if <code>true</code> every element is written on an indented line.
+     * @param level nesting level of the array.
+     * @throws IOException if the output cannot be written.
+     */
+    protected static void writeJSONArray(Appendable out, List<Value> list, boolean pretty, int level)
+    throws IOException {
+        out.append('[');
+        boolean first = true;
+        for(Value v : list) {
+            if( first ) {
+                first = false;
+            } else {
+                out.append(',');
+            }
+            if( pretty ) {
+                writeNewLine(out, level + 1);
+            }
+            // Strings containing JSON are embedded as JSON.
+            final Value element = v instanceof StringValue || v instanceof FutureValue ? v.asJsonValue() : v;
+            element.writeJSON(out, pretty, level + 1);
+        }
+        if( pretty && ! first ) {
+            writeNewLine(out, level);
+        }
+        out.append(']');
+    }
+
     /**
      * Converts a list of {@link Value}s in a JSON array.
      *
@@ -348,14 +556,18 @@ public class ListValue extends Value<List<Value>> implements JsonArray {
      */
     protected static String asJSONArray(List<Value> list, boolean strict) {
         StringBuilder sb = new StringBuilder();
+        if( strict ) {
+            try {
+                writeJSONArray(sb, list, false, 0);
+            } catch (IOException ioe) {
+                throw new ProcessorInternalException("Error while writing JSON.", ioe);
+            }
+            return sb.toString();
+        }
         int i = 0, last = list.size() - 1;
         sb.append('[');
         for(Value v : list) {
-            if( strict ) {
-                sb.append( v.asJsonValue().asJSON() );
-            } else {
-                sb.append( v.asString().getNativeValue() );
-            }
+            sb.append( v.asString().getNativeValue() );
             if( i < last ) {
                 sb.append(',');
             }
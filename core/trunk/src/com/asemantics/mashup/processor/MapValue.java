@@ -21,10 +21,11 @@ package com.asemantics.mashup.processor;
 import com.asemantics.mashup.processor.json.JsonBase;
 import com.asemantics.mashup.processor.json.JsonObject;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.Map;
 
 /**
@@ -70,6 +71,11 @@ public class MapValue extends Value<Map<Value,Value>> implements JsonObject {
      */
     private HashMap<Value,Value> map;
 
+    /**
+     * Cached hash code, <code>null</code> if not computed or invalidated.
+     */
+    private volatile Integer hash;
+
     /**
      * Constructor with empty map.
      */
@@ -122,6 +128,7 @@ public class MapValue extends Value<Map<Value,Value>> implements JsonObject {
      * @return last value inside map associated with <i>key</i>.
      */
     public Value put(Value key, Value value) {
+        valueModified();
         Value result = map.put(key,value);
         return result == null ? NullValue.getInstance() : result;
     }
@@ -153,6 +160,7 @@ public class MapValue extends Value<Map<Value,Value>> implements JsonObject {
      * @return remove entry.
      */
     public Value remove(Value key) {
+        valueModified();
         Value result = map.remove(key);
         return result == null ? NullValue.getInstance() : result;
     }
@@ -175,7 +183,7 @@ public class MapValue extends Value<Map<Value,Value>> implements JsonObject {
     }
 
     public ListValue asList() {
-        return new ListValue( new LinkedList<Value>( map.keySet() ) );
+        return new ListValue( new ArrayList<Value>( map.keySet() ) );
     }
 
     public MapValue asMap() {
@@ -202,6 +210,50 @@ public class MapValue extends Value<Map<Value,Value>> implements JsonObject {
         return BooleanValue.FALSE_VALUE;
     }
 
+    /**
+     * The hash code is the one of {@link #asString()}, cached until
+     * the map or any of its keys and values is modified.
+     *
+     * @return hash code.
+     */
+    @Override
+    public int hashCode() {
+        Integer cached = hash;
+        if( cached == null ) {
+            if( ! linkElements() ) {
+                return jsonHashCode();
+            }
+            cached = jsonHashCode();
+            hash   = cached;
+        }
+        return cached;
+    }
+
+    protected void clearHashCode() {
+        hash = null;
+    }
+
+    protected boolean addDependent(Value dependent) {
+        return linkElements() && registerDependent(dependent);
+    }
+
+    /**
+     * Registers this map as dependent of its keys and values.
+     *
+     * @return <code>false</code> if the modifications of a key or a value cannot be notified.
+     */
+    private boolean linkElements() {
+        for( Map.Entry<Value,Value> entry : map.entrySet() ) {
+            if( ! entry.getKey().addDependent(this) ) {
+                return false;
+            }
+            if( entry.getValue() != null && ! entry.getValue().addDependent(this) ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public NumericValue comparesTo(Value v) {
         return new NumericValue( v.asNumeric().getNativeValue() - asNumeric().getNativeValue() );
     }
@@ -230,6 +282,7 @@ public class MapValue extends Value<Map<Value,Value>> implements JsonObject {
     }
 
     public void put(String key, JsonBase value) {
+        valueModified();
         // TODO: find a better solution.
         if( value instanceof JsonValue) {
             map.put( new StringValue(key), (JsonValue) value );
@@ -272,7 +325,7 @@ public class MapValue extends Value<Map<Value,Value>> implements JsonObject {
     }
 
     public String asJSON() {
-        return asJSONObject(map, true);
+        return toJSON(false);
     }
 
     public String asPrettyJSON() {
@@ -283,24 +336,60 @@ public class MapValue extends Value<Map<Value,Value>> implements JsonObject {
        return new MapIterator(map);
     }
 
+    protected void writeJSON(Appendable out, boolean pretty, int level) throws IOException {
+        writeJSONObject(out, map, pretty, level);
+    }
+
+    /**
+     * Writes a map of {@link Value}s as a JSON object.
+     *
+     * @param out output to write to.
+     * @param map input map.
+     * @param pretty if <code>true</code> every entry is written on an indented line.
+     * @param level nesting level of the object.
+     * @throws IOException if the output cannot be written.
+     */
+    protected static void writeJSONObject(Appendable out, Map<Value,Value> map, boolean pretty, int level)
+    throws IOException {
+        out.append('{');
+        boolean first = true;
+        for( Map.Entry<Value,Value> entry : map.entrySet() ) {
+            if( first ) {
+                first = false;
+            } else {
+                out.append(',');
+            }
+            if( pretty ) {
+                writeNewLine(out, level + 1);
+            }
+            out.append('"').append( entry.getKey().asString().getNativeValue() ).append('"');
+            out.append( pretty ? " : " : ":" );
+            Value entryValue = entry.getValue();
+            ( entryValue == null ? NullValue.getInstance() : entryValue ).writeJSON(out, pretty, level + 1);
+        }
+        if( pretty && ! first ) {
+            writeNewLine(out, level);
+        }
+        out.append('}');
+    }
+
     protected static String asJSONObject(Map<Value,Value> map, boolean strict) {
         StringBuilder sb = new StringBuilder();
+        if( strict ) {
+            try {
+                writeJSONObject(sb, map, false, 0);
+            } catch (IOException ioe) {
+                throw new ProcessorInternalException("Error while writing JSON.", ioe);
+            }
+            return sb.toString();
+        }
         final int lastCommaIndex = map.size() - 2;
         int i = 0;
         sb.append("{");
         for( Map.Entry<Value,Value> entry : map.entrySet() ) {
-            if( strict ) {
-            sb.append("\"").append( entry.getKey().asString().getNativeValue() ).append("\"");
-            } else {
-                sb.append( entry.getKey().asString().getNativeValue() );
-            }
+            sb.append( entry.getKey().asString().getNativeValue() );
             sb.append(":");
-            if( strict ) {
-                Value entryValue = entry.getValue();
-                sb.append( entryValue == null ? NullValue.getInstance().asJSON() : entryValue.asJSON() );
-            } else {
-                sb.append( entry.getValue().asString().getNativeValue() );
-            }
+            sb.append( entry.getValue().asString().getNativeValue() );
             if( i++ <= lastCommaIndex ) {
                 sb.append(",");
             }
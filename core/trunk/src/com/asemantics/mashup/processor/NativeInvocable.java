@@ -19,6 +19,7 @@
 package com.asemantics.mashup.processor;
 
 import com.asemantics.lightparser.TreeNode;
+import com.asemantics.mashup.nativepkg.HttpFuture;
 
 /**
  * Defines any invocable with native implementation.
@@ -28,4 +29,59 @@ public abstract class NativeInvocable extends Invocable {
     public TreeNode getTreeNode() {
         return null; 
     }
+
+    /**
+     * Checks whether the requests following an invocation of this native in a sequence
+     * cannot be anticipated, because the native performs requests with side effects
+     * or invokes other sequences.
+     *
+     * @return <code>false</code> by default.
+     * @see com.asemantics.mashup.processor.SourcePrefetcher
+     */
+    public boolean isPrefetchBarrier() {
+        return false;
+    }
+
+    /**
+     * Checks whether this native can be invoked in advance, having no side effects
+     * and depending only on its arguments.
+     *
+     * @return <code>false</code> by default.
+     */
+    public boolean isSideEffectFree() {
+        return false;
+    }
+
+    /**
+     * Checks whether this native performs a request that can be anticipated.
+     *
+     * @return <code>false</code> by default.
+     * @see #getPrefetchKey(Value[])
+     */
+    public boolean isPrefetchable() {
+        return false;
+    }
+
+    /**
+     * Returns the key of the request that would be performed invoking this native
+     * with the given arguments, if it can be anticipated.
+     *
+     * @param arguments invocation arguments.
+     * @return request key or <code>null</code> if the invocation cannot be anticipated.
+     */
+    public String getPrefetchKey(Value[] arguments) {
+        return null;
+    }
+
+    /**
+     * Starts in advance the request identified by {@link #getPrefetchKey(Value[])}.
+     * The response is retrieved by the invocation through
+     * {@link com.asemantics.mashup.processor.ExecutionStack#takePrefetched(String)}.
+     *
+     * @param arguments invocation arguments.
+     * @return pending response, <code>null</code> if the request has not been started.
+     */
+    public HttpFuture prefetch(Value[] arguments) {
+        return null;
+    }
 }
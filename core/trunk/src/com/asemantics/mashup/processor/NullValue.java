@@ -111,6 +111,11 @@ public class NullValue extends Value implements JsonNull {
         return "null";
     }
 
+    @Override
+    public int hashCode() {
+        return "null".hashCode();
+    }
+
     public String asPrettyJSON() {
         return asJSON();
     }
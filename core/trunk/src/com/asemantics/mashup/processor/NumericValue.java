@@ -31,12 +31,31 @@ public class NumericValue extends Value<Double> implements JsonDouble, JsonInteg
      */
     private static final StringValue VALUE_TYPE_NAME = new StringValue(JSON_TYPE_NUMERIC);
 
+    /**
+     * Lower bound of the doubles out of the <i>long</i> range.
+     */
+    private static final double LONG_RANGE = 9.223372036854775807E18;
 
     /**
      * Internal native representation.
      */
     private double value;
 
+    /**
+     * Exact value of an integer not representable as a double.
+     */
+    private long exact;
+
+    /**
+     * <code>true</code> if the value is the {@link #exact} integer.
+     */
+    private boolean exactInteger;
+
+    /**
+     * Cached hash code, <code>null</code> if not computed or invalidated.
+     */
+    private volatile Integer hash;
+
     /**
      * Constructor.
      *
@@ -46,6 +65,20 @@ public class NumericValue extends Value<Double> implements JsonDouble, JsonInteg
         value = v;
     }
 
+    /**
+     * Constructor for an integer value, preserving it also when
+     * out of the precision of a double.
+     *
+     * @param v
+     */
+    public NumericValue(long v) {
+        value = v;
+        if( value >= LONG_RANGE || (long) value != v ) {
+            exact        = v;
+            exactInteger = true;
+        }
+    }
+
     /**
      * Constructor at default <i>zero</i> value.
      */
@@ -68,6 +101,8 @@ public class NumericValue extends Value<Double> implements JsonDouble, JsonInteg
      */
     public void setValue(double v) {
         value = v;
+        exactInteger = false;
+        valueModified();
     }
 
     /**
@@ -76,7 +111,10 @@ public class NumericValue extends Value<Double> implements JsonDouble, JsonInteg
      * @return  incremented value.
      */
     public double increment(double delta) {
-        return value += delta;
+        value += delta;
+        exactInteger = false;
+        valueModified();
+        return value;
     }
 
     /**
@@ -162,17 +200,25 @@ public class NumericValue extends Value<Double> implements JsonDouble, JsonInteg
 
     public BooleanValue equalsTo(Value v) {
         if( v != null ) {
-            return new BooleanValue( value == v.asNumeric().value);
+            final NumericValue other = v.asNumeric();
+            return new BooleanValue( value == other.value && longValue() == other.longValue() );
         }
         return BooleanValue.FALSE_VALUE;
     }
 
     public NumericValue comparesTo(Value v) {
-        return new NumericValue( v.asNumeric().getNativeValue() - value );
+        final NumericValue other = v.asNumeric();
+        if( exactInteger || other.exactInteger ) {
+            // The difference of exact integers can overflow, only its sign is returned.
+            final long otherLong = other.longValue();
+            final long thisLong  = longValue();
+            return new NumericValue( otherLong < thisLong ? -1 : otherLong == thisLong ? 0 : 1 );
+        }
+        return new NumericValue( other.value - value );
     }
 
     public NumericValue cloneValue() {
-        return new NumericValue(value);
+        return exactInteger ? new NumericValue(exact) : new NumericValue(value);
     }
 
     public String getJsonType() {
@@ -180,9 +226,15 @@ public class NumericValue extends Value<Double> implements JsonDouble, JsonInteg
     }
 
     public String asJSON() {
+        if( exactInteger ) {
+            return Long.toString(exact);
+        }
         if( isIntegerValue() ) {
             return Integer.toString((int) value);    
         }
+        if( value == Math.floor(value) && value >= -LONG_RANGE && value < LONG_RANGE ) {
+            return Long.toString((long) value);
+        }
        return Double.toString(value);
     }
 
@@ -190,6 +242,30 @@ public class NumericValue extends Value<Double> implements JsonDouble, JsonInteg
         return asJSON();
     }
 
+    /**
+     * The hash code is the one of the string representation, so that a number
+     * and the string representing it have the same hash code.
+     *
+     * @return hash code.
+     */
+    @Override
+    public int hashCode() {
+        Integer cached = hash;
+        if( cached == null ) {
+            cached = asJSON().hashCode();
+            hash   = cached;
+        }
+        return cached;
+    }
+
+    protected void clearHashCode() {
+        hash = null;
+    }
+
+    protected boolean addDependent(Value dependent) {
+        return registerDependent(dependent);
+    }
+
     public Double asDouble() {
         return value;
     }
@@ -206,4 +282,8 @@ public class NumericValue extends Value<Double> implements JsonDouble, JsonInteg
         return integer();
     }
 
+    public long longValue() {
+        return exactInteger ? exact : (long) value;
+    }
+
 }
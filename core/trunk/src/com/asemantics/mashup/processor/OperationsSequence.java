@@ -30,7 +30,7 @@ import java.util.Set;
  *
  * @see com.asemantics.mashup.processor.Operation
  */
-public class OperationsSequence implements Operation {
+public class OperationsSequence implements Operation, SlotResolvable {
 
     /**
      * Sequence of operations to be executed.
@@ -42,6 +42,12 @@ public class OperationsSequence implements Operation {
      */
     private List<Operation> temporaryList;
 
+    /**
+     * Last prefetch decision, published as a whole so that concurrent executions
+     * never see the snapshot of a decision paired with the outcome of another.
+     */
+    private volatile PrefetchDecision prefetchDecision;
+
     /**
      * Constructor
      */
@@ -108,6 +114,17 @@ public class OperationsSequence implements Operation {
         }
     }
 
+    public void resolveSlots(FrameLayout layout) {
+        if( ! isCompleted() ) {
+            return;
+        }
+        for(Operation o : operations) {
+            if(o instanceof SlotResolvable) {
+                ((SlotResolvable) o).resolveSlots(layout);
+            }
+        }
+    }
+
     /**
      * Executes the operations sequence on the specified <i>context</i> and
      * <i>stack</i> starting from <i>begin</i> index.
@@ -124,17 +141,35 @@ public class OperationsSequence implements Operation {
     throws SequenceNotFoundException, ArgumentEvaluationException {
         Value result = null;
         stack.beginSequence(this);
-        for(int i = begin; i < operations.length; i++) {
-            try {
-                result = operations[i].execute(context, stack);
-                stack.nextOperation(result);                
-            } catch (InvocationException ie) {
-                stack.raisedException(ie);
+        List<SourcePrefetcher.Prefetched> prefetched = null;
+        if( stack.isPrefetchEnabled() && operations.length - begin > 1 ) {
+            final ExecutionContext.Sequences sequences = context.getSequencesSnapshot();
+            PrefetchDecision decision = prefetchDecision;
+            if( decision == null || decision.sequences != sequences ) {
+                decision = new PrefetchDecision(
+                        sequences, SourcePrefetcher.countPrefetchable(operations, context) > 1
+                );
+                prefetchDecision = decision;
             }
-            if( stack.isBreak() ) {
-                break;
+            if( decision.prefetchable ) {
+                prefetched = SourcePrefetcher.prefetch(operations, begin, context, stack);
             }
         }
+        try {
+            for(int i = begin; i < operations.length; i++) {
+                try {
+                    result = operations[i].execute(context, stack);
+                    stack.nextOperation(result);
+                } catch (InvocationException ie) {
+                    stack.raisedException(ie);
+                }
+                if( stack.isBreak() ) {
+                    break;
+                }
+            }
+        } finally {
+            SourcePrefetcher.discard(prefetched, stack);
+        }
         stack.endSequence(this);
         return result;
     }
@@ -181,4 +216,26 @@ public class OperationsSequence implements Operation {
         return false;
     }
 
+    /**
+     * Prefetch decision taken for a sequences snapshot.
+     */
+    private static final class PrefetchDecision {
+
+        /**
+         * Sequences snapshot for which the decision has been taken.
+         */
+        final ExecutionContext.Sequences sequences;
+
+        /**
+         * <code>true</code> if more operations invoke natives that can be anticipated
+         * by the {@link SourcePrefetcher}, so that their requests can overlap.
+         */
+        final boolean prefetchable;
+
+        PrefetchDecision(ExecutionContext.Sequences sequences, boolean prefetchable) {
+            this.sequences    = sequences;
+            this.prefetchable = prefetchable;
+        }
+    }
+
 }
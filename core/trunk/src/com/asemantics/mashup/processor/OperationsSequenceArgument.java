@@ -24,7 +24,7 @@ package com.asemantics.mashup.processor;
  * @see com.asemantics.mashup.processor.OperationsSequence
  * @see com.asemantics.mashup.processor.Argument
  */
-public class OperationsSequenceArgument implements Argument {
+public class OperationsSequenceArgument implements Argument, SlotResolvable {
 
     /**
      * Internal operations sequence.
@@ -40,6 +40,10 @@ public class OperationsSequenceArgument implements Argument {
         operationsSequence = os;
     }
 
+    public void resolveSlots(FrameLayout layout) {
+        operationsSequence.resolveSlots(layout);
+    }
+
     public Value getValue(ExecutionContext ec, ExecutionStack es)
     throws VariableNotFoundException {
         try {
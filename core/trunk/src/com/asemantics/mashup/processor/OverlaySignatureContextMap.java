@@ -0,0 +1,84 @@
+/*
+ * Copyright 2007-2008 Michele Mostarda ( michele.mostarda@gmail.com ).
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the 'License');
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an 'AS IS' BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package com.asemantics.mashup.processor;
+
+/**
+ * Defines the variables of a single execution on a root context. Variables are
+ * written on this map and read from it, falling back to the variables of the root
+ * context, so that concurrent executions don't see each other variables.
+ * When the execution ends the variables are committed to the root context.
+ *
+ * @see com.asemantics.mashup.processor.ExecutionContext#createSharedContext()
+ */
+final class OverlaySignatureContextMap extends SignatureContextMap {
+
+    /**
+     * Variables of the root context.
+     */
+    private final SynchronizedSignatureContextMap root;
+
+    /**
+     * Constructor.
+     *
+     * @param r variables of the root context.
+     */
+    OverlaySignatureContextMap(SynchronizedSignatureContextMap r) {
+        if( r == null ) {
+            throw new IllegalArgumentException("r cannot be null.");
+        }
+        root = r;
+    }
+
+    /**
+     * Removes the variable from this map and from the root context.
+     *
+     * @param name variable name.
+     * @return <code>true</code> if the variable has been removed.
+     */
+    boolean remove(String name) {
+        final boolean local = super.remove(name);
+        return root.remove(name) || local;
+    }
+
+    boolean containsValueName(String name) {
+        return super.containsValueName(name) || root.containsValueName(name);
+    }
+
+    Value getValue(String name) {
+        if( super.containsValueName(name) ) {
+            return super.getValue(name);
+        }
+        return root.getValue(name);
+    }
+
+    Value getSlotValue(int slot, String name) {
+        return getValue(name);
+    }
+
+    /**
+     * Writes the variables of this map to the root context.
+     */
+    void commit() {
+        synchronized(root) {
+            copyTo(root);
+        }
+    }
+
+}
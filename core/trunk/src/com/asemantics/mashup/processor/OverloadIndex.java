@@ -0,0 +1,257 @@
+/*
+ * Copyright 2007-2008 Michele Mostarda ( michele.mostarda@gmail.com ).
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the 'License');
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an 'AS IS' BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package com.asemantics.mashup.processor;
+
+import com.asemantics.mashup.processor.json.JsonArray;
+import com.asemantics.mashup.processor.json.JsonBase;
+import com.asemantics.mashup.processor.json.JsonObject;
+import com.asemantics.mashup.processor.unification.ConstantModelElement;
+import com.asemantics.mashup.processor.unification.JsonArrayModel;
+import com.asemantics.mashup.processor.unification.JsonModel;
+import com.asemantics.mashup.processor.unification.JsonModelElement;
+import com.asemantics.mashup.processor.unification.JsonObjectModel;
+import com.asemantics.mashup.processor.unification.ModelElement;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Defines a discrimination index on the first argument of the invocables
+ * of an overloaded sequence. The invocables are classified by the model of their
+ * first formal parameter (any value, array, object or constant) and grouped by
+ * the type and size of the first actual value, so that only the invocables
+ * compatible with it are submitted to unification.
+ * The relative order of the invocables is preserved.
+ * All the buckets are built on construction, so an index can be shared
+ * among threads once published.
+ *
+ * @see com.asemantics.mashup.processor.InvokeOperation
+ */
+class OverloadIndex {
+
+    /**
+     * First parameter unifies with any value.
+     */
+    private static final byte ANY      = 0;
+
+    /**
+     * First parameter is an array model.
+     */
+    private static final byte ARRAY    = 1;
+
+    /**
+     * First parameter is an object model.
+     */
+    private static final byte OBJECT   = 2;
+
+    /**
+     * First parameter is a constant.
+     */
+    private static final byte CONSTANT = 3;
+
+    /**
+     * Indexed invocables.
+     */
+    private final Invocable[] invocables;
+
+    /**
+     * Kind of first parameter of every invocable.
+     */
+    private final byte[] kinds;
+
+    /**
+     * Number of model elements for array and object kinds.
+     */
+    private final int[] sizes;
+
+    /**
+     * Remaining variable flag for array and object kinds.
+     */
+    private final boolean[] open;
+
+    /**
+     * Constant values for constant kind.
+     */
+    private final Value[] constants;
+
+    /**
+     * Candidates for array values grouped by array size.
+     */
+    private final Invocable[][] arrayBuckets;
+
+    /**
+     * Candidates for object values grouped by object size.
+     */
+    private final Invocable[][] objectBuckets;
+
+    /**
+     * Candidates for not complex values when no constant is defined,
+     * <code>null</code> otherwise.
+     */
+    private final Invocable[] scalarBucket;
+
+    /**
+     * Constructor.
+     *
+     * @param is list of invocables to be indexed.
+     */
+    OverloadIndex(Invocable[] is) {
+        invocables = is;
+        kinds      = new byte   [is.length];
+        sizes      = new int    [is.length];
+        open       = new boolean[is.length];
+        constants  = new Value  [is.length];
+        int maxArraySize  = 0;
+        int maxObjectSize = 0;
+        boolean constantsDefined = false;
+        for(int i = 0; i < is.length; i++) {
+            classify(i, is[i].getSignature());
+            if( kinds[i] == ARRAY ) {
+                maxArraySize  = Math.max(maxArraySize, sizes[i]);
+            } else if( kinds[i] == OBJECT ) {
+                maxObjectSize = Math.max(maxObjectSize, sizes[i]);
+            } else if( kinds[i] == CONSTANT ) {
+                constantsDefined = true;
+            }
+        }
+        // Sizes greater than the max model size are equivalent.
+        arrayBuckets  = buildBuckets(ARRAY , maxArraySize );
+        objectBuckets = buildBuckets(OBJECT, maxObjectSize);
+        scalarBucket  = constantsDefined ? null : filterScalar(null);
+    }
+
+    /**
+     * Returns the invocables that can unify with the first of the given values,
+     * in the indexing order.
+     *
+     * @param values list of actual values.
+     * @return list of candidate invocables.
+     */
+    Invocable[] select(Value[] values) {
+        if( values.length == 0 ) {
+            return invocables;
+        }
+        JsonBase first = values[0] instanceof JsonValue ? ((JsonValue) values[0]).getJsonBase() : values[0];
+        if( first.isArray() ) {
+            return selectBucket(arrayBuckets, ((JsonArray) first).size());
+        }
+        if( first.isObject() ) {
+            return selectBucket(objectBuckets, ((JsonObject) first).size());
+        }
+        return scalarBucket != null ? scalarBucket : filterScalar(values[0]);
+    }
+
+    /**
+     * Returns the candidates for a complex value of given size.
+     *
+     * @param buckets buckets of the value kind.
+     * @param size value size.
+     * @return list of candidates.
+     */
+    private Invocable[] selectBucket(Invocable[][] buckets, int size) {
+        return buckets[ Math.min(size, buckets.length - 1) ];
+    }
+
+    /**
+     * Builds the candidates for the complex values of given kind, one bucket
+     * per size up to <i>maxSize</i> plus one for all the greater sizes.
+     *
+     * @param kind value kind.
+     * @param maxSize max model size of the kind.
+     * @return list of buckets.
+     */
+    private Invocable[][] buildBuckets(byte kind, int maxSize) {
+        Invocable[][] buckets = new Invocable[maxSize + 2][];
+        for(int size = 0; size < buckets.length; size++) {
+            List<Invocable> candidates = new ArrayList<Invocable>();
+            for(int i = 0; i < invocables.length; i++) {
+                if(
+                        kinds[i] == ANY
+                        ||
+                        ( kinds[i] == kind && (open[i] ? sizes[i] <= size : sizes[i] == size) )
+                ) {
+                    candidates.add(invocables[i]);
+                }
+            }
+            buckets[size] = candidates.toArray( new Invocable[candidates.size()] );
+        }
+        return buckets;
+    }
+
+    /**
+     * Returns the candidates for a not complex value.
+     *
+     * @param value first actual value, can be <code>null</code> if no constant is defined.
+     * @return list of candidates.
+     */
+    private Invocable[] filterScalar(Value value) {
+        List<Invocable> candidates = new ArrayList<Invocable>();
+        Value jsonValue = null;
+        for(int i = 0; i < invocables.length; i++) {
+            if( kinds[i] == ANY ) {
+                candidates.add(invocables[i]);
+            } else if( kinds[i] == CONSTANT ) {
+                // Same comparison performed by the constant model element.
+                if( jsonValue == null ) {
+                    jsonValue = value instanceof JsonValue ? value : new JsonValue(value);
+                }
+                if( jsonValue.equalsTo(constants[i]).getNativeValue() ) {
+                    candidates.add(invocables[i]);
+                }
+            }
+        }
+        return candidates.toArray( new Invocable[candidates.size()] );
+    }
+
+    /**
+     * Classifies the first formal parameter of the i-th invocable.
+     *
+     * @param i index of invocable.
+     * @param signature signature of invocable.
+     */
+    private void classify(int i, Signature signature) {
+        kinds[i] = ANY;
+        FormalParameter[] formalParameters = signature.getFormalParameters();
+        if( formalParameters.length == 0 ) {
+            return;
+        }
+        ModelElement modelElement = formalParameters[0].getModelElement();
+        if( modelElement instanceof JsonModelElement ) {
+            modelElement = ((JsonModelElement) modelElement).getJsonModel();
+        }
+        if( modelElement instanceof JsonArrayModel ) {
+            kinds[i] = ARRAY;
+            sizes[i] = ((JsonArrayModel) modelElement).size();
+            open [i] = ((JsonModel) modelElement).isRemainingVariableDefined();
+        } else if( modelElement instanceof JsonObjectModel ) {
+            kinds[i] = OBJECT;
+            sizes[i] = ((JsonObjectModel) modelElement).size();
+            open [i] = ((JsonModel) modelElement).isRemainingVariableDefined();
+        } else if( modelElement instanceof ConstantModelElement ) {
+            Value constant = ((ConstantModelElement) modelElement).getConstantValue();
+            // Complex constants are not discriminated.
+            if( ! constant.isComplex() ) {
+                kinds    [i] = CONSTANT;
+                constants[i] = constant;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2007-2008 Michele Mostarda ( michele.mostarda@gmail.com ).
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the 'License');
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an 'AS IS' BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package com.asemantics.mashup.processor;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Defines an immutable table of native predicates. A table is built once and shared
+ * by reference by all the {@link com.asemantics.mashup.processor.Processor}s created on it,
+ * so that creating a processor doesn't require to register every native predicate.
+ * The predicates of a table are shared among concurrent executions, so they must be stateless.
+ *
+ * @see com.asemantics.mashup.processor.ExecutionContext
+ */
+public final class PredicateTable {
+
+    /**
+     * Table without predicates.
+     */
+    public static final PredicateTable EMPTY = new Builder().build();
+
+    /**
+     * Defines a builder of {@link com.asemantics.mashup.processor.PredicateTable}s.
+     */
+    public static final class Builder {
+
+        /**
+         * Overloads added so far.
+         */
+        private Map<String,ExecutionContext.Overload> overloads;
+
+        /**
+         * Constructor.
+         */
+        public Builder() {
+            overloads = new HashMap<String,ExecutionContext.Overload>();
+        }
+
+        /**
+         * Constructor of a builder starting from the predicates of an existing table.
+         *
+         * @param base table to be extended.
+         */
+        public Builder(PredicateTable base) {
+            overloads = new HashMap<String,ExecutionContext.Overload>(base.overloads);
+        }
+
+        /**
+         * Adds a native predicate.
+         *
+         * @param predicateName name of the predicate.
+         * @param invocable predicate body.
+         * @return this builder.
+         * @throws ExecutionContextException if a predicate with same name and signature already exists.
+         */
+        public Builder add(String predicateName, Invocable invocable) {
+            if( overloads == null ) {
+                throw new IllegalStateException("Table already built.");
+            }
+            if(predicateName == null || predicateName.trim().length() == 0) {
+                throw new IllegalArgumentException("Invalid predicate NAME: '" + predicateName + "'");
+            }
+            ExecutionContext.InvocableObject invocableObject = new ExecutionContext.InvocableObject(invocable);
+            ExecutionContext.Overload overload = overloads.get(predicateName);
+            if( overload == null ) {
+                overloads.put( predicateName, new ExecutionContext.Overload(predicateName, invocableObject) );
+            } else {
+                overload = new ExecutionContext.Overload(overload);
+                overload.add(invocableObject);
+                overloads.put(predicateName, overload);
+            }
+            return this;
+        }
+
+        /**
+         * Builds the table. The builder cannot be used anymore.
+         *
+         * @return built table.
+         */
+        public PredicateTable build() {
+            if( overloads == null ) {
+                throw new IllegalStateException("Table already built.");
+            }
+            PredicateTable table = new PredicateTable( Collections.unmodifiableMap(overloads) );
+            overloads = null;
+            return table;
+        }
+    }
+
+    /**
+     * Overloads of the table.
+     */
+    private final Map<String,ExecutionContext.Overload> overloads;
+
+    /**
+     * Constructor.
+     *
+     * @param o overloads of the table.
+     */
+    private PredicateTable(Map<String,ExecutionContext.Overload> o) {
+        overloads = o;
+    }
+
+    /**
+     * @return number of predicate names defined in table.
+     */
+    public int size() {
+        return overloads.size();
+    }
+
+    /**
+     * Checks whether the table contains a predicate name.
+     *
+     * @param predicateName name of the predicate.
+     * @return <code>true</code> if defined, <code>false</code> otherwise.
+     */
+    public boolean contains(String predicateName) {
+        return overloads.containsKey(predicateName);
+    }
+
+    /**
+     * @return overloads of the table.
+     */
+    Map<String,ExecutionContext.Overload> getOverloads() {
+        return overloads;
+    }
+
+}
@@ -23,6 +23,16 @@ import java.util.ArrayList;
 
 /**
  * Defines the processor main class.
+ * <p>
+ * A processor can run more operations at the same time: every execution
+ * is performed on its own {@link com.asemantics.mashup.processor.ExecutionStack},
+ * arguments queue and variables, while the predicates of the
+ * {@link com.asemantics.mashup.processor.ExecutionContext} are shared.
+ * Predicates can be added and removed during the executions, every execution
+ * sees a consistent set of predicates. Variables assigned at top level are
+ * visible only to the execution assigning them until it ends, then they are
+ * committed to the context and visible to the following executions.
+ * Listeners must be registered before the processor is shared.
  */
 public class Processor {
     
@@ -36,6 +46,11 @@ public class Processor {
      */
     private ExecutionStack   executionStack;
 
+    /**
+     * <code>true</code> if the {@link #executionStack} is used by an execution.
+     */
+    private boolean executionStackBusy;
+
     /**
      * List of processor listeners.
      */
@@ -50,8 +65,52 @@ public class Processor {
      * Constructor.
      */
     public Processor() {
-        executionContext = new ExecutionContext();
-        executionStack   = new ExecutionStack();
+        this(PredicateTable.EMPTY);
+    }
+
+    /**
+     * Constructor for a processor sharing the given table of native predicates.
+     *
+     * @param natives table of native predicates.
+     */
+    public Processor(PredicateTable natives) {
+        this( new ExecutionContext(System.out, natives), new ExecutionStack() );
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param ec execution context.
+     * @param es execution stack.
+     */
+    private Processor(ExecutionContext ec, ExecutionStack es) {
+        executionContext = ec;
+        executionStack   = es;
+    }
+
+    /**
+     * Creates a new processor sharing the predicates of this processor and owning
+     * a copy of its variables. The predicates are shared by reference, so the cost
+     * of a fork doesn't depend on their number. Predicates added or removed after
+     * the fork are not visible to the other processor. Listeners are not copied.
+     *
+     * @return forked processor.
+     */
+    public Processor fork() {
+        return new Processor( executionContext.fork(), executionStack.fork() );
+    }
+
+    /**
+     * Restores the predicates and the variables of this processor to the ones of
+     * the given processor, typically the one this processor has been forked from.
+     * The predicates are restored by reference, so the cost of a reset doesn't
+     * depend on their number. No execution must be running on this processor.
+     *
+     * @param source processor to be restored.
+     * @see #fork()
+     */
+    public void reset(Processor source) {
+        executionContext.reset( source.getExecutionContext() );
     }
 
     /**
@@ -64,7 +123,8 @@ public class Processor {
     }
 
     /**
-     * Returns the underlying execution stack.
+     * Returns the underlying execution stack. When the stack is used by
+     * an execution the concurrent ones are performed on stacks configured as it.
      *
      * @return execution stack.
      */
@@ -190,11 +250,16 @@ public class Processor {
         if( invoke == null ) {
             throw new ProcessorException("Cannot process null invoke operation.");
         }
+        ExecutionStack stack = acquireExecutionStack();
+        ExecutionContext context = executionContext.createSharedContext();
         try {
-            executionStack.pushLevel(executionContext, invoke);
-            return executionStack.getLastExecutionValue();
+            stack.pushLevel(context, invoke);
+            return stack.getLastExecutionValue();
         } catch (Exception e) {
             throw new ProcessorException("Error while processing invocation.", e);
+        } finally {
+            context.commitVariables();
+            releaseExecutionStack(stack);
         }
     }
 
@@ -209,11 +274,16 @@ public class Processor {
          if( sequence == null ) {
             throw new ProcessorException("Cannot process null invoke operation.");
         }
+        ExecutionStack stack = acquireExecutionStack();
+        ExecutionContext context = executionContext.createSharedContext();
         try {
-            executionStack.pushLevel(executionContext, sequence);
-            return executionStack.getLastExecutionValue();
+            stack.pushLevel(context, sequence);
+            return stack.getLastExecutionValue();
         } catch (Exception e) {
             throw new ProcessorException("Error while processing sequence.", e);
+        } finally {
+            context.commitVariables();
+            releaseExecutionStack(stack);
         }
     }
 
@@ -264,6 +334,35 @@ public class Processor {
         }
     }
 
+    /**
+     * Returns the stack to be used by a new execution: the processor stack if not busy,
+     * a new stack configured as it otherwise.
+     *
+     * @return execution stack.
+     */
+    private ExecutionStack acquireExecutionStack() {
+        synchronized(this) {
+            if( ! executionStackBusy ) {
+                executionStackBusy = true;
+                return executionStack;
+            }
+        }
+        return executionStack.fork();
+    }
+
+    /**
+     * Releases a stack acquired by an execution.
+     *
+     * @param stack stack to be released.
+     */
+    private void releaseExecutionStack(ExecutionStack stack) {
+        if( stack == executionStack ) {
+            synchronized(this) {
+                executionStackBusy = false;
+            }
+        }
+    }
+
     /**
      * Validates a variable name.
      *
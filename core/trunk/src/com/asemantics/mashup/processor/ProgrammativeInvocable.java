@@ -40,6 +40,11 @@ public class ProgrammativeInvocable extends Invocable {
      */
     private TreeNode treeNode;
 
+    /**
+     * Slot names of the frame used to execute the operation body.
+     */
+    private String[] frameLayout;
+
     /**
      * Constructor.
      *
@@ -55,9 +60,10 @@ public class ProgrammativeInvocable extends Invocable {
         if(o == null) {
             throw new IllegalArgumentException();
         }
-        signature = s;
-        operation = o;
-        treeNode  = tn;
+        signature   = s;
+        operation   = o;
+        treeNode    = tn;
+        frameLayout = resolveFrameLayout(s, o);
     }
 
     /**
@@ -83,6 +89,16 @@ public class ProgrammativeInvocable extends Invocable {
         return treeNode;
     }
 
+    /**
+     * Returns the frame layout resolved on the signature and the body of this invocable.
+     *
+     * @return list of slot names.
+     */
+    @Override
+    public String[] getFrameLayout() {
+        return frameLayout;
+    }
+
     public String getShortDescription() {
         return "programmative invocable";
     }
@@ -100,5 +116,26 @@ public class ProgrammativeInvocable extends Invocable {
         return operation.getInnerOperations();
     }
 
+    /**
+     * Compiles the variables of the given signature and operation body into
+     * fixed frame slots. Signature variables are allocated first.
+     *
+     * @param s signature.
+     * @param o operation body.
+     * @return list of slot names.
+     */
+    private static String[] resolveFrameLayout(Signature s, Operation o) {
+        FrameLayout layout = new FrameLayout();
+        for(FormalParameter formalParameter : s.getFormalParameters()) {
+            for(String variable : formalParameter.getVariables()) {
+                layout.slotOf(variable);
+            }
+        }
+        if(o instanceof SlotResolvable) {
+            ((SlotResolvable) o).resolveSlots(layout);
+        }
+        return layout.getSlotNames();
+    }
+
 
 }
@@ -41,6 +41,16 @@ public class Signature {
      */
     private FormalParameter[] formalParameters;
 
+    /**
+     * <code>true</code> if every formal parameter is a plain variable.
+     */
+    private boolean arityDiscriminated;
+
+    /**
+     * Slots of the variables of every formal parameter in the last used frame layout.
+     */
+    private volatile SlotBinding slotBinding;
+
     /**
      * Converts an array of strings in an array of formal paramters with <i>ANY</i> type.
      * 
@@ -74,6 +84,7 @@ public class Signature {
             throw new IllegalArgumentException();
         }
         formalParameters = fps;
+        arityDiscriminated = checkArityDiscriminated(formalParameters);
     }
 
     /**
@@ -86,6 +97,7 @@ public class Signature {
             throw new IllegalArgumentException();
         }
         formalParameters = convertAsFP(fps);
+        arityDiscriminated = checkArityDiscriminated(formalParameters);
     }
 
     /**
@@ -95,6 +107,7 @@ public class Signature {
      */
     public Signature(ModelElement[] mes) {
         formalParameters = convertAsFP(mes);
+        arityDiscriminated = checkArityDiscriminated(formalParameters);
     }
 
     /**
@@ -113,6 +126,28 @@ public class Signature {
         return formalParameters;
     }
 
+    /**
+     * Returns <code>true</code> if the unification of this signature
+     * depends only on the number of values, that happens when every
+     * formal parameter is a plain variable.
+     *
+     * @return <code>true</code> if the signature is discriminated by arity only.
+     */
+    public boolean isArityDiscriminated() {
+        return arityDiscriminated;
+    }
+
+    /**
+     * Returns <code>true</code> if the given number of values is compatible
+     * with the number of formal parameters.
+     *
+     * @param n number of values.
+     * @return <code>true</code> if compatible, <code>false</code> otherwise.
+     */
+    public boolean acceptsArity(int n) {
+        return formalParameters.length == n;
+    }
+
     public String asString() {
         StringBuilder sb = new StringBuilder();
         for(FormalParameter fp : formalParameters) {
@@ -131,20 +166,80 @@ public class Signature {
      * @throws SequenceNotFoundException instance if signature in not compatible with given <i>arguments</i>
      */
     protected SignatureContextMap unify(Value[] values) throws SequenceNotFoundException {
+        return unify(values, null);
+    }
+
+    /**
+     * Verifies compatibility between this signature and list
+     * of gives <i>arguments</i>, binding the unified variables
+     * on the given frame layout.
+     *
+     * @param values list of values to be unified.
+     * @param frameLayout slot names of the invocable frame, <code>null</code> if not defined.
+     * @return Signature context map, if unification occurs.
+     * @throws SequenceNotFoundException instance if signature in not compatible with given <i>arguments</i>
+     * @see com.asemantics.mashup.processor.FrameLayout
+     */
+    protected SignatureContextMap unify(Value[] values, String[] frameLayout) throws SequenceNotFoundException {
+        return bind(values, frameLayout, true);
+    }
+
+    /**
+     * Verifies compatibility between this signature and list
+     * of gives <i>arguments</i> without raising exceptions,
+     * so that a failed candidate doesn't cost an exception allocation.
+     *
+     * @param values list of values to be unified.
+     * @param frameLayout slot names of the invocable frame, <code>null</code> if not defined.
+     * @return Signature context map, <code>null</code> if the signature is not compatible.
+     * @see #unify(Value[], String[])
+     */
+    protected SignatureContextMap tryUnify(Value[] values, String[] frameLayout) {
+        try {
+            return bind(values, frameLayout, false);
+        } catch (SequenceNotFoundException snfe) {
+            throw new IllegalStateException("Unespected unification exception.", snfe);
+        }
+    }
+
+    /**
+     * Binds the given <i>arguments</i> to the parameters of this signature.
+     *
+     * @param values list of values to be unified.
+     * @param frameLayout slot names of the invocable frame, <code>null</code> if not defined.
+     * @param raise if <code>true</code> an incompatibility raises an exception,
+     *        otherwise <code>null</code> is returned.
+     * @return Signature context map, <code>null</code> if not compatible and <i>raise</i> is <code>false</code>.
+     * @throws SequenceNotFoundException if not compatible and <i>raise</i> is <code>true</code>.
+     */
+    protected SignatureContextMap bind(Value[] values, String[] frameLayout, boolean raise)
+    throws SequenceNotFoundException {
 
         // Verify length.
         if(  formalParameters.length != values.length ) {
+            if( ! raise ) {
+                return null;
+            }
             throw new SequenceNotFoundException("Arguments length differs from parameters length.");
         }
 
         // Process unification.
-        SignatureContextMap signatureContextMap = new SignatureContextMap(values.length);
+        SignatureContextMap signatureContextMap =
+                frameLayout == null ? new SignatureContextMap(values.length) : new SignatureContextMap(frameLayout);
+        final SlotBinding binding = frameLayout == null ? null : getSlotBinding(frameLayout);
         UnificationResult unificationResult;
         for(int i = 0; i < formalParameters.length; i++) {
             unificationResult = formalParameters[i].unify(values[i]);
             if( unificationResult.isFailed() ) {
+                if( ! raise ) {
+                    return null;
+                }
                 throw new SequenceNotFoundException( "Error in unification.", unificationResult.getUnificationException() );
             }
+            if( binding != null ) {
+                binding.bind(i, formalParameters[i], unificationResult, signatureContextMap);
+                continue;
+            }
             // Dump unification result inside signature context map.
             for( String variable : unificationResult.getVariables() ) {
                 signatureContextMap.add(
@@ -187,6 +282,36 @@ public class Signature {
         return asString();
     }
 
+    /**
+     * Returns the slot binding of this signature on the given frame layout.
+     *
+     * @param frameLayout slot names of the invocable frame.
+     * @return slot binding.
+     */
+    private SlotBinding getSlotBinding(String[] frameLayout) {
+        SlotBinding binding = slotBinding;
+        if( binding == null || binding.frameLayout != frameLayout ) {
+            binding = new SlotBinding(formalParameters, frameLayout);
+            slotBinding = binding;
+        }
+        return binding;
+    }
+
+    /**
+     * Checks whether all the given formal parameters are plain variables.
+     *
+     * @param fps list of formal parameters.
+     * @return <code>true</code> if all variables, <code>false</code> otherwise.
+     */
+    private static boolean checkArityDiscriminated(FormalParameter[] fps) {
+        for(FormalParameter fp : fps) {
+            if( ! fp.isVariable() ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Compares two lists of formal parameters.
      *
@@ -204,4 +329,77 @@ public class Signature {
         return true;
     }
 
+    /**
+     * Defines the slots of the variables of every formal parameter
+     * in a frame layout, so that the unified values are bound without
+     * searching their names.
+     */
+    private static final class SlotBinding {
+
+        /**
+         * Frame layout on which the slots are resolved.
+         */
+        final String[] frameLayout;
+
+        /**
+         * Variables of every formal parameter.
+         */
+        final String[][] variables;
+
+        /**
+         * Slot of every variable, <i>-1</i> if not defined by the layout.
+         */
+        final int[][] slots;
+
+        SlotBinding(FormalParameter[] fps, String[] layout) {
+            frameLayout = layout;
+            variables   = new String[fps.length][];
+            slots       = new int   [fps.length][];
+            for(int i = 0; i < fps.length; i++) {
+                variables[i] = fps[i].getVariables();
+                slots    [i] = new int[variables[i].length];
+                for(int j = 0; j < variables[i].length; j++) {
+                    slots[i][j] = slotOf(layout, variables[i][j]);
+                }
+            }
+        }
+
+        /**
+         * Binds the variables unified by the i-th formal parameter.
+         *
+         * @param i index of formal parameter.
+         * @param fp formal parameter.
+         * @param unificationResult unification result of formal parameter.
+         * @param signatureContextMap map to be populated.
+         */
+        void bind(
+                int i,
+                FormalParameter fp,
+                UnificationResult unificationResult,
+                SignatureContextMap signatureContextMap
+        ) {
+            for(int j = 0; j < variables[i].length; j++) {
+                Value value = (Value) unificationResult.getValue( variables[i][j] );
+                if( value == null ) { // Unbound variable.
+                    continue;
+                }
+                value = fp.getType().castValue(value);
+                if( slots[i][j] == -1 ) {
+                    signatureContextMap.add(variables[i][j], value, false);
+                } else {
+                    signatureContextMap.bindSlot(slots[i][j], value);
+                }
+            }
+        }
+
+        private static int slotOf(String[] layout, String variable) {
+            for(int i = 0; i < layout.length; i++) {
+                if( layout[i] == variable || layout[i].equals(variable) ) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
 }
@@ -44,6 +44,11 @@ public class SignatureContextMap {
      */
     private Value[]  values;
 
+    /**
+     * Slot names defined by the frame layout, <code>null</code> if no layout is used.
+     */
+    private String[] slotNames;
+
     /**
      * Next useful index.
      */
@@ -66,6 +71,20 @@ public class SignatureContextMap {
         this(BLOCK_SIZE);
     }
 
+    /**
+     * Constructor for a map with a fixed frame layout. Every layout name is
+     * bound to its own slot index, other names are appended after the layout.
+     *
+     * @param layout list of slot names.
+     * @see com.asemantics.mashup.processor.FrameLayout
+     */
+    protected SignatureContextMap(String[] layout) {
+        slotNames  = layout;
+        valueNames = new String[layout.length];
+        values     = new Value [layout.length];
+        nextIndex  = layout.length;
+    }
+
     /**
      * Constructor.
      *
@@ -80,6 +99,49 @@ public class SignatureContextMap {
         values     = vs;
     }
 
+    /**
+     * Copy constructor.
+     *
+     * @param other map to be copied.
+     */
+    protected SignatureContextMap(SignatureContextMap other) {
+        copy(other);
+    }
+
+    /**
+     * Replaces the content of this map with a copy of the content of another map.
+     *
+     * @param other map to be copied.
+     */
+    protected void copy(SignatureContextMap other) {
+        String[] newValueNames = new String[other.valueNames.length];
+        Value [] newValues     = new Value [other.values.length];
+        System.arraycopy( other.valueNames, 0, newValueNames, 0, newValueNames.length);
+        System.arraycopy( other.values    , 0, newValues    , 0, newValues.length);
+        slotNames  = other.slotNames;
+        valueNames = newValueNames;
+        values     = newValues;
+        nextIndex  = other.nextIndex;
+    }
+
+    /**
+     * Replaces every value of this map with a clone, so that the values can be
+     * modified without affecting the map this one has been copied from.
+     * Values not supporting cloning are immutable and are kept.
+     */
+    protected void cloneValues() {
+        for(int i = 0; i < values.length; i++) {
+            if( values[i] == null ) {
+                continue;
+            }
+            try {
+                values[i] = values[i].cloneValue();
+            } catch (UnsupportedOperationException uoe) {
+                // Immutable value.
+            }
+        }
+    }
+
     /**
      * Adds a value into this map.
      * @param name
@@ -87,20 +149,40 @@ public class SignatureContextMap {
      * @param override
      */
     public void add(String name, Value value, boolean override) {
-        checkSpace();
         int i = findName(name);
         if( i != -1 ) {
             if( ! override ) {
                 throw new IllegalArgumentException("NAME '" + name + "' already present in map.");
             }
             values[i] = value;
-        } else {
-            valueNames[nextIndex] = name;
-            values    [nextIndex] = value;
+            return;
         }
+        i = findSlot(name);
+        if( i != -1 ) {
+            valueNames[i] = slotNames[i];
+            values    [i] = value;
+            return;
+        }
+        checkSpace();
+        valueNames[nextIndex] = name;
+        values    [nextIndex] = value;
         nextIndex++;
     }
 
+    /**
+     * Binds a value to a slot of the frame layout.
+     *
+     * @param slot slot index as defined by the frame layout.
+     * @param value value to be bound.
+     */
+    void bindSlot(int slot, Value value) {
+        if( valueNames[slot] != null ) {
+            throw new IllegalArgumentException("NAME '" + slotNames[slot] + "' already present in map.");
+        }
+        valueNames[slot] = slotNames[slot];
+        values    [slot] = value;
+    }
+
     /**
      * Removes a value name.
      *
@@ -144,6 +226,21 @@ public class SignatureContextMap {
         return null;
     }
 
+    /**
+     * Returns the value bound to the given slot. The slot is verified against
+     * the expected name, if it doesn't match the value is searched by name.
+     *
+     * @param slot slot index as defined by the frame layout.
+     * @param name canonical name of the slot.
+     * @return value found.
+     */
+    Value getSlotValue(int slot, String name) {
+        if( slot < valueNames.length && valueNames[slot] == name ) {
+            return values[slot];
+        }
+        return getValue(name);
+    }
+
     /**
      *
      * @param i
@@ -168,6 +265,19 @@ public class SignatureContextMap {
     }
 
 
+    /**
+     * Adds all the values of this map to another map, overriding existing names.
+     *
+     * @param target map to be written.
+     */
+    void copyTo(SignatureContextMap target) {
+        for(int i = 0; i < valueNames.length; i++) {
+            if( valueNames[i] != null ) {
+                target.add( valueNames[i], values[i], true );
+            }
+        }
+    }
+
     /**
      * Checks if an array swap is needed.
      */
@@ -183,6 +293,24 @@ public class SignatureContextMap {
         values     = newValues;
     }
 
+    /**
+     * Finds the layout slot of a given variable name.
+     *
+     * @param n
+     * @return index of found slot, <i>-1</i> if not found or no layout is defined.
+     */
+    private int findSlot(String n) {
+        if( slotNames == null ) {
+            return -1;
+        }
+        for(int i = 0; i < slotNames.length; i++) {
+            if( slotNames[i] == n || slotNames[i].equals(n) ) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
     /**
      * Finds a given variable name.
      *
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2007-2008 Michele Mostarda ( michele.mostarda@gmail.com ).
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the 'License');
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an 'AS IS' BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package com.asemantics.mashup.processor;
+
+/**
+ * Defines any element whose variable references can be resolved to fixed
+ * slot indexes of a {@link com.asemantics.mashup.processor.FrameLayout}.
+ * Resolution is performed once, after validation, so that the
+ * execution can access variables by index instead of by name.
+ *
+ * @see com.asemantics.mashup.processor.ProgrammativeInvocable
+ */
+public interface SlotResolvable {
+
+    /**
+     * Resolves the variables referenced by this element on the given layout,
+     * registering the variables not yet present.
+     *
+     * @param layout frame layout to be used for resolution.
+     */
+    void resolveSlots(FrameLayout layout);
+
+}
@@ -0,0 +1,340 @@
+/*
+ * Copyright 2007-2008 Michele Mostarda ( michele.mostarda@gmail.com ).
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the 'License');
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an 'AS IS' BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package com.asemantics.mashup.processor;
+
+import com.asemantics.mashup.nativepkg.HttpFuture;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Anticipates the source requests of an {@link com.asemantics.mashup.processor.OperationsSequence}
+ * whose arguments don't depend on the previous operations of the sequence, starting them
+ * concurrently when the sequence begins. The responses are consumed in program order
+ * by the invocations through {@link com.asemantics.mashup.processor.ExecutionStack#takePrefetched(String)}.
+ * <p>
+ * The operations are simulated following the values passed through the argument queue
+ * and the last value, evaluating only the natives free of side effects.
+ * The simulation stops at the first operation that could change the result of the following
+ * requests: an invocation of a programmative sequence, a native declared as
+ * {@link com.asemantics.mashup.processor.NativeInvocable#isPrefetchBarrier()} or a flow control operation.
+ */
+final class SourcePrefetcher {
+
+    /**
+     * Pending response of an anticipated request.
+     */
+    static class Prefetched {
+
+        /**
+         * Request key.
+         */
+        final String key;
+
+        /**
+         * Pending response.
+         */
+        final HttpFuture future;
+
+        Prefetched(String k, HttpFuture f) {
+            key    = k;
+            future = f;
+        }
+    }
+
+    /**
+     * Counts the invocations of natives that can be anticipated in a sequence and in its nested sequences.
+     *
+     * @param operations sequence operations.
+     * @param context execution context of the sequence.
+     * @return number of prefetchable invocations.
+     */
+    static int countPrefetchable(Operation[] operations, ExecutionContext context) {
+        int count = 0;
+        for(Operation operation : operations) {
+            if( operation instanceof OperationsSequence ) {
+                count += countPrefetchable( operation.getInnerOperations(), context );
+            } else if( operation instanceof InvokeOperation ) {
+                NativeInvocable target = resolveNative( (InvokeOperation) operation, context );
+                if( target != null && target.isPrefetchable() ) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Starts the requests of the operations of a sequence that can be anticipated.
+     *
+     * @param operations sequence operations.
+     * @param begin index of the first operation to be executed.
+     * @param context execution context of the sequence.
+     * @param stack execution stack.
+     * @return list of the anticipated requests, <code>null</code> if none.
+     */
+    static List<Prefetched> prefetch(Operation[] operations, int begin, ExecutionContext context, ExecutionStack stack) {
+        SourcePrefetcher prefetcher = new SourcePrefetcher(context, stack);
+        prefetcher.simulate(operations, begin);
+        return prefetcher.prefetched;
+    }
+
+    /**
+     * Discards the anticipated requests not consumed by the sequence.
+     *
+     * @param prefetched anticipated requests, can be <code>null</code>.
+     * @param stack execution stack.
+     */
+    static void discard(List<Prefetched> prefetched, ExecutionStack stack) {
+        if( prefetched == null ) {
+            return;
+        }
+        for(Prefetched p : prefetched) {
+            stack.discardPrefetched(p.key, p.future);
+        }
+    }
+
+    /**
+     * Returns the native invoked by an invocation.
+     *
+     * @param invocation invocation to be resolved.
+     * @param context execution context.
+     * @return the native if it is the only invocable with the invoked name, or the only
+     *         native overload with the invoked arity, <code>null</code> otherwise.
+     */
+    private static NativeInvocable resolveNative(InvokeOperation invocation, ExecutionContext context) {
+        Invocable[] invocables;
+        try {
+            invocables = context.getSequences( invocation.getTargetSequence() );
+        } catch (InvocationException ie) {
+            return null;
+        }
+        if( invocables.length == 1 ) {
+            return invocables[0] instanceof NativeInvocable ? (NativeInvocable) invocables[0] : null;
+        }
+        final int arity = invocation.getArguments().length;
+        NativeInvocable target = null;
+        for(Invocable invocable : invocables) {
+            if( ! (invocable instanceof NativeInvocable) || invocable.getSignature() instanceof VarargsSignature ) {
+                return null;
+            }
+            if( invocable.getSignature().getFormalParameters().length == arity ) {
+                if( target != null ) {
+                    return null;
+                }
+                target = (NativeInvocable) invocable;
+            }
+        }
+        return target;
+    }
+
+    /**
+     * Execution context of the sequence.
+     */
+    private final ExecutionContext context;
+
+    /**
+     * Execution stack.
+     */
+    private final ExecutionStack stack;
+
+    /**
+     * Variables assigned by the simulated operations.
+     */
+    private final Set<String> assigned = new HashSet<String>();
+
+    /**
+     * Simulated argument queue, <code>null</code> elements are unknown values.
+     */
+    private final LinkedList<Value> queue = new LinkedList<Value>();
+
+    /**
+     * Simulated last value, <code>null</code> if unknown.
+     */
+    private Value last;
+
+    /**
+     * Anticipated requests.
+     */
+    private List<Prefetched> prefetched;
+
+    /**
+     * Constructor.
+     *
+     * @param c execution context.
+     * @param s execution stack.
+     */
+    private SourcePrefetcher(ExecutionContext c, ExecutionStack s) {
+        context = c;
+        stack   = s;
+    }
+
+    /**
+     * Simulates a sequence of operations.
+     *
+     * @param operations operations to be simulated.
+     * @param begin index of the first operation.
+     * @return <code>false</code> if the simulation has been stopped by a barrier.
+     */
+    private boolean simulate(Operation[] operations, int begin) {
+        for(int i = begin; i < operations.length; i++) {
+            final Operation operation = operations[i];
+            if( operation instanceof OperationsSequence ) {
+                if( ! simulate( operation.getInnerOperations(), 0 ) ) {
+                    return false;
+                }
+            } else if( operation instanceof InvokeOperation ) {
+                if( ! simulate( (InvokeOperation) operation ) ) {
+                    return false;
+                }
+            } else if( operation instanceof EnqueueArgumentOperation ) {
+                queue.add(last);
+                last = NullValue.getInstance();
+            } else if( operation instanceof AssignmentOperation ) {
+                AssignmentOperation assignment = (AssignmentOperation) operation;
+                Argument argument = assignment.getArgument();
+                if( argument instanceof InvocationArgument || argument instanceof OperationsSequenceArgument ) {
+                    return false;
+                }
+                for(String variable : assignment.getAssignmentModel().getVariables()) {
+                    assigned.add(variable);
+                }
+                last = null;
+            } else {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Simulates an invocation, anticipating it if it is a request with known arguments.
+     *
+     * @param invocation invocation to be simulated.
+     * @return <code>false</code> if the invocation is a barrier.
+     */
+    private boolean simulate(InvokeOperation invocation) {
+        final NativeInvocable target = resolveNative(invocation, context);
+        if( target == null || target.isPrefetchBarrier() ) {
+            return false;
+        }
+        final Argument[] arguments = invocation.getArguments();
+        Value[] values = new Value[arguments.length];
+        for(int i = 0; i < arguments.length; i++) {
+            final Argument argument = arguments[i];
+            if( argument instanceof ConstArgument ) {
+                values[i] = ((ConstArgument) argument).getValue();
+            } else if( argument instanceof VariableArgument ) {
+                values[i] = assigned.contains( ((VariableArgument) argument).getVarName() ) ? null : lookup(argument);
+            } else if( argument instanceof DequeueArgument ) {
+                values[i] = queue.isEmpty() ? null : queue.removeFirst();
+            } else if( argument instanceof LastValueArgument ) {
+                values[i] = last;
+            } else {
+                return false;
+            }
+            if( values[i] == null ) {
+                values = null;
+                break;
+            }
+        }
+        // Dequeues the remaining arguments.
+        if( values == null ) {
+            for(Argument argument : arguments) {
+                if( argument instanceof DequeueArgument && ! queue.isEmpty() ) {
+                    queue.removeFirst();
+                }
+            }
+        }
+
+        last = null;
+        if( values != null ) {
+            if( target.isSideEffectFree() ) {
+                last = evaluate(target, values);
+            } else if( target.isPrefetchable() ) {
+                anticipate(target, values);
+            }
+        }
+        if( invocation.getResult() != null ) {
+            assigned.add( invocation.getResult() );
+        }
+        return true;
+    }
+
+    /**
+     * Returns the current value of a variable.
+     *
+     * @param argument variable argument.
+     * @return variable value, <code>null</code> if not defined.
+     */
+    private Value lookup(Argument argument) {
+        try {
+            return argument.getValue(context, stack);
+        } catch (VariableNotFoundException vnfe) {
+            return null;
+        }
+    }
+
+    /**
+     * Evaluates in advance an invocation of a native free of side effects.
+     * The native is executed on a scratch stack, so that the evaluation
+     * is not notified to the listeners of the execution stack.
+     *
+     * @param target native to be evaluated.
+     * @param values argument values.
+     * @return invocation result, <code>null</code> if the evaluation fails.
+     */
+    private Value evaluate(NativeInvocable target, Value[] values) {
+        try {
+            ExecutionContext invocationContext = context.createContext(
+                    target.getSignature().unify( values, target.getFrameLayout() )
+            );
+            return target.execute( invocationContext, new ExecutionStack() );
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Starts a request, unless the same request is already pending.
+     *
+     * @param target native performing the request.
+     * @param values argument values.
+     */
+    private void anticipate(NativeInvocable target, Value[] values) {
+        final String key = target.getPrefetchKey(values);
+        if( key == null || stack.isPrefetched(key) ) {
+            return;
+        }
+        HttpFuture future = target.prefetch(values);
+        if( future == null ) {
+            return;
+        }
+        stack.addPrefetched(key, future);
+        if( prefetched == null ) {
+            prefetched = new ArrayList<Prefetched>();
+        }
+        prefetched.add( new Prefetched(key, future) );
+    }
+
+}
@@ -25,6 +25,8 @@ import com.asemantics.mashup.processor.json.JsonBase;
 import com.asemantics.mashup.processor.json.JsonString;
 import com.asemantics.mashup.processor.json.JsonObject;
 
+import java.io.IOException;
+
 /**
  * Defines the <i>string</i> value.
  */
@@ -87,6 +89,7 @@ public class StringValue extends Value<String> implements JsonString {
         } else {
             value += v.asString().getNativeValue();
         }
+        valueModified();
         return value;
     }
 
@@ -196,6 +199,15 @@ public class StringValue extends Value<String> implements JsonString {
         return getNativeValue();
     }
 
+    @Override
+    public int hashCode() {
+        return value == null ? 0 : value.hashCode();
+    }
+
+    protected boolean addDependent(Value dependent) {
+        return registerDependent(dependent);
+    }
+
     public String getJsonType() {
         return JSON_TYPE_STRING;
     }
@@ -208,6 +220,16 @@ public class StringValue extends Value<String> implements JsonString {
         return asJSON();
     }
 
+    protected void writeJSON(Appendable out, boolean pretty, int level) throws IOException {
+        if( value == null ) {
+            out.append(NULL_STRING);
+            return;
+        }
+        out.append('"');
+        Utils.appendStringAsHTML(out, value, false);
+        out.append('"');
+    }
+
     public String stringValue() {
         return getNativeValue();
     }
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2007-2008 Michele Mostarda ( michele.mostarda@gmail.com ).
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the 'License');
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an 'AS IS' BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package com.asemantics.mashup.processor;
+
+/**
+ * Defines a {@link com.asemantics.mashup.processor.SignatureContextMap} that can be
+ * accessed by more executions at the same time. It is used for the variables of the
+ * root context, the only ones shared among concurrent executions.
+ *
+ * @see com.asemantics.mashup.processor.ExecutionContext
+ */
+final class SynchronizedSignatureContextMap extends SignatureContextMap {
+
+    /**
+     * Constructor.
+     */
+    SynchronizedSignatureContextMap() {
+        super();
+    }
+
+    /**
+     * Copy constructor, the values are cloned.
+     *
+     * @param other map to be copied.
+     */
+    private SynchronizedSignatureContextMap(SynchronizedSignatureContextMap other) {
+        super(other);
+        cloneValues();
+    }
+
+    /**
+     * Returns a copy of this map owning a clone of every value.
+     *
+     * @return copied map.
+     */
+    synchronized SynchronizedSignatureContextMap copy() {
+        return new SynchronizedSignatureContextMap(this);
+    }
+
+    /**
+     * Replaces the content of this map with a copy of the content of another map,
+     * owning a clone of every value.
+     *
+     * @param other map to be copied.
+     */
+    void reset(SynchronizedSignatureContextMap other) {
+        SignatureContextMap snapshot = other.copy();
+        synchronized(this) {
+            copy(snapshot);
+        }
+    }
+
+    public synchronized void add(String name, Value value, boolean override) {
+        super.add(name, value, override);
+    }
+
+    synchronized boolean remove(String name) {
+        return super.remove(name);
+    }
+
+    synchronized boolean containsValueName(String name) {
+        return super.containsValueName(name);
+    }
+
+    synchronized Value getValue(String name) {
+        return super.getValue(name);
+    }
+
+    synchronized Value getSlotValue(int slot, String name) {
+        return super.getSlotValue(slot, name);
+    }
+
+    synchronized Value getIthArgumentValue(int i) {
+        return super.getIthArgumentValue(i);
+    }
+
+    synchronized int size() {
+        return super.size();
+    }
+
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2007-2008 Michele Mostarda ( michele.mostarda@gmail.com ).
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the 'License');
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an 'AS IS' BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package com.asemantics.mashup.processor;
+
+import com.asemantics.mashup.nativepkg.NativeException;
+import com.asemantics.mashup.nativepkg.NativeImpl;
+import com.asemantics.mashup.nativepkg.TaskFuture;
+
+/**
+ * Defines the handle of an operation executed concurrently to the
+ * sequence that started it. The result of the operation is obtained
+ * joining the handle.
+ *
+ * @see com.asemantics.mashup.processor.nativeops.SpawnOperation
+ * @see com.asemantics.mashup.processor.nativeops.JoinOperation
+ */
+public class TaskValue extends Value<TaskFuture> {
+
+    /**
+     * Counter of created tasks.
+     */
+    private static int taskCounter = 0;
+
+    /**
+     * Returns the next task identifier.
+     *
+     * @return task identifier.
+     */
+    private static synchronized int nextTaskId() {
+        return ++taskCounter;
+    }
+
+    /**
+     * Task identifier.
+     */
+    private final int id;
+
+    /**
+     * Pending completion of the task.
+     */
+    private final TaskFuture future;
+
+    /**
+     * Result of the operation, written by the task.
+     */
+    private Value result;
+
+    /**
+     * Error raised by the operation, written by the task.
+     */
+    private Exception error;
+
+    /**
+     * Constructor. Starts the execution of <i>operation</i>
+     * on the given context and stack.
+     *
+     * @param operation operation to be executed.
+     * @param context context used by the operation, must not be shared with other executions.
+     * @param stack stack used by the operation, must not be shared with other executions.
+     */
+    public TaskValue(final Operation operation, final ExecutionContext context, final ExecutionStack stack) {
+        if( operation == null || context == null || stack == null ) {
+            throw new IllegalArgumentException();
+        }
+        id = nextTaskId();
+        future = NativeImpl.getInstance().spawnTask( new Runnable() {
+            public void run() {
+                try {
+                    result = operation.execute(context, stack);
+                } catch (Exception e) {
+                    error = e;
+                }
+            }
+        });
+    }
+
+    /**
+     * Checks whether the task has been completed.
+     *
+     * @return <code>true</code> if the handle can be joined without waiting.
+     */
+    public boolean isDone() {
+        return future.isDone();
+    }
+
+    /**
+     * Waits for the completion of the task and returns the result of the operation.
+     *
+     * @return result of the operation.
+     * @throws InvocationException if the wait has been interrupted or the operation failed.
+     */
+    public Value join() throws InvocationException {
+        try {
+            future.await();
+        } catch (NativeException ne) {
+            throw new InvocationException("Error while joining task " + id + ".", ne);
+        }
+        if( error != null ) {
+            throw new InvocationException("Error while executing task " + id + ".", error);
+        }
+        return result;
+    }
+
+    public StringValue getValueTypeName() {
+        return new StringValue("task");
+    }
+
+    public StringValue asString() {
+        return new StringValue("<task:" + id + ">");
+    }
+
+    public NumericValue asNumeric() {
+        return new NumericValue(id);
+    }
+
+    public BooleanValue asBoolean() {
+        return new BooleanValue(true);
+    }
+
+    public ListValue asList() {
+        return new ListValue( this );
+    }
+
+    public MapValue asMap() {
+        return new MapValue( this, NullValue.getInstance() );
+    }
+
+    public GraphValue asGraph() {
+        return asMap().asGraph();
+    }
+
+    public BooleanValue equalsTo(Value v) {
+        return new BooleanValue( v == this );
+    }
+
+    public NumericValue comparesTo(Value v) {
+        return new NumericValue( v.asNumeric().getNativeValue() - id );
+    }
+
+    public Value cloneValue() {
+        return this;
+    }
+
+    public TaskFuture getNativeValue() {
+        return future;
+    }
+
+    public String getJsonType() {
+        return JSON_TYPE_STRING;
+    }
+
+    public String asJSON() {
+        return asString().asJSON();
+    }
+
+    public String asPrettyJSON() {
+        return asJSON();
+    }
+}
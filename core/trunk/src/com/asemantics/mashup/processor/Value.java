@@ -30,6 +30,7 @@ import com.asemantics.mashup.processor.json.JsonObject;
 import com.asemantics.mashup.processor.json.JsonSimple;
 import com.asemantics.mashup.processor.json.JsonString;
 
+import java.io.IOException;
 
 /**
  * Defines any value handled by {@link com.asemantics.mashup.processor.Operation}.
@@ -75,7 +76,7 @@ public abstract class Value<T> implements JsonBase, Cloneable {
         },
         STRING {
             public boolean isTypeFor(Value v) {
-                return v instanceof StringValue;
+                return v instanceof StringValue || v instanceof FutureValue;
             }
             public char getCharIdentifier() {
                 return 'S';
@@ -257,6 +258,53 @@ public abstract class Value<T> implements JsonBase, Cloneable {
         return this instanceof JsonValue ? (JsonValue) this : new JsonValue(this);
     }
 
+    public void writeJSON(Appendable out, boolean pretty) throws IOException {
+        writeJSON(out, pretty, 0);
+    }
+
+    /**
+     * Writes the <i>JSON</i> representation of this value nested at the given level.
+     * The default implementation writes {@link #asJSON()}.
+     *
+     * @param out output to write to.
+     * @param pretty if <code>true</code> the output is indented.
+     * @param level nesting level, used to indent the pretty output.
+     * @throws IOException if the output cannot be written.
+     */
+    protected void writeJSON(Appendable out, boolean pretty, int level) throws IOException {
+        out.append( asJSON() );
+    }
+
+    /**
+     * Writes a new line indented for the given nesting level.
+     *
+     * @param out output to write to.
+     * @param level nesting level.
+     * @throws IOException if the output cannot be written.
+     */
+    protected static void writeNewLine(Appendable out, int level) throws IOException {
+        out.append('\n');
+        for(int i = 0; i < level; i++) {
+            out.append("  ");
+        }
+    }
+
+    /**
+     * Returns the <i>JSON</i> representation written by {@link #writeJSON(Appendable, boolean)}.
+     *
+     * @param pretty if <code>true</code> the representation is indented.
+     * @return JSON string.
+     */
+    protected String toJSON(boolean pretty) {
+        StringBuilder sb = new StringBuilder();
+        try {
+            writeJSON(sb, pretty);
+        } catch (IOException ioe) {
+            throw new ProcessorInternalException("Error while writing JSON.", ioe);
+        }
+        return sb.toString();
+    }
+
     @Override
     public String toString() {
         return asPrettyJSON();
@@ -336,7 +384,134 @@ public abstract class Value<T> implements JsonBase, Cloneable {
 
     /* End JSON integration. */
 
+    /**
+     * Maximum number of dependents notified by a value.
+     */
+    private static final int MAX_DEPENDENTS = 8;
+
+    /**
+     * Values caching a hash code that depends on this value, <code>null</code> if none.
+     * Guarded by this value when not <code>null</code>.
+     */
+    private volatile Value[] dependents;
+
+    /**
+     * Number of dependents. When the array is full the oldest dependents are replaced,
+     * the count exceeding the array length is then the index of the next dependent to be replaced.
+     */
+    private int dependentsCount;
+
+    /**
+     * Notifies that this value has been modified, discarding the hash code
+     * cached on it and on the values depending on it. A value without dependents
+     * is modified without locking, the cost is proportional to the number of values invalidated.
+     */
+    protected void valueModified() {
+        clearHashCode();
+        if( dependents == null ) {
+            return;
+        }
+        final Value[] current;
+        final int count;
+        synchronized (this) {
+            current = dependents;
+            if( current == null ) {
+                return;
+            }
+            count           = Math.min(dependentsCount, current.length);
+            dependents      = null;
+            dependentsCount = 0;
+        }
+        for(int i = 0; i < count; i++) {
+            current[i].valueModified();
+        }
+    }
+
+    /**
+     * Discards the hash code cached on this value. Values caching their hash code override it.
+     */
+    protected void clearHashCode() {
+        // Empty.
+    }
+
+    /**
+     * Registers a value caching a hash code that depends on this value, so that it is
+     * notified when this value or any of its elements is modified.
+     * Immutable values don't notify and accept any dependent.
+     *
+     * @param dependent dependent value.
+     * @return <code>false</code> if the modifications of this value cannot be notified.
+     */
+    protected boolean addDependent(Value dependent) {
+        return true;
+    }
+
+    /**
+     * Stores a dependent value. When the dependents are too many the oldest one is
+     * replaced and notified, so that it doesn't rely any more on this value.
+     *
+     * @param dependent dependent value.
+     * @return always <code>true</code>.
+     * @see #addDependent(Value)
+     */
+    protected final boolean registerDependent(Value dependent) {
+        final Value replaced;
+        synchronized (this) {
+            Value[] current = dependents;
+            if( current == null ) {
+                current = new Value[2];
+            }
+            final int count = Math.min(dependentsCount, current.length);
+            for(int i = 0; i < count; i++) {
+                if( current[i] == dependent ) {
+                    return true;
+                }
+            }
+            if( dependentsCount == current.length && current.length < MAX_DEPENDENTS ) {
+                Value[] grown = new Value[current.length * 2];
+                System.arraycopy(current, 0, grown, 0, current.length);
+                current = grown;
+            }
+            if( dependentsCount < current.length ) {
+                current[dependentsCount++] = dependent;
+                dependents = current;
+                return true;
+            }
+            // Replaces the oldest dependent.
+            final int index = dependentsCount - current.length;
+            dependentsCount = current.length + (index + 1) % current.length;
+            replaced = current[index];
+            current[index] = dependent;
+        }
+        replaced.valueModified();
+        return true;
+    }
+
+    /**
+     * Returns the hash code of the <i>JSON</i> representation of this value,
+     * computed without building the representation.
+     *
+     * @return hash code equal to <code>asJSON().hashCode()</code>.
+     */
+    protected int jsonHashCode() {
+        HashAppendable out = new HashAppendable();
+        try {
+            writeJSON(out, false, 0);
+        } catch (IOException ioe) {
+            throw new ProcessorInternalException("Error while writing JSON.", ioe);
+        }
+        return out.getHash();
+    }
 
+    /**
+     * Returns the hash code of the string representation of this value.
+     * Values are compared through {@link #equalsTo(Value)}, which converts the
+     * compared value to the type of this value, so a value and its string
+     * representation must have the same hash code. Concrete values override it
+     * computing the same hash code without building the string representation.
+     *
+     * @return hash code.
+     */
     @Override
     public int hashCode() {
         return asString().stringValue().hashCode();
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2007-2008 Michele Mostarda ( michele.mostarda@gmail.com ).
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the 'License');
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an 'AS IS' BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package com.asemantics.mashup.processor;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.RandomAccess;
+
+/**
+ * Defines a list of values stored in a growable array with free room at both ends.
+ * Indexed access is constant time, insertions and removals at head and tail
+ * are constant time in amortized sense.
+ *
+ * @see com.asemantics.mashup.processor.ListValue
+ */
+class ValueDeque extends AbstractList<Value> implements RandomAccess {
+
+    /**
+     * Default initial capacity.
+     */
+    private static final int DEFAULT_CAPACITY = 10;
+
+    /**
+     * Elements storage.
+     */
+    private Value[] elements;
+
+    /**
+     * Index of first element in storage.
+     */
+    private int head;
+
+    /**
+     * Number of elements.
+     */
+    private int size;
+
+    /**
+     * Constructor.
+     */
+    ValueDeque() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor with initial capacity.
+     *
+     * @param capacity initial capacity.
+     */
+    ValueDeque(int capacity) {
+        elements = new Value[ Math.max(capacity, 1) ];
+    }
+
+    /**
+     * Constructor with initial elements.
+     *
+     * @param c collection of initial elements.
+     */
+    ValueDeque(Collection<? extends Value> c) {
+        this( c.size() );
+        for(Value v : c) {
+            elements[size++] = v;
+        }
+    }
+
+    public Value get(int i) {
+        checkIndex(i, size);
+        return elements[head + i];
+    }
+
+    public Value set(int i, Value v) {
+        checkIndex(i, size);
+        Value old = elements[head + i];
+        elements[head + i] = v;
+        return old;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean add(Value v) {
+        if( head + size == elements.length ) {
+            reallocate(false);
+        }
+        elements[head + size++] = v;
+        modCount++;
+        return true;
+    }
+
+    public void add(int i, Value v) {
+        checkIndex(i, size + 1);
+        if( i == size ) {
+            add(v);
+            return;
+        }
+        if( i == 0 ) {
+            if( head == 0 ) {
+                reallocate(true);
+            }
+            elements[--head] = v;
+        } else {
+            if( head + size == elements.length ) {
+                reallocate(false);
+            }
+            System.arraycopy(elements, head + i, elements, head + i + 1, size - i);
+            elements[head + i] = v;
+        }
+        size++;
+        modCount++;
+    }
+
+    public Value remove(int i) {
+        checkIndex(i, size);
+        Value old = elements[head + i];
+        // Shifts the shorter side.
+        if( i < size / 2 ) {
+            System.arraycopy(elements, head, elements, head + 1, i);
+            elements[head++] = null;
+        } else {
+            System.arraycopy(elements, head + i + 1, elements, head + i, size - i - 1);
+            elements[head + size - 1] = null;
+        }
+        size--;
+        modCount++;
+        return old;
+    }
+
+    public void clear() {
+        for(int i = head; i < head + size; i++) {
+            elements[i] = null;
+        }
+        head = 0;
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * Reallocates the storage to make room at head or at tail.
+     * The storage grows only when it is more than half full.
+     *
+     * @param front if <code>true</code> room is needed at head, otherwise at tail.
+     */
+    private void reallocate(boolean front) {
+        int capacity = size * 2 < elements.length ? elements.length : elements.length + (elements.length >> 1) + 1;
+        int spare    = capacity - size;
+        int newHead  = front ? Math.max(1, spare / 2) : Math.min(head, spare / 2);
+        Value[] newElements = capacity == elements.length ? elements : new Value[capacity];
+        System.arraycopy(elements, head, newElements, newHead, size);
+        if( newElements == elements ) {
+            // Clears the slots left by the shift.
+            if( newHead > head ) {
+                for(int i = head; i < Math.min(newHead, head + size); i++) {
+                    elements[i] = null;
+                }
+            } else {
+                for(int i = Math.max(newHead + size, head); i < head + size; i++) {
+                    elements[i] = null;
+                }
+            }
+        }
+        elements = newElements;
+        head     = newHead;
+    }
+
+    /**
+     * Checks that an index is in range.
+     *
+     * @param i index to check.
+     * @param limit exclusive upper bound.
+     */
+    private void checkIndex(int i, int limit) {
+        if( i < 0 || i >= limit ) {
+            throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size);
+        }
+    }
+
+}
@@ -86,6 +86,11 @@ public class VarargsSignature extends Signature {
         super(modelElements);
     }
 
+    @Override
+    public boolean acceptsArity(int n) {
+        return getFormalParameters().length <= n;
+    }
+
     @Override
     public String asString() {
         return "_";
@@ -99,10 +104,32 @@ public class VarargsSignature extends Signature {
      */
     @Override
     public SignatureContextMap unify(Value[] values)
+    throws SequenceNotFoundException {
+        return unify(values, null);
+    }
+
+    /**
+     * Constext map with list of arguments bound on the given frame layout.
+     *
+     * @param values values used to create the contect map.
+     * @param frameLayout slot names of the invocable frame, <code>null</code> if not defined.
+     * @return context map created with list of <i>arguments</i>.
+     */
+    @Override
+    public SignatureContextMap unify(Value[] values, String[] frameLayout)
+    throws SequenceNotFoundException {
+        return bind(values, frameLayout, true);
+    }
+
+    @Override
+    protected SignatureContextMap bind(Value[] values, String[] frameLayout, boolean raise)
     throws SequenceNotFoundException {
 
         // Checks arugments size.
         if( getFormalParameters().length > values.length ) {
+            if( ! raise ) {
+                return null;
+            }
             throw new SequenceNotFoundException("varags: found a number of actual parameters < of the number of formal parameters");
         }
 
@@ -114,7 +141,10 @@ public class VarargsSignature extends Signature {
             fixedValues[i] = values[i];
         }
         // Super unification.
-        SignatureContextMap resultSignature = super.unify(fixedValues);
+        SignatureContextMap resultSignature = super.bind(fixedValues, frameLayout, raise);
+        if( resultSignature == null ) {
+            return null;
+        }
 
         // If there is a rest.
         if( i < values.length ) {
@@ -27,13 +27,18 @@ import java.util.Set;
  *
  * @see com.asemantics.mashup.processor.Signature
  */
-public class VariableArgument implements Argument, Validable {
+public class VariableArgument implements Argument, Validable, SlotResolvable {
 
     /**
      * Name of variable.
      */
     private String varName;
 
+    /**
+     * Frame slot of variable, <i>-1</i> if not resolved.
+     */
+    private int slot = -1;
+
     /**
      * Constructor.
      *
@@ -61,8 +66,22 @@ public class VariableArgument implements Argument, Validable {
         }
     }
 
+    /**
+     * Returns the frame slot of the variable.
+     *
+     * @return slot index, <i>-1</i> if not resolved.
+     */
+    public int getSlot() {
+        return slot;
+    }
+
+    public void resolveSlots(FrameLayout layout) {
+        slot    = layout.slotOf(varName);
+        varName = layout.getSlotName(slot);
+    }
+
     public Value getValue(ExecutionContext ec, ExecutionStack es) throws VariableNotFoundException {
-        Value result = ec.getValue(varName);
+        Value result = slot == -1 ? ec.getValue(varName) : ec.getSlotValue(slot, varName);
         if( result == null ) {
             throw new VariableNotFoundException("cannot find variable '" + varName + "'");
         }
@@ -18,6 +18,8 @@
 
 package com.asemantics.mashup.processor.json;
 
+import java.io.IOException;
+
 /**
  * Defines the <i>JSON</i> base class.
  */
@@ -74,6 +76,18 @@ public interface JsonBase {
      */
     public String asPrettyJSON();
 
+    /**
+     * Writes the <i>JSON</i> representation of this object to an output,
+     * without building intermediate strings for the nested objects.
+     * The flat representation is the same returned by {@link #asJSON()},
+     * the pretty one places every element of arrays and objects on an indented line.
+     *
+     * @param out output to write to.
+     * @param pretty if <code>true</code> the output is indented.
+     * @throws IOException if the output cannot be written.
+     */
+    public void writeJSON(Appendable out, boolean pretty) throws IOException;
+
     /* Cast operators. */
     
     public boolean isSimple();
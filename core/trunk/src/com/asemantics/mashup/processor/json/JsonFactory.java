@@ -63,7 +63,17 @@ public final class JsonFactory {
      * @return JSON instance.
      */
     public static JsonInteger newJsonInteger(int i) {
-        return new NumericValue(i);
+        return new NumericValue( (double) i );
+    }
+
+    /**
+     * Returns a JSON integer instance preserving the exact value.
+     *
+     * @param l long value.
+     * @return JSON instance.
+     */
+    public static JsonInteger newJsonInteger(long l) {
+        return new NumericValue(l);
     }
 
     /**
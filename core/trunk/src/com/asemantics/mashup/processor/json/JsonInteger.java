@@ -30,4 +30,11 @@ public interface JsonInteger extends JsonNumber<Double> {
      */
     int intValue();
 
+    /**
+     * Returns the integer value, exact also out of the precision of a double.
+     *
+     * @return long value.
+     */
+    long longValue();
+
 }
\ No newline at end of file
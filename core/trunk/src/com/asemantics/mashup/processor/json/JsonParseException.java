@@ -0,0 +1,62 @@
+/*
+ * Copyright 2007-2008 Michele Mostarda ( michele.mostarda@gmail.com ).
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the 'License');
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an 'AS IS' BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package com.asemantics.mashup.processor.json;
+
+/**
+ * Raised when a <i>JSON</i> text cannot be parsed.
+ *
+ * @see com.asemantics.mashup.processor.json.JsonParser
+ */
+public class JsonParseException extends Exception {
+
+    /**
+     * Position of the error in the input, <code>-1</code> if unknown.
+     */
+    private final int position;
+
+    /**
+     * Constructor.
+     *
+     * @param message error message.
+     * @param p position of the error.
+     */
+    public JsonParseException(String message, int p) {
+        super(message + " at position " + p);
+        position = p;
+    }
+
+    /**
+     * Constructor for an error of the input.
+     *
+     * @param message error message.
+     * @param cause error cause.
+     */
+    public JsonParseException(String message, Throwable cause) {
+        super(message, cause);
+        position = -1;
+    }
+
+    /**
+     * @return position of the error in the input, <code>-1</code> if unknown.
+     */
+    public int getPosition() {
+        return position;
+    }
+}
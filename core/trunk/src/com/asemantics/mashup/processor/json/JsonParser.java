@@ -0,0 +1,434 @@
+/*
+ * Copyright 2007-2008 Michele Mostarda ( michele.mostarda@gmail.com ).
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the 'License');
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an 'AS IS' BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package com.asemantics.mashup.processor.json;
+
+/**
+ * Single pass <i>JSON</i> parser building the {@link com.asemantics.mashup.processor.json.JsonFactory}
+ * objects directly while reading the input, without intermediate representations.
+ * Strings can be delimited by double or single quotes.
+ * Integers out of the <i>int</i> range keep their exact value up to the <i>long</i> range,
+ * larger integers are returned as doubles.
+ */
+public class JsonParser {
+
+    /**
+     * Defines the characters source of the parser.
+     */
+    public interface Input {
+
+        /**
+         * Reads the next character.
+         *
+         * @return next character or <code>-1</code> at the end of the input.
+         * @throws JsonParseException if the input cannot be read.
+         */
+        int read() throws JsonParseException;
+
+    }
+
+    /**
+     * {@link Input} reading a string.
+     */
+    public static class StringInput implements Input {
+
+        /**
+         * Input string.
+         */
+        private final String string;
+
+        /**
+         * Input length.
+         */
+        private final int length;
+
+        /**
+         * Next character index.
+         */
+        private int index;
+
+        /**
+         * Constructor.
+         *
+         * @param s input string.
+         */
+        public StringInput(String s) {
+            if( s == null ) {
+                throw new IllegalArgumentException("s cannot be null.");
+            }
+            string = s;
+            length = s.length();
+        }
+
+        public int read() {
+            return index < length ? string.charAt(index++) : EOF;
+        }
+    }
+
+    /**
+     * End of input marker.
+     */
+    private static final int EOF = -1;
+
+    /**
+     * Maximum number of digits of an integer always fitting in an <i>int</i>.
+     */
+    private static final int MAX_INT_DIGITS = 9;
+
+    /**
+     * Characters source.
+     */
+    private final Input input;
+
+    /**
+     * Buffer of the strings and numbers under parsing.
+     */
+    private final StringBuilder buffer = new StringBuilder();
+
+    /**
+     * Current character.
+     */
+    private int current;
+
+    /**
+     * Position of the current character.
+     */
+    private int position = -1;
+
+    /**
+     * Parses a <i>JSON</i> string.
+     *
+     * @param json string to be parsed.
+     * @return parsed value.
+     * @throws JsonParseException if the string is not valid <i>JSON</i>.
+     */
+    public static JsonBase parse(String json) throws JsonParseException {
+        return new JsonParser( new StringInput(json) ).parse();
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param in characters source.
+     */
+    public JsonParser(Input in) {
+        if( in == null ) {
+            throw new IllegalArgumentException("in cannot be null.");
+        }
+        input = in;
+    }
+
+    /**
+     * Parses the input, that must contain a single value.
+     *
+     * @return parsed value.
+     * @throws JsonParseException if the input is not valid <i>JSON</i>.
+     */
+    public JsonBase parse() throws JsonParseException {
+        next();
+        JsonBase result = parseValue();
+        skipWhitespaces();
+        if( current != EOF ) {
+            throw error("Unexpected content after value");
+        }
+        return result;
+    }
+
+    /**
+     * Reads the next character.
+     *
+     * @throws JsonParseException
+     */
+    private void next() throws JsonParseException {
+        current = input.read();
+        position++;
+    }
+
+    /**
+     * Skips the whitespaces starting from the current character.
+     *
+     * @throws JsonParseException
+     */
+    private void skipWhitespaces() throws JsonParseException {
+        while( current == ' ' || current == '\n' || current == '\r' || current == '\t' ) {
+            next();
+        }
+    }
+
+    /**
+     * Parses the value starting from the current character, skipping leading whitespaces.
+     *
+     * @return parsed value.
+     * @throws JsonParseException
+     */
+    private JsonBase parseValue() throws JsonParseException {
+        skipWhitespaces();
+        switch(current) {
+            case '{':
+                return parseObject();
+            case '[':
+                return parseArray();
+            case '"':
+            case '\'':
+                return JsonFactory.newJsonString( parseString() );
+            case 't':
+                parseLiteral("true");
+                return JsonFactory.newJsonBoolean(true);
+            case 'f':
+                parseLiteral("false");
+                return JsonFactory.newJsonBoolean(false);
+            case 'n':
+                parseLiteral("null");
+                return JsonFactory.newJsonNull();
+            case EOF:
+                throw error("Unexpected end of input");
+            default:
+                if( current == '-' || isDigit(current) ) {
+                    return parseNumber();
+                }
+                throw error("Unexpected character '" + (char) current + "'");
+        }
+    }
+
+    /**
+     * Parses an object.
+     *
+     * @return parsed object.
+     * @throws JsonParseException
+     */
+    private JsonObject parseObject() throws JsonParseException {
+        JsonObject result = JsonFactory.newJsonObject();
+        next();
+        skipWhitespaces();
+        if( current == '}' ) {
+            next();
+            return result;
+        }
+        while(true) {
+            skipWhitespaces();
+            if( current != '"' && current != '\'' ) {
+                throw error("Expected object key");
+            }
+            final String key = parseString();
+            skipWhitespaces();
+            expect(':');
+            result.put( key, parseValue() );
+            skipWhitespaces();
+            if( current == ',' ) {
+                next();
+            } else if( current == '}' ) {
+                next();
+                return result;
+            } else {
+                throw error("Expected ',' or '}'");
+            }
+        }
+    }
+
+    /**
+     * Parses an array.
+     *
+     * @return parsed array.
+     * @throws JsonParseException
+     */
+    private JsonArray parseArray() throws JsonParseException {
+        JsonArray result = JsonFactory.newJsonArray();
+        next();
+        skipWhitespaces();
+        if( current == ']' ) {
+            next();
+            return result;
+        }
+        while(true) {
+            result.add( parseValue() );
+            skipWhitespaces();
+            if( current == ',' ) {
+                next();
+            } else if( current == ']' ) {
+                next();
+                return result;
+            } else {
+                throw error("Expected ',' or ']'");
+            }
+        }
+    }
+
+    /**
+     * Parses a string delimited by the current character.
+     *
+     * @return parsed string.
+     * @throws JsonParseException
+     */
+    private String parseString() throws JsonParseException {
+        final int quote = current;
+        buffer.setLength(0);
+        next();
+        while( current != quote ) {
+            if( current == EOF ) {
+                throw error("Unterminated string");
+            }
+            if( current == '\\' ) {
+                next();
+                switch(current) {
+                    case '"' : buffer.append('"');  break;
+                    case '\'': buffer.append('\''); break;
+                    case '\\': buffer.append('\\'); break;
+                    case '/' : buffer.append('/');  break;
+                    case 'b' : buffer.append('\b'); break;
+                    case 'f' : buffer.append('\f'); break;
+                    case 'n' : buffer.append('\n'); break;
+                    case 'r' : buffer.append('\r'); break;
+                    case 't' : buffer.append('\t'); break;
+                    case 'u' :
+                        int code = 0;
+                        for(int i = 0; i < 4; i++) {
+                            next();
+                            final int digit = Character.digit( (char) current, 16 );
+                            if( current == EOF || digit == -1 ) {
+                                throw error("Invalid unicode escape");
+                            }
+                            code = code * 16 + digit;
+                        }
+                        buffer.append( (char) code );
+                        break;
+                    default:
+                        throw error("Invalid escape");
+                }
+            } else {
+                buffer.append( (char) current );
+            }
+            next();
+        }
+        next();
+        return buffer.toString();
+    }
+
+    /**
+     * Parses a number.
+     *
+     * @return parsed number.
+     * @throws JsonParseException
+     */
+    private JsonBase parseNumber() throws JsonParseException {
+        buffer.setLength(0);
+        boolean integer = true;
+        if( current == '-' ) {
+            buffer.append('-');
+            next();
+        }
+        if( ! isDigit(current) ) {
+            throw error("Expected digit");
+        }
+        int digits = appendDigits();
+        if( current == '.' ) {
+            integer = false;
+            buffer.append('.');
+            next();
+            if( appendDigits() == 0 ) {
+                throw error("Expected digit");
+            }
+        }
+        if( current == 'e' || current == 'E' ) {
+            integer = false;
+            buffer.append('e');
+            next();
+            if( current == '+' || current == '-' ) {
+                buffer.append( (char) current );
+                next();
+            }
+            if( appendDigits() == 0 ) {
+                throw error("Expected digit");
+            }
+        }
+        final String number = buffer.toString();
+        if( integer && digits <= MAX_INT_DIGITS ) {
+            return JsonFactory.newJsonInteger( Integer.parseInt(number) );
+        }
+        if( integer ) {
+            try {
+                return JsonFactory.newJsonInteger( Long.parseLong(number) );
+            } catch (NumberFormatException nfe) {
+                // Out of the long range.
+            }
+        }
+        return JsonFactory.newJsonDouble( Double.parseDouble(number) );
+    }
+
+    /**
+     * Appends the digits starting from the current character to the buffer.
+     *
+     * @return number of appended digits.
+     * @throws JsonParseException
+     */
+    private int appendDigits() throws JsonParseException {
+        int count = 0;
+        while( isDigit(current) ) {
+            buffer.append( (char) current );
+            next();
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Parses a literal starting from the current character.
+     *
+     * @param literal expected literal.
+     * @throws JsonParseException
+     */
+    private void parseLiteral(String literal) throws JsonParseException {
+        for(int i = 0; i < literal.length(); i++) {
+            if( current != literal.charAt(i) ) {
+                throw error("Expected '" + literal + "'");
+            }
+            next();
+        }
+    }
+
+    /**
+     * Checks the current character and moves to the next one.
+     *
+     * @param c expected character.
+     * @throws JsonParseException
+     */
+    private void expect(char c) throws JsonParseException {
+        if( current != c ) {
+            throw error("Expected '" + c + "'");
+        }
+        next();
+    }
+
+    /**
+     * Creates an error at the current position.
+     *
+     * @param message error message.
+     * @return parse exception.
+     */
+    private JsonParseException error(String message) {
+        return new JsonParseException(message, position);
+    }
+
+    /**
+     * @param c character.
+     * @return <code>true</code> if <i>c</i> is a decimal digit.
+     */
+    private static boolean isDigit(int c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -19,11 +19,14 @@
 package com.asemantics.mashup.processor.nativeops;
 
 import com.asemantics.mashup.interpreter.Utils;
+import com.asemantics.mashup.nativepkg.HttpFuture;
 import com.asemantics.mashup.nativepkg.NativeImpl;
 import com.asemantics.mashup.processor.ExecutionContext;
 import com.asemantics.mashup.processor.ExecutionStack;
 import com.asemantics.mashup.processor.FormalParameter;
+import com.asemantics.mashup.processor.FutureValue;
 import com.asemantics.mashup.processor.InvocationException;
+import com.asemantics.mashup.processor.JsonValue;
 import com.asemantics.mashup.processor.NativeInvocable;
 import com.asemantics.mashup.processor.Operation;
 import com.asemantics.mashup.processor.Signature;
@@ -68,6 +71,11 @@ public abstract class AbstractSourceOperation extends NativeInvocable {
      */
     private static final String PARAMS = "params";
 
+    /**
+     * Time to live of the cached response.
+     */
+    private static final String TTL    = "ttl";
+
     /**
      * Operation signature.
      */
@@ -78,6 +86,17 @@ public abstract class AbstractSourceOperation extends NativeInvocable {
             }
     );
 
+    /**
+     * Operation signature with time to live.
+     */
+    private static final Signature TTL_SIGNATURE = new Signature(
+            new FormalParameter[]{
+                    new FormalParameter(FormalParameter.Type.STRING , URL),
+                    new FormalParameter(FormalParameter.Type.ANY    , PARAMS),
+                    new FormalParameter(FormalParameter.Type.NUMERIC, TTL)
+            }
+    );
+
     /**
      * Constructor.
      */
@@ -86,7 +105,7 @@ public abstract class AbstractSourceOperation extends NativeInvocable {
     }
 
     public Signature getSignature() {
-        return SIGNATURE;
+        return hasTimeToLive() ? TTL_SIGNATURE : SIGNATURE;
     }
 
     /**
@@ -96,6 +115,93 @@ public abstract class AbstractSourceOperation extends NativeInvocable {
      */
     public abstract String getMethod();
 
+    /**
+     * Checks whether the request is performed without waiting for the response,
+     * returning a {@link com.asemantics.mashup.processor.FutureValue}.
+     * Only the <i>GET</i> and <i>POST</i> methods can be asynchronous.
+     *
+     * @return <code>true</code> if asynchronous, <code>false</code> by default.
+     */
+    public boolean isAsynchronous() {
+        return false;
+    }
+
+    /**
+     * Checks whether the operation accepts as third argument the time in seconds
+     * for which a cached response is reused, overriding its caching headers.
+     * Only the synchronous <i>GET</i> method accepts the time to live.
+     *
+     * @return <code>true</code> if the time to live is accepted, <code>false</code> by default.
+     * @see com.asemantics.mashup.nativepkg.Native#httpGetRequest(String, int)
+     */
+    public boolean hasTimeToLive() {
+        return false;
+    }
+
+    /**
+     * Checks whether the response is parsed as <i>JSON</i> while it is read,
+     * returning a {@link com.asemantics.mashup.processor.JsonValue}.
+     * Only the <i>GET</i> method can parse the response.
+     *
+     * @return <code>true</code> if the response is parsed, <code>false</code> by default.
+     */
+    public boolean isJSON() {
+        return false;
+    }
+
+    /**
+     * Returns the key identifying a request.
+     *
+     * @param method request method.
+     * @param url expanded URL.
+     * @return request key.
+     */
+    public static String getRequestKey(String method, String url) {
+        return method + " " + url;
+    }
+
+    /**
+     * Only <i>GET</i> requests are idempotent and can be anticipated.
+     *
+     * @return <code>true</code> for synchronous <i>GET</i> requests returning the response string
+     *         without time to live.
+     */
+    public boolean isPrefetchable() {
+        return GET_METHOD.equals( getMethod() ) && ! isAsynchronous() && ! isJSON() && ! hasTimeToLive();
+    }
+
+    /**
+     * Requests with side effects cannot be reordered.
+     *
+     * @return <code>true</code> for methods different from <i>GET</i>.
+     */
+    public boolean isPrefetchBarrier() {
+        return ! GET_METHOD.equals( getMethod() );
+    }
+
+    public String getPrefetchKey(Value[] arguments) {
+        if( ! isPrefetchable() || arguments.length != SIGNATURE.getFormalParameters().length ) {
+            return null;
+        }
+        return getRequestKey( GET_METHOD, expandURL(arguments[0], arguments[1]) );
+    }
+
+    public HttpFuture prefetch(Value[] arguments) {
+        return NativeImpl.getInstance().httpGetRequestAsync( expandURL(arguments[0], arguments[1]) );
+    }
+
+    /**
+     * Expands the URL template with the given parameters.
+     *
+     * @param url URL template.
+     * @param params list of parameters.
+     * @return expanded URL.
+     */
+    private static String expandURL(Value url, Value params) {
+        final List<Value> paramsList = params.asList().getNativeValue();
+        return Utils.expandsString( url.asString().getNativeValue(), paramsList.toArray( new Value[paramsList.size()] ) );
+    }
+
     public Value execute(ExecutionContext context, ExecutionStack stack)
     throws InvocationException {
 
@@ -107,7 +213,19 @@ public abstract class AbstractSourceOperation extends NativeInvocable {
 
                 final List<Value> paramsList = context.getIthValueAsList(1).getNativeValue();
                 final String expandedURL = Utils.expandsString( url, paramsList.toArray( new Value[paramsList.size()] ) );
-                result = NativeImpl.getInstance().httpGetRequest(expandedURL);
+                if( isAsynchronous() ) {
+                    return new FutureValue( NativeImpl.getInstance().httpGetRequestAsync(expandedURL) );
+                }
+                if( isJSON() ) {
+                    return new JsonValue( NativeImpl.getInstance().httpGetJSONRequest(expandedURL) );
+                }
+                if( hasTimeToLive() ) {
+                    final int ttl = context.getIthValueAsNumeric(2).integer();
+                    result = NativeImpl.getInstance().httpGetRequest(expandedURL, ttl);
+                } else {
+                    final HttpFuture prefetched = stack.takePrefetched( getRequestKey(GET_METHOD, expandedURL) );
+                    result = prefetched != null ? prefetched.get() : NativeImpl.getInstance().httpGetRequest(expandedURL);
+                }
 
             } else if( POST_METHOD.equals( getMethod() ) ) {
 
@@ -122,6 +240,9 @@ public abstract class AbstractSourceOperation extends NativeInvocable {
                         parameters.put(key,value);
                     }
                 }
+                if( isAsynchronous() ) {
+                    return new FutureValue( NativeImpl.getInstance().httpPostRequestAsync(url, parameters) );
+                }
                 result = NativeImpl.getInstance().httpPostRequest(url, parameters);
                 
             } else if( PUT_METHOD.equals( getMethod() ) ) {
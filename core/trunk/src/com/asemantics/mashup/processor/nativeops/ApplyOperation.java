@@ -79,6 +79,16 @@ public class ApplyOperation extends NativeInvocable {
         interpretative = i;
     }
 
+    /**
+     * Constructor for an operation invoking predicates with the
+     * interpretative owning the execution context.
+     *
+     * @see com.asemantics.mashup.processor.ExecutionContext#getInterpretative()
+     */
+    public ApplyOperation() {
+        interpretative = null;
+    }
+
     public Signature getSignature() {
         return SIGNATURE;
     }
@@ -97,6 +107,10 @@ public class ApplyOperation extends NativeInvocable {
         final StringValue predicateName = context.getIthValueAsString(0);
         final JsonValue jsonValue       = context.getIthValueAsJson(1);
 
+        final Interpretative target = interpretative == null ? context.getInterpretative() : interpretative;
+        if( target == null ) {
+            throw new InvocationException("No interpretative defined for context.");
+        }
         InvokeOperation invokeOperation;
         try {
             JsonVisitor jsonVisitor = new JsonVisitor(jsonValue.getJsonBase());
@@ -108,7 +122,7 @@ public class ApplyOperation extends NativeInvocable {
                     new Argument[] { new ConstArgument( new JsonValue( jsonVisitor.next() ) ) }
                 );
 
-                result.add( interpretative.processOperation(invokeOperation) );
+                result.add( target.processOperation(invokeOperation) );
 
             }
             return result;
@@ -121,4 +135,14 @@ public class ApplyOperation extends NativeInvocable {
     public Operation[] getInnerOperations() {
         return new Operation[]{this};
     }
+
+    /**
+     * Invokes other sequences, which could perform requests with side effects.
+     *
+     * @return <code>true</code>.
+     */
+    public boolean isPrefetchBarrier() {
+        return true;
+    }
+
 }
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2007-2008 Michele Mostarda ( michele.mostarda@gmail.com ).
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the 'License');
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an 'AS IS' BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.asemantics.mashup.processor.nativeops;
+
+import com.asemantics.mashup.processor.ExecutionContext;
+import com.asemantics.mashup.processor.ExecutionStack;
+import com.asemantics.mashup.processor.FormalParameter;
+import com.asemantics.mashup.processor.FutureValue;
+import com.asemantics.mashup.processor.InvocationException;
+import com.asemantics.mashup.processor.ListValue;
+import com.asemantics.mashup.processor.NativeInvocable;
+import com.asemantics.mashup.processor.Operation;
+import com.asemantics.mashup.processor.Signature;
+import com.asemantics.mashup.processor.Value;
+
+/**
+ * Implements the <i>Await(value)</i> operation, waiting for the asynchronous
+ * requests started by <i>GetAsync</i> and <i>PostAsync</i>.
+ * If the value is a list all its asynchronous elements are awaited.
+ */
+public class AwaitOperation extends NativeInvocable {
+
+    /**
+     * Value argument.
+     */
+    private static final String VALUE_ARGUMENT = "value";
+
+    private static final Signature SIGNATURE = new Signature(
+            new FormalParameter[] {
+                    new FormalParameter(
+                        FormalParameter.Type.ANY,
+                        VALUE_ARGUMENT
+                    )
+            }
+    );
+
+    /**
+     * Constructor.
+     */
+    public AwaitOperation() {
+        // Empty.
+    }
+
+    public Signature getSignature() {
+        return SIGNATURE;
+    }
+
+    public String getShortDescription() {
+        return "Waits for asynchronous requests returning their responses.";
+    }
+
+    public String getDescription() {
+        return getShortDescription();
+    }
+
+    public Value execute(ExecutionContext context, ExecutionStack stack)
+    throws InvocationException {
+        Value value = context.getIthValue(0);
+        if( value instanceof ListValue ) {
+            ListValue list = (ListValue) value;
+            ListValue result = new ListValue();
+            for(int i = 0; i < list.size(); i++) {
+                result.add( FutureValue.resolve( list.getElementAt(i) ) );
+            }
+            return result;
+        }
+        return FutureValue.resolve(value);
+    }
+
+    public Operation[] getInnerOperations() {
+        return new Operation[0];
+    }
+}
@@ -62,6 +62,16 @@ public class EvaluateOperation extends NativeInvocable {
         interpretative = i;
     }
 
+    /**
+     * Constructor for an operation evaluating commands with the
+     * interpretative owning the execution context.
+     *
+     * @see com.asemantics.mashup.processor.ExecutionContext#getInterpretative()
+     */
+    public EvaluateOperation() {
+        interpretative = null;
+    }
+
     public Signature getSignature() {
         return SIGNATURE;
     }
@@ -77,8 +87,12 @@ public class EvaluateOperation extends NativeInvocable {
     public Value execute(ExecutionContext context, ExecutionStack stack)
     throws InvocationException {
         String command = context.getIthValueAsString(0).getNativeValue();
+        Interpretative target = interpretative == null ? context.getInterpretative() : interpretative;
+        if( target == null ) {
+            throw new InvocationException("No interpretative defined for context.");
+        }
         try {
-            return interpretative.process(command);
+            return target.process(command);
         } catch (InterpreterException ie) {
             return new StringValue( ie.getMessage() );
         }
@@ -88,4 +102,13 @@ public class EvaluateOperation extends NativeInvocable {
         return new Operation[] {this};
     }
 
-}
\ No newline at end of file
+    /**
+     * Invokes other sequences, which could perform requests with side effects.
+     *
+     * @return <code>true</code>.
+     */
+    public boolean isPrefetchBarrier() {
+        return true;
+    }
+
+}
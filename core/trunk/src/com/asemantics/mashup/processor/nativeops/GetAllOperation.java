@@ -0,0 +1,150 @@
+/*
+ * Copyright 2007-2008 Michele Mostarda ( michele.mostarda@gmail.com ).
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the 'License');
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an 'AS IS' BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package com.asemantics.mashup.processor.nativeops;
+
+import com.asemantics.mashup.interpreter.Utils;
+import com.asemantics.mashup.nativepkg.HttpConfiguration;
+import com.asemantics.mashup.nativepkg.HttpFuture;
+import com.asemantics.mashup.nativepkg.Native;
+import com.asemantics.mashup.nativepkg.NativeException;
+import com.asemantics.mashup.nativepkg.NativeImpl;
+import com.asemantics.mashup.processor.ExecutionContext;
+import com.asemantics.mashup.processor.ExecutionStack;
+import com.asemantics.mashup.processor.FormalParameter;
+import com.asemantics.mashup.processor.InvocationException;
+import com.asemantics.mashup.processor.ListValue;
+import com.asemantics.mashup.processor.MapValue;
+import com.asemantics.mashup.processor.NativeInvocable;
+import com.asemantics.mashup.processor.Operation;
+import com.asemantics.mashup.processor.Signature;
+import com.asemantics.mashup.processor.StringValue;
+import com.asemantics.mashup.processor.Value;
+
+import java.util.List;
+
+/**
+ * Implements the <i>GetAll(urls, params)</i> operation, performing concurrently
+ * a <i>HTTP</i> GET request for every URL template of the list expanded with <i>params</i>.
+ * Returns the list of the responses in the order of the URLs: a failed request
+ * doesn't fail the operation and its response is replaced by a map
+ * <i>{"url" : url, "error" : message}</i>.
+ * <p>
+ * The number of concurrent requests and the timeout of every request are defined by the
+ * {@link com.asemantics.mashup.nativepkg.HttpConfiguration#getMaxConcurrentRequests()} and
+ * {@link com.asemantics.mashup.nativepkg.HttpConfiguration#getRequestTimeout()} properties.
+ */
+public class GetAllOperation extends NativeInvocable {
+
+    /**
+     * Key of the URL in the error values.
+     */
+    public static final String URL_KEY = "url";
+
+    /**
+     * Key of the message in the error values.
+     */
+    public static final String ERROR_KEY = "error";
+
+    /**
+     * List of URLs to be retrieved.
+     */
+    private static final String URLS   = "urls";
+
+    /**
+     * List of parameters to be expanded.
+     */
+    private static final String PARAMS = "params";
+
+    /**
+     * Operation signature.
+     */
+    private static final Signature SIGNATURE = new Signature(
+            new FormalParameter[]{
+                    new FormalParameter(FormalParameter.Type.LIST, URLS  ),
+                    new FormalParameter(FormalParameter.Type.ANY , PARAMS)
+            }
+    );
+
+    /**
+     * Constructor.
+     */
+    public GetAllOperation() {
+        // Empty.
+    }
+
+    public Signature getSignature() {
+        return SIGNATURE;
+    }
+
+    public String getShortDescription() {
+        return "Performs concurrently a HTTP GET request on every url of a list";
+    }
+
+    public String getDescription() {
+        return getShortDescription();
+    }
+
+    public Value execute(ExecutionContext context, ExecutionStack stack)
+    throws InvocationException {
+
+        final List<Value> urlsList   = context.getIthValueAsList(0).getNativeValue();
+        final List<Value> paramsList = context.getIthValueAsList(1).getNativeValue();
+        final Value[] params = paramsList.toArray( new Value[paramsList.size()] );
+
+        final String[] urls = new String[urlsList.size()];
+        for(int i = 0; i < urls.length; i++) {
+            urls[i] = Utils.expandsString( urlsList.get(i).asString().getNativeValue(), params );
+        }
+
+        final Native nativeImpl = NativeImpl.getInstance();
+        final HttpConfiguration configuration = nativeImpl.getHttpConfiguration();
+        final HttpFuture[] futures = nativeImpl.httpGetRequestsAsync(
+                urls, configuration.getMaxConcurrentRequests(), configuration.getRequestTimeout()
+        );
+
+        ListValue result = new ListValue();
+        for(int i = 0; i < futures.length; i++) {
+            try {
+                result.add( new StringValue( futures[i].get() ) );
+            } catch (NativeException ne) {
+                result.add( createError( urls[i], ne ) );
+            }
+        }
+        return result;
+    }
+
+    public Operation[] getInnerOperations() {
+        return new Operation[] {this};
+    }
+
+    /**
+     * Creates the value replacing the response of a failed request.
+     *
+     * @param url request URL.
+     * @param ne request error.
+     * @return error value.
+     */
+    private Value createError(String url, NativeException ne) {
+        MapValue error = new MapValue();
+        error.put( URL_KEY, url );
+        error.put( ERROR_KEY, ne.getMessage() + ( ne.getCause() != null ? " cause: " + ne.getCause().getMessage() : "" ) );
+        return error;
+    }
+}
@@ -45,16 +45,11 @@ public class JPathOperation extends NativeInvocable {
             }
     );
 
-    /**
-     * JSONPath extractor.
-     */
-    private Extractor extractor;
-
     /**
      * Constructor.
      */
     public JPathOperation() {
-        extractor = new DefaultExtractorImpl();
+        // Empty.
     }
 
     public Signature getSignature() {
@@ -74,6 +69,8 @@ public class JPathOperation extends NativeInvocable {
         JsonValue   value    = context.getIthValueAsJson  (0);
         StringValue jsonpath = context.getIthValueAsString(1);
         try {
+            // The extractor parser is not reentrant, a new one is used for every invocation.
+            Extractor extractor = new DefaultExtractorImpl();
             return extractor.extractPath(jsonpath.getNativeValue(), value.getJsonBase() ).asValue();
         } catch (Exception e) {
             throw new InvocationException("Error while applying JPath.", e);
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2007-2008 Michele Mostarda ( michele.mostarda@gmail.com ).
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the 'License');
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an 'AS IS' BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package com.asemantics.mashup.processor.nativeops;
+
+import com.asemantics.mashup.processor.ExecutionContext;
+import com.asemantics.mashup.processor.ExecutionStack;
+import com.asemantics.mashup.processor.FormalParameter;
+import com.asemantics.mashup.processor.InvocationException;
+import com.asemantics.mashup.processor.NativeInvocable;
+import com.asemantics.mashup.processor.Operation;
+import com.asemantics.mashup.processor.Signature;
+import com.asemantics.mashup.processor.TaskValue;
+import com.asemantics.mashup.processor.Value;
+
+/**
+ * Implements the <i>Join(handle)</i> operation, waiting for the task
+ * started by <i>Spawn</i> and returning its result.
+ * Values different from task handles are returned unchanged.
+ *
+ * @see com.asemantics.mashup.processor.nativeops.SpawnOperation
+ */
+public class JoinOperation extends NativeInvocable {
+
+    /**
+     * Handle argument.
+     */
+    private static final String HANDLE_ARGUMENT = "handle";
+
+    private static final Signature SIGNATURE = new Signature(
+            new FormalParameter[] {
+                    new FormalParameter(
+                        FormalParameter.Type.ANY,
+                        HANDLE_ARGUMENT
+                    )
+            }
+    );
+
+    /**
+     * Waits for a task if the value is a task handle.
+     *
+     * @param value value to be joined.
+     * @return result of the task, or <i>value</i> itself.
+     * @throws InvocationException if the task failed.
+     */
+    static Value join(Value value) throws InvocationException {
+        if( ! (value instanceof TaskValue) ) {
+            return value;
+        }
+        return ((TaskValue) value).join();
+    }
+
+    /**
+     * Constructor.
+     */
+    public JoinOperation() {
+        // Empty.
+    }
+
+    public Signature getSignature() {
+        return SIGNATURE;
+    }
+
+    public String getShortDescription() {
+        return "Waits for a spawned task returning its result.";
+    }
+
+    public String getDescription() {
+        return getShortDescription();
+    }
+
+    public Value execute(ExecutionContext context, ExecutionStack stack)
+    throws InvocationException {
+        return join( context.getIthValue(0) );
+    }
+
+    public Operation[] getInnerOperations() {
+        return new Operation[0];
+    }
+}
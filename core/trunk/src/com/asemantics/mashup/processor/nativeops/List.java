@@ -70,4 +70,9 @@ public class List extends NativeInvocable {
     public Operation[] getInnerOperations() {
         return new Operation[]{ this };
     }
+
+    public boolean isSideEffectFree() {
+        return true;
+    }
+
 }
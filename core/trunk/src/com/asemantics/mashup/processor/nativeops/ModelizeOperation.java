@@ -55,16 +55,11 @@ public class ModelizeOperation extends NativeInvocable {
             }
     );
 
-    /**
-     * Internal renderer.
-     */
-    private Renderer<JsonObject> renderer;
-
     /**
      * Constructor.
      */
     public ModelizeOperation() {
-        renderer = new Renderer<JsonObject>( new JsonUIBuilder() );
+        // Empty.
     }
 
     public Signature getSignature() {
@@ -85,6 +80,8 @@ public class ModelizeOperation extends NativeInvocable {
         JsonValue jsonValue = context.getIthValueAsJson(0);
 
         try {
+            // The renderer is stateful, a new one is used for every invocation.
+            Renderer<JsonObject> renderer = new Renderer<JsonObject>( new JsonUIBuilder() );
             JsonObject result = renderer.renderizeAsPanel( jsonValue.getJsonBase() );
             return new JsonValue( result );
         } catch (Exception e) {
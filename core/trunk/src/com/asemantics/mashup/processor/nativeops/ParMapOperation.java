@@ -0,0 +1,155 @@
+/*
+ * Copyright 2007-2008 Michele Mostarda ( michele.mostarda@gmail.com ).
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the 'License');
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an 'AS IS' BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package com.asemantics.mashup.processor.nativeops;
+
+import com.asemantics.mashup.nativepkg.Native;
+import com.asemantics.mashup.nativepkg.NativeImpl;
+import com.asemantics.mashup.processor.Argument;
+import com.asemantics.mashup.processor.ExecutionContext;
+import com.asemantics.mashup.processor.ExecutionStack;
+import com.asemantics.mashup.processor.FormalParameter;
+import com.asemantics.mashup.processor.InvocationException;
+import com.asemantics.mashup.processor.InvokeOperation;
+import com.asemantics.mashup.processor.ListValue;
+import com.asemantics.mashup.processor.NativeInvocable;
+import com.asemantics.mashup.processor.Operation;
+import com.asemantics.mashup.processor.Signature;
+import com.asemantics.mashup.processor.Value;
+import com.asemantics.mashup.processor.VariableArgument;
+
+import java.util.List;
+
+/**
+ * Defines the <i>ParMap(&lt;list&gt;, &lt;predicateName&gt;)</i> operation.
+ * This operation invokes the predicate with name <i>predicateName</i> on every
+ * element of <i>list</i>, performing the invocations in parallel, and returns
+ * the list of the results in the order of the elements.
+ * <p>
+ * Every invocation runs on its own {@link com.asemantics.mashup.processor.ExecutionStack}
+ * and on a child {@link com.asemantics.mashup.processor.ExecutionContext} isolated from the
+ * other ones. The number of invocations performed at the same time is defined by
+ * {@link com.asemantics.mashup.nativepkg.Native#getParallelism()}.
+ *
+ * @see com.asemantics.mashup.processor.nativeops.ForFlowControl
+ * @see com.asemantics.mashup.nativepkg.Native#runTasks(Runnable[], int)
+ */
+public class ParMapOperation extends NativeInvocable {
+
+    /**
+     * List of elements to be mapped.
+     */
+    private static final String LIST           = "list";
+
+    /**
+     * Name of predicate to be invoked.
+     */
+    private static final String PREDICATE_NAME = "predicateName";
+
+    /**
+     * Variable holding the element in the child contexts.
+     */
+    private static final String ELEMENT        = "element";
+
+    /**
+     * Operation's signature.
+     */
+    private static final Signature SIGNATURE = new Signature(
+            new FormalParameter[] {
+                new FormalParameter(FormalParameter.Type.LIST  , LIST          ),
+                new FormalParameter(FormalParameter.Type.STRING, PREDICATE_NAME)
+            }
+    );
+
+    /**
+     * Constructor.
+     */
+    public ParMapOperation() {
+        // Empty.
+    }
+
+    public Signature getSignature() {
+        return SIGNATURE;
+    }
+
+    public String getShortDescription() {
+        return "Invokes in parallel the predicate with name " + PREDICATE_NAME + " on every element of " + LIST;
+    }
+
+    public String getDescription() {
+        return getShortDescription();
+    }
+
+    public Value execute(final ExecutionContext context, final ExecutionStack stack)
+    throws InvocationException {
+
+        final List<Value> elements = context.getIthValueAsList(0).getNativeValue();
+        final String predicateName = context.getIthValueAsString(1).getNativeValue();
+
+        // The invocation is shared by all the elements, so that they share its call site cache.
+        final InvokeOperation invocation = new InvokeOperation(
+                predicateName, new Argument[]{ new VariableArgument(ELEMENT) }
+        );
+        final Value[]     results = new Value[ elements.size() ];
+        final Exception[] errors  = new Exception[ elements.size() ];
+        Runnable[] tasks = new Runnable[ elements.size() ];
+        for(int i = 0; i < tasks.length; i++) {
+            final int index = i;
+            tasks[i] = new Runnable() {
+                public void run() {
+                    ExecutionContext child = context.createChildContext();
+                    child.addVariable( ELEMENT, elements.get(index) );
+                    try {
+                        results[index] = invocation.execute( child, stack.fork() );
+                    } catch (Exception e) {
+                        errors[index] = e;
+                    }
+                }
+            };
+        }
+
+        final Native nativeImpl = NativeImpl.getInstance();
+        nativeImpl.runTasks( tasks, nativeImpl.getParallelism() );
+
+        ListValue result = new ListValue();
+        for(int i = 0; i < results.length; i++) {
+            if( errors[i] != null ) {
+                throw new InvocationException(
+                        "Error while invoking predicate '" + predicateName + "' on element " + i + ".", errors[i]
+                );
+            }
+            result.add( results[i] );
+        }
+        return result;
+    }
+
+    public Operation[] getInnerOperations() {
+        return new Operation[]{this};
+    }
+
+    /**
+     * Invokes other sequences, which could perform requests with side effects.
+     *
+     * @return <code>true</code>.
+     */
+    public boolean isPrefetchBarrier() {
+        return true;
+    }
+
+}
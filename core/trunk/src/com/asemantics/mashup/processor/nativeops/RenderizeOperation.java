@@ -53,16 +53,11 @@ public class RenderizeOperation extends NativeInvocable {
             }
     );
 
-    /**
-     * Internal renderer.
-     */
-    private Renderer<UIComponent> renderer;
-
     /**
      * Constructor.
      */
     public RenderizeOperation() {
-        renderer = new Renderer<UIComponent>( new ConcreteUIBuilder() );
+        // Empty.
     }
 
     public Signature getSignature() {
@@ -86,7 +81,8 @@ public class RenderizeOperation extends NativeInvocable {
 
         try {
             // Define the right view for the JSON model.
-            renderer.reset();
+            // The renderer is stateful, a new one is used for every invocation.
+            Renderer<UIComponent> renderer = new Renderer<UIComponent>( new ConcreteUIBuilder() );
             UIComponent uiComponent = renderer.renderizeAsPanel( jsonValue.getJsonBase() );
 
             // Create Popup window.
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2007-2008 Michele Mostarda ( michele.mostarda@gmail.com ).
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the 'License');
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an 'AS IS' BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package com.asemantics.mashup.processor.nativeops;
+
+import com.asemantics.mashup.processor.Argument;
+import com.asemantics.mashup.processor.ConstArgument;
+import com.asemantics.mashup.processor.ExecutionContext;
+import com.asemantics.mashup.processor.ExecutionStack;
+import com.asemantics.mashup.processor.FormalParameter;
+import com.asemantics.mashup.processor.InvocationException;
+import com.asemantics.mashup.processor.InvokeOperation;
+import com.asemantics.mashup.processor.NativeInvocable;
+import com.asemantics.mashup.processor.Operation;
+import com.asemantics.mashup.processor.Signature;
+import com.asemantics.mashup.processor.TaskValue;
+import com.asemantics.mashup.processor.Value;
+
+import java.util.List;
+
+/**
+ * Defines the <i>Spawn(&lt;predicateName&gt;, &lt;args&gt;)</i> operation.
+ * This operation starts the invocation of the predicate with name <i>predicateName</i>
+ * on the elements of <i>args</i> concurrently to the current sequence, and returns
+ * a {@link com.asemantics.mashup.processor.TaskValue} handle to be joined
+ * for obtaining the result.
+ * <p>
+ * The invocation runs on its own {@link com.asemantics.mashup.processor.ExecutionStack}
+ * and on a child {@link com.asemantics.mashup.processor.ExecutionContext}.
+ *
+ * @see com.asemantics.mashup.processor.nativeops.JoinOperation
+ * @see com.asemantics.mashup.processor.nativeops.JoinAllOperation
+ * @see com.asemantics.mashup.nativepkg.Native#spawnTask(Runnable)
+ */
+public class SpawnOperation extends NativeInvocable {
+
+    /**
+     * Name of predicate to be invoked.
+     */
+    private static final String PREDICATE_NAME = "predicateName";
+
+    /**
+     * List of invocation arguments.
+     */
+    private static final String ARGS           = "args";
+
+    /**
+     * Operation's signature.
+     */
+    private static final Signature SIGNATURE = new Signature(
+            new FormalParameter[] {
+                new FormalParameter(FormalParameter.Type.STRING, PREDICATE_NAME),
+                new FormalParameter(FormalParameter.Type.LIST  , ARGS          )
+            }
+    );
+
+    /**
+     * Constructor.
+     */
+    public SpawnOperation() {
+        // Empty.
+    }
+
+    public Signature getSignature() {
+        return SIGNATURE;
+    }
+
+    public String getShortDescription() {
+        return "Starts concurrently the invocation of predicate " + PREDICATE_NAME + " on " + ARGS + " returning a task handle";
+    }
+
+    public String getDescription() {
+        return getShortDescription();
+    }
+
+    public Value execute(ExecutionContext context, ExecutionStack stack)
+    throws InvocationException {
+        final String predicateName = context.getIthValueAsString(0).getNativeValue();
+        final List<Value> args = context.getIthValueAsList(1).getNativeValue();
+
+        Argument[] arguments = new Argument[ args.size() ];
+        for(int i = 0; i < arguments.length; i++) {
+            arguments[i] = new ConstArgument( args.get(i) );
+        }
+        return new TaskValue(
+                new InvokeOperation(predicateName, arguments),
+                context.createChildContext(),
+                stack.fork()
+        );
+    }
+
+    public Operation[] getInnerOperations() {
+        return new Operation[]{this};
+    }
+
+    /**
+     * Invokes other sequences, which could perform requests with side effects.
+     *
+     * @return <code>true</code>.
+     */
+    public boolean isPrefetchBarrier() {
+        return true;
+    }
+
+}
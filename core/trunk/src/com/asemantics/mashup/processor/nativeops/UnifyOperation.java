@@ -58,16 +58,11 @@ public class UnifyOperation extends NativeInvocable {
      */
     protected static final Signature SIGNATURE = new Signature(FORMAL_PARAMETERS);
 
-    /**
-     * Internal unifier instance.
-     */
-    private Unifier unifier;
-
     /**
      * Constructor.
      */
     public UnifyOperation() {
-        unifier = new Unifier();
+        // Empty.
     }
     
     public Signature getSignature() {
@@ -88,6 +83,8 @@ public class UnifyOperation extends NativeInvocable {
         Value value       = context.getIthValue(1);
 
         try {
+            // The unifier parser is not reentrant, a new one is used for every invocation.
+            Unifier unifier = new Unifier();
             UnificationResult unificationResult = unifier.unify( model.getNativeValue(), value.asJsonValue() );
             return new StringValue( unificationResult.toString() );
         } catch (Exception e) {
@@ -56,16 +56,11 @@ public class XPathOperation extends NativeInvocable {
             }
     );
 
-    /**
-     * Digester unique instance.
-     */
-    private final Digester digester;
-
     /**
      * Constructor.
      */
     public XPathOperation() {
-        digester = new Digester();
+        // Empty.
     }
 
     public Signature getSignature() {
@@ -88,6 +83,8 @@ public class XPathOperation extends NativeInvocable {
 
         String[] result;
         try {
+            // The digester is stateful, a new one is used for every invocation.
+            Digester digester = new Digester();
             result = digester.findMatches(path, input);
 
             ListValue lv = new ListValue();
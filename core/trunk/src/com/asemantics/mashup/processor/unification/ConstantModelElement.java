@@ -40,6 +40,15 @@ public class ConstantModelElement implements ModelElement {
         constantValue = cv;
     }
 
+    /**
+     * Returns the constant value.
+     *
+     * @return internal constant.
+     */
+    public Value getConstantValue() {
+        return constantValue;
+    }
+
     public void unify(ResultBuilder rb, JsonBase jb) throws UnificationException {
         if( ! ((Value) jb).equalsTo(constantValue).getNativeValue() ) {
             rb.abort("Cannot unify contant value '" + constantValue.asJSON() + "' with '" + jb.asJSON() + "'");
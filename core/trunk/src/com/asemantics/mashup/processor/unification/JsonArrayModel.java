@@ -94,6 +94,15 @@ public class JsonArrayModel extends JsonModel {
         addElement( new ConstantModelElement(v) );
     }
 
+    /**
+     * Returns the number of elements defined in model, the remaining variable excluded.
+     *
+     * @return number of model elements.
+     */
+    public int size() {
+        return elements.size();
+    }
+
     public void unify(ResultBuilder rb, JsonBase in) throws UnificationException {
 
         final boolean restDefined = isRemainingVariableDefined();
@@ -129,7 +138,9 @@ public class JsonArrayModel extends JsonModel {
 
         if( restDefined ) {
             // Unification of rest part.
-            if( i < jsonArray.size() ) {
+            if( jsonArray instanceof ListValue ) {
+                rb.addUnification( getRemainingVariable(), ((ListValue) jsonArray).tail(i) );
+            } else if( i < jsonArray.size() ) {
                 JsonArray tail = new ListValue();
                 while (i < jsonArray.size()) {
                     tail.add( jsonArray.get(i++) );
@@ -155,7 +166,9 @@ public class JsonArrayModel extends JsonModel {
 
     public String[] getVariables() {
         Set<String> variables = new HashSet<String>();
-        variables.add( super.getRemainingVariable() );
+        if( isRemainingVariableDefined() ) {
+            variables.add( super.getRemainingVariable() );
+        }
 
         for(ModelElement me : elements) {
             variables.addAll( Arrays.asList(me.getVariables()) );
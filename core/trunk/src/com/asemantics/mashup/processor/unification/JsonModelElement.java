@@ -45,6 +45,15 @@ public class JsonModelElement implements ModelElement {
         jsonModel = jm;
     }
 
+    /**
+     * Returns the internal <i>JSON</i> model.
+     *
+     * @return nested model.
+     */
+    public JsonModel getJsonModel() {
+        return jsonModel;
+    }
+
     public void unify(ResultBuilder rb, JsonBase jb) throws UnificationException {
         jsonModel.unify(rb, jb);
     }
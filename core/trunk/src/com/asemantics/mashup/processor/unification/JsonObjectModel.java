@@ -80,6 +80,15 @@ public class JsonObjectModel extends JsonModel {
         elements.put(key, new JsonModelElement(jm));
     }
 
+    /**
+     * Returns the number of entries defined in model, the remaining variable excluded.
+     *
+     * @return number of model entries.
+     */
+    public int size() {
+        return elements.size();
+    }
+
     public void unify(ResultBuilder rb, JsonBase in) throws UnificationException {
 
         // TODO: FIX THIS.
@@ -141,8 +150,10 @@ public class JsonObjectModel extends JsonModel {
     }
 
     public String[] getVariables() {
-        Set<String> variables = elements.keySet();
-        variables.add( super.getRemainingVariable() );
+        Set<String> variables = new HashSet<String>( elements.keySet() );
+        if( isRemainingVariableDefined() ) {
+            variables.add( super.getRemainingVariable() );
+        }
         
         for( ModelElement me : elements.values() ) {
             variables.addAll( Arrays.asList(me.getVariables()) );
@@ -29,6 +29,12 @@ import java.util.Map;
  */
 public class ResultBuilder implements UnificationResult {
 
+    /**
+     * Exception interrupting an aborted unification, shared since the failure
+     * is described by the builder and the exception never leaves the {@link Unifier}.
+     */
+    private static final UnificationException ABORTED = new UnificationException("Unification aborted.");
+
     /**
      * Failure flag.
      */
@@ -74,7 +80,7 @@ public class ResultBuilder implements UnificationResult {
     void abort(String cause) throws UnificationException {
         failed = true;
         failureMessage = cause;
-        throw new UnificationException(cause);
+        throw ABORTED;
     }
 
     /**
@@ -86,7 +92,7 @@ public class ResultBuilder implements UnificationResult {
     void abort(Throwable cause) throws UnificationException {
         failed = true;
         failureMessage = cause.getMessage();
-        throw new UnificationException(cause);
+        throw ABORTED;
     }
 
     public boolean isFailed() {
@@ -24,6 +24,8 @@ import com.asemantics.mashup.processor.json.JsonArray;
 import com.asemantics.mashup.processor.json.JsonBase;
 import com.asemantics.mashup.processor.json.JsonFactory;
 import com.asemantics.mashup.processor.json.JsonObject;
+import com.asemantics.mashup.processor.json.JsonParseException;
+import com.asemantics.mashup.processor.json.JsonParser;
 import com.google.gwt.core.client.GWT;
 import com.google.gwt.json.client.JSONArray;
 import com.google.gwt.json.client.JSONBoolean;
@@ -112,11 +114,20 @@ public class NativeImpl extends Native {
     }
 
     public JsonBase parseJSON(String jsonString) throws NativeException {
-        return processJSONString( jsonString );
+        if( jsonString == null ) {
+            throw new NativeException("Invalid JSON: null");
+        }
+        try {
+            return JsonParser.parse(jsonString);
+        } catch (JsonParseException jpe) {
+            throw new NativeException("Error while parsing JSON.", jpe);
+        }
     }
 
     /**
-     * Processes a JSON string generating the native value.
+     * Processes a JSON string generating the native value through the <i>GWT</i> parser.
+     * {@link #parseJSON(String)} uses the {@link com.asemantics.mashup.processor.json.JsonParser}
+     * shared with the other profiles.
      *
      * @param json
      * @return the process result.
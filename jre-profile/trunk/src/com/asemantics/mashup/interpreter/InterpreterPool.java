@@ -0,0 +1,326 @@
+/*
+ * Copyright 2007-2008 Michele Mostarda ( michele.mostarda@gmail.com ).
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the 'License');
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an 'AS IS' BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package com.asemantics.mashup.interpreter;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Defines a pool of {@link com.asemantics.mashup.interpreter.Interpreter}s sharing
+ * the same programmative context, loaded once from a <i>MUp</i> library.
+ * The pooled interpreters are forked from a template interpreter that has processed
+ * the library, so the library is parsed only once. When an interpreter is returned
+ * its predicates and variables are restored to the ones of the template, so
+ * everything defined by a request is discarded while the compiled programs
+ * cache of the interpreter is kept.
+ * <p>
+ * The pool bounds the number of concurrent requests and tracks
+ * the time spent waiting for an interpreter and the pool utilization.
+ *
+ * @see com.asemantics.mashup.interpreter.Interpreter#fork()
+ */
+public class InterpreterPool {
+
+    /**
+     * Template interpreter loaded with the library.
+     */
+    private final Interpreter template;
+
+    /**
+     * Interpreters available to be borrowed.
+     */
+    private final BlockingQueue<Interpreter> available;
+
+    /**
+     * Borrowed interpreters, with the borrow time in nanoseconds.
+     */
+    private final Map<Interpreter,Long> borrowed;
+
+    /**
+     * Number of interpreters in the pool.
+     */
+    private final int size;
+
+    /**
+     * Time at which the statistics began, in nanoseconds.
+     */
+    private volatile long statisticsBegin;
+
+    /**
+     * Number of completed borrows.
+     */
+    private final AtomicLong borrows = new AtomicLong();
+
+    /**
+     * Number of borrows expired before an interpreter was available.
+     */
+    private final AtomicLong timeouts = new AtomicLong();
+
+    /**
+     * Total time spent waiting for an interpreter, in nanoseconds.
+     */
+    private final AtomicLong waitTime = new AtomicLong();
+
+    /**
+     * Maximum time spent waiting for an interpreter, in nanoseconds.
+     */
+    private final AtomicLong maxWaitTime = new AtomicLong();
+
+    /**
+     * Total time the returned interpreters have been borrowed, in nanoseconds.
+     */
+    private final AtomicLong busyTime = new AtomicLong();
+
+    /**
+     * Creates a pool of interpreters loaded with the library in the given file.
+     *
+     * @param size number of interpreters.
+     * @param library file containing the <i>MUp</i> library.
+     * @return created pool.
+     * @throws IOException if the library cannot be read.
+     * @throws InterpreterException if the library cannot be processed.
+     */
+    public static InterpreterPool load(int size, File library)
+    throws IOException, InterpreterException {
+        Reader reader = new InputStreamReader( new FileInputStream(library) );
+        try {
+            char[] buffer = new char[1024 * 4];
+            int i;
+            StringBuilder sb = new StringBuilder();
+            while( (i = reader.read(buffer) ) != -1) {
+                sb.append(buffer, 0, i);
+            }
+            return new InterpreterPool(size, sb.toString());
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param size number of interpreters.
+     * @param library <i>MUp</i> library processed by every interpreter,
+     *        <code>null</code> for no library.
+     * @throws InterpreterException if the library cannot be processed.
+     */
+    public InterpreterPool(int size, String library) throws InterpreterException {
+        if( size <= 0 ) {
+            throw new IllegalArgumentException("Invalid pool size: " + size);
+        }
+        this.size = size;
+        template  = new Interpreter();
+        if( library != null ) {
+            template.process(library);
+        }
+        available = new ArrayBlockingQueue<Interpreter>(size);
+        for(int i = 0; i < size; i++) {
+            available.add( template.fork() );
+        }
+        borrowed     = Collections.synchronizedMap( new IdentityHashMap<Interpreter,Long>() );
+        statisticsBegin = System.nanoTime();
+    }
+
+    /**
+     * Constructor for a pool without library.
+     *
+     * @param size number of interpreters.
+     * @throws InterpreterException
+     */
+    public InterpreterPool(int size) throws InterpreterException {
+        this(size, null);
+    }
+
+    /**
+     * Borrows an interpreter, waiting until one is available.
+     * The interpreter must be returned with {@link #release(Interpreter)}.
+     *
+     * @return borrowed interpreter.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public Interpreter borrow() throws InterruptedException {
+        final long begin = System.nanoTime();
+        return borrowed( available.take(), begin );
+    }
+
+    /**
+     * Borrows an interpreter, waiting at most the given time.
+     *
+     * @param timeout maximum wait time.
+     * @param unit time unit of <i>timeout</i>.
+     * @return borrowed interpreter, <code>null</code> if none became available in time.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public Interpreter borrow(long timeout, TimeUnit unit) throws InterruptedException {
+        final long begin = System.nanoTime();
+        Interpreter interpreter = available.poll(timeout, unit);
+        if( interpreter == null ) {
+            timeouts.incrementAndGet();
+            return null;
+        }
+        return borrowed(interpreter, begin);
+    }
+
+    /**
+     * Returns a borrowed interpreter to the pool, discarding the predicates
+     * and the variables defined while it was borrowed.
+     *
+     * @param interpreter interpreter to be returned.
+     * @throws IllegalArgumentException if the interpreter has not been borrowed from this pool.
+     */
+    public void release(Interpreter interpreter) {
+        Long begin = borrowed.remove(interpreter);
+        if( begin == null ) {
+            throw new IllegalArgumentException("Interpreter not borrowed from this pool.");
+        }
+        busyTime.addAndGet( System.nanoTime() - Math.max(begin, statisticsBegin) );
+        interpreter.getProcessor().reset( template.getProcessor() );
+        available.add(interpreter);
+    }
+
+    /**
+     * @return number of interpreters in the pool.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return number of interpreters currently available.
+     */
+    public int getAvailable() {
+        return available.size();
+    }
+
+    /**
+     * @return number of interpreters currently borrowed.
+     */
+    public int getBorrowed() {
+        return borrowed.size();
+    }
+
+    /**
+     * @return number of borrows performed.
+     */
+    public long getBorrows() {
+        return borrows.get();
+    }
+
+    /**
+     * @return number of borrows expired waiting for an interpreter.
+     */
+    public long getTimeouts() {
+        return timeouts.get();
+    }
+
+    /**
+     * @return total time spent by borrows waiting for an interpreter, in milliseconds.
+     */
+    public long getTotalWaitTime() {
+        return TimeUnit.NANOSECONDS.toMillis( waitTime.get() );
+    }
+
+    /**
+     * @return average time spent by a borrow waiting for an interpreter, in milliseconds.
+     */
+    public double getAverageWaitTime() {
+        final long n = borrows.get();
+        return n == 0 ? 0 : waitTime.get() / (n * 1000000d);
+    }
+
+    /**
+     * @return maximum time spent by a borrow waiting for an interpreter, in milliseconds.
+     */
+    public long getMaxWaitTime() {
+        return TimeUnit.NANOSECONDS.toMillis( maxWaitTime.get() );
+    }
+
+    /**
+     * Returns the utilization of the pool since its creation or the last statistics reset, that is the time
+     * the interpreters have been borrowed over the time they could have been.
+     *
+     * @return utilization between <code>0</code> and <code>1</code>.
+     */
+    public double getUtilization() {
+        final long now  = System.nanoTime();
+        final long from = statisticsBegin;
+        long busy = busyTime.get();
+        synchronized(borrowed) {
+            for(Long begin : borrowed.values()) {
+                busy += now - Math.max(begin, from);
+            }
+        }
+        final long elapsed = (now - from) * size;
+        return elapsed <= 0 ? 0 : Math.min(1d, busy / (double) elapsed);
+    }
+
+    /**
+     * Resets the wait time and utilization statistics.
+     */
+    public void resetStatistics() {
+        borrows.set(0);
+        timeouts.set(0);
+        waitTime.set(0);
+        maxWaitTime.set(0);
+        busyTime.set(0);
+        statisticsBegin = System.nanoTime();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "InterpreterPool[size: %d, borrowed: %d, borrows: %d, timeouts: %d, " +
+                "average wait: %.3f ms, max wait: %d ms, utilization: %.2f]",
+                size, getBorrowed(), getBorrows(), getTimeouts(),
+                getAverageWaitTime(), getMaxWaitTime(), getUtilization()
+        );
+    }
+
+    /**
+     * Registers a borrowed interpreter.
+     *
+     * @param interpreter borrowed interpreter.
+     * @param begin time at which the borrow began, in nanoseconds.
+     * @return the interpreter.
+     */
+    private Interpreter borrowed(Interpreter interpreter, long begin) {
+        final long now  = System.nanoTime();
+        final long wait = now - begin;
+        borrows.incrementAndGet();
+        waitTime.addAndGet(wait);
+        long max;
+        do {
+            max = maxWaitTime.get();
+        } while( wait > max && ! maxWaitTime.compareAndSet(max, wait) );
+        borrowed.put(interpreter, now);
+        return interpreter;
+    }
+
+}
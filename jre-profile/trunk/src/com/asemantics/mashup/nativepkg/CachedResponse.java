@@ -0,0 +1,187 @@
+/*
+ * Copyright 2007-2008 Michele Mostarda ( michele.mostarda@gmail.com ).
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the 'License');
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an 'AS IS' BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package com.asemantics.mashup.nativepkg;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Defines an <i>HTTP</i> response body stored by the {@link HttpResponseCache}
+ * with the validators and the expiration time used to reuse it.
+ */
+public class CachedResponse {
+
+    /**
+     * Response body, an array or a view of the {@link DiskResponseCache} data file.
+     */
+    private final ByteBuffer body;
+
+    /**
+     * <i>ETag</i> validator, <code>null</code> if not provided.
+     */
+    private final String etag;
+
+    /**
+     * <i>Last-Modified</i> validator, <code>null</code> if not provided.
+     */
+    private final String lastModified;
+
+    /**
+     * Time after which the response must be revalidated, in milliseconds.
+     */
+    private final long expires;
+
+    /**
+     * Charset declared by the <i>Content-Type</i> header, <code>null</code> if not declared.
+     */
+    private final String charset;
+
+    /**
+     * Constructor for a response not declaring the charset.
+     *
+     * @param b response body.
+     * @param et <i>ETag</i> header value.
+     * @param lm <i>Last-Modified</i> header value.
+     * @param exp expiration time in milliseconds.
+     */
+    public CachedResponse(byte[] b, String et, String lm, long exp) {
+        this(b, et, lm, exp, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param b response body.
+     * @param et <i>ETag</i> header value.
+     * @param lm <i>Last-Modified</i> header value.
+     * @param exp expiration time in milliseconds.
+     * @param cs charset declared by the response.
+     */
+    public CachedResponse(byte[] b, String et, String lm, long exp, String cs) {
+        this( b == null ? null : ByteBuffer.wrap(b), et, lm, exp, cs );
+    }
+
+    /**
+     * Constructor for a response whose body is a view of a buffer, not copied.
+     *
+     * @param b response body, from its position to its limit.
+     * @param et <i>ETag</i> header value.
+     * @param lm <i>Last-Modified</i> header value.
+     * @param exp expiration time in milliseconds.
+     * @param cs charset declared by the response.
+     */
+    public CachedResponse(ByteBuffer b, String et, String lm, long exp, String cs) {
+        if( b == null ) {
+            throw new IllegalArgumentException("body cannot be null.");
+        }
+        body         = b.slice();
+        etag         = et;
+        lastModified = lm;
+        expires      = exp;
+        charset      = cs;
+    }
+
+    /**
+     * Returns the response body, copied only if it is not backed by an array.
+     *
+     * @return response body.
+     */
+    public byte[] getBody() {
+        if( body.hasArray() && body.arrayOffset() == 0 && body.array().length == body.capacity() ) {
+            return body.array();
+        }
+        byte[] bytes = new byte[ body.capacity() ];
+        body.duplicate().get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Returns a view of the response body, without copying it.
+     *
+     * @return body buffer positioned at the beginning of the body.
+     */
+    public ByteBuffer getBodyBuffer() {
+        return body.duplicate();
+    }
+
+    /**
+     * @return length of the response body in bytes.
+     */
+    public int getLength() {
+        return body.capacity();
+    }
+
+    /**
+     * @return <i>ETag</i> validator or <code>null</code>.
+     */
+    public String getEtag() {
+        return etag;
+    }
+
+    /**
+     * @return <i>Last-Modified</i> validator or <code>null</code>.
+     */
+    public String getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * @return expiration time in milliseconds.
+     */
+    public long getExpires() {
+        return expires;
+    }
+
+    /**
+     * @return declared charset or <code>null</code>.
+     */
+    public String getCharset() {
+        return charset;
+    }
+
+    /**
+     * Returns <code>true</code> if the response can be used without revalidation.
+     *
+     * @param now current time in milliseconds.
+     * @return freshness flag.
+     */
+    public boolean isFresh(long now) {
+        return now < expires;
+    }
+
+    /**
+     * Returns <code>true</code> if the response can be revalidated with a conditional request.
+     *
+     * @return validators available flag.
+     */
+    public boolean hasValidators() {
+        return etag != null || lastModified != null;
+    }
+
+    /**
+     * Returns a copy of this response with a new expiration time.
+     *
+     * @param exp expiration time in milliseconds.
+     * @return refreshed response.
+     */
+    public CachedResponse refresh(long exp) {
+        return new CachedResponse(body, etag, lastModified, exp, charset);
+    }
+
+}
@@ -0,0 +1,820 @@
+/*
+ * Copyright 2007-2008 Michele Mostarda ( michele.mostarda@gmail.com ).
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the 'License');
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an 'AS IS' BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package com.asemantics.mashup.nativepkg;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Defines a persistent cache of <i>HTTP</i> responses stored in a directory.
+ * Responses are appended to a data file and located through a memory mapped
+ * hash index from the URL to the offset, the length and the expiration time of the record,
+ * so a lookup costs a hash probe and a read of the memory mapped data file.
+ * When the data file exceeds the size cap it is compacted, keeping the most recent responses.
+ * <p>
+ * Data record layout: record length (int), URL, ETag, Last-Modified, charset (length prefixed UTF-8 strings,
+ * length <code>-1</code> for <code>null</code>), expiration (long), body (length prefixed bytes).
+ * <br>
+ * Index layout: a header with magic number, number of slots, number of entries and committed data length,
+ * followed by open addressing slots with URL hash, record offset, expiration and record length.
+ * The data file is mapped and extended in chunks, the bytes beyond the committed data length are unused.
+ * If the committed data length exceeds the data file the index is rebuilt scanning the data file.
+ *
+ * @see com.asemantics.mashup.nativepkg.NativeImpl#setDiskCache(DiskResponseCache)
+ */
+public class DiskResponseCache {
+
+    /**
+     * Name of the data file.
+     */
+    public static final String DATA_FILE  = "responses.data";
+
+    /**
+     * Name of the index file.
+     */
+    public static final String INDEX_FILE = "responses.index";
+
+    /**
+     * Index magic number.
+     */
+    private static final int MAGIC = 0x4D555043;
+
+    /**
+     * Index header size.
+     */
+    private static final int HEADER_SIZE = 32;
+
+    /**
+     * Index slot size: hash, offset, expiration, length and padding.
+     */
+    private static final int SLOT_SIZE = 32;
+
+    /**
+     * Initial number of index slots.
+     */
+    private static final int INITIAL_SLOTS = 1024;
+
+    /**
+     * Offset marking a removed slot.
+     */
+    private static final long REMOVED = -1;
+
+    /**
+     * Minimum size of the data file mapping.
+     */
+    private static final int MAP_CHUNK = 1024 * 1024;
+
+    /**
+     * Data file.
+     */
+    private final File dataFile;
+
+    /**
+     * Index file.
+     */
+    private final File indexFile;
+
+    /**
+     * Maximum size of the data file in bytes.
+     */
+    private final long maxBytes;
+
+    /**
+     * Data file channel.
+     */
+    private FileChannel dataChannel;
+
+    /**
+     * Read only mapping of the data file, remapped doubling its size when the data exceed it.
+     */
+    private MappedByteBuffer dataMap;
+
+    /**
+     * Index file channel.
+     */
+    private FileChannel indexChannel;
+
+    /**
+     * Read write mapping of the index file.
+     */
+    private MappedByteBuffer indexMap;
+
+    /**
+     * Number of index slots, a power of two.
+     */
+    private int slots;
+
+    /**
+     * Number of used slots.
+     */
+    private int entries;
+
+    /**
+     * Number of removed slots.
+     */
+    private int removed;
+
+    /**
+     * Committed length of the data file.
+     */
+    private long dataLength;
+
+    /**
+     * Bytes of the data file referred by the index, the others are
+     * reclaimed by compaction when they exceed half the size cap.
+     */
+    private long liveBytes;
+
+    /**
+     * Number of responses found.
+     */
+    private long hits;
+
+    /**
+     * Number of responses not found.
+     */
+    private long misses;
+
+    /**
+     * Number of performed compactions.
+     */
+    private long compactions;
+
+    /**
+     * Constructor, opens or creates the cache in the given directory.
+     *
+     * @param directory cache directory.
+     * @param max maximum size of the data file in bytes, up to <code>Integer.MAX_VALUE</code>.
+     * @throws IOException
+     */
+    public DiskResponseCache(File directory, long max) throws IOException {
+        if( max <= 0 || max > Integer.MAX_VALUE ) {
+            throw new IllegalArgumentException("Invalid cache size: " + max);
+        }
+        if( ! directory.isDirectory() && ! directory.mkdirs() ) {
+            throw new IOException("Cannot create cache directory: " + directory);
+        }
+        dataFile  = new File(directory, DATA_FILE);
+        indexFile = new File(directory, INDEX_FILE);
+        maxBytes  = max;
+        open();
+    }
+
+    /**
+     * Returns the response cached for an URL. The body is a read only view
+     * of the data file, as returned by {@link #getBody(String)}.
+     *
+     * @param url
+     * @return cached response or <code>null</code> if not found.
+     * @throws IOException
+     */
+    public synchronized CachedResponse get(String url) throws IOException {
+        final int slot = findSlot(url);
+        if( slot < 0 ) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return readResponse( slotOffset(slot) );
+    }
+
+    /**
+     * Returns a read only view of the body cached for an URL, without copying it.
+     * The view remains readable after compactions and clearings, which replace the data file
+     * instead of truncating it.
+     *
+     * @param url
+     * @return body buffer or <code>null</code> if not found.
+     * @throws IOException
+     */
+    public synchronized ByteBuffer getBody(String url) throws IOException {
+        final int slot = findSlot(url);
+        if( slot < 0 ) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return readResponse( slotOffset(slot) ).getBodyBuffer();
+    }
+
+    /**
+     * Stores a response, compacting the data file if the size cap would be exceeded
+     * or if more than half the cache size is used by replaced and removed responses.
+     * A response bigger than half the cache size is not stored.
+     *
+     * @param url
+     * @param response
+     * @throws IOException
+     */
+    public synchronized void put(String url, CachedResponse response) throws IOException {
+        ByteBuffer record = encode(url, response);
+        if( record.remaining() > maxBytes / 2 ) {
+            remove(url);
+            return;
+        }
+        if( dataLength + record.remaining() > maxBytes || dataLength - liveBytes > maxBytes / 2 ) {
+            compact( record.remaining() );
+        }
+        final long offset = dataLength;
+        final int length  = record.remaining();
+        while( record.hasRemaining() ) {
+            dataChannel.write(record, offset + record.position());
+        }
+        dataLength += length;
+        index(url, offset, response.getExpires(), length);
+        writeHeader();
+    }
+
+    /**
+     * Removes the response cached for an URL.
+     *
+     * @param url
+     * @throws IOException
+     */
+    public synchronized void remove(String url) throws IOException {
+        final int slot = findSlot(url);
+        if( slot >= 0 ) {
+            liveBytes -= slotLength(slot);
+            indexMap.putLong( slotPosition(slot) + 8, REMOVED );
+            entries--;
+            removed++;
+            writeHeader();
+        }
+    }
+
+    /**
+     * Removes all cached responses.
+     *
+     * @throws IOException
+     */
+    public synchronized void clear() throws IOException {
+        dataMap = null;
+        dataChannel.close();
+        dataFile.delete();
+        dataChannel = openLocked(dataFile);
+        dataChannel.truncate(0);
+        dataLength = liveBytes = 0;
+        createIndex(INITIAL_SLOTS);
+        hits = misses = compactions = 0;
+    }
+
+    /**
+     * Flushes and closes the cache files.
+     *
+     * @throws IOException
+     */
+    public synchronized void close() throws IOException {
+        writeHeader();
+        indexMap.force();
+        dataChannel.force(true);
+        dataChannel.close();
+        indexChannel.close();
+        dataMap  = null;
+        indexMap = null;
+    }
+
+    /**
+     * @return number of cached responses.
+     */
+    public synchronized int getEntries() {
+        return entries;
+    }
+
+    /**
+     * @return size of the data in the data file in bytes.
+     */
+    public synchronized long getBytes() {
+        return dataLength;
+    }
+
+    /**
+     * @return maximum size of the data file in bytes.
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * @return number of responses found.
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return number of responses not found.
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return number of performed compactions.
+     */
+    public synchronized long getCompactions() {
+        return compactions;
+    }
+
+    public synchronized String toString() {
+        return
+            "DiskResponseCache{" +
+                "entries: "      + entries +
+                ", bytes: "      + dataLength +
+                ", hits: "       + hits +
+                ", misses: "     + misses +
+                ", compactions: "+ compactions +
+            "}";
+    }
+
+    /**
+     * Opens the cache files, rebuilding the index if not consistent with the data file.
+     * The files are locked, so that they cannot be shared by more caches.
+     *
+     * @throws IOException if the files cannot be opened or are used by another cache.
+     */
+    private void open() throws IOException {
+        dataChannel = openLocked(dataFile);
+        try {
+            indexChannel = openLocked(indexFile);
+        } catch (IOException ioe) {
+            dataChannel.close();
+            throw ioe;
+        }
+        dataLength   = dataChannel.size();
+        if( indexChannel.size() >= HEADER_SIZE ) {
+            indexMap = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, indexChannel.size());
+            if(
+                    indexMap.getInt(0) == MAGIC
+                            &&
+                    indexChannel.size() == HEADER_SIZE + (long) indexMap.getInt(4) * SLOT_SIZE
+                            &&
+                    indexMap.getLong(16) <= dataLength
+            ) {
+                dataLength = indexMap.getLong(16);
+                slots   = indexMap.getInt(4);
+                entries = indexMap.getInt(8);
+                removed = indexMap.getInt(12);
+                liveBytes = 0;
+                for(int slot = 0; slot < slots; slot++) {
+                    if( slotHash(slot) != 0 && slotOffset(slot) != REMOVED ) {
+                        liveBytes += slotLength(slot);
+                    }
+                }
+                return;
+            }
+        }
+        rebuildFromData();
+    }
+
+    /**
+     * Rebuilds the index scanning the data file, truncating an incomplete last record
+     * or the unused end of the mapping.
+     *
+     * @throws IOException
+     */
+    private void rebuildFromData() throws IOException {
+        createIndex(INITIAL_SLOTS);
+        liveBytes = 0;
+        long offset = 0;
+        ByteBuffer lengthBuffer = ByteBuffer.allocate(4);
+        while( offset + 4 <= dataLength ) {
+            lengthBuffer.clear();
+            dataChannel.read(lengthBuffer, offset);
+            int length = lengthBuffer.getInt(0);
+            if( length <= 4 || offset + length > dataLength ) {
+                break;
+            }
+            CachedResponse response;
+            String url;
+            try {
+                ByteBuffer record = record(offset);
+                url = readString(record);
+                response = readResponse(offset);
+            } catch (RuntimeException re) {
+                break;
+            }
+            index(url, offset, response.getExpires(), length);
+            offset += length;
+        }
+        if( offset < dataLength ) {
+            dataMap = null;
+            dataChannel.truncate(offset);
+            dataLength = offset;
+        }
+        writeHeader();
+    }
+
+    /**
+     * Creates an empty index with the given number of slots.
+     *
+     * @param newSlots number of slots, a power of two.
+     * @throws IOException
+     */
+    private void createIndex(int newSlots) throws IOException {
+        indexMap = null;
+        indexChannel.truncate(0);
+        indexChannel.write( ByteBuffer.allocate(1), HEADER_SIZE + (long) newSlots * SLOT_SIZE - 1 );
+        indexMap = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) newSlots * SLOT_SIZE);
+        slots   = newSlots;
+        entries = 0;
+        removed = 0;
+        writeHeader();
+    }
+
+    /**
+     * Writes the index header.
+     */
+    private void writeHeader() {
+        indexMap.putInt (0 , MAGIC);
+        indexMap.putInt (4 , slots);
+        indexMap.putInt (8 , entries);
+        indexMap.putInt (12, removed);
+        indexMap.putLong(16, dataLength);
+    }
+
+    /**
+     * Adds or replaces the index entry of an URL, growing the index if too loaded.
+     *
+     * @param url
+     * @param offset record offset.
+     * @param expires expiration time.
+     * @param length record length.
+     * @throws IOException
+     */
+    private void index(String url, long offset, long expires, int length) throws IOException {
+        final long hash = hash(url);
+        int free = -1;
+        int slot = (int) (hash & (slots - 1));
+        while( slotHash(slot) != 0 ) {
+            if( slotOffset(slot) == REMOVED ) {
+                if( free < 0 ) {
+                    free = slot;
+                }
+            } else if( slotHash(slot) == hash && url.equals( readString( record( slotOffset(slot) ) ) ) ) {
+                liveBytes -= slotLength(slot);
+                writeSlot(slot, hash, offset, expires, length);
+                liveBytes += length;
+                return;
+            }
+            slot = (slot + 1) & (slots - 1);
+        }
+        if( free >= 0 ) {
+            slot = free;
+            removed--;
+        }
+        writeSlot(slot, hash, offset, expires, length);
+        entries++;
+        liveBytes += length;
+        if( (entries + removed) * 2 > slots ) {
+            resizeIndex( entries * 4 > slots ? slots * 2 : slots );
+        }
+    }
+
+    /**
+     * Recreates the index with the given number of slots, dropping the removed slots.
+     *
+     * @param newSlots number of slots.
+     * @throws IOException
+     */
+    private void resizeIndex(int newSlots) throws IOException {
+        List<long[]> live = liveSlots();
+        createIndex(newSlots);
+        for(long[] entry : live) {
+            int slot = (int) (entry[0] & (slots - 1));
+            while( slotHash(slot) != 0 ) {
+                slot = (slot + 1) & (slots - 1);
+            }
+            writeSlot(slot, entry[0], entry[1], entry[2], (int) entry[3]);
+            entries++;
+        }
+        writeHeader();
+    }
+
+    /**
+     * Rewrites the data file keeping the most recent responses still usable
+     * within three quarters of the size cap, minus the space required by a new record.
+     *
+     * @param required space required after compaction.
+     * @throws IOException
+     */
+    private void compact(int required) throws IOException {
+        List<long[]> live = liveSlots();
+        Collections.sort(live, new Comparator<long[]>() {
+            public int compare(long[] e1, long[] e2) {
+                return e1[1] < e2[1] ? 1 : e1[1] == e2[1] ? 0 : -1;
+            }
+        });
+        final long now = System.currentTimeMillis();
+        final long budget = maxBytes * 3 / 4 - required;
+        List<long[]> kept = new ArrayList<long[]>();
+        long keptBytes = 0;
+        for(long[] entry : live) {
+            if( keptBytes + entry[3] > budget ) {
+                break;
+            }
+            CachedResponse response = readResponse(entry[1]);
+            if( ! response.isFresh(now) && ! response.hasValidators() ) {
+                continue;
+            }
+            kept.add(entry);
+            keptBytes += entry[3];
+        }
+        Collections.reverse(kept);
+
+        File compactedFile = new File(dataFile.getParentFile(), DATA_FILE + ".compact");
+        FileChannel compacted = new RandomAccessFile(compactedFile, "rw").getChannel();
+        compacted.truncate(0);
+        long position = 0;
+        for(long[] entry : kept) {
+            ByteBuffer record = record(entry[1]);
+            record.position(0);
+            while( record.hasRemaining() ) {
+                position += compacted.write(record, position);
+            }
+            entry[1] = position - entry[3];
+        }
+        compacted.force(true);
+        compacted.close();
+
+        dataMap = null;
+        dataChannel.close();
+        if( ! compactedFile.renameTo(dataFile) ) {
+            dataFile.delete();
+            if( ! compactedFile.renameTo(dataFile) ) {
+                throw new IOException("Cannot replace data file " + dataFile);
+            }
+        }
+        dataChannel = openLocked(dataFile);
+        dataLength  = position;
+        liveBytes   = position;
+
+        createIndex(slots);
+        for(long[] entry : kept) {
+            int slot = (int) (entry[0] & (slots - 1));
+            while( slotHash(slot) != 0 ) {
+                slot = (slot + 1) & (slots - 1);
+            }
+            writeSlot(slot, entry[0], entry[1], entry[2], (int) entry[3]);
+            entries++;
+        }
+        writeHeader();
+        compactions++;
+    }
+
+    /**
+     * Returns the live index entries as hash, offset, expiration and length.
+     *
+     * @return list of entries.
+     */
+    private List<long[]> liveSlots() {
+        List<long[]> live = new ArrayList<long[]>(entries);
+        for(int slot = 0; slot < slots; slot++) {
+            if( slotHash(slot) != 0 && slotOffset(slot) != REMOVED ) {
+                live.add( new long[]{ slotHash(slot), slotOffset(slot), slotExpires(slot), slotLength(slot) } );
+            }
+        }
+        return live;
+    }
+
+    /**
+     * Finds the slot of an URL.
+     *
+     * @param url
+     * @return slot index or <code>-1</code> if not found.
+     * @throws IOException
+     */
+    private int findSlot(String url) throws IOException {
+        final long hash = hash(url);
+        int slot = (int) (hash & (slots - 1));
+        while( slotHash(slot) != 0 ) {
+            if(
+                    slotHash(slot) == hash
+                            &&
+                    slotOffset(slot) != REMOVED
+                            &&
+                    url.equals( readString( record( slotOffset(slot) ) ) )
+            ) {
+                return slot;
+            }
+            slot = (slot + 1) & (slots - 1);
+        }
+        return -1;
+    }
+
+    private int slotPosition(int slot) {
+        return HEADER_SIZE + slot * SLOT_SIZE;
+    }
+
+    private long slotHash(int slot) {
+        return indexMap.getLong( slotPosition(slot) );
+    }
+
+    private long slotOffset(int slot) {
+        return indexMap.getLong( slotPosition(slot) + 8 );
+    }
+
+    private long slotExpires(int slot) {
+        return indexMap.getLong( slotPosition(slot) + 16 );
+    }
+
+    private int slotLength(int slot) {
+        return indexMap.getInt( slotPosition(slot) + 24 );
+    }
+
+    private void writeSlot(int slot, long hash, long offset, long expires, int length) {
+        final int position = slotPosition(slot);
+        indexMap.putLong(position     , hash);
+        indexMap.putLong(position + 8 , offset);
+        indexMap.putLong(position + 16, expires);
+        indexMap.putInt (position + 24, length);
+    }
+
+    /**
+     * Opens a cache file for reading and writing, holding an exclusive lock on it
+     * until the channel is closed.
+     *
+     * @param file file to be opened.
+     * @return file channel.
+     * @throws IOException if the file cannot be opened or is locked by another cache.
+     */
+    private static FileChannel openLocked(File file) throws IOException {
+        FileChannel channel = new RandomAccessFile(file, "rw").getChannel();
+        FileLock lock;
+        try {
+            lock = channel.tryLock();
+        } catch (OverlappingFileLockException ofle) {
+            lock = null;
+        } catch (IOException ioe) {
+            channel.close();
+            throw ioe;
+        }
+        if( lock == null ) {
+            channel.close();
+            throw new IOException("Cache file used by another cache: " + file);
+        }
+        return channel;
+    }
+
+    /**
+     * Returns a view of the record at the given offset, positioned after the record length.
+     *
+     * @param offset record offset.
+     * @return record buffer.
+     * @throws IOException
+     */
+    private ByteBuffer record(long offset) throws IOException {
+        if( dataMap == null || dataMap.capacity() < dataLength ) {
+            final long chunk = dataMap == null ? MAP_CHUNK : Math.max( 2L * dataMap.capacity(), MAP_CHUNK );
+            final long size  = Math.max( dataLength, Math.min(chunk, maxBytes) );
+            if( dataChannel.size() < size ) {
+                // Extends the data file, so that the mapping covers the next records.
+                dataChannel.write( ByteBuffer.allocate(1), size - 1 );
+            }
+            dataMap = dataChannel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+        ByteBuffer record = dataMap.duplicate();
+        record.position( (int) offset );
+        record = record.slice();
+        record.limit( record.getInt(0) );
+        record.position(4);
+        return record;
+    }
+
+    /**
+     * Reads the response of the record at the given offset.
+     *
+     * @param offset record offset.
+     * @return response with a read only view of the body in the data file.
+     * @throws IOException
+     */
+    private CachedResponse readResponse(long offset) throws IOException {
+        ByteBuffer record = record(offset);
+        skipString(record);
+        String etag         = readString(record);
+        String lastModified = readString(record);
+        String charset      = readString(record);
+        long expires        = record.getLong();
+        int bodyLength      = record.getInt();
+        record.limit( record.position() + bodyLength );
+        return new CachedResponse(record, etag, lastModified, expires, charset);
+    }
+
+    /**
+     * Encodes a record.
+     *
+     * @param url
+     * @param response
+     * @return record buffer ready to be written.
+     */
+    private static ByteBuffer encode(String url, CachedResponse response) {
+        byte[] urlBytes  = toBytes(url);
+        byte[] etagBytes = toBytes( response.getEtag() );
+        byte[] lmBytes   = toBytes( response.getLastModified() );
+        byte[] csBytes   = toBytes( response.getCharset() );
+        ByteBuffer body  = response.getBodyBuffer();
+        int length =
+                4 +
+                4 + urlBytes.length +
+                4 + (etagBytes == null ? 0 : etagBytes.length) +
+                4 + (lmBytes   == null ? 0 : lmBytes.length) +
+                4 + (csBytes   == null ? 0 : csBytes.length) +
+                8 +
+                4 + body.remaining();
+        ByteBuffer record = ByteBuffer.allocate(length);
+        record.putInt(length);
+        putBytes(record, urlBytes);
+        putBytes(record, etagBytes);
+        putBytes(record, lmBytes);
+        putBytes(record, csBytes);
+        record.putLong( response.getExpires() );
+        record.putInt( body.remaining() );
+        record.put(body);
+        record.flip();
+        return record;
+    }
+
+    private static void putBytes(ByteBuffer buffer, byte[] bytes) {
+        if( bytes == null ) {
+            buffer.putInt(-1);
+        } else {
+            buffer.putInt(bytes.length);
+            buffer.put(bytes);
+        }
+    }
+
+    private static byte[] toBytes(String s) {
+        if( s == null ) {
+            return null;
+        }
+        try {
+            return s.getBytes("UTF-8");
+        } catch (UnsupportedEncodingException uee) {
+            throw new IllegalStateException(uee);
+        }
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if( length < 0 ) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        try {
+            return new String(bytes, "UTF-8");
+        } catch (UnsupportedEncodingException uee) {
+            throw new IllegalStateException(uee);
+        }
+    }
+
+    private static void skipString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if( length > 0 ) {
+            buffer.position( buffer.position() + length );
+        }
+    }
+
+    /**
+     * Computes the 64 bit <i>FNV-1a</i> hash of an URL, never <code>0</code>.
+     *
+     * @param url
+     * @return hash value.
+     */
+    private static long hash(String url) {
+        long hash = 0xcbf29ce484222325L;
+        for(int i = 0; i < url.length(); i++) {
+            hash ^= url.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash == 0 ? 1 : hash;
+    }
+
+}
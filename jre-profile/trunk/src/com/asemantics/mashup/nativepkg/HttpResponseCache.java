@@ -0,0 +1,241 @@
+/*
+ * Copyright 2007-2008 Michele Mostarda ( michele.mostarda@gmail.com ).
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the 'License');
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an 'AS IS' BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package com.asemantics.mashup.nativepkg;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Defines an in-memory cache of <i>HTTP</i> responses indexed by URL,
+ * bounded by the total size of the cached bodies. When the size is exceeded
+ * the least recently used responses are evicted.
+ *
+ * @see com.asemantics.mashup.nativepkg.NativeImpl#getResponseCache()
+ */
+public class HttpResponseCache {
+
+    /**
+     * Responses in access order.
+     */
+    private final LinkedHashMap<String,CachedResponse> responses =
+            new LinkedHashMap<String,CachedResponse>(16, 0.75f, true);
+
+    /**
+     * Maximum size of cached bodies in bytes.
+     */
+    private long maxBytes;
+
+    /**
+     * Current size of cached bodies in bytes.
+     */
+    private long bytes;
+
+    /**
+     * Number of requests served by fresh cached responses.
+     */
+    private long hits;
+
+    /**
+     * Number of requests sent to the network.
+     */
+    private long misses;
+
+    /**
+     * Number of cached responses confirmed by a conditional request.
+     */
+    private long revalidations;
+
+    /**
+     * Number of responses evicted to respect the size limit.
+     */
+    private long evictions;
+
+    /**
+     * Constructor.
+     *
+     * @param max maximum size of cached bodies in bytes, <code>0</code> disables the cache.
+     */
+    public HttpResponseCache(long max) {
+        setMaxBytes(max);
+    }
+
+    /**
+     * Returns the response cached for an URL.
+     *
+     * @param url
+     * @return cached response or <code>null</code> if not found.
+     */
+    public synchronized CachedResponse get(String url) {
+        return responses.get(url);
+    }
+
+    /**
+     * Caches a response, evicting the least recently used responses if needed.
+     * A response bigger than the cache size is not stored.
+     *
+     * @param url
+     * @param response
+     */
+    public synchronized void put(String url, CachedResponse response) {
+        remove(url);
+        if( response.getLength() > maxBytes ) {
+            return;
+        }
+        responses.put(url, response);
+        bytes += response.getLength();
+        evict();
+    }
+
+    /**
+     * Removes the response cached for an URL.
+     *
+     * @param url
+     */
+    public synchronized void remove(String url) {
+        CachedResponse removed = responses.remove(url);
+        if( removed != null ) {
+            bytes -= removed.getLength();
+        }
+    }
+
+    /**
+     * Removes all responses and resets the statistics.
+     */
+    public synchronized void clear() {
+        responses.clear();
+        bytes = hits = misses = revalidations = evictions = 0;
+    }
+
+    /**
+     * Sets the maximum size of cached bodies.
+     *
+     * @param max size in bytes, <code>0</code> disables the cache.
+     */
+    public synchronized void setMaxBytes(long max) {
+        if( max < 0 ) {
+            throw new IllegalArgumentException("Invalid cache size: " + max);
+        }
+        maxBytes = max;
+        evict();
+    }
+
+    /**
+     * @return maximum size of cached bodies in bytes.
+     */
+    public synchronized long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * @return <code>true</code> if the cache can store responses.
+     */
+    public synchronized boolean isEnabled() {
+        return maxBytes > 0;
+    }
+
+    /**
+     * @return current size of cached bodies in bytes.
+     */
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * @return number of cached responses.
+     */
+    public synchronized int getEntries() {
+        return responses.size();
+    }
+
+    /**
+     * @return number of requests served by fresh cached responses.
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return number of requests sent to the network.
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return number of cached responses confirmed by a conditional request.
+     */
+    public synchronized long getRevalidations() {
+        return revalidations;
+    }
+
+    /**
+     * @return number of responses evicted to respect the size limit.
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized String toString() {
+        return
+            "HttpResponseCache{" +
+                "entries: "        + responses.size() +
+                ", bytes: "        + bytes +
+                ", hits: "         + hits +
+                ", misses: "       + misses +
+                ", revalidations: "+ revalidations +
+                ", evictions: "    + evictions +
+            "}";
+    }
+
+    /**
+     * Counts a request served by a fresh cached response.
+     */
+    synchronized void hit() {
+        hits++;
+    }
+
+    /**
+     * Counts a request sent to the network.
+     */
+    synchronized void miss() {
+        misses++;
+    }
+
+    /**
+     * Counts a cached response confirmed by a conditional request.
+     */
+    synchronized void revalidated() {
+        revalidations++;
+    }
+
+    /**
+     * Evicts the least recently used responses exceeding the size limit.
+     */
+    private void evict() {
+        Iterator<Map.Entry<String,CachedResponse>> iterator = responses.entrySet().iterator();
+        while( bytes > maxBytes && iterator.hasNext() ) {
+            bytes -= iterator.next().getValue().getLength();
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+}
@@ -26,6 +26,8 @@ import com.asemantics.mashup.processor.json.JsonArray;
 import com.asemantics.mashup.processor.json.JsonBase;
 import com.asemantics.mashup.processor.json.JsonFactory;
 import com.asemantics.mashup.processor.json.JsonObject;
+import com.asemantics.mashup.processor.json.JsonParseException;
+import com.asemantics.mashup.processor.json.JsonParser;
 import com.sdicons.json.model.JSONArray;
 import com.sdicons.json.model.JSONBoolean;
 import com.sdicons.json.model.JSONComplex;
@@ -39,7 +41,9 @@ import com.sdicons.json.parser.JSONParser;
 import org.apache.commons.httpclient.DefaultHttpMethodRetryHandler;
 import org.apache.commons.httpclient.HttpClient;
 import org.apache.commons.httpclient.HttpException;
+import org.apache.commons.httpclient.Header;
 import org.apache.commons.httpclient.HttpMethodBase;
+import org.apache.commons.httpclient.MultiThreadedHttpConnectionManager;
 import org.apache.commons.httpclient.HttpStatus;
 import org.apache.commons.httpclient.methods.GetMethod;
 import org.apache.commons.httpclient.methods.PostMethod;
@@ -49,11 +53,37 @@ import org.apache.commons.httpclient.methods.DeleteMethod;
 import org.apache.commons.httpclient.methods.multipart.Part;
 import org.apache.commons.httpclient.methods.multipart.StringPart;
 import org.apache.commons.httpclient.methods.multipart.MultipartRequestEntity;
+import org.apache.commons.httpclient.params.HttpConnectionManagerParams;
 import org.apache.commons.httpclient.params.HttpMethodParams;
+import org.apache.commons.httpclient.util.DateParseException;
+import org.apache.commons.httpclient.util.DateUtil;
+import org.apache.commons.httpclient.util.IdleConnectionTimeoutThread;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.io.StringReader;
+import java.io.UnsupportedEncodingException;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * <i>JRE</i> implementation of {@link com.asemantics.mashup.nativepkg.Native} interface.
@@ -65,6 +95,42 @@ public class NativeImpl extends Native {
      */
     public static final int HTTP_RETRY_TIMES = 3;
 
+    /**
+     * Interval between two checks of the idle connections, in milliseconds.
+     */
+    private static final int IDLE_CHECK_INTERVAL = 1000;
+
+    /**
+     * System property specifying the directory of the disk response cache.
+     */
+    public static final String DISK_CACHE_DIRECTORY_PROPERTY = "mashup.http.diskcache.dir";
+
+    /**
+     * System property specifying the maximum size in bytes of the disk response cache.
+     */
+    public static final String DISK_CACHE_SIZE_PROPERTY = "mashup.http.diskcache.size";
+
+    /**
+     * Default maximum size of the disk response cache.
+     */
+    public static final long DEFAULT_DISK_CACHE_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * System property specifying the number of threads running the spawned tasks
+     * when virtual threads are not available.
+     */
+    public static final String SPAWN_POOL_SIZE_PROPERTY = "mashup.spawn.poolsize";
+
+    /**
+     * Default number of threads running the spawned tasks.
+     */
+    public static final int DEFAULT_SPAWN_POOL_SIZE = 32;
+
+    /**
+     * Charset of the <i>JSON</i> responses not declaring it.
+     */
+    public static final String DEFAULT_JSON_CHARSET = "UTF-8";
+
     /**
      * initialization of native impl.
      */
@@ -75,12 +141,256 @@ public class NativeImpl extends Native {
      */
     private static JUIFactory uiFactory;
 
+    /**
+     * {@link com.asemantics.mashup.nativepkg.HttpFuture} backed by a task of the asynchronous executor.
+     */
+    private static class ExecutorHttpFuture implements HttpFuture {
+
+        /**
+         * Executor task.
+         */
+        protected final Future<String> task;
+
+        /**
+         * Constructor.
+         *
+         * @param t executor task.
+         */
+        ExecutorHttpFuture(Future<String> t) {
+            task = t;
+        }
+
+        public boolean isDone() {
+            return task.isDone();
+        }
+
+        public String get() throws NativeException {
+            try {
+                return waitTask();
+            } catch (InterruptedException ie) {
+                throw new NativeException("Interrupted while waiting for response.", ie);
+            } catch (ExecutionException ee) {
+                if( ee.getCause() instanceof NativeException ) {
+                    throw (NativeException) ee.getCause();
+                }
+                throw new NativeException("Error while performing asynchronous request.", ee.getCause());
+            }
+        }
+
+        /**
+         * Waits for the completion of the task.
+         *
+         * @return task result.
+         * @throws InterruptedException if the waiting thread is interrupted.
+         * @throws ExecutionException if the task failed.
+         * @throws NativeException if the task cannot be completed.
+         */
+        protected String waitTask() throws InterruptedException, ExecutionException, NativeException {
+            return task.get();
+        }
+    }
+
+    /**
+     * {@link com.asemantics.mashup.processor.json.JsonParser.Input} reading
+     * a character stream through a buffer.
+     */
+    private static class ReaderInput implements JsonParser.Input {
+
+        /**
+         * Character stream.
+         */
+        private final Reader reader;
+
+        /**
+         * Read buffer.
+         */
+        private final char[] buffer = new char[8192];
+
+        /**
+         * Number of characters in the buffer.
+         */
+        private int length;
+
+        /**
+         * Index of the next character in the buffer.
+         */
+        private int index;
+
+        /**
+         * Constructor.
+         *
+         * @param r character stream.
+         */
+        ReaderInput(Reader r) {
+            reader = r;
+        }
+
+        public int read() throws JsonParseException {
+            if( index == length ) {
+                try {
+                    length = reader.read(buffer);
+                } catch (IOException ioe) {
+                    throw new JsonParseException("Error while reading JSON.", ioe);
+                }
+                index = 0;
+                if( length <= 0 ) {
+                    length = 0;
+                    return -1;
+                }
+            }
+            return buffer[index++];
+        }
+    }
+
+    /**
+     * Input stream reading a byte buffer, so that the responses cached on disk
+     * are parsed without copying them.
+     */
+    private static class BufferInputStream extends InputStream {
+
+        /**
+         * Buffer to be read.
+         */
+        private final ByteBuffer buffer;
+
+        /**
+         * Constructor.
+         *
+         * @param b buffer to be read from its position to its limit.
+         */
+        BufferInputStream(ByteBuffer b) {
+            buffer = b;
+        }
+
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        public int read(byte[] bytes, int offset, int length) {
+            if( length == 0 ) {
+                return 0;
+            }
+            if( ! buffer.hasRemaining() ) {
+                return -1;
+            }
+            final int count = Math.min( length, buffer.remaining() );
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+
+    /**
+     * <i>GET</i> request of a fan-out, recording when it starts.
+     * The socket read timeout of the request is set to the fan-out timeout,
+     * so that a cancelled request blocked on a read is released.
+     */
+    private class FanOutRequest implements Callable<String> {
+
+        /**
+         * URL to be retrieved.
+         */
+        private final String url;
+
+        /**
+         * Timeout in milliseconds, <code>0</code> means no timeout.
+         */
+        private final int timeout;
+
+        /**
+         * Start time of the request, <code>0</code> if not yet started.
+         */
+        private volatile long started;
+
+        /**
+         * Constructor.
+         *
+         * @param u URL to be retrieved.
+         * @param to timeout in milliseconds.
+         */
+        FanOutRequest(String u, int to) {
+            url     = u;
+            timeout = to;
+        }
+
+        public String call() throws NativeException {
+            started = System.currentTimeMillis();
+            return decodeResponse( fetchGetResponse(url, -1, timeout) );
+        }
+    }
+
+    /**
+     * {@link com.asemantics.mashup.nativepkg.HttpFuture} of a fan-out request
+     * failing if the request doesn't complete within a timeout from its start.
+     */
+    private static class TimedHttpFuture extends ExecutorHttpFuture {
+
+        /**
+         * Request performed by the task.
+         */
+        private final FanOutRequest request;
+
+        /**
+         * Timeout in milliseconds.
+         */
+        private final int timeout;
+
+        /**
+         * Constructor.
+         *
+         * @param t executor task.
+         * @param r request performed by the task.
+         * @param to timeout in milliseconds.
+         */
+        TimedHttpFuture(Future<String> t, FanOutRequest r, int to) {
+            super(t);
+            request = r;
+            timeout = to;
+        }
+
+        protected String waitTask() throws InterruptedException, ExecutionException, NativeException {
+            while(true) {
+                final long started = request.started;
+                // A queued request is awaited for the timeout, then its start is checked again.
+                final long wait = started == 0 ? timeout : started + timeout - System.currentTimeMillis();
+                if( started != 0 && wait <= 0 ) {
+                    task.cancel(true);
+                    throw new NativeException("Request timed out after " + timeout + " ms: " + request.url);
+                }
+                try {
+                    return task.get(wait, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException te) {
+                    // Checks the timeout again.
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates a factory of daemon threads.
+     *
+     * @param name name of the created threads.
+     * @return thread factory.
+     */
+    private static ThreadFactory createThreadFactory(final String name) {
+        return new ThreadFactory() {
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, name);
+                thread.setDaemon(true);
+                return thread;
+            }
+        };
+    }
+
     /**
      * Returns the unique instance of this native implementation.
      *
      * @return instance static implementation.
      */
-    public static Native getInstance() {
+    public static synchronized Native getInstance() {
         if( ! initialized ) {
             initialized = true;
             initInstance( new NativeImpl() );
@@ -89,10 +399,82 @@ public class NativeImpl extends Native {
     }
 
     /**
-     * Constructor.
+     * Pool of connections shared by all the requests.
+     */
+    private final MultiThreadedHttpConnectionManager connectionManager;
+
+    /**
+     * Daemon thread closing the pooled connections unused for the idle timeout.
+     */
+    private final IdleConnectionTimeoutThread idleConnectionCloser;
+
+    /**
+     * Thread safe client using the connection pool.
+     */
+    private final HttpClient client;
+
+    /**
+     * Cache of <i>GET</i> responses.
+     */
+    private final HttpResponseCache responseCache;
+
+    /**
+     * Executor of the asynchronous requests, sized as the connection pool.
+     */
+    private final ThreadPoolExecutor asyncExecutor;
+
+    /**
+     * Coalescer of concurrent identical <i>GET</i> requests.
+     */
+    private final RequestCoalescer coalescer;
+
+    /**
+     * Persistent cache of <i>GET</i> responses, <code>null</code> if disabled.
+     */
+    private DiskResponseCache diskCache;
+
+    /**
+     * Pool running the parallel tasks, created at first use.
+     */
+    private ForkJoinPool taskPool;
+
+    /**
+     * Executor running the spawned tasks, created at first use.
+     */
+    private ExecutorService spawnExecutor;
+
+    /**
+     * Constructor. The disk response cache is enabled if the
+     * {@link #DISK_CACHE_DIRECTORY_PROPERTY} system property is defined.
      */
     public NativeImpl() {
-        // Empty.
+        connectionManager = new MultiThreadedHttpConnectionManager();
+        idleConnectionCloser = new IdleConnectionTimeoutThread();
+        idleConnectionCloser.setName("mashup-http-idle");
+        idleConnectionCloser.setTimeoutInterval(IDLE_CHECK_INTERVAL);
+        idleConnectionCloser.addConnectionManager(connectionManager);
+        client            = new HttpClient(connectionManager);
+        responseCache     = new HttpResponseCache(0);
+        coalescer         = new RequestCoalescer();
+        asyncExecutor     = new ThreadPoolExecutor(
+                1, 1, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(),
+                createThreadFactory("mashup-http-async")
+        );
+        asyncExecutor.allowCoreThreadTimeOut(true);
+        applyHttpConfiguration( getCurrentHttpConfiguration() );
+        idleConnectionCloser.start();
+        final String diskCacheDirectory = System.getProperty(DISK_CACHE_DIRECTORY_PROPERTY);
+        if( diskCacheDirectory != null ) {
+            try {
+                diskCache = new DiskResponseCache(
+                        new File(diskCacheDirectory),
+                        Long.getLong(DISK_CACHE_SIZE_PROPERTY, DEFAULT_DISK_CACHE_SIZE)
+                );
+            } catch (IOException ioe) {
+                throw new IllegalStateException("Error while opening disk cache " + diskCacheDirectory, ioe);
+            }
+        }
     }
 
     public void sleep(int timemillis) throws NativeException {
@@ -112,7 +494,66 @@ public class NativeImpl extends Native {
     }
 
     public String httpGetRequest(String url) throws NativeException {
-        return performHttpRequest( new GetMethod(url) );
+        return httpGetRequest(url, -1);
+    }
+
+    public String httpGetRequest(String url, int ttl) throws NativeException {
+        return decodeResponse( fetchGetResponse(url, ttl) );
+    }
+
+    public HttpFuture httpGetRequestAsync(final String url) {
+        return new ExecutorHttpFuture(
+                asyncExecutor.submit( new Callable<String>() {
+                    public String call() throws NativeException {
+                        return httpGetRequest(url);
+                    }
+                })
+        );
+    }
+
+    public HttpFuture httpPostRequestAsync(final String url, final Map<String,String> parameters) {
+        return new ExecutorHttpFuture(
+                asyncExecutor.submit( new Callable<String>() {
+                    public String call() throws NativeException {
+                        return httpPostRequest(url, parameters);
+                    }
+                })
+        );
+    }
+
+    /**
+     * Performs the requests on a dedicated executor of <i>maxConcurrency</i> threads,
+     * released when all the requests are completed.
+     *
+     * @param urls urls to be retrieved.
+     * @param maxConcurrency maximum number of concurrent requests.
+     * @param timeout timeout of every request in milliseconds, <code>0</code> means no timeout.
+     * @return pending urls contents.
+     */
+    public HttpFuture[] httpGetRequestsAsync(String[] urls, int maxConcurrency, int timeout) {
+        if( maxConcurrency <= 0 ) {
+            throw new IllegalArgumentException("Invalid max concurrency: " + maxConcurrency);
+        }
+        final HttpFuture[] futures = new HttpFuture[urls.length];
+        if( urls.length == 0 ) {
+            return futures;
+        }
+        final int threads = Math.min(maxConcurrency, urls.length);
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                threads, threads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<Runnable>(),
+                createThreadFactory("mashup-http-fanout")
+        );
+        try {
+            for(int i = 0; i < urls.length; i++) {
+                final FanOutRequest request = new FanOutRequest( urls[i], timeout );
+                final Future<String> task = executor.submit(request);
+                futures[i] = timeout > 0 ? new TimedHttpFuture(task, request, timeout) : new ExecutorHttpFuture(task);
+            }
+        } finally {
+            executor.shutdown();
+        }
+        return futures;
     }
 
     public String httpPostRequest(String url, Map<String,String> parameters) throws NativeException {
@@ -147,11 +588,283 @@ public class NativeImpl extends Native {
     }
 
     public JsonBase parseJSON(String jsonString) throws NativeException {
-        return processJSONString( jsonString );
+        if( jsonString == null ) {
+            throw new NativeException("Invalid JSON: null");
+        }
+        try {
+            return JsonParser.parse(jsonString);
+        } catch (JsonParseException jpe) {
+            throw new NativeException("Error while parsing JSON.", jpe);
+        }
+    }
+
+    /**
+     * Parses a <i>JSON</i> stream in a single pass, decoding it with the given charset.
+     *
+     * @param in stream to be parsed, not closed by this method.
+     * @param charset stream charset.
+     * @return parsed value.
+     * @throws NativeException if the stream cannot be read or is not valid <i>JSON</i>.
+     */
+    public JsonBase parseJSON(InputStream in, String charset) throws NativeException {
+        try {
+            return new JsonParser( new ReaderInput( new InputStreamReader(in, charset) ) ).parse();
+        } catch (UnsupportedEncodingException uee) {
+            throw new NativeException("Unsupported charset: " + charset, uee);
+        } catch (JsonParseException jpe) {
+            throw new NativeException("Error while parsing JSON.", jpe);
+        }
+    }
+
+    /**
+     * Parses the response while it is received when the response caches are disabled,
+     * otherwise the cached response body is parsed without decoding it into a string.
+     * The body is decoded with the charset declared by the response, {@link #DEFAULT_JSON_CHARSET}
+     * if not declared.
+     *
+     * @param url url to be retrieved.
+     * @return parsed URL content.
+     * @throws NativeException if the request fails or the response is not valid <i>JSON</i>.
+     */
+    public JsonBase httpGetJSONRequest(String url) throws NativeException {
+        if( responseCache.isEnabled() || getDiskCache() != null ) {
+            final CachedResponse response = fetchGetResponse(url, -1);
+            return parseJSON(
+                    new BufferInputStream( response.getBodyBuffer() ),
+                    response.getCharset() == null ? DEFAULT_JSON_CHARSET : response.getCharset()
+            );
+        }
+
+        GetMethod method = new GetMethod(url);
+        prepareHttpRequest(method);
+        try {
+
+            int statusCode = client.executeMethod(method);
+
+            if (statusCode != HttpStatus.SC_OK) {
+                throw new NativeException( "Method failed: " + method.getStatusLine() );
+            }
+
+            final InputStream body = method.getResponseBodyAsStream();
+            if( body == null ) {
+                throw new NativeException("Empty response.");
+            }
+            return parseJSON( body, getResponseCharset(method) );
+
+        } catch (HttpException e) {
+            throw new NativeException( "Fatal protocol violation: " + e.getMessage() );
+        } catch (IOException e) {
+            throw new NativeException("Fatal transport error: " + e.getMessage() );
+        } finally {
+            method.releaseConnection();
+        }
+    }
+
+    /**
+     * Returns the cache of <i>GET</i> responses, sized by the
+     * {@link HttpConfiguration#setResponseCacheSize(long)} configuration.
+     *
+     * @return response cache.
+     */
+    public HttpResponseCache getResponseCache() {
+        return responseCache;
+    }
+
+    /**
+     * Returns the coalescer of concurrent identical <i>GET</i> requests,
+     * providing the counters of performed and coalesced requests.
+     *
+     * @return request coalescer.
+     */
+    public RequestCoalescer getRequestCoalescer() {
+        return coalescer;
+    }
+
+    /**
+     * Returns the persistent cache of <i>GET</i> responses.
+     *
+     * @return disk cache, <code>null</code> if disabled.
+     */
+    public synchronized DiskResponseCache getDiskCache() {
+        return diskCache;
+    }
+
+    /**
+     * Sets the persistent cache of <i>GET</i> responses, consulted when
+     * a response is not found in the memory cache.
+     *
+     * @param dc disk cache, <code>null</code> to disable it.
+     */
+    public synchronized void setDiskCache(DiskResponseCache dc) {
+        diskCache = dc;
+    }
+
+    /**
+     * Returns the number of available processors.
+     *
+     * @return default parallelism.
+     */
+    @Override
+    protected int getDefaultParallelism() {
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Runs the tasks on a fork join pool, using at most <i>parallelism</i> workers.
+     * When invoked from a task already running on the pool, the workers are forked
+     * inside the same pool.
+     *
+     * @param tasks tasks to be executed.
+     * @param parallelism maximum number of tasks executed at the same time.
+     */
+    @Override
+    public void runTasks(final Runnable[] tasks, int parallelism) {
+        if( parallelism <= 0 ) {
+            throw new IllegalArgumentException("Invalid parallelism: " + parallelism);
+        }
+        if( parallelism == 1 || tasks.length <= 1 ) {
+            super.runTasks(tasks, parallelism);
+            return;
+        }
+        final AtomicInteger next = new AtomicInteger(0);
+        final ForkJoinTask[] workers = new ForkJoinTask[ Math.min(parallelism, tasks.length) ];
+        for(int i = 0; i < workers.length; i++) {
+            workers[i] = ForkJoinTask.adapt( new Runnable() {
+                public void run() {
+                    int index;
+                    while( (index = next.getAndIncrement()) < tasks.length ) {
+                        tasks[index].run();
+                    }
+                }
+            });
+        }
+        if( ForkJoinTask.inForkJoinPool() ) {
+            ForkJoinTask.invokeAll(workers);
+        } else {
+            getTaskPool().invoke( ForkJoinTask.adapt( new Runnable() {
+                public void run() {
+                    ForkJoinTask.invokeAll(workers);
+                }
+            }));
+        }
+    }
+
+    /**
+     * Starts the task on a virtual thread if available, otherwise on a bounded
+     * pool of {@link #SPAWN_POOL_SIZE_PROPERTY} threads. Awaiting a task not started yet
+     * runs it in the awaiting thread, so that tasks joining other tasks cannot exhaust the pool.
+     *
+     * @param task task to be started.
+     * @return the pending completion of the task.
+     */
+    @Override
+    public TaskFuture spawnTask(Runnable task) {
+        final FutureTask<Object> future = new FutureTask<Object>(task, null);
+        getSpawnExecutor().execute(future);
+        return new TaskFuture() {
+            public boolean isDone() {
+                return future.isDone();
+            }
+            public void await() throws NativeException {
+                future.run();
+                try {
+                    future.get();
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw new NativeException("Interrupted while awaiting task.", ie);
+                } catch (ExecutionException ee) {
+                    throw new NativeException("Error while executing task.", ee.getCause());
+                }
+            }
+        };
+    }
+
+    /**
+     * Closes all the pooled connections. Following requests open new connections.
+     */
+    public void closeConnections() {
+        connectionManager.closeIdleConnections(0);
+    }
+
+    /**
+     * Returns the pool running the parallel tasks, creating it if needed.
+     *
+     * @return task pool.
+     */
+    protected synchronized ForkJoinPool getTaskPool() {
+        if( taskPool == null ) {
+            taskPool = new ForkJoinPool( getDefaultParallelism() );
+        }
+        return taskPool;
+    }
+
+    /**
+     * Returns the executor running the spawned tasks, creating it if needed.
+     *
+     * @return spawn executor.
+     */
+    protected synchronized ExecutorService getSpawnExecutor() {
+        if( spawnExecutor == null ) {
+            spawnExecutor = createSpawnExecutor();
+        }
+        return spawnExecutor;
+    }
+
+    /**
+     * Creates an executor starting a virtual thread per task when supported by the runtime,
+     * otherwise a pool of daemon threads.
+     *
+     * @return created executor.
+     */
+    private static ExecutorService createSpawnExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (Exception e) {
+            // Virtual threads not available.
+        }
+        final int size = Integer.getInteger(SPAWN_POOL_SIZE_PROPERTY, DEFAULT_SPAWN_POOL_SIZE);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                size, size, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(),
+                createThreadFactory("mashup-spawn")
+        );
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Applies connection limits and timeouts to the connection pool
+     * and to the executor of the asynchronous requests.
+     *
+     * @param configuration configuration to be applied.
+     */
+    protected void applyHttpConfiguration(HttpConfiguration configuration) {
+        HttpConnectionManagerParams params = connectionManager.getParams();
+        params.setDefaultMaxConnectionsPerHost( configuration.getMaxConnectionsPerHost() );
+        params.setMaxTotalConnections         ( configuration.getMaxTotalConnections()   );
+        params.setConnectionTimeout           ( configuration.getConnectionTimeout()     );
+        params.setSoTimeout                   ( configuration.getReadTimeout()           );
+        // Stale connections are closed on idle timeout and failed requests retried.
+        params.setStaleCheckingEnabled(false);
+        client.getParams().setConnectionManagerTimeout( configuration.getConnectionTimeout() );
+        idleConnectionCloser.setConnectionTimeout( configuration.getIdleTimeout() );
+        responseCache.setMaxBytes( configuration.getResponseCacheSize() );
+        // Asynchronous requests are bounded by the total connections.
+        final int threads = configuration.getMaxTotalConnections();
+        if( threads > asyncExecutor.getMaximumPoolSize() ) {
+            asyncExecutor.setMaximumPoolSize(threads);
+            asyncExecutor.setCorePoolSize(threads);
+        } else {
+            asyncExecutor.setCorePoolSize(threads);
+            asyncExecutor.setMaximumPoolSize(threads);
+        }
     }
 
     /**
      * Performs <i>HTTP</i> request with specified method.
+     * The connection is taken from the shared pool and released to it
+     * once the response body has been read.
      *
      * @param method method to be applied.
      * @return HTTP response body.
@@ -159,13 +872,7 @@ public class NativeImpl extends Native {
      */
     protected String performHttpRequest(HttpMethodBase method) throws NativeException {
 
-        HttpClient client = new HttpClient();
-
-        // Provide custom retry handler.
-        method.getParams().setParameter(
-                HttpMethodParams.RETRY_HANDLER,
-    		    new DefaultHttpMethodRetryHandler(HTTP_RETRY_TIMES, false)
-        );
+        prepareHttpRequest(method);
 
         try {
 
@@ -190,7 +897,344 @@ public class NativeImpl extends Native {
     }
 
     /**
-     * Processes the JSON string.
+     * Performs a <i>GET</i> request using the response caches if enabled,
+     * coalescing it with the concurrent identical requests.
+     *
+     * @param url url to be retrieved.
+     * @param ttl time to live in seconds, negative to apply the response headers.
+     * @return HTTP response.
+     * @throws NativeException if an error occurs.
+     */
+    protected CachedResponse fetchGetResponse(String url, int ttl) throws NativeException {
+        return fetchGetResponse(url, ttl, 0);
+    }
+
+    /**
+     * Performs a <i>GET</i> request using the response caches if enabled,
+     * coalescing it with the concurrent identical requests.
+     * A request coalesced with a request in flight shares its read timeout.
+     *
+     * @param url url to be retrieved.
+     * @param ttl time to live in seconds, negative to apply the response headers.
+     * @param timeout socket read timeout in milliseconds, <code>0</code> to apply the configuration.
+     * @return HTTP response.
+     * @throws NativeException if an error occurs.
+     */
+    protected CachedResponse fetchGetResponse(final String url, final int ttl, final int timeout)
+    throws NativeException {
+        return coalescer.execute(
+                RequestCoalescer.key("GET", url, ttl),
+                new RequestCoalescer.Request<CachedResponse>() {
+                    public CachedResponse perform() throws NativeException {
+                        if( ! responseCache.isEnabled() && getDiskCache() == null ) {
+                            return performGetRequest(url, timeout);
+                        }
+                        return fetchCachedGetRequest(url, ttl, timeout);
+                    }
+                }
+        );
+    }
+
+    /**
+     * Performs a <i>GET</i> request without using the response caches.
+     *
+     * @param url url to be retrieved.
+     * @param timeout socket read timeout in milliseconds, <code>0</code> to apply the configuration.
+     * @return HTTP response, not reusable.
+     * @throws NativeException if an error occurs.
+     */
+    protected CachedResponse performGetRequest(String url, int timeout) throws NativeException {
+        GetMethod method = new GetMethod(url);
+        prepareHttpRequest(method, timeout);
+        try {
+
+            int statusCode = client.executeMethod(method);
+
+            if (statusCode != HttpStatus.SC_OK) {
+                throw new NativeException( "Method failed: " + method.getStatusLine() );
+            }
+
+            return new CachedResponse( method.getResponseBody(), null, null, -1, getDeclaredCharset(method) );
+
+        } catch (HttpException e) {
+            throw new NativeException( "Fatal protocol violation: " + e.getMessage() );
+        } catch (IOException e) {
+            throw new NativeException("Fatal transport error: " + e.getMessage() );
+        } finally {
+            method.releaseConnection();
+        }
+    }
+
+    /**
+     * Performs a <i>GET</i> request using the response cache. A fresh cached response
+     * is returned without network access, an expired one is revalidated with
+     * a conditional request if it has validators.
+     *
+     * @param url url to be retrieved.
+     * @param ttl time to live in seconds, negative to apply the response headers.
+     * @param timeout socket read timeout in milliseconds, <code>0</code> to apply the configuration.
+     * @return HTTP response, with the undecoded body and its declared charset.
+     * @throws NativeException if an error occurs.
+     */
+    protected CachedResponse fetchCachedGetRequest(String url, int ttl, int timeout) throws NativeException {
+        final long now = System.currentTimeMillis();
+        final CachedResponse cached = lookupResponse(url);
+        if( cached != null && cached.isFresh(now) ) {
+            responseCache.hit();
+            return cached;
+        }
+        responseCache.miss();
+
+        GetMethod method = new GetMethod(url);
+        prepareHttpRequest(method, timeout);
+        if( cached != null ) {
+            if( cached.getEtag() != null ) {
+                method.setRequestHeader("If-None-Match", cached.getEtag());
+            }
+            if( cached.getLastModified() != null ) {
+                method.setRequestHeader("If-Modified-Since", cached.getLastModified());
+            }
+        }
+
+        try {
+
+            int statusCode = client.executeMethod(method);
+
+            if( statusCode == HttpStatus.SC_NOT_MODIFIED && cached != null ) {
+                responseCache.revalidated();
+                final CachedResponse refreshed = cached.refresh( computeExpiration(method, now, ttl) );
+                storeResponse(url, refreshed);
+                return refreshed;
+            }
+
+            if (statusCode != HttpStatus.SC_OK) {
+                throw new NativeException( "Method failed: " + method.getStatusLine() );
+            }
+
+            final CachedResponse response = new CachedResponse(
+                    method.getResponseBody(),
+                    getHeaderValue(method, "ETag"),
+                    getHeaderValue(method, "Last-Modified"),
+                    computeExpiration(method, now, ttl),
+                    getDeclaredCharset(method)
+            );
+            storeResponse(url, response);
+            return response;
+
+        } catch (HttpException e) {
+            throw new NativeException( "Fatal protocol violation: " + e.getMessage() );
+        } catch (IOException e) {
+            throw new NativeException("Fatal transport error: " + e.getMessage() );
+        } finally {
+            method.releaseConnection();
+        }
+    }
+
+    /**
+     * Looks up a response in the memory cache and then in the disk cache,
+     * promoting the responses found on disk to the memory cache.
+     * The body of a response found on disk is not copied, it is a view of the disk cache data file.
+     *
+     * @param url
+     * @return cached response or <code>null</code> if not found.
+     * @throws NativeException if the disk cache cannot be read.
+     */
+    private CachedResponse lookupResponse(String url) throws NativeException {
+        CachedResponse cached = responseCache.get(url);
+        final DiskResponseCache dc = getDiskCache();
+        if( cached == null && dc != null ) {
+            try {
+                cached = dc.get(url);
+            } catch (IOException ioe) {
+                throw new NativeException("Error while reading disk cache.", ioe);
+            }
+            if( cached != null ) {
+                responseCache.put(url, cached);
+            }
+        }
+        return cached;
+    }
+
+    /**
+     * Stores a response if it can be reused, removes the cached one otherwise.
+     *
+     * @param url
+     * @param response
+     * @throws NativeException if the disk cache cannot be written.
+     */
+    private void storeResponse(String url, CachedResponse response) throws NativeException {
+        final long now = System.currentTimeMillis();
+        final boolean reusable = response.getExpires() >= 0 && ( response.isFresh(now) || response.hasValidators() );
+        if( reusable ) {
+            responseCache.put(url, response);
+        } else {
+            responseCache.remove(url);
+        }
+        final DiskResponseCache dc = getDiskCache();
+        if( dc != null ) {
+            try {
+                if( reusable ) {
+                    dc.put(url, response);
+                } else {
+                    dc.remove(url);
+                }
+            } catch (IOException ioe) {
+                throw new NativeException("Error while writing disk cache.", ioe);
+            }
+        }
+    }
+
+    /**
+     * Computes the expiration time of a response from the <i>Cache-Control</i>
+     * and <i>Expires</i> headers.
+     *
+     * @param method executed method.
+     * @param now request time in milliseconds.
+     * @param ttl time to live in seconds overriding the headers if not negative.
+     * @return expiration time, <code>-1</code> if the response cannot be stored.
+     */
+    private static long computeExpiration(HttpMethodBase method, long now, int ttl) {
+        if( ttl >= 0 ) {
+            return now + ttl * 1000L;
+        }
+        String cacheControl = getHeaderValue(method, "Cache-Control");
+        if( cacheControl != null ) {
+            long maxAge = -1;
+            for( String directive : cacheControl.toLowerCase().split(",") ) {
+                directive = directive.trim();
+                if( "no-store".equals(directive) ) {
+                    return -1;
+                }
+                if( "no-cache".equals(directive) ) {
+                    return now;
+                }
+                if( directive.startsWith("max-age=") ) {
+                    try {
+                        maxAge = Long.parseLong( directive.substring("max-age=".length()).trim() );
+                    } catch (NumberFormatException nfe) {
+                        maxAge = 0;
+                    }
+                }
+            }
+            if( maxAge >= 0 ) {
+                return now + maxAge * 1000L;
+            }
+        }
+        String expires = getHeaderValue(method, "Expires");
+        if( expires != null ) {
+            try {
+                return DateUtil.parseDate(expires).getTime();
+            } catch (DateParseException dpe) {
+                return now;
+            }
+        }
+        return now;
+    }
+
+    /**
+     * Returns the charset declared by the <i>Content-Type</i> of a response.
+     *
+     * @param method executed method.
+     * @return declared charset or {@link #DEFAULT_JSON_CHARSET} if not declared.
+     */
+    private static String getResponseCharset(HttpMethodBase method) {
+        final String charset = getDeclaredCharset(method);
+        return charset == null ? DEFAULT_JSON_CHARSET : charset;
+    }
+
+    /**
+     * Returns the charset declared by the <i>Content-Type</i> of a response.
+     *
+     * @param method executed method.
+     * @return declared charset or <code>null</code> if not declared.
+     */
+    private static String getDeclaredCharset(HttpMethodBase method) {
+        final String contentType = getHeaderValue(method, "Content-Type");
+        if( contentType != null ) {
+            for( String parameter : contentType.split(";") ) {
+                parameter = parameter.trim();
+                if( parameter.toLowerCase().startsWith("charset=") ) {
+                    final String charset = parameter.substring("charset=".length()).trim();
+                    if( charset.length() > 0 ) {
+                        return charset.replace("\"", "");
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the value of a response header.
+     *
+     * @param method executed method.
+     * @param name header name.
+     * @return header value or <code>null</code> if not present.
+     */
+    private static String getHeaderValue(HttpMethodBase method, String name) {
+        Header header = method.getResponseHeader(name);
+        return header == null ? null : header.getValue();
+    }
+
+    /**
+     * Decodes a <i>GET</i> response body with the charset declared by the response,
+     * or with the platform charset if not declared or not supported.
+     *
+     * @param response response to be decoded.
+     * @return response string.
+     */
+    private static String decodeResponse(CachedResponse response) {
+        Charset charset = null;
+        if( response.getCharset() != null ) {
+            try {
+                charset = Charset.forName( response.getCharset() );
+            } catch (IllegalArgumentException iae) {
+                // Unknown charset.
+            }
+        }
+        if( charset == null ) {
+            charset = Charset.defaultCharset();
+        }
+        return charset.decode( response.getBodyBuffer() ).toString();
+    }
+
+    /**
+     * Prepares a method before the execution.
+     *
+     * @param method method to be executed.
+     */
+    private void prepareHttpRequest(HttpMethodBase method) {
+        prepareHttpRequest(method, 0);
+    }
+
+    /**
+     * Prepares a method before the execution.
+     *
+     * @param method method to be executed.
+     * @param timeout socket read timeout of the method in milliseconds,
+     *        <code>0</code> to apply the configuration.
+     */
+    private void prepareHttpRequest(HttpMethodBase method, int timeout) {
+        if( timeout > 0 ) {
+            method.getParams().setSoTimeout(timeout);
+        }
+
+        // Provide custom retry handler.
+        method.getParams().setParameter(
+                HttpMethodParams.RETRY_HANDLER,
+    		    new DefaultHttpMethodRetryHandler(HTTP_RETRY_TIMES, false)
+        );
+
+        if( ! getCurrentHttpConfiguration().isKeepAlive() ) {
+            method.setRequestHeader("Connection", "close");
+        }
+    }
+
+    /**
+     * Processes the JSON string with the <i>jsontools</i> parser.
+     * {@link #parseJSON(String)} uses the single pass
+     * {@link com.asemantics.mashup.processor.json.JsonParser}, this method
+     * is kept for comparison.
      *
      * @param json
      * @return JSON representation.
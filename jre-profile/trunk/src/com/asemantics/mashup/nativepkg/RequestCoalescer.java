@@ -0,0 +1,224 @@
+/*
+ * Copyright 2007-2008 Michele Mostarda ( michele.mostarda@gmail.com ).
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the 'License');
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an 'AS IS' BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package com.asemantics.mashup.nativepkg;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Coalesces concurrent identical requests: the first caller performs the request
+ * while the others wait for it and share its result or error.
+ * Requests are identified by a key composed by method, URL and time to live.
+ */
+public class RequestCoalescer {
+
+    /**
+     * A request performed by the coalescer.
+     *
+     * @param <T> type of the response.
+     */
+    public interface Request<T> {
+
+        /**
+         * Performs the request.
+         *
+         * @return response.
+         * @throws NativeException if the request fails.
+         */
+        T perform() throws NativeException;
+
+    }
+
+    /**
+     * A request in flight, shared by all the callers with the same key.
+     */
+    private static class Flight {
+
+        /**
+         * Released when the request completes.
+         */
+        private final CountDownLatch done = new CountDownLatch(1);
+
+        /**
+         * Response.
+         */
+        private Object response;
+
+        /**
+         * Request error.
+         */
+        private NativeException error;
+
+    }
+
+    /**
+     * Requests in flight by key.
+     */
+    private final Map<String,Flight> flights = new HashMap<String,Flight>();
+
+    /**
+     * Number of performed requests.
+     */
+    private long performed;
+
+    /**
+     * Number of requests served by a request in flight.
+     */
+    private long coalesced;
+
+    /**
+     * Builds the key of a request.
+     *
+     * @param method HTTP method.
+     * @param url expanded URL.
+     * @return request key.
+     */
+    public static String key(String method, String url) {
+        return method + " " + url;
+    }
+
+    /**
+     * Builds the key of a request reusing the cached response for a given time,
+     * so that requests with different times to live are not coalesced.
+     *
+     * @param method HTTP method.
+     * @param url expanded URL.
+     * @param ttl time to live in seconds, negative if not specified.
+     * @return request key.
+     */
+    public static String key(String method, String url, int ttl) {
+        return ttl < 0 ? key(method, url) : key(method, url) + " ttl=" + ttl;
+    }
+
+    /**
+     * Performs a request, or waits for the completion of the request
+     * in flight with the same key.
+     *
+     * The requests sharing a key must return the same type of response.
+     *
+     * @param key request key.
+     * @param request request to be performed.
+     * @return response.
+     * @throws NativeException if the request fails.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Request<T> request) throws NativeException {
+        final Flight flight;
+        final boolean leader;
+        synchronized (flights) {
+            Flight current = flights.get(key);
+            if( current == null ) {
+                flight = new Flight();
+                flights.put(key, flight);
+                performed++;
+                leader = true;
+            } else {
+                flight = current;
+                coalesced++;
+                leader = false;
+            }
+        }
+
+        if( leader ) {
+            try {
+                flight.response = request.perform();
+            } catch (NativeException ne) {
+                flight.error = ne;
+                throw ne;
+            } catch (Throwable t) {
+                // Followers must never see a flight without response and error.
+                flight.error = new NativeException("Error while performing request " + key, t);
+                if( t instanceof RuntimeException ) {
+                    throw (RuntimeException) t;
+                }
+                if( t instanceof Error ) {
+                    throw (Error) t;
+                }
+                throw flight.error;
+            } finally {
+                synchronized (flights) {
+                    flights.remove(key);
+                }
+                flight.done.countDown();
+            }
+            return (T) flight.response;
+        }
+
+        try {
+            flight.done.await();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new NativeException("Interrupted while waiting for request " + key, ie);
+        }
+        if( flight.error != null ) {
+            throw new NativeException(flight.error.getMessage(), flight.error);
+        }
+        return (T) flight.response;
+    }
+
+    /**
+     * @return number of performed requests.
+     */
+    public long getPerformed() {
+        synchronized (flights) {
+            return performed;
+        }
+    }
+
+    /**
+     * @return number of requests served by a request in flight.
+     */
+    public long getCoalesced() {
+        synchronized (flights) {
+            return coalesced;
+        }
+    }
+
+    /**
+     * @return number of requests currently in flight.
+     */
+    public int getInFlight() {
+        synchronized (flights) {
+            return flights.size();
+        }
+    }
+
+    /**
+     * Resets the counters.
+     */
+    public void resetCounters() {
+        synchronized (flights) {
+            performed = coalesced = 0;
+        }
+    }
+
+    public String toString() {
+        synchronized (flights) {
+            return
+                "RequestCoalescer{" +
+                    "performed: "  + performed +
+                    ", coalesced: "+ coalesced +
+                    ", inFlight: " + flights.size() +
+                "}";
+        }
+    }
+
+}
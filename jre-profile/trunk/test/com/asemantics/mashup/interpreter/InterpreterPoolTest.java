@@ -0,0 +1,150 @@
+/*
+ * Copyright 2007-2008 Michele Mostarda ( michele.mostarda@gmail.com ).
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the 'License');
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an 'AS IS' BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package com.asemantics.mashup.interpreter;
+
+import com.asemantics.mashup.processor.NumericValue;
+import com.asemantics.mashup.processor.Processor;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test case for {@link com.asemantics.mashup.interpreter.InterpreterPool}.
+ */
+public class InterpreterPoolTest extends TestCase {
+
+    /**
+     * Library loaded in the pooled interpreters.
+     */
+    private static final String LIBRARY = "Twice(x) : Sum(x, x); base = 10; items = List(1, 2);";
+
+    /**
+     * Tests that a returned interpreter is restored to the library context.
+     *
+     * @throws Exception
+     */
+    public void testBorrowAndRelease() throws Exception {
+        InterpreterPool pool = new InterpreterPool(1, LIBRARY);
+        Interpreter interpreter = pool.borrow();
+        assertEquals("Unespected value.", 6.0, ((NumericValue) interpreter.process("Twice(3);")).getNativeValue() );
+        interpreter.process("x = 5;");
+        interpreter.process("Extra(y) : y;");
+        assertNotNull("Unespected missing variable.", interpreter.getProcessor().getValue("x") );
+        assertEquals("Unespected number of borrowed interpreters.", 1, pool.getBorrowed() );
+        pool.release(interpreter);
+
+        interpreter = pool.borrow();
+        final Processor processor = interpreter.getProcessor();
+        assertNull ("Unespected request variable.", processor.getValue("x") );
+        assertFalse("Unespected request predicate.", processor.getExecutionContext().containsSequence("Extra") );
+        assertNotNull("Unespected missing library variable.", processor.getValue("base") );
+        assertEquals("Unespected value.", 8.0, ((NumericValue) interpreter.process("Twice(4);")).getNativeValue() );
+        pool.release(interpreter);
+
+        try {
+            pool.release(interpreter);
+            fail("Expected exception.");
+        } catch (IllegalArgumentException iae) {
+            // OK.
+        }
+    }
+
+    /**
+     * Tests that the library variables modified by a request are not visible
+     * to the other pooled interpreters and are restored on release.
+     *
+     * @throws Exception
+     */
+    public void testLibraryVariableIsolation() throws Exception {
+        InterpreterPool pool = new InterpreterPool(2, LIBRARY);
+        Interpreter first  = pool.borrow();
+        Interpreter second = pool.borrow();
+        // Library variables are not known to the validator of a new statement.
+        first.setValidating(false);
+        first.process("AddElem(items, 3);");
+        assertEquals("Unespected modified variable.", 3, first.getProcessor().getValue("items").asList().size() );
+        assertEquals("Unespected shared variable.", 2, second.getProcessor().getValue("items").asList().size() );
+        pool.release(first);
+        pool.release(second);
+
+        for(int i = 0; i < 2; i++) {
+            Interpreter interpreter = pool.borrow();
+            assertEquals("Unespected restored variable.", 2, interpreter.getProcessor().getValue("items").asList().size() );
+        }
+    }
+
+    /**
+     * Tests many threads sharing a pool smaller than them.
+     *
+     * @throws Exception
+     */
+    public void testConcurrentBorrows() throws Exception {
+        final InterpreterPool pool = new InterpreterPool(2, LIBRARY);
+        final int threads    = 6;
+        final int iterations = 20;
+        final List<String> errors = Collections.synchronizedList( new ArrayList<String>() );
+        Thread[] workers = new Thread[threads];
+        for(int t = 0; t < threads; t++) {
+            final int n = t;
+            workers[t] = new Thread() {
+                public void run() {
+                    for(int i = 0; i < iterations; i++) {
+                        try {
+                            Interpreter interpreter = pool.borrow();
+                            try {
+                                double v = ((NumericValue) interpreter.process("r = Twice(" + n + "), r;")).getNativeValue();
+                                if( v != 2 * n ) {
+                                    errors.add( "Expected " + (2 * n) + " found " + v );
+                                }
+                            } finally {
+                                pool.release(interpreter);
+                            }
+                        } catch (Exception e) {
+                            errors.add( e.toString() );
+                        }
+                    }
+                }
+            };
+            workers[t].start();
+        }
+        for(Thread worker : workers) {
+            worker.join();
+        }
+
+        assertTrue  ("Unespected errors: " + errors, errors.isEmpty() );
+        assertEquals("Unespected number of borrows.", threads * iterations, pool.getBorrows() );
+        assertEquals("Unespected number of borrowed interpreters.", 0, pool.getBorrowed() );
+        assertEquals("Unespected number of available interpreters.", 2, pool.getAvailable() );
+        final double utilization = pool.getUtilization();
+        assertTrue("Unespected utilization: " + utilization, utilization > 0 && utilization <= 1);
+        System.out.println(pool);
+
+        Interpreter i1 = pool.borrow();
+        Interpreter i2 = pool.borrow();
+        assertNull  ("Unespected interpreter.", pool.borrow(50, TimeUnit.MILLISECONDS) );
+        assertEquals("Unespected number of timeouts.", 1, pool.getTimeouts() );
+        pool.release(i1);
+        pool.release(i2);
+    }
+
+}
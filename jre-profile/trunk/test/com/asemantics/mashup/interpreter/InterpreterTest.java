@@ -18,15 +18,24 @@
 
 package com.asemantics.mashup.interpreter;
 
+import com.asemantics.mashup.nativepkg.HttpConfiguration;
+import com.asemantics.mashup.nativepkg.LocalHttpServer;
+import com.asemantics.mashup.nativepkg.Native;
+import com.asemantics.mashup.nativepkg.NativeImpl;
 import com.asemantics.mashup.parser.ValidationException;
 import com.asemantics.mashup.processor.BooleanValue;
+import com.asemantics.mashup.processor.ExecutionContext;
 import com.asemantics.mashup.processor.InvocableValue;
 import com.asemantics.mashup.processor.JsonValue;
 import com.asemantics.mashup.processor.ListValue;
+import com.asemantics.mashup.processor.MapValue;
+import com.asemantics.mashup.processor.NumericValue;
 import com.asemantics.mashup.processor.ProcessorException;
 import com.asemantics.mashup.processor.SequenceNotFoundException;
+import com.asemantics.mashup.processor.StringValue;
 import com.asemantics.mashup.processor.Value;
 import com.asemantics.mashup.processor.json.JsonBase;
+import com.asemantics.mashup.processor.nativeops.GetAllOperation;
 import com.asemantics.mashup.processor.json.JsonObject;
 import com.asemantics.mashup.processor.json.JsonUtil;
 import com.asemantics.mashup.processor.json.JsonDiff;
@@ -63,6 +72,77 @@ public class InterpreterTest extends AbstractInterpreterTest {
         assertEquals("Unespected evaluated value.", "This is the result.", v.asString().getNativeValue() );
     }
 
+    /**
+     * Tests the fork of an interpreter.
+     *
+     * @throws InterpreterException
+     */
+    public void testFork() throws InterpreterException {
+        interpreter.process("Twice(x) : Sum(x, x);");
+        final Interpreter fork = interpreter.fork();
+        final ExecutionContext parentContext = interpreter.getProcessor().getExecutionContext();
+        final ExecutionContext forkContext   = fork.getProcessor().getExecutionContext();
+
+        Value v = fork.process("Twice(2);");
+        assertEquals("Unespected value.", 4.0, ((NumericValue) v).getNativeValue() );
+
+        fork.process("Only(x) : x;");
+        fork.process("Evaluate('Evaluated(x) : x;');");
+        assertTrue ("Unespected missing predicate.", forkContext.containsSequence("Only") );
+        assertTrue ("Unespected missing predicate.", forkContext.containsSequence("Evaluated") );
+        assertFalse("Unespected predicate.", parentContext.containsSequence("Only") );
+        assertFalse("Unespected predicate.", parentContext.containsSequence("Evaluated") );
+
+        interpreter.getProcessor().removePredicate("Print");
+        assertFalse("Unespected predicate.", parentContext.containsSequence("Print") );
+        assertTrue ("Unespected missing predicate.", forkContext.containsSequence("Print") );
+        assertTrue ("Unespected missing predicate.", new Interpreter().getProcessor().getExecutionContext().containsSequence("Print") );
+    }
+
+    /**
+     * Tests the shared native operations invoked concurrently by different interpreters.
+     *
+     * @throws InterruptedException
+     */
+    public void testConcurrentNativeOperations() throws InterruptedException {
+        final int THREADS = 8;
+        final int ITERATIONS = 50;
+        final List<String> errors = java.util.Collections.synchronizedList(new java.util.ArrayList<String>());
+        Thread[] threads = new Thread[THREADS];
+        for(int t = 0; t < THREADS; t++) {
+            final int size = t + 1;
+            threads[t] = new Thread() {
+                public void run() {
+                    final Interpreter local = new Interpreter();
+                    StringBuilder document = new StringBuilder("<a>");
+                    for(int i = 0; i < size; i++) {
+                        document.append("<b>").append(size).append("</b>");
+                    }
+                    document.append("</a>");
+                    try {
+                        for(int i = 0; i < ITERATIONS; i++) {
+                            Value xpath = local.process("XPath('/a/b', '" + document + "');");
+                            if( ! (xpath instanceof ListValue) || ((ListValue) xpath).size() != size ) {
+                                errors.add("XPath: " + xpath);
+                            }
+                            Value jpath = local.process("JPath( AsJSON( Map('k', " + size + ") ), '.k');");
+                            if( jpath.asNumeric().integer() != size ) {
+                                errors.add("JPath: " + jpath);
+                            }
+                        }
+                    } catch (Exception e) {
+                        errors.add( e.toString() );
+                    }
+                }
+            };
+            threads[t].start();
+        }
+        for(Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals("Unespected errors: " + errors, 0, errors.size());
+    }
+
     /**
      * Tests Context() function.
      *
@@ -435,6 +515,211 @@ public class InterpreterTest extends AbstractInterpreterTest {
         assertTrue("Cannot find an expected content.", content.indexOf("BBC") != -1 &&  content.indexOf("Homepage") != -1 );
     }
 
+    /**
+     * Tests asynchronous HTTP Get requests.
+     *
+     * @throws Exception
+     */
+    public void testNativeGetAsync() throws Exception {
+        LocalHttpServer server = new LocalHttpServer();
+        try {
+            server.setDelay(300);
+            final String base = server.getBaseURL();
+            Value value = interpreter.process(
+                    " a = GetAsync('" + base + "a', List() ), " +
+                    " b = GetAsync('" + base + "b', List() ), " +
+                    " c = GetAsync('" + base + "c', List() ), " +
+                    " Await( List(a, b, c) ); "
+            );
+            assertTrue("Unespected value type.", value instanceof ListValue);
+            ListValue list = (ListValue) value;
+            assertEquals("Unespected size.", 3, list.size());
+            assertEquals("Unespected value.", "/a", list.getElementAt(0).asString().getNativeValue());
+            assertEquals("Unespected value.", "/b", list.getElementAt(1).asString().getNativeValue());
+            assertEquals("Unespected value.", "/c", list.getElementAt(2).asString().getNativeValue());
+            assertTrue(
+                    "Expected overlapping requests: " + server.getMaxConcurrentRequests(),
+                    server.getMaxConcurrentRequests() >= 2
+            );
+
+            // Transparent resolution.
+            value = interpreter.process(" d = GetAsync('" + base + "d', List() ), AsString(d); ");
+            assertEquals("Unespected value.", "/d", value.asString().getNativeValue());
+
+            // Failed request reported as invocation error.
+            value = interpreter.process(" e = GetAsync('http://127.0.0.1:1/e', List() ), AsString(e); ");
+            assertTrue("Unespected value type.", value instanceof StringValue);
+            assertTrue("Unespected error: " + value, value.asString().getNativeValue().startsWith("Fatal transport error") );
+        } finally {
+            server.stop();
+        }
+    }
+
+    /**
+     * Tests the time to live of the HTTP Get responses.
+     *
+     * @throws Exception
+     */
+    public void testGetTimeToLive() throws Exception {
+        LocalHttpServer server = new LocalHttpServer();
+        try {
+            final String base = server.getBaseURL();
+            Value value = interpreter.process(
+                    " a = Get('" + base + "ttl', List() ), b = Get('" + base + "ttl', List() ), List(a, b); "
+            );
+            assertEquals("Unespected result.", "[\"/ttl\",\"/ttl\"]", value.asJSON());
+            assertEquals("Unespected requests.", 2, server.getRequests());
+
+            server.reset();
+            value = interpreter.process(
+                    " a = Get('" + base + "ttl', List(), 60 ), b = Get('" + base + "ttl', List(), 60 ), List(a, b); "
+            );
+            assertEquals("Unespected result.", "[\"/ttl\",\"/ttl\"]", value.asJSON());
+            assertEquals("Expected cached response.", 1, server.getRequests());
+        } finally {
+            server.stop();
+        }
+    }
+
+    /**
+     * Tests the Spawn, Join and JoinAll operations.
+     *
+     * @throws Exception
+     */
+    public void testSpawnJoin() throws Exception {
+        LocalHttpServer server = new LocalHttpServer();
+        try {
+            server.setDelay(300);
+            final String base = server.getBaseURL();
+            interpreter.process("Fetch(url) : Get( url, List() );");
+            Value value = interpreter.process(
+                    " a = Spawn( 'Fetch', List('" + base + "a') ), " +
+                    " b = Spawn( 'Fetch', List('" + base + "b') ), " +
+                    " c = Spawn( 'Fetch', List('" + base + "c') ), " +
+                    " JoinAll( List(a, b, c) ); "
+            );
+            assertTrue("Unespected value type.", value instanceof ListValue);
+            ListValue list = (ListValue) value;
+            assertEquals("Unespected size.", 3, list.size());
+            assertEquals("Unespected value.", "/a", list.getElementAt(0).asString().getNativeValue());
+            assertEquals("Unespected value.", "/b", list.getElementAt(1).asString().getNativeValue());
+            assertEquals("Unespected value.", "/c", list.getElementAt(2).asString().getNativeValue());
+            assertTrue(
+                    "Expected overlapping tasks: " + server.getMaxConcurrentRequests(),
+                    server.getMaxConcurrentRequests() >= 2
+            );
+        } finally {
+            server.stop();
+        }
+
+        interpreter.process("Twice(x) : Sum(x, x);");
+        Value value = interpreter.process("Join( Spawn( 'Twice', List(21) ) );");
+        assertEquals("Unespected value.", 42, value.asNumeric().integer());
+        assertFalse(
+                "Unespected variable in parent context.",
+                interpreter.getProcessor().getExecutionContext().containsVariable("x")
+        );
+
+        Value error = interpreter.process("Join( Spawn( 'Undefined', List(1) ) );");
+        assertTrue(
+                "Unespected error.",
+                error.asString().getNativeValue().startsWith("Error while executing task")
+        );
+    }
+
+    /**
+     * Tests the GetAll fan-out operation.
+     *
+     * @throws Exception
+     */
+    public void testNativeGetAll() throws Exception {
+        final HttpConfiguration original = NativeImpl.getInstance().getHttpConfiguration();
+        LocalHttpServer server = new LocalHttpServer();
+        try {
+            server.setDelay(300);
+            final String base = server.getBaseURL();
+            NativeImpl.getInstance().setHttpConfiguration(
+                    new HttpConfiguration().setMaxConcurrentRequests(3).setRequestTimeout(5000)
+            );
+            Value value = interpreter.process(
+                    " GetAll( List('" + base + "a%S', '" + base + "b%S', 'http://localhost:1/c', " +
+                    "'" + base + "d%S', '" + base + "e%S', '" + base + "f%S'), List('x') ); "
+            );
+            assertTrue("Unespected value type.", value instanceof ListValue);
+            ListValue list = (ListValue) value;
+            assertEquals("Unespected size.", 6, list.size());
+            assertEquals("Unespected value.", "/ax", list.getElementAt(0).asString().getNativeValue());
+            assertEquals("Unespected value.", "/bx", list.getElementAt(1).asString().getNativeValue());
+            assertTrue("Unespected error value.", list.getElementAt(2) instanceof MapValue);
+            assertEquals(
+                    "Unespected error url.",
+                    "http://localhost:1/c",
+                    ((MapValue) list.getElementAt(2)).get( new StringValue(GetAllOperation.URL_KEY) ).asString().getNativeValue()
+            );
+            assertEquals("Unespected value.", "/fx", list.getElementAt(5).asString().getNativeValue());
+            assertTrue(
+                    "Expected bounded concurrency: " + server.getMaxConcurrentRequests(),
+                    server.getMaxConcurrentRequests() <= 3
+            );
+            assertTrue(
+                    "Expected concurrent requests: " + server.getMaxConcurrentRequests(),
+                    server.getMaxConcurrentRequests() >= 2
+            );
+
+            // Per request timeout.
+            NativeImpl.getInstance().setHttpConfiguration(
+                    new HttpConfiguration().setMaxConcurrentRequests(2).setRequestTimeout(100)
+            );
+            value = interpreter.process(" GetAll( List('" + base + "g', '" + base + "h'), List() ); ");
+            list = (ListValue) value;
+            assertEquals("Unespected size.", 2, list.size());
+            assertTrue("Expected timeout error.", list.getElementAt(0) instanceof MapValue);
+            assertTrue("Expected timeout error.", list.getElementAt(1) instanceof MapValue);
+        } finally {
+            NativeImpl.getInstance().setHttpConfiguration(original);
+            server.stop();
+        }
+    }
+
+    /**
+     * Tests the prefetch of independent HTTP Get requests in a sequence.
+     *
+     * @throws Exception
+     */
+    public void testGetPrefetch() throws Exception {
+        LocalHttpServer server = new LocalHttpServer();
+        try {
+            server.setDelay(300);
+            final String base = server.getBaseURL();
+            final String program =
+                    " a = Get('" + base + "a', List() ), " +
+                    " b = Get('" + base + "b', List() ), " +
+                    " c = Get('" + base + "c%S', List(b) ), " +
+                    " d = Get('" + base + "d', List() ), " +
+                    " List(a, b, c, d); ";
+            final String expected = "[\"/a\",\"/b\",\"/c/b\",\"/d\"]";
+
+            Value value = interpreter.process(program);
+            assertEquals("Unespected result.", expected, value.asJSON());
+            // c depends on b, a, b and d are anticipated.
+            assertTrue(
+                    "Expected overlapping requests: " + server.getMaxConcurrentRequests(),
+                    server.getMaxConcurrentRequests() >= 2
+            );
+            assertEquals("Unespected requests.", 4, server.getRequests());
+
+            server.reset();
+            interpreter.setPrefetchEnabled(false);
+            value = interpreter.process(program);
+            assertEquals("Unespected result.", expected, value.asJSON());
+            assertEquals("Unespected overlapping requests.", 1, server.getMaxConcurrentRequests());
+            assertEquals("Unespected requests.", 4, server.getRequests());
+        } finally {
+            interpreter.setPrefetchEnabled(true);
+            server.stop();
+        }
+    }
+
     /**
      * Tests the <i>XPath</i> operator.
      */
@@ -784,6 +1069,74 @@ public class InterpreterTest extends AbstractInterpreterTest {
         checkResult("overload4", result4);
     }
 
+    /**
+     * Tests the selection among mutually exclusive overloads discriminated by the
+     * first argument from the same call site.
+     *
+     * @throws InterpreterException
+     */
+    public void testFirstArgumentOverloadSelection() throws InterpreterException {
+        interpreter.process("Kind([]) : 'empty';");
+        interpreter.process("Kind([h]) : 'one';");
+        interpreter.process("Kind([h,i|t]) : 'many';");
+        interpreter.process("Kind({\"k\" : v}) : 'object';");
+        interpreter.process("Kind('zero') : 'constant';");
+        interpreter.process("Caller(a) : Kind(a);");
+        checkResult("empty"   , interpreter.process("Caller(List());") );
+        checkResult("one"     , interpreter.process("Caller(List(1));") );
+        checkResult("many"    , interpreter.process("Caller(List(1,2,3));") );
+        checkResult("object"  , interpreter.process("Caller(Map('k',1));") );
+        checkResult("constant", interpreter.process("Caller('zero');") );
+    }
+
+    /**
+     * Tests that a call site already executed selects the new definition
+     * of a predicate removed and defined again.
+     *
+     * @throws InterpreterException
+     */
+    public void testPredicateRedefinitionOnExecutedCallSite() throws InterpreterException {
+        interpreter.process("Target(a) : 'first';");
+        interpreter.process("Caller(a) : Target(a);");
+        checkResult("first", interpreter.process("Caller(1);") );
+        checkResult("first", interpreter.process("Caller(2);") );
+
+        interpreter.getProcessor().removePredicate("Target");
+        interpreter.process("Target(a) : 'second';");
+        checkResult("second", interpreter.process("Caller(3);") );
+    }
+
+    /**
+     * Tests that the same program text is compiled once and that the predicates
+     * it defines are registered again at every processing.
+     *
+     * @throws InterpreterException
+     */
+    public void testProgramCache() throws InterpreterException {
+        interpreter.clearProgramCache();
+        final String program = "Target(a) : 'defined';";
+        interpreter.process(program);
+        interpreter.process("Caller(a) : Target(a);");
+        checkResult("defined", interpreter.process("Caller(1);") );
+        assertEquals("Unespected misses.", 3, interpreter.getProgramCacheMisses());
+
+        interpreter.getProcessor().removePredicate("Target");
+        interpreter.process(program);
+        checkResult("defined", interpreter.process("Caller(1);") );
+        assertEquals("Unespected hits."  , 2, interpreter.getProgramCacheHits());
+        assertEquals("Unespected misses.", 3, interpreter.getProgramCacheMisses());
+
+        interpreter.setProgramCacheSize(1);
+        interpreter.process("Caller(2);");
+        interpreter.process("Caller(1);");
+        assertEquals("Unespected misses.", 5, interpreter.getProgramCacheMisses());
+
+        interpreter.setProgramCacheSize(0);
+        interpreter.process("Caller(1);");
+        interpreter.process("Caller(1);");
+        assertEquals("Unespected misses.", 7, interpreter.getProgramCacheMisses());
+    }
+
     /**
      * Test the model assigment capabilities with terms.
      *
@@ -871,6 +1224,36 @@ public class InterpreterTest extends AbstractInterpreterTest {
         assertEquals(ERROR_MSG, "\"<false>\"", iterator.next().asJSON());
     }
 
+    /**
+     * Tests the <i>ParMap(list, predicate)</i> operation.
+     *
+     * @throws InterpreterException
+     */
+    public void testParMapOperation() throws InterpreterException {
+        interpreter.process("Twice(x) : Sum(x, x);");
+        final Native nativeImpl = NativeImpl.getInstance();
+        final int parallelism = nativeImpl.getParallelism();
+        try {
+            for(int p = 1; p <= 4; p++) {
+                nativeImpl.setParallelism(p);
+                Value result = interpreter.process("ParMap( List(1, 2, 3, 4, 5, 6, 7, 8), 'Twice' );");
+                assertEquals("Unespected result.", "[2,4,6,8,10,12,14,16]", ((ListValue) result).asJSON());
+            }
+        } finally {
+            nativeImpl.setParallelism(parallelism);
+        }
+        assertFalse(
+                "Unespected variable in parent context.",
+                interpreter.getProcessor().getExecutionContext().containsVariable("element")
+        );
+        Value error = interpreter.process("ParMap( List(1, 2), 'Undefined' );");
+        assertEquals(
+                "Unespected error.",
+                "Error while invoking predicate 'Undefined' on element 0.",
+                error.asString().getNativeValue()
+        );
+    }
+
     /**
      * Tests the <i>LSize(list)</i> operation.
      */
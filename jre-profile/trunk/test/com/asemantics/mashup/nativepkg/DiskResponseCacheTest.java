@@ -0,0 +1,201 @@
+/*
+ * Copyright 2007-2008 Michele Mostarda ( michele.mostarda@gmail.com ).
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the 'License');
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an 'AS IS' BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.asemantics.mashup.nativepkg;
+
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Test class for {@link com.asemantics.mashup.nativepkg.DiskResponseCache}.
+ */
+public class DiskResponseCacheTest extends TestCase {
+
+    /**
+     * Cache directory.
+     */
+    private File directory;
+
+    /**
+     * Cache under test.
+     */
+    private DiskResponseCache cache;
+
+    protected void setUp() throws Exception {
+        directory = File.createTempFile("diskcache", "");
+        directory.delete();
+        cache = new DiskResponseCache(directory, 64 * 1024);
+    }
+
+    protected void tearDown() throws Exception {
+        cache.close();
+        cache = null;
+        new File(directory, DiskResponseCache.DATA_FILE ).delete();
+        new File(directory, DiskResponseCache.INDEX_FILE).delete();
+        directory.delete();
+    }
+
+    /**
+     * Tests storage, replacement and removal of responses.
+     *
+     * @throws Exception
+     */
+    public void testPutGet() throws Exception {
+        final long expires = System.currentTimeMillis() + 60000;
+        cache.put("http://host/a", new CachedResponse("body a".getBytes(), "\"e1\"", null, expires) );
+        cache.put("http://host/b", new CachedResponse("body b".getBytes(), null, null, expires, "ISO-8859-1") );
+
+        CachedResponse response = cache.get("http://host/a");
+        assertNotNull("Expected response.", response);
+        assertEquals("Unespected body.", "body a", new String( response.getBody() ) );
+        assertEquals("Unespected ETag.", "\"e1\"", response.getEtag() );
+        assertNull  ("Unespected Last-Modified.", response.getLastModified() );
+        assertEquals("Unespected expiration.", expires, response.getExpires() );
+        assertNull  ("Unespected charset.", response.getCharset() );
+
+        ByteBuffer body = cache.getBody("http://host/b");
+        byte[] bytes = new byte[ body.remaining() ];
+        body.get(bytes);
+        assertEquals("Unespected body.", "body b", new String(bytes) );
+
+        cache.put("http://host/a", new CachedResponse("body a2".getBytes(), null, null, expires) );
+        assertEquals("Unespected body.", "body a2", new String( cache.get("http://host/a").getBody() ) );
+        assertEquals("Unespected entries.", 2, cache.getEntries() );
+
+        cache.remove("http://host/a");
+        assertNull("Unespected response.", cache.get("http://host/a") );
+        assertNull("Unespected response.", cache.get("http://host/c") );
+        assertEquals("Unespected entries.", 1, cache.getEntries() );
+        assertEquals("Unespected hits."  , 3, cache.getHits() );
+        assertEquals("Unespected misses.", 2, cache.getMisses() );
+        assertEquals("Unespected charset.", "ISO-8859-1", cache.get("http://host/b").getCharset() );
+    }
+
+    /**
+     * Tests that responses survive reopening, also with a stale index.
+     *
+     * @throws Exception
+     */
+    public void testPersistence() throws Exception {
+        cache.close();
+        cache = new DiskResponseCache(directory, 1024 * 1024);
+        final long expires = System.currentTimeMillis() + 60000;
+        for(int i = 0; i < 2000; i++) {
+            cache.put("http://host/" + i, new CachedResponse( ("body " + i).getBytes(), null, null, expires) );
+        }
+        cache.close();
+
+        cache = new DiskResponseCache(directory, 1024 * 1024);
+        assertEquals("Unespected entries.", 2000, cache.getEntries() );
+        assertEquals("Unespected body.", "body 1234", new String( cache.get("http://host/1234").getBody() ) );
+        cache.close();
+
+        new File(directory, DiskResponseCache.INDEX_FILE).delete();
+        cache = new DiskResponseCache(directory, 1024 * 1024);
+        assertEquals("Unespected entries.", 2000, cache.getEntries() );
+        assertEquals("Unespected body.", "body 1999", new String( cache.get("http://host/1999").getBody() ) );
+    }
+
+    /**
+     * Tests the compaction of the data file beyond the size cap.
+     *
+     * @throws Exception
+     */
+    public void testCompaction() throws Exception {
+        final long expires = System.currentTimeMillis() + 60000;
+        final byte[] body = new byte[1000];
+        for(int i = 0; i < 200; i++) {
+            cache.put("http://host/" + i, new CachedResponse(body, null, null, expires) );
+            assertTrue("Unespected size: " + cache.getBytes(), cache.getBytes() <= cache.getMaxBytes() );
+        }
+        assertTrue("Expected compaction.", cache.getCompactions() > 0 );
+        assertNotNull("Expected recent response.", cache.get("http://host/199") );
+        assertNull("Unespected old response.", cache.get("http://host/0") );
+
+        cache.put("http://host/big", new CachedResponse(new byte[64 * 1024], null, null, expires) );
+        assertNull("Unespected big response.", cache.get("http://host/big") );
+    }
+
+    /**
+     * Tests the compaction of the data file when most of it is used by replaced responses.
+     *
+     * @throws Exception
+     */
+    public void testDeadBytesCompaction() throws Exception {
+        final long expires = System.currentTimeMillis() + 60000;
+        final byte[] body = new byte[4000];
+        for(int i = 0; i < 16; i++) {
+            cache.put("http://host/a", new CachedResponse(body, null, null, expires) );
+        }
+        assertEquals("Unespected entries.", 1, cache.getEntries() );
+        assertTrue("Expected compaction.", cache.getCompactions() > 0 );
+        assertTrue("Unespected size: " + cache.getBytes(), cache.getBytes() < cache.getMaxBytes() / 2 );
+        assertEquals("Unespected length.", 4000, cache.get("http://host/a").getLength() );
+    }
+
+    /**
+     * Tests that the cache size cannot exceed the size of a mapping.
+     *
+     * @throws Exception
+     */
+    public void testInvalidSize() throws Exception {
+        try {
+            new DiskResponseCache(directory, Integer.MAX_VALUE + 1L);
+            fail("Expected invalid size.");
+        } catch (IllegalArgumentException iae) {
+            // OK.
+        }
+    }
+
+    /**
+     * Tests that the cached bodies are read only views surviving the clearing of the cache.
+     *
+     * @throws Exception
+     */
+    public void testBodyView() throws Exception {
+        final long expires = System.currentTimeMillis() + 60000;
+        cache.put("http://host/a", new CachedResponse("body a".getBytes(), null, null, expires) );
+        CachedResponse response = cache.get("http://host/a");
+        assertTrue("Expected read only body.", response.getBodyBuffer().isReadOnly() );
+        assertEquals("Unespected length.", 6, response.getLength() );
+
+        cache.clear();
+        assertNull("Unespected response.", cache.get("http://host/a") );
+        assertEquals("Unespected body.", "body a", new String( response.getBody() ) );
+    }
+
+    /**
+     * Tests that the cache files cannot be opened by another cache.
+     *
+     * @throws Exception
+     */
+    public void testExclusiveLock() throws Exception {
+        try {
+            new DiskResponseCache(directory, 64 * 1024);
+            fail("Expected lock failure.");
+        } catch (IOException ioe) {
+            // OK.
+        }
+        cache.close();
+        cache = new DiskResponseCache(directory, 64 * 1024);
+        assertEquals("Unespected entries.", 0, cache.getEntries() );
+    }
+
+}
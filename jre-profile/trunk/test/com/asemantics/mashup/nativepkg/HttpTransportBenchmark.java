@@ -0,0 +1,91 @@
+/*
+ * Copyright 2007-2008 Michele Mostarda ( michele.mostarda@gmail.com ).
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the 'License');
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an 'AS IS' BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package com.asemantics.mashup.nativepkg;
+
+import com.asemantics.mashup.interpreter.Interpreter;
+import com.asemantics.mashup.interpreter.InterpreterException;
+
+/**
+ * Compares the throughput of a script issuing many <i>Get</i> requests to the same host
+ * with connections kept alive in the pool of {@link NativeImpl} and with a new connection
+ * for every request. Run it as a standalone program, optionally passing the number of requests.
+ *
+ * @see LocalHttpServer
+ */
+public class HttpTransportBenchmark {
+
+    /**
+     * Default number of requests.
+     */
+    private static final int DEFAULT_REQUESTS = 500;
+
+    /**
+     * Number of measured repetitions.
+     */
+    private static final int REPETITIONS = 5;
+
+    public static void main(String[] args) throws Exception {
+        final int requests = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_REQUESTS;
+
+        LocalHttpServer server = new LocalHttpServer();
+        try {
+            final String script = "for( Range(1, " + requests + ", 1), i, Fetch(i) );";
+            Interpreter interpreter = new Interpreter();
+            interpreter.process("Fetch(i) : Get('" + server.getBaseURL() + "item/%n', List(i));");
+            Native nativeImpl = NativeImpl.getInstance();
+
+            System.out.println("Requests: " + requests);
+            for(int i = 0; i < REPETITIONS; i++) {
+                nativeImpl.setHttpConfiguration( new HttpConfiguration().setKeepAlive(true) );
+                long pooled = run(interpreter, script);
+                int pooledConnections = server.getConnections();
+                server.reset();
+
+                nativeImpl.setHttpConfiguration( new HttpConfiguration().setKeepAlive(false) );
+                long unpooled = run(interpreter, script);
+                int unpooledConnections = server.getConnections();
+                server.reset();
+
+                System.out.println(
+                        "Run " + i
+                        + " - keep-alive: "     + pooled   + " ms (" + pooledConnections   + " connections)"
+                        + ", new connection: " + unpooled + " ms (" + unpooledConnections + " connections)"
+                );
+            }
+        } finally {
+            server.stop();
+        }
+    }
+
+    /**
+     * Runs the script returning the elapsed time.
+     *
+     * @param interpreter
+     * @param script
+     * @return elapsed time in milliseconds.
+     * @throws InterpreterException
+     */
+    private static long run(Interpreter interpreter, String script) throws InterpreterException {
+        long begin = System.currentTimeMillis();
+        interpreter.process(script);
+        return System.currentTimeMillis() - begin;
+    }
+
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2007-2008 Michele Mostarda ( michele.mostarda@gmail.com ).
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the 'License');
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an 'AS IS' BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package com.asemantics.mashup.nativepkg;
+
+import com.asemantics.mashup.processor.json.JsonParser;
+
+/**
+ * Compares the parsing time of a <i>JSON</i> document with the <i>jsontools</i> parser
+ * converting its tree, as done by {@link NativeImpl#processJSONString(String)}, and with the single pass
+ * {@link com.asemantics.mashup.processor.json.JsonParser}.
+ * Run it as a standalone program, optionally passing the number of records of the document.
+ */
+public class JsonParserBenchmark {
+
+    /**
+     * Default number of records.
+     */
+    private static final int DEFAULT_RECORDS = 20000;
+
+    /**
+     * Number of measured repetitions.
+     */
+    private static final int REPETITIONS = 5;
+
+    public static void main(String[] args) throws Exception {
+        final int records = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_RECORDS;
+        final String json = createDocument(records);
+        final NativeImpl nativeImpl = new NativeImpl();
+
+        System.out.println("Records: " + records + ", characters: " + json.length());
+        for(int i = 0; i < REPETITIONS; i++) {
+            long begin = System.currentTimeMillis();
+            nativeImpl.processJSONString(json);
+            final long jsontools = System.currentTimeMillis() - begin;
+
+            begin = System.currentTimeMillis();
+            JsonParser.parse(json);
+            final long parser = System.currentTimeMillis() - begin;
+
+            System.out.println(
+                    "Run " + i + " - jsontools: " + jsontools + " ms, JsonParser: " + parser + " ms"
+            );
+        }
+    }
+
+    /**
+     * Creates a document with an array of records.
+     *
+     * @param records number of records.
+     * @return JSON document.
+     */
+    private static String createDocument(int records) {
+        StringBuilder sb = new StringBuilder("{ \"records\" : [");
+        for(int i = 0; i < records; i++) {
+            if( i > 0 ) {
+                sb.append(',');
+            }
+            sb.append("{ \"id\" : ").append(i)
+              .append(", \"name\" : \"record \\u00e8 ").append(i).append('"')
+              .append(", \"score\" : ").append(i * 0.37)
+              .append(", \"active\" : ").append(i % 2 == 0)
+              .append(", \"tags\" : [ \"a\", \"b\", null ] }");
+        }
+        return sb.append("] }").toString();
+    }
+}
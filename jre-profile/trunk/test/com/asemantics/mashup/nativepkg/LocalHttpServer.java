@@ -0,0 +1,272 @@
+/*
+ * Copyright 2007-2008 Michele Mostarda ( michele.mostarda@gmail.com ).
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the 'License');
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an 'AS IS' BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package com.asemantics.mashup.nativepkg;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Defines an in-process <i>HTTP</i> server used as stand-in of remote services
+ * by tests and benchmarks. Every request is answered with the request path as body,
+ * unless a fixed response body is set,
+ * and the server keeps track of the requests, of their concurrency and of the client connections.
+ */
+public class LocalHttpServer {
+
+    static {
+        // Avoids delayed responses on reused connections.
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    /**
+     * Internal server.
+     */
+    private final HttpServer server;
+
+    /**
+     * Request handling threads.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Number of served requests.
+     */
+    private final AtomicInteger requests = new AtomicInteger();
+
+    /**
+     * Number of requests being processed.
+     */
+    private final AtomicInteger active = new AtomicInteger();
+
+    /**
+     * Maximum number of requests served at the same time.
+     */
+    private final AtomicInteger maxActive = new AtomicInteger();
+
+    /**
+     * Remote addresses of the client connections.
+     */
+    private final Set<String> connections = Collections.synchronizedSet( new HashSet<String>() );
+
+    /**
+     * Delay applied to every response, in milliseconds.
+     */
+    private volatile int delay;
+
+    /**
+     * Headers added to every response.
+     */
+    private final Map<String,String> responseHeaders = new ConcurrentHashMap<String,String>();
+
+    /**
+     * Number of requests answered with <i>304 Not Modified</i>.
+     */
+    private final AtomicInteger notModified = new AtomicInteger();
+
+    /**
+     * Body of every response, <code>null</code> to answer with the request path.
+     */
+    private volatile byte[] responseBody;
+
+    /**
+     * Constructor, starts the server on a free local port.
+     *
+     * @throws IOException
+     */
+    public LocalHttpServer() throws IOException {
+        server = HttpServer.create( new InetSocketAddress("127.0.0.1", 0), 0 );
+        server.createContext("/", new HttpHandler() {
+            public void handle(HttpExchange exchange) throws IOException {
+                serve(exchange);
+            }
+        });
+        executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * Returns the base URL of the server.
+     *
+     * @return URL ending with slash.
+     */
+    public String getBaseURL() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+    }
+
+    /**
+     * Sets a delay applied to every response.
+     *
+     * @param d delay in milliseconds.
+     */
+    public void setDelay(int d) {
+        delay = d;
+    }
+
+    /**
+     * Sets the body of every response.
+     *
+     * @param body response body, <code>null</code> to answer with the request path.
+     */
+    public void setResponseBody(byte[] body) {
+        responseBody = body;
+    }
+
+    /**
+     * Sets a header added to every response. If an <i>ETag</i> header is set
+     * the requests with a matching <i>If-None-Match</i> header are answered
+     * with <i>304 Not Modified</i>.
+     *
+     * @param name header name.
+     * @param value header value, <code>null</code> to remove the header.
+     */
+    public void setResponseHeader(String name, String value) {
+        if( value == null ) {
+            responseHeaders.remove(name);
+        } else {
+            responseHeaders.put(name, value);
+        }
+    }
+
+    /**
+     * @return number of requests answered with <i>304 Not Modified</i>.
+     */
+    public int getNotModified() {
+        return notModified.get();
+    }
+
+    /**
+     * @return number of served requests.
+     */
+    public int getRequests() {
+        return requests.get();
+    }
+
+    /**
+     * @return maximum number of requests served at the same time since the last reset.
+     */
+    public int getMaxConcurrentRequests() {
+        return maxActive.get();
+    }
+
+    /**
+     * @return number of distinct client connections.
+     */
+    public int getConnections() {
+        return connections.size();
+    }
+
+    /**
+     * Resets the request and connection counters.
+     */
+    public void reset() {
+        requests.set(0);
+        maxActive.set(0);
+        notModified.set(0);
+        connections.clear();
+        responseHeaders.clear();
+    }
+
+    /**
+     * Stops the server.
+     */
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Serves a request.
+     *
+     * @param exchange
+     * @throws IOException
+     */
+    protected void serve(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        connections.add( exchange.getRemoteAddress().toString() );
+        InputStream is = exchange.getRequestBody();
+        while( is.read() != -1 ) {
+            // Consumes request body.
+        }
+        process();
+        respond(exchange);
+    }
+
+    /**
+     * Processes a request, tracking the number of requests processed at the same time.
+     * The request leaves the count before it is answered, so that a client
+     * sending a request after receiving the previous answer never overlaps with it.
+     */
+    private void process() {
+        final int current = active.incrementAndGet();
+        int max;
+        while( current > (max = maxActive.get()) && ! maxActive.compareAndSet(max, current) ) {
+            // Retries the update.
+        }
+        try {
+            if( delay > 0 ) {
+                Thread.sleep(delay);
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        } finally {
+            active.decrementAndGet();
+        }
+    }
+
+    /**
+     * Answers a request.
+     *
+     * @param exchange
+     * @throws IOException
+     */
+    private void respond(HttpExchange exchange) throws IOException {
+        for(Map.Entry<String,String> header : responseHeaders.entrySet()) {
+            exchange.getResponseHeaders().add( header.getKey(), header.getValue() );
+        }
+        String etag = responseHeaders.get("ETag");
+        if( etag != null && etag.equals( exchange.getRequestHeaders().getFirst("If-None-Match") ) ) {
+            notModified.incrementAndGet();
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+        byte[] body = responseBody != null ? responseBody : exchange.getRequestURI().getPath().getBytes("UTF-8");
+        exchange.sendResponseHeaders(200, body.length);
+        OutputStream os = exchange.getResponseBody();
+        os.write(body);
+        os.close();
+    }
+
+}
@@ -21,10 +21,13 @@ package com.asemantics.mashup.nativepkg;
 import com.asemantics.mashup.processor.json.JsonArray;
 import com.asemantics.mashup.processor.json.JsonBase;
 import com.asemantics.mashup.processor.json.JsonDouble;
+import com.asemantics.mashup.processor.json.JsonNull;
 import com.asemantics.mashup.processor.json.JsonObject;
 import com.asemantics.mashup.processor.json.JsonString;
 import junit.framework.TestCase;
 
+import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.util.HashMap;
 
 /**
@@ -91,6 +94,422 @@ public class NativeImplTest extends TestCase {
         
     }
 
+    /**
+     * Tests the single pass parsing of a JSON stream.
+     *
+     * @throws Exception
+     */
+    public void testParseJSONStream() throws Exception {
+        final String jsonString =
+                "{ \"k1\" : \"v\u00e8\\u0031\" , \"k2\" : [ 10.7, -3, 12345678901, 1e3, true, null ], \"k3\" : {} }";
+
+        NativeImpl nativeJRE = (NativeImpl) nativeImpl;
+        JsonBase json = nativeJRE.parseJSON( new ByteArrayInputStream( jsonString.getBytes("UTF-8") ), "UTF-8" );
+        assertTrue("Espected JSON Object here.", json instanceof JsonObject );
+        JsonObject jsonObject = (JsonObject) json;
+        assertEquals("Unespected value.", "v\u00e81", ((JsonString) jsonObject.get("k1")).getNativeValue() );
+
+        JsonArray array = (JsonArray) jsonObject.get("k2");
+        assertEquals("Unespected value.", 10.7        , ((JsonDouble) array.get(0)).getNativeValue() );
+        assertEquals("Unespected value.", -3.0        , ((JsonDouble) array.get(1)).getNativeValue() );
+        assertEquals("Unespected value.", 12345678901d, ((JsonDouble) array.get(2)).getNativeValue() );
+        assertEquals("Unespected value.", 1000.0      , ((JsonDouble) array.get(3)).getNativeValue() );
+        assertTrue  ("Unespected value type.", array.get(5) instanceof JsonNull );
+        assertTrue  ("Unespected value type.", jsonObject.get("k3") instanceof JsonObject );
+
+        // Charset.
+        json = nativeJRE.parseJSON( new ByteArrayInputStream( "[\"\u00e8\"]".getBytes("ISO-8859-1") ), "ISO-8859-1" );
+        assertEquals("Unespected value.", "\u00e8", ((JsonString) ((JsonArray) json).get(0)).getNativeValue() );
+
+        // Errors.
+        final String[] invalids = new String[] { "[1, 2", "{ \"k\" 1 }", "[1] x", "\"open", "[01.]", "tru" };
+        for(String invalid : invalids) {
+            try {
+                nativeJRE.parseJSON( new ByteArrayInputStream( invalid.getBytes("UTF-8") ), "UTF-8" );
+                fail("Expected error for: " + invalid);
+            } catch (NativeException ne) {
+                // OK.
+            }
+        }
+    }
+
+    /**
+     * Tests the <i>GET</i> request of a <i>JSON</i> response, parsed while received
+     * when caches are disabled.
+     *
+     * @throws Exception
+     */
+    public void testHttpGetJSONRequest() throws Exception {
+        LocalHttpServer server = new LocalHttpServer();
+        try {
+            server.setResponseBody( "{ \"k\" : \"\u00e8\" }".getBytes("ISO-8859-1") );
+            server.setResponseHeader("Content-Type", "application/json; charset=ISO-8859-1");
+            nativeImpl.setHttpConfiguration( new HttpConfiguration().setResponseCacheSize(0) );
+            JsonBase json = nativeImpl.httpGetJSONRequest( server.getBaseURL() + "stream" );
+            assertEquals("Unespected value.", "\u00e8", ((JsonString) ((JsonObject) json).get("k")).getNativeValue() );
+
+            // Cached response.
+            server.setResponseBody( "{ \"k\" : [1, 2] }".getBytes("UTF-8") );
+            nativeImpl.setHttpConfiguration( new HttpConfiguration() );
+            json = nativeImpl.httpGetJSONRequest( server.getBaseURL() + "cached" );
+            assertEquals("Unespected size.", 2, ((JsonArray) ((JsonObject) json).get("k")).size() );
+
+            // Cached response decoded with the declared charset.
+            server.setResponseBody( "{ \"k\" : \"\u00e8\" }".getBytes("ISO-8859-1") );
+            server.setResponseHeader("Cache-Control", "max-age=60");
+            json = nativeImpl.httpGetJSONRequest( server.getBaseURL() + "latin" );
+            assertEquals("Unespected value.", "\u00e8", ((JsonString) ((JsonObject) json).get("k")).getNativeValue() );
+            final int requests = server.getRequests();
+            json = nativeImpl.httpGetJSONRequest( server.getBaseURL() + "latin" );
+            assertEquals("Unespected value.", "\u00e8", ((JsonString) ((JsonObject) json).get("k")).getNativeValue() );
+            assertEquals("Expected cached response.", requests, server.getRequests() );
+        } finally {
+            nativeImpl.setHttpConfiguration( new HttpConfiguration() );
+            server.stop();
+        }
+    }
+
+    /**
+     * Tests that the connections to the same host are reused
+     * only when keep alive is enabled.
+     *
+     * @throws Exception
+     */
+    public void testHttpConnectionPooling() throws Exception {
+        final int requests = 20;
+        LocalHttpServer server = new LocalHttpServer();
+        try {
+            nativeImpl.setHttpConfiguration( new HttpConfiguration().setMaxConnectionsPerHost(2) );
+            for(int i = 0; i < requests; i++) {
+                assertEquals("Unespected response.", "/item" + i, nativeImpl.httpGetRequest(server.getBaseURL() + "item" + i));
+            }
+            assertEquals("Unespected requests.", requests, server.getRequests());
+            assertEquals("Expected connection reuse.", 1, server.getConnections());
+
+            server.reset();
+            nativeImpl.setHttpConfiguration( new HttpConfiguration().setKeepAlive(false) );
+            for(int i = 0; i < requests; i++) {
+                nativeImpl.httpGetRequest(server.getBaseURL() + "item" + i);
+            }
+            assertEquals("Unespected connections.", requests, server.getConnections());
+        } finally {
+            nativeImpl.setHttpConfiguration( new HttpConfiguration() );
+            server.stop();
+        }
+    }
+
+    /**
+     * Tests that the pooled connections are closed once idle for the idle timeout
+     * and that the configuration is changed only when set.
+     *
+     * @throws Exception
+     */
+    public void testIdleConnectionTimeout() throws Exception {
+        LocalHttpServer server = new LocalHttpServer();
+        try {
+            HttpConfiguration configuration = new HttpConfiguration().setIdleTimeout(100);
+            nativeImpl.setHttpConfiguration(configuration);
+            configuration.setKeepAlive(false);
+            nativeImpl.getHttpConfiguration().setKeepAlive(false);
+            assertTrue("Unespected configuration change.", nativeImpl.getHttpConfiguration().isKeepAlive());
+
+            nativeImpl.httpGetRequest(server.getBaseURL() + "item0");
+            nativeImpl.httpGetRequest(server.getBaseURL() + "item1");
+            assertEquals("Expected connection reuse.", 1, server.getConnections());
+            Thread.sleep(2500);
+            nativeImpl.httpGetRequest(server.getBaseURL() + "item2");
+            assertEquals("Expected idle connection closed.", 2, server.getConnections());
+        } finally {
+            nativeImpl.setHttpConfiguration( new HttpConfiguration() );
+            server.stop();
+        }
+    }
+
+    /**
+     * Tests the coalescing of concurrent identical <i>GET</i> requests.
+     *
+     * @throws Exception
+     */
+    public void testRequestCoalescing() throws Exception {
+        final int callers = 8;
+        final LocalHttpServer server = new LocalHttpServer();
+        final RequestCoalescer coalescer = ((NativeImpl) nativeImpl).getRequestCoalescer();
+        coalescer.resetCounters();
+        try {
+            server.setDelay(300);
+            final String[] responses = new String[callers];
+            Thread[] threads = new Thread[callers];
+            for(int i = 0; i < callers; i++) {
+                final int index = i;
+                threads[i] = new Thread() {
+                    public void run() {
+                        try {
+                            responses[index] = nativeImpl.httpGetRequest(server.getBaseURL() + "feed");
+                        } catch (NativeException ne) {
+                            responses[index] = ne.getMessage();
+                        }
+                    }
+                };
+                threads[i].start();
+            }
+            for(Thread thread : threads) {
+                thread.join();
+            }
+            for(String response : responses) {
+                assertEquals("Unespected response.", "/feed", response);
+            }
+            assertEquals("Unespected requests.", 1, server.getRequests());
+            assertEquals("Unespected performed.", 1, coalescer.getPerformed());
+            assertEquals("Unespected coalesced.", callers - 1, coalescer.getCoalesced());
+            assertEquals("Unespected in flight.", 0, coalescer.getInFlight());
+
+            // Sequential requests are not coalesced.
+            server.setDelay(0);
+            nativeImpl.httpGetRequest(server.getBaseURL() + "feed");
+            assertEquals("Unespected requests.", 2, server.getRequests());
+
+            // JSON requests are coalesced as well.
+            server.setResponseBody( "{ \"k\" : 1 }".getBytes("UTF-8") );
+            server.setDelay(300);
+            final JsonBase[] jsons = new JsonBase[callers];
+            for(int i = 0; i < callers; i++) {
+                final int index = i;
+                threads[i] = new Thread() {
+                    public void run() {
+                        try {
+                            jsons[index] = nativeImpl.httpGetJSONRequest(server.getBaseURL() + "json");
+                        } catch (NativeException ne) {
+                            ne.printStackTrace();
+                        }
+                    }
+                };
+                threads[i].start();
+            }
+            for(Thread thread : threads) {
+                thread.join();
+            }
+            for(JsonBase json : jsons) {
+                assertTrue("Unespected response.", json instanceof JsonObject);
+            }
+            assertEquals("Unespected requests.", 3, server.getRequests());
+        } finally {
+            server.stop();
+        }
+    }
+
+    /**
+     * Tests that the callers waiting for a coalesced request receive an error
+     * if the request fails with an error, and that an interrupted caller
+     * keeps its interrupted status.
+     *
+     * @throws Exception
+     */
+    public void testRequestCoalescingErrors() throws Exception {
+        final RequestCoalescer coalescer = new RequestCoalescer();
+        final Object lock = new Object();
+        final boolean[] release = new boolean[1];
+        final RequestCoalescer.Request<String> blocking = new RequestCoalescer.Request<String>() {
+            public String perform() {
+                synchronized (lock) {
+                    while( ! release[0] ) {
+                        try {
+                            lock.wait();
+                        } catch (InterruptedException ie) {
+                            throw new IllegalStateException(ie);
+                        }
+                    }
+                }
+                throw new Error("Request error.");
+            }
+        };
+        final Throwable[] errors = new Throwable[2];
+        final boolean[] interrupted = new boolean[1];
+        Thread leader = new Thread() {
+            public void run() {
+                try {
+                    coalescer.execute("key", blocking);
+                } catch (Throwable t) {
+                    errors[0] = t;
+                }
+            }
+        };
+        leader.start();
+        while( coalescer.getInFlight() == 0 ) {
+            Thread.sleep(10);
+        }
+        Thread follower = new Thread() {
+            public void run() {
+                try {
+                    coalescer.execute("key", blocking);
+                } catch (Throwable t) {
+                    errors[1] = t;
+                }
+            }
+        };
+        follower.start();
+        Thread interruptedFollower = new Thread() {
+            public void run() {
+                try {
+                    coalescer.execute("key", blocking);
+                } catch (NativeException ne) {
+                    interrupted[0] = Thread.currentThread().isInterrupted();
+                }
+            }
+        };
+        interruptedFollower.start();
+        try {
+            while( coalescer.getCoalesced() < 2 ) {
+                Thread.sleep(10);
+            }
+            interruptedFollower.interrupt();
+            interruptedFollower.join();
+        } finally {
+            synchronized (lock) {
+                release[0] = true;
+                lock.notifyAll();
+            }
+        }
+        assertTrue("Expected interrupted status.", interrupted[0]);
+
+        leader.join();
+        follower.join();
+        assertTrue("Unespected leader error: " + errors[0], errors[0] instanceof Error);
+        assertTrue("Unespected follower error: " + errors[1], errors[1] instanceof NativeException);
+        assertEquals("Unespected in flight.", 0, coalescer.getInFlight());
+    }
+
+    /**
+     * Tests that a timed out fan-out request blocked on a read is released by the read timeout.
+     *
+     * @throws Exception
+     */
+    public void testFanOutTimeout() throws Exception {
+        final LocalHttpServer server = new LocalHttpServer();
+        final RequestCoalescer coalescer = ((NativeImpl) nativeImpl).getRequestCoalescer();
+        try {
+            server.setDelay(3000);
+            HttpFuture[] futures = nativeImpl.httpGetRequestsAsync(
+                    new String[]{ server.getBaseURL() + "slow" }, 1, 200
+            );
+            try {
+                futures[0].get();
+                fail("Expected timeout.");
+            } catch (NativeException ne) {
+                assertTrue("Unespected error: " + ne.getMessage(), ne.getMessage().startsWith("Request timed out") );
+            }
+            // The read is released well before the server responds.
+            for(int i = 0; i < 100 && coalescer.getInFlight() > 0; i++) {
+                Thread.sleep(10);
+            }
+            assertEquals("Unespected in flight.", 0, coalescer.getInFlight());
+        } finally {
+            server.stop();
+        }
+    }
+
+    /**
+     * Tests that the <i>GET</i> responses are decoded with the declared charset.
+     *
+     * @throws Exception
+     */
+    public void testHttpGetCharset() throws Exception {
+        final String text = "\u00e0\u00e8\u20ac";
+        LocalHttpServer server = new LocalHttpServer();
+        try {
+            server.setResponseBody( text.getBytes("UTF-16") );
+            server.setResponseHeader("Content-Type", "text/plain; charset=UTF-16");
+            assertEquals("Unespected response.", text, nativeImpl.httpGetRequest(server.getBaseURL() + "utf16"));
+            assertEquals(
+                    "Unespected fan-out response.",
+                    text,
+                    nativeImpl.httpGetRequestsAsync( new String[]{ server.getBaseURL() + "utf16async" }, 1, 0 )[0].get()
+            );
+        } finally {
+            server.stop();
+        }
+    }
+
+    /**
+     * Tests the caching of <i>GET</i> responses.
+     *
+     * @throws Exception
+     */
+    public void testHttpResponseCache() throws Exception {
+        LocalHttpServer server = new LocalHttpServer();
+        HttpResponseCache cache = ((NativeImpl) nativeImpl).getResponseCache();
+        cache.clear();
+        try {
+            // Fresh response.
+            server.setResponseHeader("Cache-Control", "max-age=60");
+            assertEquals("Unespected response.", "/fresh", nativeImpl.httpGetRequest(server.getBaseURL() + "fresh"));
+            assertEquals("Unespected response.", "/fresh", nativeImpl.httpGetRequest(server.getBaseURL() + "fresh"));
+            assertEquals("Unespected requests.", 1, server.getRequests());
+            assertEquals("Unespected hits."    , 1, cache.getHits());
+
+            // Time to live override.
+            nativeImpl.httpGetRequest(server.getBaseURL() + "ttl", 0);
+            nativeImpl.httpGetRequest(server.getBaseURL() + "ttl", 0);
+            assertEquals("Unespected requests.", 3, server.getRequests());
+
+            // Revalidation.
+            server.setResponseHeader("Cache-Control", "no-cache");
+            server.setResponseHeader("ETag", "\"v1\"");
+            assertEquals("Unespected response.", "/etag", nativeImpl.httpGetRequest(server.getBaseURL() + "etag"));
+            assertEquals("Unespected response.", "/etag", nativeImpl.httpGetRequest(server.getBaseURL() + "etag"));
+            assertEquals("Unespected not modified.", 1, server.getNotModified());
+            assertEquals("Unespected revalidations.", 1, cache.getRevalidations());
+
+            // Not storable response.
+            server.reset();
+            server.setResponseHeader("Cache-Control", "no-store");
+            nativeImpl.httpGetRequest(server.getBaseURL() + "nostore");
+            nativeImpl.httpGetRequest(server.getBaseURL() + "nostore");
+            assertEquals("Unespected requests.", 2, server.getRequests());
+
+            // Eviction.
+            server.setResponseHeader("Cache-Control", "max-age=60");
+            nativeImpl.setHttpConfiguration( new HttpConfiguration().setResponseCacheSize(16) );
+            nativeImpl.httpGetRequest(server.getBaseURL() + "evicted");
+            nativeImpl.httpGetRequest(server.getBaseURL() + "kept");
+            assertTrue("Expected evictions.", cache.getEvictions() > 0);
+            assertTrue("Unespected cache size.", cache.getBytes() <= 16);
+        } finally {
+            nativeImpl.setHttpConfiguration( new HttpConfiguration() );
+            cache.clear();
+            server.stop();
+        }
+    }
+
+    /**
+     * Tests the disk cache of <i>GET</i> responses.
+     *
+     * @throws Exception
+     */
+    public void testDiskResponseCache() throws Exception {
+        LocalHttpServer server = new LocalHttpServer();
+        File directory = File.createTempFile("diskcache", "");
+        directory.delete();
+        DiskResponseCache diskCache = new DiskResponseCache(directory, 1024 * 1024);
+        ((NativeImpl) nativeImpl).setDiskCache(diskCache);
+        try {
+            nativeImpl.setHttpConfiguration( new HttpConfiguration().setResponseCacheSize(0) );
+            server.setResponseHeader("Cache-Control", "max-age=60");
+            assertEquals("Unespected response.", "/disk", nativeImpl.httpGetRequest(server.getBaseURL() + "disk"));
+            assertEquals("Unespected response.", "/disk", nativeImpl.httpGetRequest(server.getBaseURL() + "disk"));
+            assertEquals("Unespected requests.", 1, server.getRequests());
+            assertEquals("Unespected hits."    , 1, diskCache.getHits());
+            assertEquals("Unespected entries." , 1, diskCache.getEntries());
+        } finally {
+            ((NativeImpl) nativeImpl).setDiskCache(null);
+            nativeImpl.setHttpConfiguration( new HttpConfiguration() );
+            diskCache.close();
+            new File(directory, DiskResponseCache.DATA_FILE ).delete();
+            new File(directory, DiskResponseCache.INDEX_FILE).delete();
+            directory.delete();
+            server.stop();
+        }
+    }
+
     /**
      * Tests the NativeImpl#testHttpGetRequest method.
      *
@@ -629,4 +629,43 @@ public class MUParserTest extends AbstractParserTest {
         System.out.println("pt: " + pt);
     }
 
+    /**
+     * Tests concurrent parsings on the same parser.
+     *
+     * @throws InterruptedException
+     */
+    public void testConcurrentParsing() throws InterruptedException {
+        final String program = "P1() : S1(a), S2(b); P2(); P3(c);";
+        final String expected;
+        try {
+            expected = parser.parse(program).toString();
+        } catch (MUParserException mupe) {
+            throw new RuntimeException(mupe);
+        }
+        final int threadsCount = 4;
+        final Throwable[] errors = new Throwable[threadsCount];
+        Thread[] threads = new Thread[threadsCount];
+        for(int i = 0; i < threadsCount; i++) {
+            final int threadIndex = i;
+            threads[i] = new Thread() {
+                public void run() {
+                    try {
+                        for(int j = 0; j < 50; j++) {
+                            assertEquals("Unespected parse tree.", expected, parser.parse(program).toString() );
+                        }
+                    } catch (Throwable t) {
+                        errors[threadIndex] = t;
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for(Thread thread : threads) {
+            thread.join();
+        }
+        for(Throwable error : errors) {
+            assertNull("Unespected error: " + error, error);
+        }
+    }
+
 }
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2007-2008 Michele Mostarda ( michele.mostarda@gmail.com ).
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the 'License');
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an 'AS IS' BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package com.asemantics.mashup.processor;
+
+import java.util.LinkedList;
+
+/**
+ * Compares the indexed access time and the memory per element of a {@link ListValue}
+ * using the default storage with a {@link ListValue} backed by a {@link LinkedList}.
+ * Run it as a standalone program, optionally passing the number of elements.
+ */
+public class ListValueBenchmark {
+
+    /**
+     * Default number of elements.
+     */
+    private static final int DEFAULT_SIZE = 50000;
+
+    /**
+     * Number of measured repetitions.
+     */
+    private static final int REPETITIONS = 5;
+
+    public static void main(String[] args) {
+        final int size = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_SIZE;
+        final NumericValue element = new NumericValue(1);
+
+        System.out.println("Elements: " + size);
+        System.out.println(
+                "Default    memory per element: " + memoryPerElement( new ListValue(), element, size ) + " bytes"
+        );
+        System.out.println(
+                "LinkedList memory per element: "
+                + memoryPerElement( new ListValue( new LinkedList<Value>() ), element, size ) + " bytes"
+        );
+
+        ListValue defaultList = fill( new ListValue(), element, size );
+        ListValue linkedList  = fill( new ListValue( new LinkedList<Value>() ), element, size );
+        for(int i = 0; i < REPETITIONS; i++) {
+            System.out.println(
+                    "Run " + i
+                    + " - default indexed access: "    + indexedAccess(defaultList) + " ms"
+                    + ", LinkedList indexed access: " + indexedAccess(linkedList)  + " ms"
+                    + ", default addFirst: "          + addFirst(element, size)     + " ms"
+            );
+        }
+    }
+
+    /**
+     * Fills a list with the given element.
+     */
+    private static ListValue fill(ListValue listValue, Value element, int size) {
+        for(int i = 0; i < size; i++) {
+            listValue.add(element);
+        }
+        return listValue;
+    }
+
+    /**
+     * Reads every element of the list by index.
+     *
+     * @return elapsed milliseconds.
+     */
+    private static long indexedAccess(ListValue listValue) {
+        final long begin = System.currentTimeMillis();
+        final int size = listValue.size();
+        int count = 0;
+        for(int i = 0; i < size; i++) {
+            if( listValue.getElementAt(i) != null ) {
+                count++;
+            }
+        }
+        if( count != size ) {
+            throw new IllegalStateException();
+        }
+        return System.currentTimeMillis() - begin;
+    }
+
+    /**
+     * Builds a list inserting every element at first position.
+     *
+     * @return elapsed milliseconds.
+     */
+    private static long addFirst(Value element, int size) {
+        final long begin = System.currentTimeMillis();
+        ListValue listValue = new ListValue();
+        for(int i = 0; i < size; i++) {
+            listValue.addFirst(element);
+        }
+        return System.currentTimeMillis() - begin;
+    }
+
+    /**
+     * Estimates the heap used by every element of a filled list.
+     *
+     * @return bytes per element.
+     */
+    private static long memoryPerElement(ListValue listValue, Value element, int size) {
+        final long before = usedMemory();
+        fill(listValue, element, size);
+        final long after = usedMemory();
+        if( listValue.size() != size ) {
+            throw new IllegalStateException();
+        }
+        return (after - before) / size;
+    }
+
+    private static long usedMemory() {
+        final Runtime runtime = Runtime.getRuntime();
+        for(int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+}
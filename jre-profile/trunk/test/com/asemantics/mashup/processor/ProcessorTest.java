@@ -22,6 +22,10 @@ import com.asemantics.lightparser.DefaultTerminal;
 import com.asemantics.lightparser.TreeNode;
 import junit.framework.TestCase;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 /**
  * Test of {@link com.asemantics.mashup.processor.Processor} class.
  */
@@ -62,6 +66,140 @@ public class ProcessorTest extends TestCase {
         }
     }
 
+    /**
+     * Defines a test operation concatenating its arguments.
+     */
+    public class ConcatOperation extends AbstractOperation {
+
+        /**
+         * Constructor.
+         *
+         * @param args
+         */
+        public ConcatOperation(Argument[] args) {
+            super(args);
+        }
+
+        public Value execute(ExecutionContext context, ExecutionStack stack)
+                throws SequenceNotFoundException, ArgumentEvaluationException, InvocationException {
+            StringBuilder result = new StringBuilder();
+            for (Argument arg : getArguments()) {
+                try {
+                    result.append( arg.getValue(context, stack).asString().getNativeValue() );
+                } catch (VariableNotFoundException vnfe) {
+                    throw new ArgumentEvaluationException("Error while evaluating arg.", vnfe);
+                }
+            }
+            return new StringValue(result.toString());
+        }
+    }
+
+    /**
+     * Defines a test operation assigning its argument to a variable.
+     */
+    public class SetOperation extends AbstractOperation {
+
+        /**
+         * Variable name.
+         */
+        private final String name;
+
+        /**
+         * Constructor.
+         *
+         * @param n variable name.
+         * @param arg assigned value.
+         */
+        public SetOperation(String n, Argument arg) {
+            super( new Argument[]{arg} );
+            name = n;
+        }
+
+        public Value execute(ExecutionContext context, ExecutionStack stack)
+                throws SequenceNotFoundException, ArgumentEvaluationException, InvocationException {
+            try {
+                Value value = getArguments()[0].getValue(context, stack);
+                context.addVariable(name, value);
+                return value;
+            } catch (VariableNotFoundException vnfe) {
+                throw new ArgumentEvaluationException("Error while evaluating arg.", vnfe);
+            }
+        }
+    }
+
+    /**
+     * Defines a test native free of side effects returning its argument.
+     */
+    public static class IdentityOperation extends NativeInvocable {
+
+        private static final Signature SIGNATURE = new Signature(
+                new FormalParameter[] { new FormalParameter(FormalParameter.Type.STRING, "s") }
+        );
+
+        public Signature getSignature() {
+            return SIGNATURE;
+        }
+
+        public String getShortDescription() {
+            return "Returns its argument.";
+        }
+
+        public String getDescription() {
+            return getShortDescription();
+        }
+
+        public Value execute(ExecutionContext context, ExecutionStack stack) {
+            return context.getIthValueAsString(0);
+        }
+
+        public Operation[] getInnerOperations() {
+            return new Operation[]{ this };
+        }
+
+        public boolean isSideEffectFree() {
+            return true;
+        }
+    }
+
+    /**
+     * Defines a test native declaring a prefetchable request that is never started.
+     */
+    public static class RequestOperation extends IdentityOperation {
+
+        /**
+         * Keys of the requests to be anticipated.
+         */
+        private final List<String> keys = new ArrayList<String>();
+
+        public boolean isSideEffectFree() {
+            return false;
+        }
+
+        public boolean isPrefetchable() {
+            return true;
+        }
+
+        public String getPrefetchKey(Value[] arguments) {
+            final String key = "GET " + arguments[0].asString().getNativeValue();
+            keys.add(key);
+            return key;
+        }
+    }
+
+    /**
+     * Execution stack counting the pushed levels.
+     */
+    private static class CountingExecutionStack extends ExecutionStack {
+
+        private int levels;
+
+        protected Value pushLevel(Level level)
+        throws InvocationException, ArgumentEvaluationException, SequenceNotFoundException {
+            levels++;
+            return super.pushLevel(level);
+        }
+    }
+
     /**
      * Test target.
      */
@@ -87,6 +225,27 @@ public class ProcessorTest extends TestCase {
         assertEquals( "unespected result value.", "Hardest", ((StringValue) result).getNativeValue() );
     }
 
+    /**
+     * Tests that the prefetch evaluates the natives free of side effects
+     * without pushing levels on the execution stack, and skips the requests not started.
+     */
+    public void testPrefetchEvaluation() {
+        RequestOperation request = new RequestOperation();
+        target.addPredicate("Identity", new IdentityOperation() );
+        target.addPredicate("Request" , request );
+        Operation[] operations = new Operation[] {
+                new InvokeOperation("Identity", new Argument[]{ new ConstArgument( new StringValue("url") ) }),
+                new InvokeOperation("Request" , new Argument[]{ LastValueArgument.getInstance() })
+        };
+        CountingExecutionStack stack = new CountingExecutionStack();
+        List<SourcePrefetcher.Prefetched> prefetched =
+                SourcePrefetcher.prefetch(operations, 0, target.getExecutionContext(), stack);
+        assertEquals("Unespected keys.", Collections.singletonList("GET url"), request.keys);
+        assertEquals("Unespected levels.", 0, stack.levels);
+        assertNull("Unespected prefetched requests.", prefetched);
+        assertFalse("Unespected prefetched request.", stack.isPrefetched("GET url"));
+    }
+
     /**
      * Tests the processor listener.
      */
@@ -128,6 +287,133 @@ public class ProcessorTest extends TestCase {
         testProcessorListener.checkAssertions();
     }
 
+    /**
+     * Tests that the variables assigned by concurrent executions are isolated
+     * and committed to the context when the executions end.
+     *
+     * @throws InterruptedException
+     */
+    public void testConcurrentVariables() throws InterruptedException {
+        final int threads    = 8;
+        final int iterations = 300;
+        final List<String> errors = Collections.synchronizedList( new ArrayList<String>() );
+        Thread[] workers = new Thread[threads];
+        for(int t = 0; t < threads; t++) {
+            final String prefix = "t" + t;
+            workers[t] = new Thread() {
+                public void run() {
+                    for(int i = 0; i < iterations; i++) {
+                        // x = prefix:i, concat(x, ''), concat(x, '')
+                        final String expected = prefix + ":" + i;
+                        OperationsSequence main = new OperationsSequence();
+                        main.addOperation( new SetOperation( "x", new ConstArgument( new StringValue(expected) ) ) );
+                        main.addOperation( new ConcatOperation( new Argument[]{ new VariableArgument("x") } ) );
+                        main.addOperation( new ConcatOperation( new Argument[]{ new VariableArgument("x") } ) );
+                        main.complete();
+                        try {
+                            Value result = target.processOperation(main);
+                            if( ! expected.equals( result.asString().getNativeValue() ) ) {
+                                errors.add( "Expected " + expected + " found " + result );
+                            }
+                        } catch (Exception e) {
+                            errors.add( e.toString() );
+                        }
+                    }
+                }
+            };
+        }
+        for(Thread worker : workers) {
+            worker.start();
+        }
+        for(Thread worker : workers) {
+            worker.join();
+        }
+        assertTrue( "Unespected errors: " + errors, errors.isEmpty() );
+        assertTrue(
+                "Unespected committed value.",
+                target.getValueString("x").endsWith( ":" + (iterations - 1) )
+        );
+    }
+
+    /**
+     * Runs nested invocations on the same processor from many threads
+     * while predicates are added and removed.
+     *
+     * @throws InterruptedException
+     */
+    public void testConcurrentExecutions() throws InterruptedException {
+        OperationsSequence body = new OperationsSequence();
+        body.addOperation(
+                new ConcatOperation( new Argument[]{ new VariableArgument("a"), new VariableArgument("b") } )
+        );
+        body.complete();
+        target.addProgrammativePredicate(
+                "concat",
+                new ProgrammativeInvocable(
+                        new Signature( new String[]{"a", "b"} ), body, new TreeNode("concat", new DefaultTerminal("terminal"))
+                )
+        );
+
+        final int threads    = 8;
+        final int iterations = 300;
+        final List<String> errors = Collections.synchronizedList( new ArrayList<String>() );
+        Thread mutator = new Thread() {
+            public void run() {
+                int i = 0;
+                while( ! isInterrupted() ) {
+                    target.addProgrammativePredicate(
+                            "extra_" + i,
+                            new ProgrammativeInvocable( new OperationsSequence(), new TreeNode("extra", new DefaultTerminal("terminal")) )
+                    );
+                    if( i > 10 ) {
+                        target.removePredicate( "extra_" + (i - 10) );
+                    }
+                    i++;
+                }
+            }
+        };
+        Thread[] workers = new Thread[threads];
+        for(int t = 0; t < threads; t++) {
+            final String prefix = "t" + t;
+            workers[t] = new Thread() {
+                public void run() {
+                    for(int i = 0; i < iterations; i++) {
+                        // concat( concat(prefix, ':'), i )
+                        OperationsSequence main = new OperationsSequence();
+                        main.addOperation( new InvokeOperation( "concat", new Argument[]{
+                                new ConstArgument( new StringValue(prefix) ), new ConstArgument( new StringValue(":") )
+                        }) );
+                        main.addOperation( EnqueueArgumentOperation.getInstance() );
+                        main.addOperation( new InvokeOperation( "concat", new Argument[]{
+                                DequeueArgument.getInstance(), new ConstArgument( new StringValue( Integer.toString(i) ) )
+                        }) );
+                        main.complete();
+                        try {
+                            Value result = target.processOperation(main);
+                            String expected = prefix + ":" + i;
+                            if( ! expected.equals( result.asString().getNativeValue() ) ) {
+                                errors.add( "Expected " + expected + " found " + result );
+                            }
+                        } catch (Exception e) {
+                            errors.add( e.toString() );
+                        }
+                    }
+                }
+            };
+        }
+        mutator.start();
+        for(Thread worker : workers) {
+            worker.start();
+        }
+        for(Thread worker : workers) {
+            worker.join();
+        }
+        mutator.interrupt();
+        mutator.join();
+
+        assertTrue( "Unespected errors: " + errors, errors.isEmpty() );
+    }
+
     private Invocable createHelloWorldSequence() {
         OperationsSequence os = new OperationsSequence();
         os.addOperation( new PrintOperation( new Argument[] { new ConstArgument( new StringValue("Hello") ) } ) );
@@ -52,4 +52,42 @@ public class SignatureContextMapTest extends TestCase {
         assertEquals( "Unespected size.", 0, scm.size() );
 
     }
+
+    public void testFrameLayoutScenario() {
+
+        FrameLayout layout = new FrameLayout();
+        int a = layout.slotOf("a");
+        int b = layout.slotOf("b");
+        assertEquals( "Unespected slot.", a, layout.slotOf("a") );
+        scm = new SignatureContextMap( layout.getSlotNames() );
+
+        // Unbound slots.
+        assertNull( "Unespected value.", scm.getSlotValue(a, layout.getSlotName(a)) );
+
+        // Binding slots by name.
+        scm.add("b", new StringValue("value_b"), false);
+        scm.add("a", new StringValue("value_a"), false);
+        scm.add("c", new StringValue("value_c"), false);
+        assertEquals( "Unespected size.", 3, scm.size() );
+        assertEquals("Unespected value.", "value_a", scm.getSlotValue(a, layout.getSlotName(a)).asString().getNativeValue() );
+        assertEquals("Unespected value.", "value_b", scm.getSlotValue(b, layout.getSlotName(b)).asString().getNativeValue() );
+        assertEquals("Unespected value.", "value_c", scm.getValue("c").asString().getNativeValue() );
+
+        // Overriding slot.
+        scm.add("a", new StringValue("value_a2"), true);
+        assertEquals("Unespected value.", "value_a2", scm.getSlotValue(a, layout.getSlotName(a)).asString().getNativeValue() );
+        assertEquals( "Unespected size.", 3, scm.size() );
+
+        // Binding slots by index.
+        scm = new SignatureContextMap( layout.getSlotNames() );
+        scm.bindSlot(b, new StringValue("value_b"));
+        assertEquals("Unespected value.", "value_b", scm.getValue("b").asString().getNativeValue() );
+        assertNull( "Unespected value.", scm.getSlotValue(a, layout.getSlotName(a)) );
+        try {
+            scm.bindSlot(b, new StringValue("value_b2"));
+            fail("Expected already bound slot.");
+        } catch (IllegalArgumentException iae) {
+            // OK.
+        }
+    }
 }
@@ -19,6 +19,7 @@
 package com.asemantics.mashup.processor;
 
 import junit.framework.TestCase;
+import com.asemantics.mashup.processor.unification.ConstantModelElement;
 import com.asemantics.mashup.processor.unification.UnificationResult;
 
 /**
@@ -111,6 +112,52 @@ public class SignatureTest extends TestCase {
         }
     }
 
+    /**
+     * Tests the #unify() binding the arguments on a frame layout.
+     */
+    public void testUnifyOnFrameLayout() throws SequenceNotFoundException {
+        FrameLayout layout = new FrameLayout();
+        for(FormalParameter formalParameter : signature.getFormalParameters()) {
+            layout.slotOf( formalParameter.getVariables()[0] );
+        }
+        int extra = layout.slotOf("extra");
+        String[] slotNames = layout.getSlotNames();
+
+        for(int round = 0; round < 2; round++) {
+            SignatureContextMap scm = signature.unify(values, slotNames);
+            assertEquals( "Unespected scm size.", 4, scm.size() );
+            assertTrue("Unespected type.", scm.getSlotValue(0, "boolArg") instanceof BooleanValue);
+            assertEquals(
+                    "Unespected value.",
+                    "stringValue",
+                    scm.getSlotValue( 1, layout.getSlotName(1) ).asString().getNativeValue()
+            );
+            assertTrue("Unespected type.", scm.getSlotValue(2, "numericArg") instanceof NumericValue);
+            assertTrue("Unespected type.", scm.getSlotValue(3, "anyArg") instanceof ListValue);
+            assertNull( "Unespected value.", scm.getSlotValue(extra, "extra") );
+        }
+    }
+
+    /**
+     * Tests the #tryUnify() with right and wrong arguments.
+     */
+    public void testTryUnify() {
+        assertNotNull( "Unespected unification failure.", signature.tryUnify(values, null) );
+        assertNull(
+                "Unespected unification with wrong number of arguments.",
+                signature.tryUnify( new Value[]{ new StringValue() }, null )
+        );
+        Signature constantSignature = new Signature(
+                new FormalParameter[] {
+                        new FormalParameter( new ConstantModelElement( new StringValue("constant") ) )
+                }
+        );
+        assertNull(
+                "Unespected unification with wrong argument.",
+                constantSignature.tryUnify( new Value[]{ new StringValue("other") }, null )
+        );
+    }
+
     /**
      * Tests the FormalParameter#unify()
      */
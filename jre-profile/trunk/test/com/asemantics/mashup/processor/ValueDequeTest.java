@@ -0,0 +1,82 @@
+/*
+ * Copyright 2007-2008 Michele Mostarda ( michele.mostarda@gmail.com ).
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the 'License');
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an 'AS IS' BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package com.asemantics.mashup.processor;
+
+import junit.framework.TestCase;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Test class for {@link com.asemantics.mashup.processor.ValueDeque}.
+ */
+public class ValueDequeTest extends TestCase {
+
+    /**
+     * Compares random insertions and removals at any position with a reference list.
+     */
+    public void testAgainstReferenceList() {
+        final Random random = new Random(17);
+        final ValueDeque deque = new ValueDeque();
+        final List<Value> reference = new LinkedList<Value>();
+        for(int i = 0; i < 5000; i++) {
+            final int operation = random.nextInt(5);
+            final NumericValue v = new NumericValue(i);
+            if( operation == 0 ) {
+                deque.add(0, v);
+                reference.add(0, v);
+            } else if( operation == 1 ) {
+                deque.add(v);
+                reference.add(v);
+            } else if( operation == 2 ) {
+                int index = random.nextInt( reference.size() + 1 );
+                deque.add(index, v);
+                reference.add(index, v);
+            } else if( ! reference.isEmpty() ) {
+                int index = operation == 3 ? 0 : random.nextInt( reference.size() );
+                assertSame("Unespected removed element.", reference.remove(index), deque.remove(index));
+            }
+            assertEquals("Unespected size.", reference.size(), deque.size());
+        }
+        assertEquals("Unespected content.", reference, deque);
+    }
+
+    /**
+     * Tests the out of range accesses.
+     */
+    public void testOutOfRange() {
+        final ValueDeque deque = new ValueDeque();
+        deque.add( new StringValue("v") );
+        try {
+            deque.get(1);
+            fail("Expected exception.");
+        } catch (IndexOutOfBoundsException ioobe) {
+            // OK.
+        }
+        try {
+            deque.add(2, new StringValue("v"));
+            fail("Expected exception.");
+        } catch (IndexOutOfBoundsException ioobe) {
+            // OK.
+        }
+    }
+
+}
@@ -18,13 +18,16 @@
 
 package com.asemantics.mashup.processor;
 
+import com.asemantics.mashup.processor.json.JsonBase;
 import com.asemantics.mashup.processor.json.JsonFactory;
 import com.asemantics.mashup.processor.json.JsonObject;
 import junit.framework.TestCase;
 
+import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -114,6 +117,122 @@ public class ValueTest extends TestCase {
         assertEquals("Expected to be equal.", mv1, mv2);
     }
 
+    /**
+     * Tests that tail lists share elements with the source list
+     * until one of them is modified.
+     */
+    public void testListTail() {
+        ListValue source = new ListValue();
+        source.add("e1");
+        source.add("e2");
+        source.add("e3");
+
+        ListValue tail = source.tail(1);
+        assertEquals("Unespected tail size.", 2, tail.size());
+        assertEquals("Unespected tail element.", new StringValue("e2"), tail.get(0));
+
+        ListValue tailOfTail = tail.tail(1);
+        assertEquals("Unespected tail size.", 1, tailOfTail.size());
+        assertEquals("Unespected tail element.", new StringValue("e3"), tailOfTail.get(0));
+        assertEquals("Unespected tail size.", 0, tailOfTail.tail(1).size());
+
+        source.add("e4");
+        tail.addFirst( new StringValue("e0") );
+        assertEquals("Unespected source size.", 4, source.size());
+        assertEquals("Unespected tail.", "[\"e0\",\"e2\",\"e3\"]", tail.asJSON());
+        assertEquals("Unespected tail.", "[\"e3\"]", tailOfTail.asJSON());
+
+        // Removal through the iterator of a shared list.
+        ListValue shared = source.tail(0);
+        Iterator<JsonBase> iterator = shared.iterator();
+        while( iterator.hasNext() ) {
+            JsonBase element = iterator.next();
+            if( new StringValue("e2").equals(element) || new StringValue("e4").equals(element) ) {
+                iterator.remove();
+            }
+        }
+        assertEquals("Unespected list.", "[\"e1\",\"e3\"]", shared.asJSON());
+        assertEquals("Unespected source.", "[\"e1\",\"e2\",\"e3\",\"e4\"]", source.asJSON());
+
+        // Native value is a read only view.
+        try {
+            source.getNativeValue().add( new StringValue("e5") );
+            fail("Expected read only native value.");
+        } catch (UnsupportedOperationException uoe) {
+            // Expected.
+        }
+        assertEquals("Unespected source size.", 4, source.size());
+    }
+
+    /**
+     * Tests that equal values have the same hash code and that the hash code
+     * of complex values follows their modifications.
+     */
+    public void testHashCode() {
+        assertEquals("Unespected hash code.", new StringValue("2").hashCode(), new NumericValue(2).hashCode());
+        assertEquals("Unespected hash code.", new NumericValue(2).hashCode(), new ListValue( new NumericValue(2) ).hashCode());
+        assertEquals("Unespected hash code.", new StringValue("k").hashCode(), new JsonValue( new StringValue("k") ).hashCode());
+
+        MapValue map1 = new MapValue();
+        map1.put( new StringValue("k1"), new NumericValue(1) );
+        map1.put( new StringValue("k2"), new NumericValue(2) );
+        MapValue map2 = new MapValue();
+        map2.put( new StringValue("k2"), new NumericValue(2) );
+        map2.put( new StringValue("k1"), new NumericValue(1) );
+        assertTrue("Expected equality.", map1.equals(map2));
+        assertEquals("Unespected hash code.", map1.hashCode(), map2.hashCode());
+
+        NumericValue element = new NumericValue(1);
+        ListValue list = new ListValue();
+        list.add(element);
+        list.add( new ListValue( new Value[]{ new StringValue("a"), new StringValue("b") } ) );
+        ListValue copy = (ListValue) list.cloneValue();
+        assertEquals("Unespected hash code.", list.hashCode(), copy.hashCode());
+
+        element.increment();
+        assertFalse("Expected inequality.", list.equals(copy));
+        assertFalse("Unespected hash code.", list.hashCode() == copy.hashCode());
+        copy.getElementAt(0).asNumeric().increment();
+        assertEquals("Unespected hash code.", list.hashCode(), copy.hashCode());
+
+        list.add("c");
+        assertFalse("Unespected hash code.", list.hashCode() == copy.hashCode());
+
+        ListValue numbers = new ListValue( new Value[]{ new NumericValue(1), new NumericValue(2) } );
+        StringValue text = new StringValue("[1,2]");
+        assertTrue("Expected equality.", text.equals(numbers));
+        assertEquals("Unespected hash code.", text.hashCode(), numbers.hashCode());
+        MapValue index = new MapValue();
+        index.put(text, new StringValue("found"));
+        assertEquals("Unespected lookup.", new StringValue("found"), index.get(numbers));
+
+        final Value[] values = new Value[] {
+                list, map1, new JsonValue(numbers), new JsonValue( new ListValue( new NumericValue(3) ) ),
+                new MapValue().asGraph(), map1.asGraph(), BooleanValue.getTrueValue(), NullValue.getInstance()
+        };
+        for(Value value : values) {
+            assertEquals("Unespected hash code.", value.asString().getNativeValue().hashCode(), value.hashCode());
+        }
+
+        // Modifications of nested and shared elements invalidate all the containers.
+        StringValue leaf = new StringValue("x");
+        ListValue outer = new ListValue( new Value[]{
+                new ListValue( new Value[]{ new MapValue( new StringValue("k"), leaf ), new NumericValue(1) } ),
+                new NumericValue(2)
+        } );
+        ListValue[] holders = new ListValue[12];
+        for(int i = 0; i < holders.length; i++) {
+            holders[i] = new ListValue( new Value[]{ leaf, new NumericValue(i) } );
+            holders[i].hashCode();
+        }
+        outer.hashCode();
+        leaf.appendValue( new StringValue("y") );
+        assertEquals("Unespected hash code.", outer.asString().getNativeValue().hashCode(), outer.hashCode());
+        for(ListValue holder : holders) {
+            assertEquals("Unespected hash code.", holder.asString().getNativeValue().hashCode(), holder.hashCode());
+        }
+    }
+
     /**
      * Tests the equality in cloned objects.
      */
@@ -240,4 +359,49 @@ public class ValueTest extends TestCase {
 
     }
 
+    /**
+     * Tests the streaming JSON writer.
+     *
+     * @throws Exception
+     */
+    public void testWriteJSON() throws Exception {
+        MapValue inner = new MapValue();
+        inner.put("k2", "v\"2");
+        ListValue list = new ListValue();
+        list.add(1);
+        list.add( new StringValue("[true]") );
+        list.add( inner );
+        list.add( new ListValue() );
+        MapValue map = new MapValue();
+        map.put( "k1", list );
+
+        StringWriter writer = new StringWriter();
+        map.writeJSON(writer, false);
+        assertEquals("Unespected JSON.", "{\"k1\":[1,[true],{\"k2\":\"v&#34;2\"},[]]}", writer.toString());
+        assertEquals("Unespected JSON.", writer.toString(), map.asJSON());
+
+        writer = new StringWriter();
+        map.writeJSON(writer, true);
+        assertEquals(
+                "Unespected pretty JSON.",
+                "{\n  \"k1\" : [\n    1,\n    [\n      true\n    ],\n    {\n      \"k2\" : \"v&#34;2\"\n    },\n    []\n  ]\n}",
+                writer.toString()
+        );
+
+        // Graphs are written without intermediate objects.
+        GraphValue graph = new GraphValue();
+        graph.addArc( new StringValue("sub"), new StringValue("obj"), new StringValue("pred") );
+        StringBuilder sb = new StringBuilder();
+        graph.writeJSON(sb, false);
+        assertEquals(
+                "Unespected graph JSON.",
+                graph.asJsonValue().getJsonBase().asJSON().length(),
+                sb.length()
+        );
+        assertTrue(
+                "Unespected graph JSON.",
+                graph.asJsonValue().equalsTo( new StringValue( sb.toString() ).asJsonValue() ).getNativeValue()
+        );
+    }
+
 }
@@ -105,4 +105,16 @@ public class VarargsSignatureTest extends TestCase {
         }
     }
 
+    /**
+     * Tests the #tryUnify() with actual parameters size < formal parameters size.
+     */
+    public void testTryUnifyWithInsufficientActualParamters() {
+        Value[] values = new Value[] {
+            new StringValue("true"),
+            new StringValue("stringValue"),
+            new StringValue("100"),
+        };
+        assertNull( "Unespected unification.", target.tryUnify(values, null) );
+    }
+
 }
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2007-2008 Michele Mostarda ( michele.mostarda@gmail.com ).
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the 'License');
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an 'AS IS' BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package com.asemantics.mashup.processor.json;
+
+import com.asemantics.mashup.processor.BooleanValue;
+import com.asemantics.mashup.processor.ListValue;
+import com.asemantics.mashup.processor.MapValue;
+import com.asemantics.mashup.processor.NumericValue;
+import com.asemantics.mashup.processor.StringValue;
+import junit.framework.TestCase;
+
+/**
+ * Test class for {@link com.asemantics.mashup.processor.json.JsonParser}.
+ */
+public class JsonParserTest extends TestCase {
+
+    /**
+     * Tests the parsing of simple values.
+     *
+     * @throws JsonParseException
+     */
+    public void testParseSimple() throws JsonParseException {
+        assertEquals("Unespected value.", "text", ((JsonString) JsonParser.parse(" \"text\" ")).getNativeValue() );
+        assertEquals("Unespected value.", "text", ((JsonString) JsonParser.parse("'text'")).getNativeValue() );
+        assertTrue  ("Unespected value.", ((BooleanValue) JsonParser.parse("true")).getNativeValue() );
+        assertFalse ("Unespected value.", ((BooleanValue) JsonParser.parse("false")).getNativeValue() );
+        assertTrue  ("Unespected value type.", JsonParser.parse("null") instanceof JsonNull );
+        assertEquals(
+                "Unespected value.",
+                "q\"s'b\\/\b\f\n\r\t\u00e8",
+                ((JsonString) JsonParser.parse("\"q\\\"s\\'b\\\\\\/\\b\\f\\n\\r\\t\\u00E8\"")).getNativeValue()
+        );
+    }
+
+    /**
+     * Tests the parsing of numbers out of the integer range and of doubles.
+     *
+     * @throws JsonParseException
+     */
+    public void testParseNumbers() throws JsonParseException {
+        assertEquals("Unespected value.", 0.0                    , number("0") );
+        assertEquals("Unespected value.", -123456789.0           , number("-123456789") );
+        assertEquals("Unespected value.", 2147483648.0           , number("2147483648") );
+        assertEquals("Unespected value.", -9007199254740993.0    , number("-9007199254740993") );
+        assertEquals("Unespected value.", 0.1                    , number("0.1") );
+        assertEquals("Unespected value.", -2.5e-3                , number("-2.5e-3") );
+        assertEquals("Unespected value.", 1.7976931348623157E308 , number("1.7976931348623157E308") );
+        assertEquals("Unespected value.", 1e21                   , number("1E+21") );
+        assertEquals("Unespected JSON.", "2147483647"           , JsonParser.parse("2147483647").asJSON() );
+    }
+
+    /**
+     * Tests that integers beyond the precision of a double keep their exact value.
+     *
+     * @throws JsonParseException
+     */
+    public void testParseLongs() throws JsonParseException {
+        final String[] exacts = new String[] {
+                "2147483648", "9007199254740992", "9007199254740993", "-9007199254740993",
+                "9223372036854775807", "-9223372036854775808"
+        };
+        for(String exact : exacts) {
+            JsonBase json = JsonParser.parse(exact);
+            assertEquals("Unespected value.", Long.parseLong(exact), ((JsonInteger) json).longValue() );
+            assertEquals("Unespected JSON.", exact, json.asJSON() );
+        }
+        assertFalse(
+                "Unespected equality.",
+                ((NumericValue) JsonParser.parse("9007199254740993")).equals( JsonParser.parse("9007199254740992") )
+        );
+        assertEquals(
+                "Unespected hash code.",
+                new StringValue("9007199254740993").hashCode(),
+                JsonParser.parse("9007199254740993").hashCode()
+        );
+        assertEquals("Unespected value.", 9.223372036854775808E18, number("9223372036854775808") );
+
+        final NumericValue max = (NumericValue) JsonParser.parse("9223372036854775807");
+        final NumericValue min = (NumericValue) JsonParser.parse("-9223372036854775808");
+        assertEquals("Unespected comparison.", -1.0, max.comparesTo(min).getNativeValue() );
+        assertEquals("Unespected comparison.",  1.0, min.comparesTo(max).getNativeValue() );
+        assertEquals("Unespected comparison.",  0.0, max.comparesTo( max.cloneValue() ).getNativeValue() );
+    }
+
+    /**
+     * Tests the parsing of nested arrays and objects.
+     *
+     * @throws JsonParseException
+     */
+    public void testParseComplex() throws JsonParseException {
+        JsonBase json = JsonParser.parse("{ 'k1' : [ 1, [], {} ], \"k2\" : { \"k3\" : [ null ] } }");
+        assertTrue("Unespected value type.", json instanceof MapValue);
+        JsonObject object = (JsonObject) json;
+        assertEquals("Unespected size.", 2, object.size());
+        JsonArray array = (JsonArray) object.get("k1");
+        assertEquals("Unespected size.", 3, array.size());
+        assertTrue("Unespected value type.", array.get(1) instanceof ListValue);
+        assertTrue("Unespected value type.", array.get(2) instanceof MapValue);
+        assertEquals(
+                "Unespected JSON.",
+                "{\"k3\":[null]}",
+                ((JsonBase) object.get("k2")).asJSON().replace(" ", "")
+        );
+    }
+
+    /**
+     * Tests the errors of invalid inputs.
+     */
+    public void testParseErrors() {
+        final String[] invalids = new String[] {
+                "", "[1,", "{ 'k' 1 }", "{ k : 1 }", "[1 2]", "[1] [2]", "\"\\x\"", "\"\\u12\"", "-", "1.", "1e", "nul"
+        };
+        for(String invalid : invalids) {
+            try {
+                JsonParser.parse(invalid);
+                fail("Expected error for: " + invalid);
+            } catch (JsonParseException jpe) {
+                assertTrue("Unespected position.", jpe.getPosition() >= 0);
+            }
+        }
+    }
+
+    /**
+     * Parses a number.
+     *
+     * @param json number text.
+     * @return number value.
+     * @throws JsonParseException
+     */
+    private static double number(String json) throws JsonParseException {
+        return ((NumericValue) JsonParser.parse(json)).getNativeValue();
+    }
+}
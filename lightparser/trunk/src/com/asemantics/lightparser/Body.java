@@ -31,6 +31,16 @@ public class Body {
      */
     private List<List<Term>> alternatives;
 
+    /**
+     * Terms computed when the body has been frozen, <code>null</code> before.
+     */
+    private Term[][] frozenTerms;
+
+    /**
+     * <i>FIRST</i> sets of the frozen alternatives, <code>null</code> if not computed.
+     */
+    private GrammarAnalysis.FirstSet[] predictionSets;
+
     /**
      * Constructor.
      */
@@ -46,6 +56,7 @@ public class Body {
      * @return this body
      */
     public Body addNonTerminal(NonTerminal nonTerminal) {
+        checkNotFrozen();
         getPeekAlternative().add( nonTerminal );
         return this;
     }
@@ -69,6 +80,7 @@ public class Body {
      * @return this body
      */
     public Body addTerminal(Terminal terminal) {
+        checkNotFrozen();
         getPeekAlternative().add(terminal );
         return this;
     }
@@ -101,6 +113,7 @@ public class Body {
      * @return this body.
      */
     public Body addAlternative() {
+        checkNotFrozen();
         alternatives.add( new ArrayList<Term>() );
 
         return this;
@@ -121,6 +134,56 @@ public class Body {
         return result;
     }
 
+    /**
+     * Freezes the body, after that no more terms can be added.
+     */
+    protected void freeze() {
+        if( frozenTerms == null ) {
+            frozenTerms = getTerms();
+        }
+    }
+
+    /**
+     * Returns the terms used by the parser, shared among parsings if the body is frozen.
+     *
+     * @return productions as list of list of terms.
+     */
+    Term[][] getParsingTerms() {
+        return frozenTerms != null ? frozenTerms : getTerms();
+    }
+
+    /**
+     * Sets the <i>FIRST</i> sets of the alternatives, used by the parser
+     * to select the alternatives. Ignored if the body is not frozen.
+     *
+     * @param sets one set for every alternative.
+     */
+    void setPredictionSets(GrammarAnalysis.FirstSet[] sets) {
+        if( frozenTerms != null && sets.length == frozenTerms.length ) {
+            predictionSets = sets;
+        }
+    }
+
+    /**
+     * Returns the <i>FIRST</i> sets of the alternatives.
+     *
+     * @return one set for every alternative or <code>null</code> if not computed.
+     */
+    GrammarAnalysis.FirstSet[] getPredictionSets() {
+        return predictionSets;
+    }
+
+    /**
+     * Checks that this body can be modified.
+     *
+     * @throws GrammarException if body is frozen.
+     */
+    private void checkNotFrozen() {
+        if( frozenTerms != null ) {
+            throw new GrammarException("Cannot modify a frozen production body.");
+        }
+    }
+
     /**
      * Returns the last added alternative.
      * 
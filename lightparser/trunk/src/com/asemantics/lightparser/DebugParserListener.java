@@ -60,4 +60,8 @@ public class DebugParserListener implements ParserListener {
     public void productionStackOut(ProductionStack ps) {
         System.out.println("Production stack out");
     }
+
+    public void packratStatistics(PackratStatistics ps) {
+        System.out.println("Packrat statistics: " + ps);
+    }
 }
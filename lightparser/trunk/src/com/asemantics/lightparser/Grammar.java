@@ -17,6 +17,7 @@
 
 package com.asemantics.lightparser;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
@@ -37,6 +38,11 @@ public class Grammar {
      */
     private Production first;
 
+    /**
+     * If <code>true</code> the grammar cannot be modified anymore.
+     */
+    private boolean frozen;
+
     /**
      * Constructor.
      */
@@ -50,6 +56,7 @@ public class Grammar {
      * @param head the non terminal head of new production.
      */
     public Production createProduction(NonTerminal head) {
+        checkNotFrozen();
         Production production = new Production(this, head);
 
         if(first == null) {
@@ -96,12 +103,22 @@ public class Grammar {
         return result;
     }
 
+    /**
+     * Returns all the productions of this grammar.
+     *
+     * @return collection of productions.
+     */
+    Collection<Production> getProductions() {
+        return productions.values();
+    }
+
     /**
      * Merges a grammar with a sub grammar, verifying possible conflicts between production names.
      *
      * @param other the other grammar to be merged.
      */
     public void mergeWith(Grammar other) {
+        checkNotFrozen();
         Set<String> productionNames = productions.keySet();
         for(Map.Entry<String, Production> entry : other.productions.entrySet() ) {
             if(  productionNames.contains( entry.getKey() ) ) {
@@ -111,4 +128,46 @@ public class Grammar {
         }
     }
 
+    /**
+     * Makes this grammar and all its productions immutable. A frozen grammar
+     * holds no parsing state and can be shared by many parsers, also concurrently.
+     * The <i>FIRST</i> sets of the alternatives are computed at this time, so that the parser
+     * can discard without backtracking the alternatives not starting with the next token.
+     *
+     * @see com.asemantics.lightparser.GrammarUtils#findConflicts(Grammar)
+     */
+    public synchronized void freeze() {
+        if( frozen ) {
+            return;
+        }
+        for( Production production : productions.values() ) {
+            production.getBody().freeze();
+        }
+        GrammarAnalysis analysis = new GrammarAnalysis(this);
+        for( Production production : analysis.getProductions() ) {
+            production.getBody().setPredictionSets( analysis.getAlternativesFirst(production) );
+        }
+        frozen = true;
+    }
+
+    /**
+     * Returns <code>true</code> if this grammar has been frozen.
+     *
+     * @return frozen flag.
+     */
+    public synchronized boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * Checks that this grammar can be modified.
+     *
+     * @throws GrammarException if grammar is frozen.
+     */
+    private void checkNotFrozen() {
+        if( frozen ) {
+            throw new GrammarException("Cannot modify a frozen grammar.");
+        }
+    }
+
 }
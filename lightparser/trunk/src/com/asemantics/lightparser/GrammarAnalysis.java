@@ -0,0 +1,377 @@
+/*
+ * Copyright 2007-2008 Michele Mostarda ( michele.mostarda@gmail.com ).
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the 'License');
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an 'AS IS' BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.asemantics.lightparser;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Computes the <i>FIRST</i> and <i>FOLLOW</i> sets of the productions reachable
+ * from a {@link com.asemantics.lightparser.Grammar}, with one token of lookahead.
+ * The sets are used by the parser to discard the alternatives that cannot
+ * start with the next token and to report the grammar conflicts.
+ *
+ * @see com.asemantics.lightparser.GrammarUtils#findConflicts(Grammar)
+ */
+class GrammarAnalysis {
+
+    /**
+     * Defines a set of terminals that can be found at the beginning of a sequence of terms.
+     * Terminals are compared by class and content.
+     */
+    static class FirstSet {
+
+        /**
+         * Contents of the {@link com.asemantics.lightparser.DefaultTerminal}s in this set.
+         */
+        private final Set<String> defaultContents = new HashSet<String>();
+
+        /**
+         * All terminals in this set, in discovery order.
+         */
+        private final List<Terminal> terminals = new ArrayList<Terminal>();
+
+        /**
+         * Keys of the terminals in this set.
+         */
+        private final Set<String> keys = new HashSet<String>();
+
+        /**
+         * If <code>true</code> the sequence can be satisfied by no tokens
+         * or, in a <i>FOLLOW</i> set, can be followed by the end of stream.
+         */
+        private boolean nullable;
+
+        /**
+         * If <code>true</code> the sequence refers an unresolvable production
+         * and can start with any token.
+         */
+        private boolean unbound;
+
+        /**
+         * Adds a terminal to this set.
+         *
+         * @param terminal
+         * @return <code>true</code> if the set changed.
+         */
+        boolean add(Terminal terminal) {
+            if( ! keys.add( keyOf(terminal) ) ) {
+                return false;
+            }
+            terminals.add(terminal);
+            if( terminal.getClass() == DefaultTerminal.class ) {
+                defaultContents.add( terminal.getContent() );
+            }
+            return true;
+        }
+
+        /**
+         * Adds the terminals and the unbound flag of the given set to this set.
+         *
+         * @param other
+         * @return <code>true</code> if the set changed.
+         */
+        boolean addAll(FirstSet other) {
+            boolean changed = false;
+            for(Terminal terminal : other.terminals) {
+                changed |= add(terminal);
+            }
+            if( other.unbound && ! unbound ) {
+                unbound = changed = true;
+            }
+            return changed;
+        }
+
+        /**
+         * @return <code>true</code> if the sequence can be satisfied by no tokens.
+         */
+        boolean isNullable() {
+            return nullable;
+        }
+
+        /**
+         * @return <code>true</code> if the next token can be used to discard the sequence.
+         */
+        boolean isPredictive() {
+            return ! nullable && ! unbound && ! terminals.isEmpty();
+        }
+
+        /**
+         * @return the terminals in discovery order.
+         */
+        List<Terminal> getTerminals() {
+            return terminals;
+        }
+
+        /**
+         * Verifies if a token can start the sequence.
+         *
+         * @param token next token, <code>null</code> if end of stream.
+         * @return <code>true</code> if the token satisfies a terminal of this set.
+         */
+        boolean matches(Token token) {
+            if( token == null ) {
+                return false;
+            }
+            if( defaultContents.contains( token.getValue() ) ) {
+                return true;
+            }
+            for(Terminal terminal : terminals) {
+                if( terminal.getClass() == DefaultTerminal.class ) {
+                    continue;
+                }
+                try {
+                    terminal.satisfied(token);
+                    return true;
+                } catch (ParserException pe) {
+                    // Not satisfied.
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Returns the terminals shared with another set.
+         *
+         * @param other
+         * @return list of common terminals.
+         */
+        List<Terminal> intersection(FirstSet other) {
+            List<Terminal> result = new ArrayList<Terminal>();
+            for(Terminal terminal : terminals) {
+                if( other.keys.contains( keyOf(terminal) ) ) {
+                    result.add(terminal);
+                }
+            }
+            return result;
+        }
+
+        private static String keyOf(Terminal terminal) {
+            return terminal.getClass().getName() + ":" + terminal.getContent();
+        }
+    }
+
+    /**
+     * <i>FIRST</i> sets of the analysed productions.
+     */
+    private final Map<Production,FirstSet> first = new HashMap<Production,FirstSet>();
+
+    /**
+     * <i>FOLLOW</i> sets of the analysed productions.
+     */
+    private final Map<Production,FirstSet> follow = new HashMap<Production,FirstSet>();
+
+    /**
+     * <i>FIRST</i> sets of the alternatives of the analysed productions.
+     */
+    private final Map<Production,FirstSet[]> alternativesFirst = new HashMap<Production,FirstSet[]>();
+
+    /**
+     * Productions in analysis order.
+     */
+    private final Set<Production> productions = new LinkedHashSet<Production>();
+
+    /**
+     * Constructor, performs the analysis.
+     *
+     * @param grammar grammar to be analysed.
+     */
+    GrammarAnalysis(Grammar grammar) {
+        for(Production production : grammar.getProductions()) {
+            collect(production);
+        }
+        for(Production production : productions) {
+            first.put(production, new FirstSet());
+            follow.put(production, new FirstSet());
+        }
+        computeFirst();
+        if( grammar.getRootProduction() != null ) {
+            follow.get( grammar.getRootProduction() ).nullable = true;
+        }
+        computeFollow();
+        for(Production production : productions) {
+            Term[][] alternatives = production.getBody().getParsingTerms();
+            FirstSet[] sets = new FirstSet[alternatives.length];
+            for(int i = 0; i < alternatives.length; i++) {
+                sets[i] = new FirstSet();
+                firstOfSequence(production, alternatives[i], 0, sets[i]);
+            }
+            alternativesFirst.put(production, sets);
+        }
+    }
+
+    /**
+     * Returns the analysed productions.
+     *
+     * @return collection of productions.
+     */
+    Collection<Production> getProductions() {
+        return productions;
+    }
+
+    /**
+     * Returns the <i>FIRST</i> sets of the alternatives of a production.
+     *
+     * @param production
+     * @return array of sets, one for every alternative.
+     */
+    FirstSet[] getAlternativesFirst(Production production) {
+        return alternativesFirst.get(production);
+    }
+
+    /**
+     * Returns the <i>FOLLOW</i> set of a production.
+     *
+     * @param production
+     * @return follow set.
+     */
+    FirstSet getFollow(Production production) {
+        return follow.get(production);
+    }
+
+    /**
+     * Collects the productions reachable from the given one.
+     *
+     * @param production
+     */
+    private void collect(Production production) {
+        if( ! productions.add(production) ) {
+            return;
+        }
+        for(Term[] alternative : production.getBody().getParsingTerms()) {
+            for(Term term : alternative) {
+                if( term instanceof NonTerminal ) {
+                    Production target = resolve(production, (NonTerminal) term);
+                    if(target != null) {
+                        collect(target);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Resolves a non terminal as done by the parser.
+     *
+     * @param production production containing the non terminal.
+     * @param nonTerminal
+     * @return the resolved production or <code>null</code> if unresolvable.
+     */
+    private Production resolve(Production production, NonTerminal nonTerminal) {
+        try {
+            return production.getGrammar().getProduction( nonTerminal.getContent() );
+        } catch (GrammarException ge) {
+            return null;
+        }
+    }
+
+    /**
+     * Adds to <i>target</i> the <i>FIRST</i> set of a sequence of terms.
+     *
+     * @param production production containing the terms.
+     * @param terms
+     * @param from index of first term of the sequence.
+     * @param target
+     * @return <code>true</code> if the target changed.
+     */
+    private boolean firstOfSequence(Production production, Term[] terms, int from, FirstSet target) {
+        boolean changed = false;
+        for(int i = from; i < terms.length; i++) {
+            Term term = terms[i];
+            if( term instanceof Terminal ) {
+                return target.add( (Terminal) term ) | changed;
+            }
+            Production resolved = resolve(production, (NonTerminal) term);
+            if( resolved == null ) {
+                if( ! target.unbound ) {
+                    target.unbound = true;
+                    changed = true;
+                }
+                return changed;
+            }
+            FirstSet termFirst = first.get(resolved);
+            changed |= target.addAll(termFirst);
+            if( ! termFirst.nullable ) {
+                return changed;
+            }
+        }
+        if( ! target.nullable ) {
+            target.nullable = true;
+            changed = true;
+        }
+        return changed;
+    }
+
+    /**
+     * Computes the <i>FIRST</i> sets of all productions up to a fixpoint.
+     */
+    private void computeFirst() {
+        boolean changed = true;
+        while(changed) {
+            changed = false;
+            for(Production production : productions) {
+                FirstSet productionFirst = first.get(production);
+                for(Term[] alternative : production.getBody().getParsingTerms()) {
+                    changed |= firstOfSequence(production, alternative, 0, productionFirst);
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes the <i>FOLLOW</i> sets of all productions up to a fixpoint.
+     */
+    private void computeFollow() {
+        boolean changed = true;
+        while(changed) {
+            changed = false;
+            for(Production production : productions) {
+                for(Term[] alternative : production.getBody().getParsingTerms()) {
+                    for(int i = 0; i < alternative.length; i++) {
+                        if( ! (alternative[i] instanceof NonTerminal) ) {
+                            continue;
+                        }
+                        Production target = resolve(production, (NonTerminal) alternative[i]);
+                        if( target == null ) {
+                            continue;
+                        }
+                        FirstSet targetFollow = follow.get(target);
+                        FirstSet rest = new FirstSet();
+                        firstOfSequence(production, alternative, i + 1, rest);
+                        changed |= targetFollow.addAll(rest);
+                        if( rest.nullable ) {
+                            FirstSet productionFollow = follow.get(production);
+                            changed |= targetFollow.addAll(productionFollow);
+                            if( productionFollow.nullable && ! targetFollow.nullable ) {
+                                targetFollow.nullable = changed = true;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+}
@@ -20,7 +20,9 @@ package com.asemantics.lightparser;
 
 import static com.asemantics.lightparser.Tokenizer.TokenSeparator;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -51,6 +53,62 @@ public class GrammarUtils {
         return result.toArray( new TokenSeparator[ result.size() ] );
     }
 
+    /**
+     * Reports the conflicts of a grammar with one token of lookahead. A conflict is found
+     * when two alternatives of a production can start with the same terminal, or when
+     * an alternative can be satisfied by no tokens and another alternative can start with
+     * a terminal following the production. The parser selects such alternatives by backtracking.
+     *
+     * @param grammar grammar to be checked.
+     * @return descriptions of the conflicts, empty if none has been found.
+     */
+    public static String[] findConflicts(Grammar grammar) {
+        GrammarAnalysis analysis = new GrammarAnalysis(grammar);
+        List<String> conflicts = new ArrayList<String>();
+        for(Production production : analysis.getProductions()) {
+            GrammarAnalysis.FirstSet[] sets = analysis.getAlternativesFirst(production);
+            GrammarAnalysis.FirstSet follow = analysis.getFollow(production);
+            for(int i = 0; i < sets.length; i++) {
+                for(int j = i + 1; j < sets.length; j++) {
+                    List<Terminal> common = sets[i].intersection(sets[j]);
+                    if( ! common.isEmpty() ) {
+                        conflicts.add(
+                                "Production '" + production.getHead().getContent() + "': alternatives " + i +
+                                " and " + j + " can start with " + toString(common) + "."
+                        );
+                    }
+                    if( sets[i].isNullable() || sets[j].isNullable() ) {
+                        common = sets[i].isNullable() ? follow.intersection(sets[j]) : follow.intersection(sets[i]);
+                        if( ! common.isEmpty() ) {
+                            conflicts.add(
+                                    "Production '" + production.getHead().getContent() + "': alternatives " + i +
+                                    " and " + j + " conflict on the following terminals " + toString(common) + "."
+                            );
+                        }
+                    }
+                }
+            }
+        }
+        return conflicts.toArray( new String[conflicts.size()] );
+    }
+
+    /**
+     * Returns a description of a list of terminals.
+     *
+     * @param terminals
+     * @return list of terminal contents.
+     */
+    private static String toString(List<Terminal> terminals) {
+        StringBuilder sb = new StringBuilder();
+        for(Terminal terminal : terminals) {
+            if( sb.length() > 0 ) {
+                sb.append(", ");
+            }
+            sb.append('\'').append( terminal.getContent() ).append('\'');
+        }
+        return sb.toString();
+    }
+
     /**
      * find a token inside tokens list that is equal to <i>target</i> and returns it if found, <i>null</i>
      * otherwise.
@@ -0,0 +1,272 @@
+/*
+ * Copyright 2007-2008 Michele Mostarda ( michele.mostarda@gmail.com ).
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the 'License');
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an 'AS IS' BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.asemantics.lightparser;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Stack;
+
+/**
+ * Defines a {@link com.asemantics.lightparser.Tokenizer} wrapper used by the
+ * <i>packrat</i> parsing mode. It tracks the absolute position of the next token
+ * and holds the results of the productions already parsed at every position,
+ * for the duration of a single parsing.
+ *
+ * @see com.asemantics.lightparser.Parser#setPackratEnabled(boolean)
+ */
+class MemoizingTokenizer implements Tokenizer {
+
+    /**
+     * Result of a production parsed at a given position.
+     */
+    static class Entry {
+
+        /**
+         * Parsed tree node, <code>null</code> if failed.
+         */
+        final TreeNode node;
+
+        /**
+         * Satisfied alternative, <code>null</code> if failed.
+         */
+        final Term[] alternative;
+
+        /**
+         * Position of the token following the parsed ones.
+         */
+        final int end;
+
+        /**
+         * Parsing failure, <code>null</code> if succeeded.
+         */
+        final BacktrackingParserException failure;
+
+        Entry(TreeNode n, Term[] a, int e) {
+            node        = n;
+            alternative = a;
+            end         = e;
+            failure     = null;
+        }
+
+        Entry(BacktrackingParserException bpe) {
+            node        = null;
+            alternative = null;
+            end         = 0;
+            failure     = bpe;
+        }
+    }
+
+    /**
+     * Wrapped tokenizer.
+     */
+    private final Tokenizer tokenizer;
+
+    /**
+     * Absolute position of next token.
+     */
+    private int position;
+
+    /**
+     * Positions saved at the beginning of every backtracking.
+     */
+    private final Stack<Integer> positionStack = new Stack<Integer>();
+
+    /**
+     * Results of productions indexed by position.
+     */
+    private final List<Map<Production,Entry>> memo = new ArrayList<Map<Production,Entry>>();
+
+    /**
+     * Number of productions resolved by memoized results.
+     */
+    private int hits;
+
+    /**
+     * Number of productions effectively parsed.
+     */
+    private int misses;
+
+    /**
+     * Constructor.
+     *
+     * @param t wrapped tokenizer.
+     */
+    MemoizingTokenizer(Tokenizer t) {
+        tokenizer = t;
+    }
+
+    /**
+     * Returns the absolute position of next token.
+     *
+     * @return position.
+     */
+    int getPosition() {
+        return position;
+    }
+
+    /**
+     * Returns the result of a production parsed at a position.
+     *
+     * @param production parsed production.
+     * @param pos position of parsing.
+     * @return memoized entry or <code>null</code> if not present.
+     */
+    Entry lookup(Production production, int pos) {
+        Entry entry = null;
+        if( pos < memo.size() && memo.get(pos) != null ) {
+            entry = memo.get(pos).get(production);
+        }
+        if( entry == null ) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return entry;
+    }
+
+    /**
+     * Memoizes the result of a production parsed at a position.
+     *
+     * @param production parsed production.
+     * @param pos position of parsing.
+     * @param entry result of parsing.
+     */
+    void store(Production production, int pos, Entry entry) {
+        while( memo.size() <= pos ) {
+            memo.add(null);
+        }
+        Map<Production,Entry> entries = memo.get(pos);
+        if( entries == null ) {
+            entries = new HashMap<Production,Entry>();
+            memo.set(pos, entries);
+        }
+        entries.put(production, entry);
+    }
+
+    /**
+     * Moves forward to the given position, without reading again the tokens
+     * already buffered by the wrapped tokenizer.
+     *
+     * @param pos position of the next token.
+     * @throws TokenizerException
+     */
+    void seek(int pos) throws TokenizerException {
+        final int count = pos - position;
+        if( tokenizer instanceof TokenizerImpl && ((TokenizerImpl) tokenizer).advance(count) ) {
+            position = pos;
+            return;
+        }
+        for(int i = 0; i < count; i++) {
+            nextToken();
+        }
+    }
+
+    /**
+     * Returns the statistics of the current parsing.
+     *
+     * @return packrat statistics.
+     */
+    PackratStatistics getStatistics() {
+        int entries = 0;
+        for(Map<Production,Entry> positionEntries : memo) {
+            if( positionEntries != null ) {
+                entries += positionEntries.size();
+            }
+        }
+        return new PackratStatistics(hits, misses, entries);
+    }
+
+    public void setSingleQuoteEnabled(boolean b) {
+        tokenizer.setSingleQuoteEnabled(b);
+    }
+
+    public boolean isSingleQuoteEnabled() {
+        return tokenizer.isSingleQuoteEnabled();
+    }
+
+    public void setDoubleQuoteEnabled(boolean b) {
+        tokenizer.setDoubleQuoteEnabled(b);
+    }
+
+    public boolean isDoubleQuoteEnabled() {
+        return tokenizer.isDoubleQuoteEnabled();
+    }
+
+    public void setCommentBlocks(CommentBlock[] commentBlocks) {
+        tokenizer.setCommentBlocks(commentBlocks);
+    }
+
+    public void setTokenSeparators(TokenSeparator[] separators) throws TokenizerException {
+        tokenizer.setTokenSeparators(separators);
+    }
+
+    public Status getStatus() {
+        return tokenizer.getStatus();
+    }
+
+    public void tokenize(String input) throws TokenizerException {
+        tokenizer.tokenize(input);
+        position = 0;
+        positionStack.clear();
+        memo.clear();
+        hits = misses = 0;
+    }
+
+    public String getInputString() {
+        return tokenizer.getInputString();
+    }
+
+    public Token nextToken() throws TokenizerException {
+        Token token = tokenizer.nextToken();
+        if( token != null ) {
+            position++;
+        }
+        return token;
+    }
+
+    public boolean endReached() {
+        return tokenizer.endReached();
+    }
+
+    public void beginBacktrack() throws TokenizerException {
+        tokenizer.beginBacktrack();
+        positionStack.push(position);
+    }
+
+    public boolean isBacktracking() {
+        return tokenizer.isBacktracking();
+    }
+
+    public void consumeBacktrack() throws TokenizerException {
+        tokenizer.consumeBacktrack();
+        positionStack.pop();
+    }
+
+    public void rejectBacktrack() throws TokenizerException {
+        tokenizer.rejectBacktrack();
+        position = positionStack.pop();
+    }
+
+    public void close() {
+        tokenizer.close();
+    }
+
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2007-2008 Michele Mostarda ( michele.mostarda@gmail.com ).
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the 'License');
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an 'AS IS' BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.asemantics.lightparser;
+
+/**
+ * Defines the statistics of a parsing performed in <i>packrat</i> mode.
+ *
+ * @see com.asemantics.lightparser.ParserListener#packratStatistics(PackratStatistics)
+ */
+public class PackratStatistics {
+
+    /**
+     * Number of productions resolved by memoized results.
+     */
+    private final int hits;
+
+    /**
+     * Number of productions effectively parsed.
+     */
+    private final int misses;
+
+    /**
+     * Number of memoized results.
+     */
+    private final int entries;
+
+    /**
+     * Constructor.
+     *
+     * @param h number of hits.
+     * @param m number of misses.
+     * @param e number of memoized results.
+     */
+    public PackratStatistics(int h, int m, int e) {
+        hits    = h;
+        misses  = m;
+        entries = e;
+    }
+
+    /**
+     * @return number of productions resolved by memoized results.
+     */
+    public int getHits() {
+        return hits;
+    }
+
+    /**
+     * @return number of productions effectively parsed.
+     */
+    public int getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return number of memoized results.
+     */
+    public int getEntries() {
+        return entries;
+    }
+
+    public String toString() {
+        return "hits: " + hits + ", misses: " + misses + ", entries: " + entries;
+    }
+
+}
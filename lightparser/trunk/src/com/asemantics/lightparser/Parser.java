@@ -190,6 +190,24 @@ public class Parser {
             }
         }
 
+        /**
+         * Notifies the packrat statistics.
+         *
+         * @param ps
+         */
+        protected void notifyPackratStatistics(PackratStatistics ps) {
+            if( listeners ==  null) {
+                return;
+            }
+            for(ParserListener pl : listeners) {
+                try {
+                    pl.packratStatistics(ps);
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+
     }
 
     /**
@@ -198,7 +216,7 @@ public class Parser {
     private Grammar   grammar;
 
     /**
-     * The tokenizer feeding this parser.
+     * The default tokenizer feeding this parser, can be <code>null</code>.
      */
     private Tokenizer tokenizer;
 
@@ -212,6 +230,11 @@ public class Parser {
      */
     private ParserListenerNotifier notifier;
 
+    /**
+     * If <code>true</code> the results of productions are memoized.
+     */
+    private boolean packratEnabled = false;
+
     /**
      * Constructor.
      *
@@ -229,6 +252,47 @@ public class Parser {
         notifier = new ParserListenerNotifier();
     }
 
+    /**
+     * Constructor for a parser without default tokenizer, the tokenizer
+     * must be provided for every parsing. Such a parser
+     * can be used concurrently if the grammar is frozen.
+     *
+     * @param g
+     * @see com.asemantics.lightparser.Grammar#freeze()
+     */
+    public Parser(Grammar g) {
+        if(g == null) {
+            throw new IllegalArgumentException();
+        }
+
+        grammar = g;
+
+        notifier = new ParserListenerNotifier();
+    }
+
+    /**
+     * Enables or disables the <i>packrat</i> parsing mode. When enabled the result
+     * of every production parsed at a given token position is memoized for the duration
+     * of the parsing, so that backtracking never parses the same production
+     * at the same position twice. The parse tree is the same produced by the default mode,
+     * but the {@link com.asemantics.lightparser.NonTerminal} evaluation callbacks
+     * are not notified for the nested terms of memoized productions.
+     *
+     * @param b
+     */
+    public void setPackratEnabled(boolean b) {
+        packratEnabled = b;
+    }
+
+    /**
+     * Returns <code>true</code> if the packrat parsing mode is enabled.
+     *
+     * @return packrat enabled flag.
+     */
+    public boolean isPackratEnabled() {
+        return packratEnabled;
+    }
+
     /**
      * Parses a given input string returining the associated {@link ParseTree}
      * on the specified root production.
@@ -239,9 +303,31 @@ public class Parser {
      * @throws ParserException if the input string doesn't satisfy the grammar.
      */
     public ParseTree parse(Production rootProduction, String input) throws ParserException {
+        if( tokenizer == null ) {
+            throw new IllegalStateException("No default tokenizer defined for this parser.");
+        }
+        return parse(rootProduction, input, tokenizer);
+    }
+
+    /**
+     * Parses a given input string with the given tokenizer returining the associated {@link ParseTree}
+     * on the specified root production. The tokenizer holds the state of the parsing.
+     *
+     * @param rootProduction
+     * @param input
+     * @param tokenizer tokenizer used for this parsing.
+     * @return parse tree computed on given <i>input</i>.
+     * @throws ParserException if the input string doesn't satisfy the grammar.
+     */
+    public ParseTree parse(Production rootProduction, String input, Tokenizer tokenizer) throws ParserException {
 
         notifier.notifyParsingStarted();
 
+        final MemoizingTokenizer memoizingTokenizer = packratEnabled ? new MemoizingTokenizer(tokenizer) : null;
+        if( memoizingTokenizer != null ) {
+            tokenizer = memoizingTokenizer;
+        }
+
         try {
             tokenizer.tokenize(input);
         } catch (TokenizerException te) {
@@ -254,7 +340,13 @@ public class Parser {
 
         ParseTree parseTree = new ParseTree(input);
 
-        rootProduction.parse(new ProductionStack(), notifier, tokenizer, parseTree.getRoot(), null );
+        try {
+            rootProduction.parse(new ProductionStack(), notifier, tokenizer, parseTree.getRoot(), null );
+        } finally {
+            if( memoizingTokenizer != null ) {
+                notifier.notifyPackratStatistics( memoizingTokenizer.getStatistics() );
+            }
+        }
 
         // Check that the input stream has been consumed entirely.
         try {
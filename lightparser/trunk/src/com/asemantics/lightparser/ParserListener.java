@@ -84,4 +84,13 @@ public interface  ParserListener {
      */
     void productionStackOut(ProductionStack ps);
 
+    /**
+     * Packrat statistics of the current parsing,
+     * notified only if the packrat mode is enabled.
+     *
+     * @param ps
+     * @see com.asemantics.lightparser.Parser#setPackratEnabled(boolean)
+     */
+    void packratStatistics(PackratStatistics ps);
+
 }
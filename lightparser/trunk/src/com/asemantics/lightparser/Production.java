@@ -72,6 +72,15 @@ public class Production {
         return head;
     }
 
+    /**
+     * Returns the grammar used to resolve the non terminals of this production.
+     *
+     * @return owner grammar.
+     */
+    Grammar getGrammar() {
+        return grammar;
+    }
+
     /**
      * Returns the production body.
      *
@@ -99,16 +108,114 @@ public class Production {
             NonTerminal parentNonTerminal
     ) throws ParserException {
 
+        if( tokenizer instanceof MemoizingTokenizer ) {
+            parseMemoized(productionStack, notifier, (MemoizingTokenizer) tokenizer, parentNode, parentNonTerminal);
+            return;
+        }
+
         // Tree node of current parsing.
         TreeNode currentNode = new TreeNode( getHead().getContent(), getHead() );
 
+        parseAlternatives(productionStack, notifier, tokenizer, currentNode, parentNonTerminal);
+
+        // Copying children in parentNode.
+        parentNode.addChild( currentNode );
+    }
+
+    /**
+     * Performs the parsing of the current production in <i>packrat</i> mode,
+     * reusing the result memoized for the current token position if any.
+     *
+     * @param productionStack
+     * @param notifier
+     * @param tokenizer
+     * @param parentNode
+     * @param parentNonTerminal
+     * @throws ParserException
+     */
+    private void parseMemoized(
+            ProductionStack productionStack,
+            Parser.ParserListenerNotifier notifier,
+            MemoizingTokenizer tokenizer,
+            TreeNode parentNode,
+            NonTerminal parentNonTerminal
+    ) throws ParserException {
+
+        final int position = tokenizer.getPosition();
+        MemoizingTokenizer.Entry entry = tokenizer.lookup(this, position);
+
+        if( entry != null ) {
+            if( entry.failure != null ) {
+                throw entry.failure;
+            }
+            try {
+                tokenizer.seek(entry.end);
+            } catch (TokenizerException te) {
+                throw new ParserException("Error in reading token", te);
+            }
+            // The node is shared if discarded by a rejected alternative, copied if still in the tree.
+            parentNode.addChild( entry.node.getParent() == null ? entry.node : entry.node.copy() );
+            // Notifies non terminal parent of the terms of the satisfied alternative.
+            if(parentNonTerminal != null) {
+                for( Term term : entry.alternative ) {
+                    if( term instanceof Terminal ) {
+                        parentNonTerminal.addTerminal( (Terminal) term );
+                    } else {
+                        parentNonTerminal.addNonTerminal( (NonTerminal) term );
+                    }
+                }
+            }
+            return;
+        }
+
+        TreeNode currentNode = new TreeNode( getHead().getContent(), getHead() );
+        final Term[] alternative;
+        try {
+            alternative = parseAlternatives(productionStack, notifier, tokenizer, currentNode, parentNonTerminal);
+        } catch (BacktrackingParserException bpe) {
+            tokenizer.store(this, position, new MemoizingTokenizer.Entry(bpe) );
+            throw bpe;
+        }
+        tokenizer.store(
+                this,
+                position,
+                new MemoizingTokenizer.Entry(currentNode, alternative, tokenizer.getPosition())
+        );
+
+        // Copying children in parentNode.
+        parentNode.addChild( currentNode );
+    }
+
+    /**
+     * Parses the alternatives of the production body adding the terms
+     * of the first satisfied alternative to the given node.
+     *
+     * @param productionStack
+     * @param notifier
+     * @param tokenizer
+     * @param currentNode tree node of current parsing.
+     * @param parentNonTerminal
+     * @return the satisfied alternative.
+     * @throws ParserException
+     */
+    private Term[] parseAlternatives(
+            ProductionStack productionStack,
+            Parser.ParserListenerNotifier notifier,
+            Tokenizer tokenizer,
+            TreeNode currentNode,
+            NonTerminal parentNonTerminal
+    ) throws ParserException {
+
         Token token          = null;
         int alternativeIndex = 0;
 
         Token mostAheadToken = null;
         Terminal unsatisfiedTerminal = null;
 
-        Term[][] alternatives = getBody().getTerms();
+        Term[][] alternatives = getBody().getParsingTerms();
+        GrammarAnalysis.FirstSet[] predictionSets = getBody().getPredictionSets();
+        Token lookahead       = null;
+        boolean lookaheadRead = false;
         for( int alternativesIndex = 0; alternativesIndex < alternatives.length; alternativesIndex++  ) {
             Term[] alternative = alternatives[alternativesIndex];
 
@@ -120,6 +227,26 @@ public class Production {
                 throw new ParserException("End of stream has been reached.");
             }
 
+            // Discards without backtracking the alternative that cannot start with the next token.
+            if( predictionSets != null && predictionSets[alternativesIndex].isPredictive() ) {
+                if( ! lookaheadRead ) {
+                    lookahead     = peekToken(tokenizer);
+                    lookaheadRead = true;
+                }
+                if( ! predictionSets[alternativesIndex].matches(lookahead) ) {
+                    if(
+                            mostAheadToken == null
+                                    ||
+                            ( lookahead != null && lookahead.compareTo( mostAheadToken ) > 0 )
+                    ) {
+                        mostAheadToken      = lookahead;
+                        unsatisfiedTerminal = predictionSets[alternativesIndex].getTerminals().get(0);
+                    }
+                    alternativeIndex++;
+                    continue;
+                }
+            }
+
             // Begin backtrack.
             try {
                 tokenizer.beginBacktrack();
@@ -228,10 +355,7 @@ public class Production {
             }
             notifier.notifyBaktrackingConsumed(productionStack);
 
-            // Copying children in parentNode.
-            parentNode.addChild( currentNode );
-
-            return;
+            return alternative;
         }
 
         // Cannot satisfy the current production.
@@ -241,6 +365,26 @@ public class Production {
 
     }
 
+    /**
+     * Returns the next token without consuming it.
+     *
+     * @param tokenizer
+     * @return next token or <code>null</code> if end of stream.
+     * @throws ParserException
+     */
+    private Token peekToken(Tokenizer tokenizer) throws ParserException {
+        try {
+            tokenizer.beginBacktrack();
+            try {
+                return tokenizer.nextToken();
+            } finally {
+                tokenizer.rejectBacktrack();
+            }
+        } catch (TokenizerException te) {
+            throw new ParserException("Error in reading token", te);
+        }
+    }
+
     public String toString() {
         return "Production: " + head;
     }
@@ -18,7 +18,8 @@
 
 package com.asemantics.lightparser;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Stack;
 
 /**
@@ -60,7 +61,7 @@ public class TokenizerImpl implements Tokenizer {
     /**
      * List of tokens cumulated during transaction.
      */
-    private LinkedList<Token> tokensQueue;
+    private ArrayList<Token> tokensQueue;
 
     /**
      * Stack of queue indexes used to implement nested
@@ -122,7 +123,7 @@ public class TokenizerImpl implements Tokenizer {
         setCommentBlocks(cb);
         setTokenSeparators(cs);
 
-        tokensQueue = new LinkedList<Token>();
+        tokensQueue = new ArrayList<Token>();
         wordBuffer  = new StringBuilder();
 
         // Intialized queue index stack.
@@ -263,7 +264,7 @@ public class TokenizerImpl implements Tokenizer {
             }
 
             if( Status.TRANSACTION.equals(status) || Status.DONE.equals(status) ) {
-                tokensQueue.addLast(token);
+                tokensQueue.add(token);
                 incrementCurrentIndex();
 
                 if(DEBUG) {
@@ -352,6 +353,25 @@ public class TokenizerImpl implements Tokenizer {
         return status;
     }
 
+    /**
+     * Moves forward of <i>count</i> tokens if they are all queued,
+     * with the same effect of as many {@link #nextToken()} invocations.
+     *
+     * @param count number of tokens to skip.
+     * @return <code>true</code> if skipped, <code>false</code> if the tokens
+     *         must be read with {@link #nextToken()}.
+     */
+    boolean advance(int count) {
+        if( Status.DONE.equals(status) || getCurrentIndex() + count > tokensQueue.size() ) {
+            return false;
+        }
+        if( Status.READY.equals(status) ) {
+            status = Status.PARSING;
+        }
+        setCurrentIndex( getCurrentIndex() + count );
+        return true;
+    }
+
     private boolean pushCurrentIndex() {
         int current = queueIndexStack.peek();
         queueIndexStack.push(current);
@@ -518,15 +538,13 @@ public class TokenizerImpl implements Tokenizer {
      * @param queueIndex
      */
     private void removeAcceptedTokens(final int queueIndex) {
-        for(int i = 0; i < queueIndex; i++) {
-            if( tokensQueue.isEmpty() ) {
-                return;
-            }
-            Object o = tokensQueue.removeFirst();
-            if(DEBUG) {
-                log("REMOVED FROM QUEUE: " + o);
+        final List<Token> accepted = tokensQueue.subList(0, Math.min(queueIndex, tokensQueue.size()));
+        if(DEBUG) {
+            for(Token t : accepted) {
+                log("REMOVED FROM QUEUE: " + t);
             }
         }
+        accepted.clear();
     }
 
     /**
@@ -248,10 +248,31 @@ public class TreeNode {
     }
 
     /**
-     * Removes all children from this node.
+     * Returns a deep copy of this node without parent.
+     *
+     * @return copy of the subtree rooted in this node.
+     */
+    protected TreeNode copy() {
+        TreeNode copy = new TreeNode(name, term, location);
+        if( children != null ) {
+            copy.children = new ArrayList<TreeNode>( children.size() );
+            for(TreeNode child : children) {
+                TreeNode childCopy = child.copy();
+                childCopy.parent = copy;
+                copy.children.add(childCopy);
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Removes all children from this node, detaching them.
      */
     public void clear() {
         if(children  != null) {
+            for(TreeNode child : children) {
+                child.parent = null;
+            }
             children.clear();
         }
     }
@@ -67,6 +67,29 @@ public class GrammarTest extends TestCase {
         assertEquals("Wrong first production", PRODUCTION_HEAD, grammar.getRootProduction().getHead().getContent() );
     }
 
+    /**
+     * Tests that a frozen grammar cannot be modified.
+     */
+    public void testFreeze() {
+        Grammar grammar = new Grammar();
+        populateGrammar(grammar);
+        grammar.freeze();
+        assertTrue("Expected frozen grammar.", grammar.isFrozen());
+        try {
+            grammar.createProduction("other");
+            fail("Expected exception.");
+        } catch (GrammarException ge) {
+            // OK.
+        }
+        try {
+            grammar.getProduction(PRODUCTION_HEAD).getBody().addTerminal("terminal4");
+            fail("Expected exception.");
+        } catch (GrammarException ge) {
+            // OK.
+        }
+        assertEquals("Unespected alternatives.", 1, grammar.getProduction(PRODUCTION_HEAD).getBody().getTerms().length);
+    }
+
 
 
 }
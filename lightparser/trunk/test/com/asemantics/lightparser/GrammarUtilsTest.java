@@ -60,4 +60,36 @@ public class GrammarUtilsTest extends TestCase{
             // OK.
         }
     }
+
+    public void testFindConflicts() {
+        Grammar grammar = new Grammar();
+        GrammarTest.populateGrammar(grammar);
+        assertEquals("Unespected conflicts.", 0, GrammarUtils.findConflicts(grammar).length);
+
+        grammar.createProduction("list")
+                .getBody()
+                    .addTerminal("x")
+                    .addNonTerminal("list")
+                .addAlternative()
+                    .addTerminal("x");
+        grammar.createProduction("optional")
+                .getBody()
+                    .addTerminal("y")
+                .addAlternative();
+        grammar.createProduction("sequence")
+                .getBody()
+                    .addNonTerminal("optional")
+                    .addTerminal("y");
+
+        String[] conflicts = GrammarUtils.findConflicts(grammar);
+        assertEquals("Unespected conflicts.", 2, conflicts.length);
+        for(String conflict : conflicts) {
+            assertTrue(
+                    "Unespected conflict: " + conflict,
+                    conflict.contains("'list'") && conflict.contains("'x'")
+                            ||
+                    conflict.contains("'optional'") && conflict.contains("'y'")
+            );
+        }
+    }
 }
@@ -196,6 +196,85 @@ public class ParserTest extends TestCase {
         }
     }
 
+    /**
+     * Tests that the packrat mode produces the same parse tree
+     * of the default mode reusing the memoized productions.
+     *
+     * @throws ParserException
+     */
+    public void testPackratParsing() throws ParserException {
+        final String input = "x y x y b";
+
+        Grammar grammar = new Grammar();
+        grammar.createProduction("root")
+                .getBody()
+                    .addNonTerminal("prefix")
+                    .addTerminal("a")
+                .addAlternative()
+                    .addNonTerminal("prefix")
+                    .addTerminal("b");
+
+        grammar.createProduction("prefix")
+                .getBody()
+                    .addTerminal("x")
+                    .addTerminal("y")
+                    .addNonTerminal("prefix")
+                .addAlternative()
+                    .addTerminal("x")
+                    .addTerminal("y");
+
+        Parser parser = new Parser( grammar, tokenizer );
+        ParseTree expected = parser.parse(input);
+        assertFalse("Unespected packrat mode.", parser.isPackratEnabled());
+
+        final PackratStatistics[] statistics = new PackratStatistics[1];
+        parser.setPackratEnabled(true);
+        parser.addParserListener(
+            new DebugParserListener() {
+                @Override
+                public void packratStatistics(PackratStatistics ps) {
+                    statistics[0] = ps;
+                }
+        } );
+        ParseTree pt = parser.parse(input);
+
+        assertEquals("Unespected parse tree.", expected.toString(), pt.toString());
+        assertEquals("Unespected number of terminals.", 5, pt.getTerminalNodes().length);
+        assertNotNull("Expected statistics.", statistics[0]);
+        assertTrue("Expected memoized results.", statistics[0].getEntries() > 0);
+        assertTrue("Expected memoization hits.", statistics[0].getHits() > 0);
+        assertParentsConsistent(pt);
+    }
+
+    /**
+     * Tests that a frozen grammar selects the alternatives on the next token
+     * producing the same parse tree and errors of the backtracking parsing.
+     *
+     * @throws ParserException
+     */
+    public void testPredictiveParsing() throws ParserException {
+        final String input = "terminal1 terminal2 terminal3 terminal4 terminal5";
+
+        ParseTree expected = new Parser( createNestedBTGrammar(), tokenizer ).parse(input);
+
+        Grammar grammar = createNestedBTGrammar();
+        grammar.freeze();
+        Parser parser = new Parser( grammar, tokenizer );
+        ParseTree pt = parser.parse(input);
+        assertEquals("Unespected parse tree.", expected.toString(), pt.toString());
+
+        Grammar errorGrammar = new Grammar();
+        GrammarTest.populateGrammar( errorGrammar );
+        errorGrammar.freeze();
+        try {
+            new Parser( errorGrammar, tokenizer ).parse("terminal2 terminal3 terminalXXX");
+            fail("Expected exception");
+        } catch (BacktrackingParserException bpe) {
+            assertTrue( bpe.getMessage().contains("20") );
+            assertTrue( bpe.getMessage().contains("terminal1") );
+        }
+    }
+
     /**
      * Creates a simple backtracking grammar.
      *
@@ -310,4 +389,17 @@ public class ParserTest extends TestCase {
         return grammar;
     }
 
+    /**
+     * Verifies that every node of the subtree is child of its parent,
+     * so that no memoized node is shared between two positions of the tree.
+     *
+     * @param node root of the subtree.
+     */
+    private void assertParentsConsistent(TreeNode node) {
+        for(TreeNode child : node.getChildren()) {
+            assertSame("Unespected parent.", node, child.getParent());
+            assertParentsConsistent(child);
+        }
+    }
+
 }